@@ -19,6 +19,7 @@ package org.apache.phoenix.end2end;
 
 import static org.apache.phoenix.util.TestUtil.TEST_PROPERTIES;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
@@ -29,6 +30,7 @@ import java.util.Properties;
 
 import org.apache.hadoop.hbase.client.Consistency;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.jdbc.PhoenixResultSet;
 import org.apache.phoenix.util.PhoenixRuntime;
 import org.apache.phoenix.util.PropertiesUtil;
 import org.apache.phoenix.util.QueryUtil;
@@ -86,4 +88,31 @@ public class AlterSessionIT extends ParallelStatsDisabledIT {
             conn.close();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testHedgedPointLookups() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl() + PhoenixRuntime.JDBC_PROTOCOL_TERMINATOR +
+                    PhoenixRuntime.HEDGED_POINT_LOOKUPS_ATTRIB + "=true", props)) {
+            assertTrue(((PhoenixConnection)conn).isHedgedPointLookups());
+            Statement st = conn.createStatement();
+            // Only single row point lookups are hedged
+            ResultSet rs = st.executeQuery("explain select * from " + tableName + " where col1 = 'a'");
+            assertTrue(QueryUtil.getExplainPlan(rs).indexOf("TIMELINE") > 0);
+            rs = st.executeQuery("explain select * from " + tableName + " where col1 in ('a', 'b')");
+            assertTrue(QueryUtil.getExplainPlan(rs).indexOf("TIMELINE") < 0);
+            rs = st.executeQuery("explain select * from " + tableName);
+            assertTrue(QueryUtil.getExplainPlan(rs).indexOf("TIMELINE") < 0);
+            // Hedged lookups read through their own HConnection, and are only stale when a replica answered
+            rs = st.executeQuery("select * from " + tableName + " where col1 = 'a'");
+            while (rs.next()) {
+            }
+            assertFalse(rs.unwrap(PhoenixResultSet.class).isStale());
+
+            st.execute("alter session set HedgedPointLookups = 'false'");
+            assertFalse(((PhoenixConnection)conn).isHedgedPointLookups());
+            rs = st.executeQuery("explain select * from " + tableName + " where col1 = 'a'");
+            assertTrue(QueryUtil.getExplainPlan(rs).indexOf("TIMELINE") < 0);
+        }
+    }
+}
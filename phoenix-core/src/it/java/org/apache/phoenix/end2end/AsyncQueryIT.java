@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.jdbc.PhoenixPreparedStatement;
+import org.apache.phoenix.jdbc.PhoenixResultSet;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+
+public class AsyncQueryIT extends ParallelStatsDisabledIT {
+    private static final int NUM_ROWS = 100;
+
+    private static String createTable(Connection conn) throws SQLException {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k INTEGER NOT NULL PRIMARY KEY, v VARCHAR) SPLIT ON (25, 50, 75)");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?)");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            stmt.setInt(1, i);
+            stmt.setString(2, "v" + i);
+            stmt.execute();
+        }
+        conn.commit();
+        return tableName;
+    }
+
+    @Test
+    public void testExecuteQueryAsync() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            List<ListenableFuture<PhoenixResultSet>> futures = Lists.newArrayList();
+            List<PhoenixStatement> stmts = Lists.newArrayList();
+            for (int i = 0; i < 10; i++) {
+                PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+                stmts.add(stmt);
+                futures.add(stmt.executeQueryAsync("SELECT k, v FROM " + tableName + " WHERE k >= " + i * 10 + " ORDER BY k"));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                PhoenixResultSet rs = futures.get(i).get();
+                for (int k = i * 10; k < NUM_ROWS; k++) {
+                    assertTrue(rs.next());
+                    assertEquals(k, rs.getInt(1));
+                    assertEquals("v" + k, rs.getString(2));
+                }
+                assertFalse(rs.next());
+                stmts.get(i).close();
+            }
+        }
+    }
+
+    @Test
+    public void testNextBatchAsync() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            PhoenixPreparedStatement stmt = conn.prepareStatement("SELECT k FROM " + tableName + " WHERE k < ? ORDER BY k")
+                    .unwrap(PhoenixPreparedStatement.class);
+            stmt.setInt(1, 50);
+            PhoenixResultSet rs = stmt.executeQueryAsync().get();
+            int k = 0;
+            int count;
+            do {
+                count = rs.nextBatchAsync(7).get();
+                for (int i = 0; i < count; i++) {
+                    assertTrue(rs.next());
+                    assertEquals(k++, rs.getInt(1));
+                }
+            } while (count == 7);
+            assertEquals(50, k);
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testChainedAndInterleavedFetches() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+            PhoenixResultSet rs = stmt.executeQueryAsync("SELECT k FROM " + tableName + " ORDER BY k").get();
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+            // Rows are returned in order whether they were fetched ahead or not
+            ListenableFuture<Integer> first = rs.nextBatchAsync(10);
+            ListenableFuture<Integer> second = rs.nextBatchAsync(10);
+            int k = 1;
+            for (; k < 5; k++) {
+                assertTrue(rs.next());
+                assertEquals(k, rs.getInt(1));
+            }
+            assertEquals(10, first.get().intValue());
+            assertEquals(10, second.get().intValue());
+            for (; k < NUM_ROWS; k++) {
+                assertTrue(rs.next());
+                assertEquals(k, rs.getInt(1));
+            }
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testAsyncQueryFailure() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+            try {
+                stmt.executeQueryAsync("SELECT * FROM " + generateUniqueName()).get();
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals(SQLExceptionCode.TABLE_UNDEFINED.getErrorCode(), ((SQLException)e.getCause()).getErrorCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.phoenix.jdbc.PhoenixResultSet;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests that asynchronous queries more numerous than the threads running the parallel scans
+ * complete, as they would deadlock if they waited on their scans from those threads.
+ */
+public class AsyncQueryWithFullThreadPoolIT extends BaseUniqueNamesOwnClusterIT {
+    private static final int THREAD_POOL_SIZE = 4;
+    private static final int NUM_QUERIES = 4 * THREAD_POOL_SIZE;
+    private static final int NUM_ROWS = 100;
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(2);
+        props.put(QueryServices.THREAD_POOL_SIZE_ATTRIB, Integer.toString(THREAD_POOL_SIZE));
+        props.put(QueryServices.ASYNC_THREAD_POOL_SIZE_ATTRIB, Integer.toString(NUM_QUERIES / 2));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+    }
+
+    private static String createTable(Connection conn) throws SQLException {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k INTEGER NOT NULL PRIMARY KEY, v VARCHAR) SPLIT ON (25, 50, 75)");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?)");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            stmt.setInt(1, i);
+            stmt.setString(2, "v" + i);
+            stmt.execute();
+        }
+        conn.commit();
+        return tableName;
+    }
+
+    private static void assertQueriesComplete(List<ListenableFuture<PhoenixResultSet>> futures) throws Exception {
+        for (ListenableFuture<PhoenixResultSet> future : futures) {
+            PhoenixResultSet rs = future.get(60, TimeUnit.SECONDS);
+            assertEquals(NUM_ROWS, rs.nextBatchAsync(2 * NUM_ROWS).get(60, TimeUnit.SECONDS).intValue());
+            for (int k = 0; k < NUM_ROWS; k++) {
+                assertTrue(rs.next());
+                assertEquals(k, rs.getInt(1));
+            }
+            assertFalse(rs.next());
+            rs.close();
+        }
+    }
+
+    @Test
+    public void testAsyncQueriesDontTakeScanThreads() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            List<ListenableFuture<PhoenixResultSet>> futures = Lists.newArrayList();
+            for (int i = 0; i < NUM_QUERIES; i++) {
+                PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+                futures.add(stmt.executeQueryAsync("SELECT k FROM " + tableName + " ORDER BY k"));
+            }
+            assertQueriesComplete(futures);
+        }
+    }
+
+    @Test
+    public void testAsyncQueriesOnCallerExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_QUERIES);
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            List<ListenableFuture<PhoenixResultSet>> futures = Lists.newArrayList();
+            for (int i = 0; i < NUM_QUERIES; i++) {
+                PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+                futures.add(stmt.executeQueryAsync("SELECT k FROM " + tableName + " ORDER BY k", executor));
+            }
+            assertQueriesComplete(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
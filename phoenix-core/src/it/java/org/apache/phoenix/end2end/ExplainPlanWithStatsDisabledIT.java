@@ -20,12 +20,19 @@ package org.apache.phoenix.end2end;
 import static org.apache.phoenix.end2end.ExplainPlanWithStatsEnabledIT.getByteRowEstimates;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
 import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.util.QueryUtil;
 import org.apache.phoenix.util.ReadOnlyProps;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -196,6 +203,50 @@ public class ExplainPlanWithStatsDisabledIT extends ParallelStatsDisabledIT {
         }
     }
 
+    @Test
+    public void testExplainAnalyze() throws Exception {
+        String sql = "EXPLAIN ANALYZE SELECT * FROM " + tableA + " WHERE c1.a = 2 ORDER BY c2.b LIMIT 3";
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String plan = QueryUtil.getExplainPlan(conn.createStatement().executeQuery(sql));
+            assertTrue(plan, plan.contains("EXECUTION PROFILE: 3 ROWS IN "));
+            assertTrue(plan, plan.contains("ScanPlan OVER " + tableA + ": 3 ROWS IN "));
+            assertTrue(plan, plan.contains("SERVER METRICS FOR " + tableA + ":"));
+            assertTrue(plan, plan.contains("COUNT_ROWS_SCANNED="));
+            try {
+                conn.createStatement().executeQuery("EXPLAIN ANALYZE DELETE FROM " + tableA);
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.EXPLAIN_ANALYZE_NOT_SUPPORTED.getErrorCode(), e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testExplainAnalyzeExecutesOnlyOnExecute() throws Exception {
+        String tableName = generateUniqueName();
+        String sequenceName = generateUniqueName();
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            conn.createStatement().execute("CREATE TABLE " + tableName + " (k INTEGER PRIMARY KEY, v INTEGER)");
+            conn.createStatement().execute("CREATE SEQUENCE " + sequenceName);
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES (1, 1)");
+            conn.commit();
+            // Getting the meta data of the statement only compiles the query
+            PreparedStatement stmt = conn.prepareStatement("EXPLAIN ANALYZE SELECT NEXT VALUE FOR " + sequenceName
+                    + " FROM " + tableName);
+            assertEquals(3, stmt.getMetaData().getColumnCount());
+            stmt.getParameterMetaData();
+            ResultSet rs = conn.createStatement().executeQuery("SELECT NEXT VALUE FOR " + sequenceName + " FROM " + tableName);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getLong(1));
+            // The uncommitted rows are sent before the query is executed
+            conn.setAutoCommit(false);
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES (2, 2)");
+            String plan = QueryUtil.getExplainPlan(conn.createStatement().executeQuery(
+                    "EXPLAIN ANALYZE SELECT * FROM " + tableName));
+            assertTrue(plan, plan.contains("EXECUTION PROFILE: 2 ROWS IN "));
+        }
+    }
+
     private void assertEstimatesAreNull(String sql, List<Object> binds, Connection conn)
             throws Exception {
         Pair<Long, Long> info = getByteRowEstimates(conn, sql, binds);
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.QueryUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.apache.phoenix.util.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class GraceHashJoinIT extends BaseUniqueNamesOwnClusterIT {
+    private static final int LHS_ROWS = 1000;
+    private static final int RHS_ROWS = 500;
+
+    private static String lhsTable;
+    private static String rhsTable;
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(3);
+        // Small enough for the right hand side not to fit in a hash cache nor in memory
+        props.put(QueryServices.MAX_SERVER_CACHE_SIZE_ATTRIB, Integer.toString(5000));
+        props.put(QueryServices.GRACE_HASH_JOIN_MAX_MEMORY_BYTES_ATTRIB, Integer.toString(5000));
+        props.put(QueryServices.GRACE_HASH_JOIN_PARTITIONS_ATTRIB, Integer.toString(4));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+        lhsTable = generateUniqueName();
+        rhsTable = generateUniqueName();
+        Properties connProps = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), connProps)) {
+            conn.createStatement().execute("CREATE TABLE " + lhsTable + " (id INTEGER NOT NULL PRIMARY KEY, rid INTEGER, name VARCHAR)");
+            conn.createStatement().execute("CREATE TABLE " + rhsTable + " (id INTEGER NOT NULL PRIMARY KEY, val VARCHAR)");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + lhsTable + " VALUES (?, ?, ?)");
+            for (int i = 0; i < LHS_ROWS; i++) {
+                stmt.setInt(1, i);
+                // Rows with a rid of RHS_ROWS or more have no match on the right hand side
+                stmt.setInt(2, i % 600);
+                stmt.setString(3, "n" + i);
+                stmt.execute();
+            }
+            stmt = conn.prepareStatement("UPSERT INTO " + rhsTable + " VALUES (?, ?)");
+            for (int i = 0; i < RHS_ROWS; i++) {
+                stmt.setInt(1, i);
+                stmt.setString(2, "v" + i);
+                stmt.execute();
+            }
+            conn.commit();
+        }
+    }
+
+    private static List<String> getRows(Connection conn, String query) throws Exception {
+        List<String> rows = Lists.newArrayList();
+        ResultSet rs = conn.createStatement().executeQuery(query);
+        int columnCount = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 1; i <= columnCount; i++) {
+                buf.append(rs.getString(i)).append(',');
+            }
+            rows.add(buf.toString());
+        }
+        return rows;
+    }
+
+    private static void assertSameAsSortMergeJoin(String query, int expectedRowCount) throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String graceHashJoinQuery = String.format(query, "/*+ USE_GRACE_HASH_JOIN */");
+            ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + graceHashJoinQuery);
+            assertTrue(QueryUtil.getExplainPlan(rs).contains("GRACE-HASH-JOIN"));
+            List<String> rows = getRows(conn, graceHashJoinQuery);
+            assertEquals(expectedRowCount, rows.size());
+            assertEquals(getRows(conn, String.format(query, "/*+ USE_SORT_MERGE_JOIN */")), rows);
+        }
+    }
+
+    @Test
+    public void testInnerJoin() throws Exception {
+        assertSameAsSortMergeJoin("SELECT %s l.id, l.name, r.val FROM " + lhsTable + " l JOIN " + rhsTable
+                + " r ON l.rid = r.id ORDER BY l.id", 900);
+    }
+
+    @Test
+    public void testLeftJoin() throws Exception {
+        assertSameAsSortMergeJoin("SELECT %s l.id, r.id, r.val FROM " + lhsTable + " l LEFT JOIN " + rhsTable
+                + " r ON l.rid = r.id ORDER BY l.id", LHS_ROWS);
+    }
+
+    @Test
+    public void testRightJoin() throws Exception {
+        assertSameAsSortMergeJoin("SELECT %s l.id, r.id FROM " + lhsTable + " l RIGHT JOIN " + rhsTable
+                + " r ON l.rid = r.id ORDER BY r.id, l.id", 900);
+    }
+
+    @Test
+    public void testSemiJoin() throws Exception {
+        assertSameAsSortMergeJoin("SELECT %s id FROM " + lhsTable + " WHERE rid IN (SELECT id FROM " + rhsTable
+                + " WHERE val LIKE 'v1%') ORDER BY id", 222);
+    }
+
+    @Test
+    public void testAntiJoin() throws Exception {
+        assertSameAsSortMergeJoin("SELECT %s id FROM " + lhsTable + " l WHERE NOT EXISTS (SELECT 1 FROM " + rhsTable
+                + " r WHERE r.id = l.rid) ORDER BY id", 100);
+    }
+
+    @Test
+    public void testFallbackWhenHashCacheTooBig() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String query = "SELECT l.id, r.val FROM " + lhsTable + " l JOIN " + rhsTable + " r ON l.rid = r.id";
+            ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+            assertTrue(QueryUtil.getExplainPlan(rs).contains("PARALLEL INNER-JOIN"));
+            rs = conn.createStatement().executeQuery(query);
+            int count = 0;
+            while (rs.next()) {
+                assertEquals("v" + (rs.getInt(1) % 600), rs.getString(2));
+                count++;
+            }
+            assertEquals(900, count);
+        }
+    }
+}
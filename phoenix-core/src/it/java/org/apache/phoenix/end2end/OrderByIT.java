@@ -37,6 +37,7 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Properties;
 
 import org.apache.phoenix.util.PropertiesUtil;
@@ -1086,4 +1087,40 @@ public class OrderByIT extends ParallelStatsDisabledIT {
         assertTrue(!rs.next());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testTopNAcrossManyScans() throws Exception {
+        String tableName = generateUniqueName();
+        Properties props = PropertiesUtil.deepCopy(TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            conn.createStatement().execute("CREATE TABLE " + tableName
+                    + " (k INTEGER NOT NULL PRIMARY KEY, v INTEGER) SALT_BUCKETS=8");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?)");
+            for (int i = 0; i < 200; i++) {
+                stmt.setInt(1, i);
+                if (i % 50 == 0) {
+                    stmt.setNull(2, Types.INTEGER);
+                } else {
+                    stmt.setInt(2, (i * 37) % 200);
+                }
+                stmt.execute();
+            }
+            conn.commit();
+            // The scans of each salt bucket may be sent the n-th value of the buckets scanned before them
+            assertTopN(conn, "SELECT v FROM " + tableName + " ORDER BY v NULLS LAST LIMIT 5", "1,2,3,4,5,");
+            assertTopN(conn, "SELECT v FROM " + tableName + " ORDER BY v DESC NULLS LAST LIMIT 5", "199,198,197,196,195,");
+            assertTopN(conn, "SELECT v FROM " + tableName + " ORDER BY v NULLS FIRST LIMIT 5 OFFSET 2",
+                    "null,null,1,2,3,");
+            assertTopN(conn, "SELECT v FROM " + tableName + " ORDER BY v DESC NULLS LAST, k LIMIT 3 OFFSET 195",
+                    "1,null,null,");
+        }
+    }
+
+    private static void assertTopN(Connection conn, String query, String expected) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery(query);
+        StringBuilder buf = new StringBuilder();
+        while (rs.next()) {
+            buf.append(rs.getString(1)).append(',');
+        }
+        assertEquals(expected, buf.toString());
+    }
+}
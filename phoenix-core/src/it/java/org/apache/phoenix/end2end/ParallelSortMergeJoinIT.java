@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.apache.phoenix.util.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class ParallelSortMergeJoinIT extends BaseUniqueNamesOwnClusterIT {
+    private static final int LHS_ROWS = 300;
+    private static final int RHS_ROWS = 200;
+
+    private static String lhsTable;
+    private static String rhsTable;
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(4);
+        // Small partitions so that each query is split into many of them
+        props.put(QueryServices.SORT_MERGE_JOIN_PARALLELISM_ATTRIB, Integer.toString(4));
+        props.put(QueryServices.SORT_MERGE_JOIN_PARTITION_ROWS_ATTRIB, Integer.toString(7));
+        // Spool partitions to disk and limit those in flight by their size rather than the parallelism
+        props.put(QueryServices.SPOOL_THRESHOLD_BYTES_ATTRIB, Integer.toString(256));
+        props.put(QueryServices.SORT_MERGE_JOIN_MAX_MEMORY_BYTES_ATTRIB, Integer.toString(1024));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+        lhsTable = generateUniqueName();
+        rhsTable = generateUniqueName();
+        Properties connProps = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), connProps)) {
+            conn.createStatement().execute("CREATE TABLE " + lhsTable + " (id INTEGER NOT NULL PRIMARY KEY, k INTEGER, name VARCHAR)");
+            conn.createStatement().execute("CREATE TABLE " + rhsTable + " (id INTEGER NOT NULL PRIMARY KEY, k INTEGER, val VARCHAR)");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + lhsTable + " VALUES (?, ?, ?)");
+            for (int i = 0; i < LHS_ROWS; i++) {
+                stmt.setInt(1, i);
+                // Keys from 0 to 99, each on three rows, with every tenth key null
+                if (i % 10 == 0) {
+                    stmt.setNull(2, Types.INTEGER);
+                } else {
+                    stmt.setInt(2, i % 100);
+                }
+                stmt.setString(3, "n" + i);
+                stmt.execute();
+            }
+            stmt = conn.prepareStatement("UPSERT INTO " + rhsTable + " VALUES (?, ?, ?)");
+            for (int i = 0; i < RHS_ROWS; i++) {
+                stmt.setInt(1, i);
+                // Keys from 50 to 149, each on two rows
+                stmt.setInt(2, 50 + i % 100);
+                stmt.setString(3, "v" + i);
+                stmt.execute();
+            }
+            conn.commit();
+        }
+    }
+
+    private static List<String> getRows(Connection conn, String query) throws Exception {
+        List<String> rows = Lists.newArrayList();
+        ResultSet rs = conn.createStatement().executeQuery(query);
+        int columnCount = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 1; i <= columnCount; i++) {
+                buf.append(rs.getString(i)).append(',');
+            }
+            rows.add(buf.toString());
+        }
+        return rows;
+    }
+
+    private static void assertSameAsHashJoin(String query, int expectedRowCount) throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            List<String> rows = getRows(conn, String.format(query, "/*+ USE_SORT_MERGE_JOIN */"));
+            assertEquals(expectedRowCount, rows.size());
+            assertEquals(getRows(conn, String.format(query, "")), rows);
+        }
+    }
+
+    @Test
+    public void testInnerJoin() throws Exception {
+        // Keys 50 to 99 except the null ones, three rows on the left and two on the right each
+        assertSameAsHashJoin("SELECT %s l.id, r.id, r.val FROM " + lhsTable + " l JOIN " + rhsTable
+                + " r ON l.k = r.k ORDER BY l.id, r.id", 45 * 3 * 2);
+    }
+
+    @Test
+    public void testLeftJoin() throws Exception {
+        assertSameAsHashJoin("SELECT %s l.id, r.id FROM " + lhsTable + " l LEFT JOIN " + rhsTable
+                + " r ON l.k = r.k ORDER BY l.id, r.id", 45 * 3 * 2 + LHS_ROWS - 45 * 3);
+    }
+
+    @Test
+    public void testSemiJoin() throws Exception {
+        assertSameAsHashJoin("SELECT %s id FROM " + lhsTable + " WHERE k IN (SELECT k FROM " + rhsTable
+                + ") ORDER BY id", 45 * 3);
+    }
+
+    @Test
+    public void testAntiJoin() throws Exception {
+        assertSameAsHashJoin("SELECT %s id FROM " + lhsTable + " l WHERE NOT EXISTS (SELECT 1 FROM " + rhsTable
+                + " r WHERE r.k = l.k) ORDER BY id", LHS_ROWS - 45 * 3);
+    }
+
+    @Test
+    public void testFullJoin() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT /*+ USE_SORT_MERGE_JOIN */ l.id, r.id FROM "
+                    + lhsTable + " l FULL JOIN " + rhsTable + " r ON l.k = r.k");
+            int joined = 0;
+            int lhsOnly = 0;
+            int rhsOnly = 0;
+            while (rs.next()) {
+                rs.getInt(1);
+                boolean hasLhs = !rs.wasNull();
+                rs.getInt(2);
+                boolean hasRhs = !rs.wasNull();
+                if (hasLhs && hasRhs) {
+                    joined++;
+                } else if (hasLhs) {
+                    lhsOnly++;
+                } else {
+                    rhsOnly++;
+                }
+            }
+            assertEquals(45 * 3 * 2, joined);
+            assertEquals(LHS_ROWS - 45 * 3, lhsOnly);
+            // Keys 100 to 149 and the rows with keys 50 to 99 which match only null keys on the left
+            assertEquals(50 * 2 + 5 * 2, rhsOnly);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_RESULT_CACHE_HIT_COUNTER;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_RESULT_CACHE_MISS_COUNTER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.apache.phoenix.util.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class QueryResultCacheIT extends BaseUniqueNamesOwnClusterIT {
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(1);
+        props.put(QueryServices.QUERY_RESULT_CACHE_ENABLED_ATTRIB, Boolean.TRUE.toString());
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+    }
+
+    private static String createTable(Connection conn, String options) throws Exception {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k VARCHAR NOT NULL PRIMARY KEY, grp VARCHAR, v INTEGER) " + options);
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?, ?)");
+        for (int i = 0; i < 10; i++) {
+            stmt.setString(1, "k" + i);
+            stmt.setString(2, "g" + (i % 3));
+            stmt.setInt(3, i);
+            stmt.execute();
+        }
+        conn.commit();
+        return tableName;
+    }
+
+    private static List<String> getRows(ResultSet rs) throws Exception {
+        List<String> rows = Lists.newArrayList();
+        int columnCount = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 1; i <= columnCount; i++) {
+                buf.append(rs.getString(i)).append(',');
+            }
+            rows.add(buf.toString());
+        }
+        return rows;
+    }
+
+    private static List<String> getRows(Connection conn, String query) throws Exception {
+        return getRows(conn.createStatement().executeQuery(query));
+    }
+
+    @Test
+    public void testResultsReplayedFromCache() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            String query = "SELECT k, v FROM " + tableName + " WHERE v >= 5";
+            long hits = GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue();
+            long misses = GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue();
+            List<String> expectedRows = getRows(conn, query);
+            assertEquals(5, expectedRows.size());
+            assertEquals(misses + 1, GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue());
+            assertEquals(expectedRows, getRows(conn, query));
+            assertEquals(hits + 1, GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue());
+        }
+    }
+
+    @Test
+    public void testAggregateResultsReplayedFromCache() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            String query = "SELECT grp, count(*), sum(v) FROM " + tableName + " GROUP BY grp ORDER BY grp";
+            long hits = GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue();
+            List<String> expectedRows = Lists.newArrayList("g0,4,18,", "g1,3,12,", "g2,3,15,");
+            assertEquals(expectedRows, getRows(conn, query));
+            assertEquals(expectedRows, getRows(conn, query));
+            assertEquals(hits + 1, GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue());
+
+            String countQuery = "SELECT count(*) FROM " + tableName;
+            assertEquals(Lists.newArrayList("10,"), getRows(conn, countQuery));
+            assertEquals(Lists.newArrayList("10,"), getRows(conn, countQuery));
+            assertEquals(hits + 2, GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue());
+        }
+    }
+
+    @Test
+    public void testBindsArePartOfTheKey() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            PreparedStatement stmt = conn.prepareStatement("SELECT k FROM " + tableName + " WHERE v = ?");
+            stmt.setInt(1, 1);
+            assertEquals(Lists.newArrayList("k1,"), getRows(stmt.executeQuery()));
+            stmt.setInt(1, 2);
+            assertEquals(Lists.newArrayList("k2,"), getRows(stmt.executeQuery()));
+            stmt.setInt(1, 1);
+            assertEquals(Lists.newArrayList("k1,"), getRows(stmt.executeQuery()));
+        }
+    }
+
+    @Test
+    public void testWritesInvalidateCachedResults() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            String query = "SELECT count(*) FROM " + tableName;
+            assertEquals(Lists.newArrayList("10,"), getRows(conn, query));
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES ('k10', 'g1', 10)");
+            conn.commit();
+            assertEquals(Lists.newArrayList("11,"), getRows(conn, query));
+            conn.createStatement().execute("DELETE FROM " + tableName + " WHERE v < 5");
+            conn.commit();
+            assertEquals(Lists.newArrayList("6,"), getRows(conn, query));
+        }
+    }
+
+    @Test
+    public void testWriteDuringQueryPreventsCaching() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            String query = "SELECT k FROM " + tableName;
+            long misses = GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue();
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            // Invalidates the results of the table while the query is still reading them
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES ('k10', 'g1', 10)");
+            conn.commit();
+            assertEquals(9, getRows(rs).size());
+            // The rows read before the write must not be replayed
+            assertEquals(11, getRows(conn, query).size());
+            assertEquals(misses + 2, GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue());
+        }
+    }
+
+    @Test
+    public void testTableWithoutUpdateCacheFrequencyNotCached() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "");
+            String query = "SELECT count(*) FROM " + tableName;
+            long hits = GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue();
+            long misses = GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue();
+            assertEquals(Lists.newArrayList("10,"), getRows(conn, query));
+            assertEquals(Lists.newArrayList("10,"), getRows(conn, query));
+            assertEquals(hits, GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue());
+            assertEquals(misses, GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue());
+        }
+    }
+
+    @Test
+    public void testNonDeterministicQueriesNotCached() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, "UPDATE_CACHE_FREQUENCY=600000");
+            long hits = GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue();
+            long misses = GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue();
+            String[] queries = {
+                    "SELECT k, RAND() FROM " + tableName,
+                    "SELECT k FROM " + tableName + " WHERE CURRENT_DATE() > TO_DATE('2000-01-01')",
+                    "SELECT k FROM " + tableName + " ORDER BY NOW()",
+            };
+            for (String query : queries) {
+                assertEquals(10, getRows(conn, query).size());
+                assertEquals(10, getRows(conn, query).size());
+            }
+            assertEquals(hits, GLOBAL_RESULT_CACHE_HIT_COUNTER.getMetric().getValue());
+            assertEquals(misses, GLOBAL_RESULT_CACHE_MISS_COUNTER.getMetric().getValue());
+        }
+    }
+}
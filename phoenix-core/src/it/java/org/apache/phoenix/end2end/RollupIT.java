@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.QueryUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.apache.phoenix.util.TestUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class RollupIT extends BaseUniqueNamesOwnClusterIT {
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(1);
+        props.put(QueryServices.INDEX_POPULATION_SLEEP_TIME, Long.toString(3000));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+    }
+
+    private static void upsertRows(Connection conn, String tableName, int start, int end) throws Exception {
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?, ?)");
+        for (int i = start; i < end; i++) {
+            stmt.setString(1, "k" + i);
+            stmt.setString(2, "g" + (i % 3));
+            stmt.setInt(3, i);
+            stmt.execute();
+        }
+        conn.commit();
+    }
+
+    private static String createTable(Connection conn) throws Exception {
+        return createTable(conn, true);
+    }
+
+    private static String createTable(Connection conn, boolean useRollups) throws Exception {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k VARCHAR NOT NULL PRIMARY KEY, grp VARCHAR, v INTEGER) IMMUTABLE_ROWS=true"
+                + (useRollups ? ", USE_ROLLUPS=true" : ""));
+        upsertRows(conn, tableName, 0, 10);
+        return tableName;
+    }
+
+    private static String createRollup(Connection conn, String tableName) throws Exception {
+        String rollupName = generateUniqueName();
+        conn.createStatement().execute("CREATE ROLLUP " + rollupName + " AS SELECT grp, count(*) cnt, sum(v) s,"
+                + " min(v) mn, max(v) mx FROM " + tableName + " GROUP BY grp");
+        return rollupName;
+    }
+
+    private static List<String> getRows(Connection conn, String query) throws Exception {
+        ResultSet rs = conn.createStatement().executeQuery(query);
+        List<String> rows = Lists.newArrayList();
+        int columnCount = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 1; i <= columnCount; i++) {
+                buf.append(rs.getString(i)).append(',');
+            }
+            rows.add(buf.toString());
+        }
+        return rows;
+    }
+
+    private static String getExplainPlan(Connection conn, String query) throws Exception {
+        return QueryUtil.getExplainPlan(conn.createStatement().executeQuery("EXPLAIN " + query));
+    }
+
+    @Test
+    public void testRollupAggregatesExistingRows() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn);
+            String rollupName = createRollup(conn, tableName);
+            assertEquals(Lists.newArrayList("g0,4,18,0,9,", "g1,3,12,1,7,", "g2,3,15,2,8,"),
+                    getRows(conn, "SELECT grp, cnt, s, mn, mx FROM " + rollupName + " ORDER BY grp"));
+        }
+    }
+
+    @Test
+    public void testWritesUpdateRollup() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn);
+            String rollupName = createRollup(conn, tableName);
+            upsertRows(conn, tableName, 10, 13);
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES ('k13', 'g3', null)");
+            conn.commit();
+            assertEquals(Lists.newArrayList("g0,5,30,0,12,", "g1,4,22,1,10,", "g2,4,26,2,11,", "g3,1,null,null,null,"),
+                    getRows(conn, "SELECT grp, cnt, s, mn, mx FROM " + rollupName + " ORDER BY grp"));
+        }
+    }
+
+    @Test
+    public void testRewrittenRowsNotAddedTwice() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn);
+            String rollupName = createRollup(conn, tableName);
+            // Rows written again aren't added again
+            upsertRows(conn, tableName, 5, 11);
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES ('k11', 'g2', 11)");
+            conn.createStatement().execute("UPSERT INTO " + tableName + " VALUES ('k11', 'g2', 11)");
+            conn.commit();
+            upsertRows(conn, tableName, 11, 12);
+            assertEquals(Lists.newArrayList("g0,4,18,0,9,", "g1,4,22,1,10,", "g2,4,26,2,11,"),
+                    getRows(conn, "SELECT grp, cnt, s, mn, mx FROM " + rollupName + " ORDER BY grp"));
+        }
+    }
+
+    @Test
+    public void testQueriesUseRollupOfEnabledTable() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn, false);
+            String rollupName = createRollup(conn, tableName);
+            String query = "SELECT grp, count(*) FROM " + tableName + " GROUP BY grp";
+            assertFalse(getExplainPlan(conn, query).contains(rollupName));
+            conn.createStatement().execute("ALTER TABLE " + tableName + " SET USE_ROLLUPS=true");
+            assertTrue(getExplainPlan(conn, query).contains(rollupName));
+            assertEquals(Lists.newArrayList("g0,4,", "g1,3,", "g2,3,"), getRows(conn, query + " ORDER BY grp"));
+        }
+    }
+
+    @Test
+    public void testQueriesUseRollup() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn);
+            String rollupName = createRollup(conn, tableName);
+            upsertRows(conn, tableName, 10, 20);
+            String[] queries = new String[] {
+                    "SELECT grp, count(*), sum(v), min(v), max(v) FROM " + tableName + " GROUP BY grp ORDER BY grp",
+                    "SELECT count(*), max(v) FROM " + tableName,
+                    "SELECT grp, count(v) FROM " + tableName + " WHERE grp IN ('g0', 'g2') GROUP BY grp ORDER BY grp",
+                    "SELECT substr(grp, 2) g, sum(v) + 1 FROM " + tableName + " GROUP BY substr(grp, 2) HAVING count(*) > 6 ORDER BY g",
+            };
+            for (String query : queries) {
+                assertTrue(getExplainPlan(conn, query).contains(rollupName));
+                String dataQuery = query.replaceFirst("SELECT", "SELECT /*+ NO_ROLLUP */");
+                assertFalse(getExplainPlan(conn, dataQuery).contains(rollupName));
+                List<String> rows = getRows(conn, query);
+                assertFalse(rows.isEmpty());
+                assertEquals(getRows(conn, dataQuery), rows);
+            }
+            // Aggregates not in the rollup are computed from the table
+            String query = "SELECT grp, avg(v) FROM " + tableName + " GROUP BY grp";
+            assertFalse(getExplainPlan(conn, query).contains(rollupName));
+            query = "SELECT k, count(*) FROM " + tableName + " GROUP BY k";
+            assertFalse(getExplainPlan(conn, query).contains(rollupName));
+        }
+    }
+
+    @Test
+    public void testDropRollup() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = createTable(conn);
+            String rollupName = createRollup(conn, tableName);
+            String query = "SELECT grp, count(*) FROM " + tableName + " GROUP BY grp";
+            assertTrue(getExplainPlan(conn, query).contains(rollupName));
+            conn.createStatement().execute("DROP TABLE " + rollupName);
+            assertFalse(getExplainPlan(conn, query).contains(rollupName));
+            upsertRows(conn, tableName, 10, 13);
+            assertEquals(Lists.newArrayList("g0,5,", "g1,4,", "g2,4,"), getRows(conn, query + " ORDER BY grp"));
+        }
+    }
+
+    @Test
+    public void testRollupOfMutableTableNotSupported() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TestUtil.TEST_PROPERTIES);
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            String tableName = generateUniqueName();
+            conn.createStatement().execute("CREATE TABLE " + tableName + " (k VARCHAR NOT NULL PRIMARY KEY, grp VARCHAR, v INTEGER)");
+            try {
+                createRollup(conn, tableName);
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.ROLLUP_SOURCE_NOT_SUPPORTED.getErrorCode(), e.getErrorCode());
+            }
+        }
+    }
+}
@@ -26,10 +26,12 @@ import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.protobuf.generated.HBaseProtos;
 import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.apache.hadoop.mapreduce.lib.output.NullOutputFormat;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.mapreduce.PhoenixInputFormat;
 import org.apache.phoenix.mapreduce.index.PhoenixIndexDBWritable;
 import org.apache.phoenix.mapreduce.util.PhoenixMapReduceUtil;
 import org.junit.*;
@@ -117,11 +119,42 @@ public class TableSnapshotReadsMapReduceIT extends ParallelStatsDisabledIT {
     configureJob(job, tableName, inputQuery, null);
   }
 
+  @Test
+  public void testMapReduceSnapshotsOfSplitTable() throws Exception {
+    // create table with several regions
+    Connection conn = DriverManager.getConnection(getUrl());
+    tableName = generateUniqueName();
+    conn.createStatement().execute(String.format(CREATE_TABLE, tableName) + " SPLIT ON ('BBBB', 'CCCC')");
+    conn.commit();
+
+    // configure Phoenix M/R job to read snapshot
+    final Configuration conf = getUtility().getConfiguration();
+    Job job = Job.getInstance(conf);
+    Path tmpDir = getUtility().getRandomDir();
+    PhoenixMapReduceUtil.setInput(job,PhoenixIndexDBWritable.class,SNAPSHOT_NAME,tableName,tmpDir, null, FIELD1, FIELD2, FIELD3);
+
+    // configure and test job, with a split per region of the snapshot
+    configureJob(job, tableName, null, null, 3);
+  }
+
   private void configureJob(Job job, String tableName, String inputQuery, String condition) throws Exception {
+    configureJob(job, tableName, inputQuery, condition, -1);
+  }
+
+  private void configureJob(Job job, String tableName, String inputQuery, String condition, int expectedSplits) throws Exception {
     try {
       upsertAndSnapshot(tableName);
       result = new ArrayList<>();
 
+      if (expectedSplits >= 0) {
+        List<InputSplit> splits = new PhoenixInputFormat<PhoenixIndexDBWritable>().getSplits(job);
+        assertEquals(expectedSplits, splits.size());
+        for (InputSplit split : splits) {
+          // Snapshot splits aren't read through the region servers
+          assertEquals(0, split.getLocations().length);
+        }
+      }
+
       job.setMapperClass(TableSnapshotMapper.class);
       job.setMapOutputKeyClass(ImmutableBytesWritable.class);
       job.setMapOutputValueClass(NullWritable.class);
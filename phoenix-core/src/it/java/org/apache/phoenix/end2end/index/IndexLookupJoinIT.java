@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.end2end.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.phoenix.end2end.ParallelStatsDisabledIT;
+import org.apache.phoenix.util.QueryUtil;
+import org.junit.Test;
+
+public class IndexLookupJoinIT extends ParallelStatsDisabledIT {
+    private static final int ROWS = 100;
+
+    private void createTables(String dataTableName, String indexTableName, Integer saltBuckets) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            conn.createStatement().execute("CREATE TABLE " + dataTableName
+                    + " (k INTEGER NOT NULL PRIMARY KEY, v1 VARCHAR, v2 VARCHAR)"
+                    + (saltBuckets == null ? "" : " SALT_BUCKETS=" + saltBuckets));
+            conn.createStatement().execute("CREATE INDEX " + indexTableName + " ON " + dataTableName + " (v1)");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + dataTableName + " VALUES (?, ?, ?)");
+            for (int i = 0; i < ROWS; i++) {
+                stmt.setInt(1, i);
+                // The index orders the rows in the reverse order of the data table
+                stmt.setString(2, String.format("v%03d", ROWS - i));
+                stmt.setString(3, i % 2 == 0 ? "even" : "odd");
+                stmt.execute();
+            }
+            conn.commit();
+        }
+    }
+
+    @Test
+    public void testOrderByLimit() throws Exception {
+        testOrderByLimit(null);
+    }
+
+    @Test
+    public void testOrderByLimitWithSalting() throws Exception {
+        testOrderByLimit(4);
+    }
+
+    private void testOrderByLimit(Integer saltBuckets) throws Exception {
+        String dataTableName = generateUniqueName();
+        String indexTableName = generateUniqueName();
+        createTables(dataTableName, indexTableName, saltBuckets);
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String query = "SELECT /*+ INDEX(" + dataTableName + " " + indexTableName + ")*/ k, v1, v2 FROM "
+                    + dataTableName + " WHERE v1 > 'v050' ORDER BY v1 LIMIT 5";
+            ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+            String plan = QueryUtil.getExplainPlan(rs);
+            assertTrue(plan, plan.contains(indexTableName));
+            assertTrue(plan, plan.contains("CLIENT BATCHED LOOKUP JOIN OVER " + dataTableName));
+            rs = conn.createStatement().executeQuery(query);
+            for (int i = 49; i > 44; i--) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals(String.format("v%03d", ROWS - i), rs.getString(2));
+                assertEquals(i % 2 == 0 ? "even" : "odd", rs.getString(3));
+            }
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testOrderByLimitWithUncoveredCondition() throws Exception {
+        String dataTableName = generateUniqueName();
+        String indexTableName = generateUniqueName();
+        createTables(dataTableName, indexTableName, null);
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String query = "SELECT /*+ INDEX(" + dataTableName + " " + indexTableName + ")*/ k, v2 FROM "
+                    + dataTableName + " WHERE v1 < 'v090' AND v2 = 'odd' ORDER BY v1 DESC LIMIT 3";
+            ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+            String plan = QueryUtil.getExplainPlan(rs);
+            assertTrue(plan, plan.contains("CLIENT BATCHED LOOKUP JOIN OVER " + dataTableName));
+            assertTrue(plan, plan.contains("CLIENT 3 ROW LIMIT"));
+            rs = conn.createStatement().executeQuery(query);
+            // v1 < 'v090' keeps the rows from 11 up, in the reverse order of v1
+            for (int i : new int[] {11, 13, 15}) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals("odd", rs.getString(2));
+            }
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testNoWhereClause() throws Exception {
+        String dataTableName = generateUniqueName();
+        String indexTableName = generateUniqueName();
+        createTables(dataTableName, indexTableName, null);
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String query = "SELECT /*+ INDEX(" + dataTableName + " " + indexTableName + ")*/ k, v2 FROM " + dataTableName;
+            ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+            String plan = QueryUtil.getExplainPlan(rs);
+            assertTrue(plan, plan.contains("CLIENT BATCHED LOOKUP JOIN OVER " + dataTableName));
+            rs = conn.createStatement().executeQuery(query);
+            for (int i = ROWS - 1; i >= 0; i--) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals(i % 2 == 0 ? "even" : "odd", rs.getString(2));
+            }
+            assertFalse(rs.next());
+        }
+    }
+}
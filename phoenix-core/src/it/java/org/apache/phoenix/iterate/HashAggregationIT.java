@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import org.apache.phoenix.end2end.BaseUniqueNamesOwnClusterIT;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.QueryUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class HashAggregationIT extends BaseUniqueNamesOwnClusterIT {
+    private static final int NUM_ROWS = 1000;
+    private static final int NUM_GROUPS = 50;
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(4);
+        props.put(QueryServices.CLIENT_HASH_AGGREGATION_ENABLED_ATTRIB, Boolean.toString(true));
+        props.put(QueryServices.CLIENT_HASH_AGGREGATION_PARTITIONS_ATTRIB, Integer.toString(4));
+        // Small enough for the groups of each partition to be spilled to disk
+        props.put(QueryServices.CLIENT_HASH_AGGREGATION_MAX_MEMORY_BYTES_ATTRIB, Integer.toString(4 * 256));
+        props.put(QueryServices.STATS_COLLECTION_ENABLED, Boolean.toString(false));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+    }
+
+    private static String createTable(Connection conn) throws Exception {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k INTEGER NOT NULL PRIMARY KEY, g VARCHAR, v INTEGER) SPLIT ON (250, 500, 750)");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?, ?)");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            stmt.setInt(1, i);
+            stmt.setString(2, "g" + (i % NUM_GROUPS));
+            stmt.setInt(3, i % 7);
+            stmt.execute();
+        }
+        conn.commit();
+        return tableName;
+    }
+
+    @Test
+    public void testUnorderedGroupBy() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            String query = "SELECT g, COUNT(*), SUM(k), DISTINCT_COUNT(v) FROM " + tableName + " GROUP BY g";
+            String plan = QueryUtil.getExplainPlan(conn.createStatement().executeQuery("EXPLAIN " + query));
+            assertTrue(plan, plan.contains("CLIENT HASH AGGREGATE INTO 4 PARTITIONS"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            Map<String, Long> sums = Maps.newHashMap();
+            while (rs.next()) {
+                String group = rs.getString(1);
+                assertEquals(NUM_ROWS / NUM_GROUPS, rs.getLong(2));
+                assertEquals(7, rs.getLong(4));
+                assertNull("Duplicate group " + group, sums.put(group, rs.getLong(3)));
+            }
+            assertEquals(NUM_GROUPS, sums.size());
+            for (int i = 0; i < NUM_GROUPS; i++) {
+                long sum = 0;
+                for (int k = i; k < NUM_ROWS; k += NUM_GROUPS) {
+                    sum += k;
+                }
+                assertEquals(sum, sums.get("g" + i).longValue());
+            }
+        }
+    }
+
+    @Test
+    public void testGroupByWithHavingAndOrderBy() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            ResultSet rs = conn.createStatement().executeQuery("SELECT v, COUNT(*) FROM " + tableName
+                    + " GROUP BY v HAVING COUNT(*) > 142 ORDER BY COUNT(*) DESC, v LIMIT 3");
+            // 1000 = 7 * 142 + 6, so the first six values of v have one more row
+            for (int v = 0; v < 3; v++) {
+                assertTrue(rs.next());
+                assertEquals(v, rs.getInt(1));
+                assertEquals(143, rs.getLong(2));
+            }
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testRowKeyOrderedGroupByNotHashed() throws Exception {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn);
+            String query = "SELECT g, COUNT(*) FROM " + tableName + " GROUP BY g ORDER BY g";
+            String plan = QueryUtil.getExplainPlan(conn.createStatement().executeQuery("EXPLAIN " + query));
+            assertFalse(plan, plan.contains("CLIENT HASH AGGREGATE"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            String previous = null;
+            int count = 0;
+            while (rs.next()) {
+                assertTrue(previous == null || previous.compareTo(rs.getString(1)) < 0);
+                previous = rs.getString(1);
+                assertEquals(NUM_ROWS / NUM_GROUPS, rs.getLong(2));
+                count++;
+            }
+            assertEquals(NUM_GROUPS, count);
+        }
+    }
+}
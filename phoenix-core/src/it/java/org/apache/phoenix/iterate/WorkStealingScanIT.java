@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import static org.apache.phoenix.util.TestUtil.TEST_PROPERTIES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.phoenix.end2end.BaseUniqueNamesOwnClusterIT;
+import org.apache.phoenix.monitoring.MetricType;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.util.PhoenixRuntime;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.ReadOnlyProps;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class WorkStealingScanIT extends BaseUniqueNamesOwnClusterIT {
+    private static final int NUM_ROWS = 1000;
+
+    @BeforeClass
+    public static void doSetup() throws Exception {
+        Map<String,String> props = Maps.newHashMapWithExpectedSize(2);
+        props.put(QueryServices.WORK_STEALING_ENABLED_ATTRIB, Boolean.toString(true));
+        props.put(QueryServices.STATS_COLLECTION_ENABLED, Boolean.toString(false));
+        setUpTestDriver(new ReadOnlyProps(props.entrySet().iterator()));
+    }
+
+    private static Connection getConnection() throws Exception {
+        Properties props = PropertiesUtil.deepCopy(TEST_PROPERTIES);
+        // Rows don't need to be in row key order, so that a round robin iterator is used
+        props.setProperty(QueryServices.FORCE_ROW_KEY_ORDER_ATTRIB, Boolean.toString(false));
+        props.setProperty(QueryServices.COLLECT_REQUEST_LEVEL_METRICS, Boolean.toString(true));
+        return DriverManager.getConnection(getUrl(), props);
+    }
+
+    private static String createSkewedTable() throws Exception {
+        String tableName = generateUniqueName();
+        try (Connection conn = getConnection()) {
+            // Most of the rows are in the third of the four regions
+            conn.createStatement().execute("CREATE TABLE " + tableName
+                    + " (k VARCHAR NOT NULL PRIMARY KEY, v INTEGER) SPLIT ON ('k00010', 'k00020', 'k00990')");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES (?, ?)");
+            for (int i = 0; i < NUM_ROWS; i++) {
+                stmt.setString(1, String.format("k%05d", i));
+                stmt.setInt(2, i);
+                stmt.execute();
+            }
+            conn.commit();
+        }
+        return tableName;
+    }
+
+    @Test
+    public void testSkewedScanIsSplit() throws Exception {
+        String tableName = createSkewedTable();
+        try (Connection conn = getConnection()) {
+            Statement stmt = conn.createStatement();
+            stmt.setFetchSize(10);
+            ResultSet rs = stmt.executeQuery("SELECT k, v FROM " + tableName);
+            Set<String> keys = Sets.newHashSet();
+            while (rs.next()) {
+                assertEquals(String.format("k%05d", rs.getInt(2)), rs.getString(1));
+                assertTrue("Duplicate row " + rs.getString(1), keys.add(rs.getString(1)));
+            }
+            assertEquals(NUM_ROWS, keys.size());
+            Map<MetricType, Long> metrics = PhoenixRuntime.getOverAllReadRequestMetricInfo(rs);
+            // The scans of the small regions end early and the one of the large region is split
+            assertTrue(metrics.get(MetricType.NUM_PARALLEL_SCANS) > 4);
+        }
+    }
+
+    @Test
+    public void testFilteredSkewedScanIsSplit() throws Exception {
+        String tableName = createSkewedTable();
+        try (Connection conn = getConnection()) {
+            Statement stmt = conn.createStatement();
+            stmt.setFetchSize(5);
+            ResultSet rs = stmt.executeQuery("SELECT k FROM " + tableName + " WHERE k >= 'k00005' AND v % 2 = 0");
+            Set<String> keys = Sets.newHashSet();
+            while (rs.next()) {
+                assertTrue("Duplicate row " + rs.getString(1), keys.add(rs.getString(1)));
+            }
+            assertEquals((NUM_ROWS - 5) / 2, keys.size());
+        }
+    }
+
+    @Test
+    public void testOrderedScanNotSplit() throws Exception {
+        String tableName = createSkewedTable();
+        try (Connection conn = getConnection()) {
+            Statement stmt = conn.createStatement();
+            stmt.setFetchSize(10);
+            ResultSet rs = stmt.executeQuery("SELECT k FROM " + tableName + " ORDER BY k");
+            int count = 0;
+            while (rs.next()) {
+                assertEquals(String.format("k%05d", count++), rs.getString(1));
+            }
+            assertEquals(NUM_ROWS, count);
+            Map<MetricType, Long> metrics = PhoenixRuntime.getOverAllReadRequestMetricInfo(rs);
+            assertEquals(4, metrics.get(MetricType.NUM_PARALLEL_SCANS).longValue());
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
@@ -31,11 +32,11 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.htrace.Span;
 import org.apache.htrace.Trace;
 import org.apache.htrace.impl.MilliSpan;
 import org.apache.phoenix.end2end.ParallelStatsDisabledIT;
-import org.apache.phoenix.jdbc.DelegateConnection;
 import org.apache.phoenix.trace.util.Tracing;
 import org.apache.phoenix.trace.util.Tracing.Frequency;
 import org.apache.phoenix.util.PhoenixRuntime;
@@ -122,22 +123,6 @@ public class BaseTracingTestIT extends ParallelStatsDisabledIT {
         return span;
     }
 
-    private static class CountDownConnection extends DelegateConnection {
-        private CountDownLatch commit;
-
-        public CountDownConnection(Connection conn, CountDownLatch commit) {
-            super(conn);
-            this.commit = commit;
-        }
-
-        @Override
-        public void commit() throws SQLException {
-            super.commit();
-            commit.countDown();
-        }
-
-    }
-
     protected class TestTraceWriter extends TraceWriter {
 
         public TestTraceWriter(String tableName, int numThreads, int batchSize) {
@@ -147,8 +132,7 @@ public class BaseTracingTestIT extends ParallelStatsDisabledIT {
         @Override
         protected Connection getConnection(String tableName) {
             try {
-                Connection connection =
-                        new CountDownConnection(getConnectionWithoutTracing(), latch);
+                Connection connection = getConnectionWithoutTracing();
                 if (!traceTableExists(connection, tableName)) {
                     createTable(connection, tableName);
                 }
@@ -159,6 +143,13 @@ public class BaseTracingTestIT extends ParallelStatsDisabledIT {
             }
         }
 
+        @Override
+        protected void commitBatch(Connection conn, byte[] physicalTableName,
+                List<Mutation> mutations) {
+            super.commitBatch(conn, physicalTableName, mutations);
+            latch.countDown();
+        }
+
         @Override
         protected TraceSpanReceiver getTraceSpanReceiver() {
             return traceSpanReceiver;
@@ -413,6 +413,7 @@ oneStatement returns [BindableStatement ret]
     |   s=create_schema_node
     |   s=create_view_node
     |   s=create_index_node
+    |   s=create_rollup_node
     |   s=cursor_open_node
     |   s=cursor_close_node
     |   s=cursor_fetch_node
@@ -438,8 +439,10 @@ oneStatement returns [BindableStatement ret]
     ;
 finally{ contextStack.pop(); }
     
+// ANALYZE is matched as a name rather than a keyword so that it does not become a reserved word
 explain_node returns [BindableStatement ret]
-    :   EXPLAIN q=oneStatement {$ret=factory.explain(q);}
+@init{boolean isAnalyze = false;}
+    :   EXPLAIN (a=NAME {"analyze".equalsIgnoreCase($a.text)}? {isAnalyze = true;})? q=oneStatement {$ret=factory.explain(q, isAnalyze);}
     ;
 
 // Parse a create table statement.
@@ -479,6 +482,15 @@ create_index_node returns [CreateIndexStatement ret]
         {ret = factory.createIndex(i, factory.namedTable(null,t), ik, icrefs, v, p, ex!=null, l==null ? IndexType.getDefault() : IndexType.LOCAL, async != null, getBindCount(), new HashMap<String, UDFParseNode>(udfParseNodes)); }
     ;
 
+// Parse a create rollup statement.
+// ROLLUP is matched as a name rather than a keyword so that it does not become a reserved word
+create_rollup_node returns [CreateRollupStatement ret]
+    :   CREATE r=NAME {"rollup".equalsIgnoreCase($r.text)}? (IF NOT ex=EXISTS)? t=from_table_name
+        (p=fam_properties)?
+        AS s=select_node
+        {ret = factory.createRollup(t, s, p, ex!=null, getBindCount()); }
+    ;
+
 // Parse a create sequence statement.
 create_sequence_node returns [CreateSequenceStatement ret]
     :   CREATE SEQUENCE  (IF NOT ex=EXISTS)? t=from_table_name
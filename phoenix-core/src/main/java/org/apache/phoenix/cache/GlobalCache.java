@@ -31,16 +31,19 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.coprocessor.RegionCoprocessorEnvironment;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.coprocessor.generated.PTableProtos;
 import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.memory.ChildMemoryManager;
 import org.apache.phoenix.memory.GlobalMemoryManager;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.schema.PMetaDataEntity;
+import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.util.SizedUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
@@ -63,6 +66,9 @@ public class GlobalCache extends TenantCacheImpl {
     private final ConcurrentMap<ImmutableBytesWritable,TenantCache> perTenantCacheMap = new ConcurrentHashMap<ImmutableBytesWritable,TenantCache>();
     // Cache for lastest PTable for a given Phoenix table
     private volatile Cache<ImmutableBytesPtr,PMetaDataEntity> metaDataCache;
+    // Cache for the serialized form of the PTables in the metadata cache. Keys are compared by identity,
+    // so a PTable that is replaced in the metadata cache never returns a stale serialized form
+    private volatile Cache<PTable,PTableProtos.PTable> serializedTableCache;
     
     public long clearTenantCache() {
         long unfreedBytes = getMemoryManager().getMaxMemory() - getMemoryManager().getAvailableMemory();
@@ -116,6 +122,38 @@ public class GlobalCache extends TenantCacheImpl {
         return result;
     }
 
+    /**
+     * @return cache of the protobuf form of the tables returned to clients, so that tables that are served
+     * from the metadata cache don't need to be serialized again for every request
+     */
+    public Cache<PTable,PTableProtos.PTable> getSerializedTableCache() {
+        Cache<PTable,PTableProtos.PTable> result = serializedTableCache;
+        if (result == null) {
+            synchronized(this) {
+                result = serializedTableCache;
+                if(result == null) {
+                    long maxTTL = config.getLong(
+                            QueryServices.MAX_SERVER_METADATA_CACHE_TIME_TO_LIVE_MS_ATTRIB,
+                            QueryServicesOptions.DEFAULT_MAX_SERVER_METADATA_CACHE_TIME_TO_LIVE_MS);
+                    long maxSize = config.getLong(QueryServices.MAX_SERVER_METADATA_SERIALIZED_CACHE_SIZE_ATTRIB,
+                            QueryServicesOptions.DEFAULT_MAX_SERVER_METADATA_SERIALIZED_CACHE_SIZE);
+                    serializedTableCache = result = CacheBuilder.newBuilder()
+                            .weakKeys()
+                            .maximumWeight(maxSize)
+                            .expireAfterAccess(maxTTL, TimeUnit.MILLISECONDS)
+                            .weigher(new Weigher<PTable, PTableProtos.PTable>() {
+                                @Override
+                                public int weigh(PTable table, PTableProtos.PTable serializedTable) {
+                                    return serializedTable.getSerializedSize();
+                                }
+                            })
+                            .build();
+                }
+            }
+        }
+        return result;
+    }
+
     public static GlobalCache getInstance(RegionCoprocessorEnvironment env) {
         GlobalCache result = INSTANCE;
         if (result == null) {
@@ -152,9 +190,20 @@ public class GlobalCache extends TenantCacheImpl {
     private GlobalCache(Configuration config) {
         super(new GlobalMemoryManager(getMaxMemorySize(config),
                                       config.getInt(MAX_MEMORY_WAIT_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_MEMORY_WAIT_MS)),
-              config.getInt(QueryServices.MAX_SERVER_CACHE_TIME_TO_LIVE_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_TIME_TO_LIVE_MS));
+              config.getInt(QueryServices.MAX_SERVER_CACHE_TIME_TO_LIVE_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_TIME_TO_LIVE_MS),
+              getMaxPersistenceTimeToLiveMs(config), getMaxPersistenceSize(config), Ticker.systemTicker());
         this.config = config;
     }
+
+    private static int getMaxPersistenceTimeToLiveMs(Configuration config) {
+        return config.getInt(QueryServices.MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS_ATTRIB,
+            QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS);
+    }
+
+    private static long getMaxPersistenceSize(Configuration config) {
+        return config.getLong(QueryServices.MAX_SERVER_CACHE_PERSISTENCE_SIZE_ATTRIB,
+            QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_SIZE);
+    }
     
     public Configuration getConfig() {
         return config;
@@ -170,7 +219,8 @@ public class GlobalCache extends TenantCacheImpl {
         if (tenantCache == null) {
             int maxTenantMemoryPerc = config.getInt(MAX_TENANT_MEMORY_PERC_ATTRIB, QueryServicesOptions.DEFAULT_MAX_TENANT_MEMORY_PERC);
             int maxServerCacheTimeToLive = config.getInt(QueryServices.MAX_SERVER_CACHE_TIME_TO_LIVE_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_TIME_TO_LIVE_MS);
-            TenantCacheImpl newTenantCache = new TenantCacheImpl(new ChildMemoryManager(getMemoryManager(), maxTenantMemoryPerc), maxServerCacheTimeToLive);
+            TenantCacheImpl newTenantCache = new TenantCacheImpl(new ChildMemoryManager(getMemoryManager(), maxTenantMemoryPerc), maxServerCacheTimeToLive,
+                    getMaxPersistenceTimeToLiveMs(config), getMaxPersistenceSize(config), Ticker.systemTicker());
             tenantCache = perTenantCacheMap.putIfAbsent(tenantId, newTenantCache);
             if (tenantCache == null) {
                 tenantCache = newTenantCache;
@@ -116,11 +116,17 @@ public class ServerCacheClient {
         private final int size;
         private final byte[] id;
         private final ImmutableSet<HRegionLocation> servers;
+        private final boolean persistent;
         
         public ServerCache(byte[] id, Set<HRegionLocation> servers, int size) {
+            this(id, servers, size, false);
+        }
+        
+        public ServerCache(byte[] id, Set<HRegionLocation> servers, int size, boolean persistent) {
             this.id = id;
             this.servers = ImmutableSet.copyOf(servers);
             this.size = size;
+            this.persistent = persistent;
         }
 
         /**
@@ -138,23 +144,89 @@ public class ServerCacheClient {
         }
 
         /**
-         * Call to free up cache on region servers when no longer needed
+         * Gets the servers the hash cache was sent to
+         */
+        public Set<HRegionLocation> getServers() {
+            return servers;
+        }
+
+        /**
+         * Call to free up cache on region servers when no longer needed. Persistent
+         * caches are left on the region servers until they expire.
          */
         @Override
         public void close() throws SQLException {
-            removeServerCache(id, servers);
+            if (!persistent) {
+                removeServerCache(id, servers);
+            }
         }
 
     }
     
+    /**
+     * Get the locations of the regions of the table using the cache to which the cache needs to be
+     * sent, one per region server.
+     */
+    public List<HRegionLocation> getCacheLocations(ScanRanges keyRanges, TableRef cacheUsingTableRef) throws SQLException {
+        PTable cacheUsingTable = cacheUsingTableRef.getTable();
+        byte[] physicalTableName = cacheUsingTable.getPhysicalName().getBytes();
+        ConnectionQueryServices services = connection.getQueryServices();
+        List<HRegionLocation> locations = services.getAllTableRegions(physicalTableName);
+        List<HRegionLocation> cacheLocations = new ArrayList<HRegionLocation>();
+        Set<HRegionLocation> servers = new HashSet<HRegionLocation>(locations.size());
+        boolean reloaded = false;
+        for (int i = 0; i < locations.size(); i++) {
+            HRegionLocation entry = locations.get(i);
+            // Keep track of servers we've sent to and only send once
+            byte[] regionStartKey = entry.getRegionInfo().getStartKey();
+            byte[] regionEndKey = entry.getRegionInfo().getEndKey();
+            if (!keyRanges.intersectRegion(regionStartKey, regionEndKey,
+                    cacheUsingTable.getIndexType() == IndexType.LOCAL)) {
+                continue;
+            }
+            /*
+             * The cached region boundaries don't follow regions moving to other servers, so get
+             * the server of the region from the HConnection, whose cache is updated when a region
+             * isn't found on its server any more.
+             */
+            HRegionLocation location = services.getTableRegionLocation(physicalTableName, regionStartKey);
+            if (!reloaded && !location.getRegionInfo().equals(entry.getRegionInfo())) {
+                // The region was split or merged, so start over once from the new region boundaries
+                reloaded = true;
+                services.clearTableRegionCache(physicalTableName);
+                locations = services.getAllTableRegions(physicalTableName);
+                cacheLocations.clear();
+                servers.clear();
+                i = -1;
+                continue;
+            }
+            if (servers.add(location)) {
+                cacheLocations.add(location);
+            } else {
+                if (LOG.isDebugEnabled()) {LOG.debug(addCustomAnnotations("NOT adding cache entry to be sent for " + location + " since one already exists for that entry", connection));}
+            }
+        }
+        return cacheLocations;
+    }
+
     public ServerCache addServerCache(ScanRanges keyRanges, final ImmutableBytesWritable cachePtr, final byte[] txState, final ServerCacheFactory cacheFactory, final TableRef cacheUsingTableRef) throws SQLException {
+        return addServerCache(keyRanges, cachePtr, txState, cacheFactory, cacheUsingTableRef, null);
+    }
+
+    /**
+     * Send the cache to the region servers hosting the regions of the table using the cache.
+     * @param persistentCacheId if not null, the id of a cache that is kept on the region servers
+     * after it is closed, until it expires, so that later queries can use it.
+     */
+    public ServerCache addServerCache(ScanRanges keyRanges, final ImmutableBytesWritable cachePtr, final byte[] txState, final ServerCacheFactory cacheFactory, final TableRef cacheUsingTableRef, byte[] persistentCacheId) throws SQLException {
         ConnectionQueryServices services = connection.getQueryServices();
         MemoryChunk chunk = services.getMemoryManager().allocate(cachePtr.getLength());
         List<Closeable> closeables = new ArrayList<Closeable>();
         closeables.add(chunk);
         ServerCache hashCacheSpec = null;
         SQLException firstException = null;
-        final byte[] cacheId = generateId();
+        final boolean persistent = persistentCacheId != null;
+        final byte[] cacheId = persistent ? persistentCacheId : generateId();
         /**
          * Execute EndPoint in parallel on each server to send compressed hash cache 
          */
@@ -165,18 +237,14 @@ public class ServerCacheClient {
         List<Future<Boolean>> futures = Collections.emptyList();
         try {
             final PTable cacheUsingTable = cacheUsingTableRef.getTable();
-            List<HRegionLocation> locations = services.getAllTableRegions(cacheUsingTable.getPhysicalName().getBytes());
+            List<HRegionLocation> locations = getCacheLocations(keyRanges, cacheUsingTableRef);
             int nRegions = locations.size();
             // Size these based on worst case
             futures = new ArrayList<Future<Boolean>>(nRegions);
             Set<HRegionLocation> servers = new HashSet<HRegionLocation>(nRegions);
             for (HRegionLocation entry : locations) {
                 // Keep track of servers we've sent to and only send once
-                byte[] regionStartKey = entry.getRegionInfo().getStartKey();
-                byte[] regionEndKey = entry.getRegionInfo().getEndKey();
-                if ( ! servers.contains(entry) && 
-                        keyRanges.intersectRegion(regionStartKey, regionEndKey,
-                                cacheUsingTable.getIndexType() == IndexType.LOCAL)) {  
+                if ( ! servers.contains(entry)) {  
                     // Call RPC once per server
                     servers.add(entry);
                     if (LOG.isDebugEnabled()) {LOG.debug(addCustomAnnotations("Adding cache entry to be sent for " + entry, connection));}
@@ -221,6 +289,9 @@ public class ServerCacheClient {
                                                     svrCacheFactoryBuider.setClassName(cacheFactory.getClass().getName());
                                                     builder.setCacheFactory(svrCacheFactoryBuider.build());
                                                     builder.setTxState(ByteStringer.wrap(txState));
+                                                    if (persistent) {
+                                                        builder.setPersistent(true);
+                                                    }
                                                     instance.addServerCache(controller, builder.build(), rpcCallback);
                                                     if(controller.getFailedOn() != null) {
                                                         throw controller.getFailedOn();
@@ -257,7 +328,7 @@ public class ServerCacheClient {
                 }
             }
             
-            hashCacheSpec = new ServerCache(cacheId,servers,cachePtr.getLength());
+            hashCacheSpec = new ServerCache(cacheId,servers,cachePtr.getLength(),persistent);
             // Execute in parallel
             int timeoutMs = services.getProps().getInt(QueryServices.THREAD_TIMEOUT_MS_ATTRIB, QueryServicesOptions.DEFAULT_THREAD_TIMEOUT_MS);
             for (Future<Boolean> future : futures) {
@@ -320,7 +391,9 @@ public class ServerCacheClient {
     		 * server that we originally sent to.
     		 */
     		if (LOG.isDebugEnabled()) {LOG.debug(addCustomAnnotations("Removing Cache " + cacheId + " from servers.", connection));}
-    		for (HRegionLocation entry : locations) {
+    		for (HRegionLocation region : locations) {
+    			// As in getCacheLocations, get the server the region is on now from the HConnection
+    			HRegionLocation entry = services.getTableRegionLocation(tableName, region.getRegionInfo().getStartKey());
     			if (remainingOnServers.contains(entry)) {  // Call once per server
     				try {
                         byte[] key = getKeyInRegion(entry.getRegionInfo().getStartKey());
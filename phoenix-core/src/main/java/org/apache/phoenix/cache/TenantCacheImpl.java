@@ -27,6 +27,7 @@ import org.apache.phoenix.coprocessor.ServerCachingProtocol.ServerCacheFactory;
 import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.memory.MemoryManager;
 import org.apache.phoenix.memory.MemoryManager.MemoryChunk;
+import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.util.Closeables;
 
 import com.google.common.base.Ticker;
@@ -34,6 +35,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 
 /**
  * 
@@ -45,17 +47,29 @@ import com.google.common.cache.RemovalNotification;
  */
 public class TenantCacheImpl implements TenantCache {
     private final int maxTimeToLiveMs;
+    private final int maxPersistenceTimeToLiveMs;
+    private final long maxPersistenceSizeBytes;
     private final MemoryManager memoryManager;
     private final Ticker ticker;
     private volatile Cache<ImmutableBytesPtr, Closeable> serverCaches;
+    // Caches that are reused across queries, added with the persistent flag of the request
+    private volatile Cache<ImmutableBytesPtr, PersistentCacheEntry> persistentServerCaches;
 
     public TenantCacheImpl(MemoryManager memoryManager, int maxTimeToLiveMs) {
         this(memoryManager, maxTimeToLiveMs, Ticker.systemTicker());
     }
     
     public TenantCacheImpl(MemoryManager memoryManager, int maxTimeToLiveMs, Ticker ticker) {
+        this(memoryManager, maxTimeToLiveMs, QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS,
+                QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_SIZE, ticker);
+    }
+    
+    public TenantCacheImpl(MemoryManager memoryManager, int maxTimeToLiveMs, int maxPersistenceTimeToLiveMs,
+            long maxPersistenceSizeBytes, Ticker ticker) {
         this.memoryManager = memoryManager;
         this.maxTimeToLiveMs = maxTimeToLiveMs;
+        this.maxPersistenceTimeToLiveMs = maxPersistenceTimeToLiveMs;
+        this.maxPersistenceSizeBytes = maxPersistenceSizeBytes;
         this.ticker = ticker;
     }
     
@@ -69,6 +83,9 @@ public class TenantCacheImpl implements TenantCache {
             if (serverCaches != null) {
                 serverCaches.cleanUp();
             }
+            if (persistentServerCaches != null) {
+                persistentServerCaches.cleanUp();
+            }
         }
     }
     
@@ -98,18 +115,58 @@ public class TenantCacheImpl implements TenantCache {
         return serverCaches;
     }
     
+    private Cache<ImmutableBytesPtr,PersistentCacheEntry> getPersistentServerCaches() {
+        /* Delay creation of this map until it's needed */
+        if (persistentServerCaches == null) {
+            synchronized(this) {
+                if (persistentServerCaches == null) {
+                    // A single segment so that eviction is least recently used across all entries
+                    persistentServerCaches = CacheBuilder.newBuilder()
+                        .concurrencyLevel(1)
+                        .expireAfterAccess(maxPersistenceTimeToLiveMs, TimeUnit.MILLISECONDS)
+                        .maximumWeight(maxPersistenceSizeBytes)
+                        .weigher(new Weigher<ImmutableBytesPtr, PersistentCacheEntry>() {
+                            @Override
+                            public int weigh(ImmutableBytesPtr key, PersistentCacheEntry value) {
+                                return value.size;
+                            }
+                        })
+                        .ticker(getTicker())
+                        .removalListener(new RemovalListener<ImmutableBytesPtr, PersistentCacheEntry>(){
+                            @Override
+                            public void onRemoval(RemovalNotification<ImmutableBytesPtr, PersistentCacheEntry> notification) {
+                                Closeables.closeAllQuietly(Collections.singletonList(notification.getValue().cache));
+                            }
+                        })
+                        .build();
+                }
+            }
+        }
+        return persistentServerCaches;
+    }
+    
     @Override
     public Closeable getServerCache(ImmutableBytesPtr cacheId) {
-        return getServerCaches().getIfPresent(cacheId);
+        Closeable cache = getServerCaches().getIfPresent(cacheId);
+        if (cache == null) {
+            PersistentCacheEntry entry = getPersistentServerCaches().getIfPresent(cacheId);
+            cache = entry == null ? null : entry.cache;
+        }
+        return cache;
     }
     
     @Override
-    public Closeable addServerCache(ImmutableBytesPtr cacheId, ImmutableBytesWritable cachePtr, byte[] txState, ServerCacheFactory cacheFactory, boolean useProtoForIndexMaintainer) throws SQLException {
-        MemoryChunk chunk = this.getMemoryManager().allocate(cachePtr.getLength() + txState.length);
+    public Closeable addServerCache(ImmutableBytesPtr cacheId, ImmutableBytesWritable cachePtr, byte[] txState, ServerCacheFactory cacheFactory, boolean useProtoForIndexMaintainer, boolean persistent) throws SQLException {
+        int size = cachePtr.getLength() + txState.length;
+        MemoryChunk chunk = this.getMemoryManager().allocate(size);
         boolean success = false;
         try {
             Closeable element = cacheFactory.newCache(cachePtr, txState, chunk, useProtoForIndexMaintainer);
-            getServerCaches().put(cacheId, element);
+            if (persistent) {
+                getPersistentServerCaches().put(cacheId, new PersistentCacheEntry(element, size));
+            } else {
+                getServerCaches().put(cacheId, element);
+            }
             success = true;
             return element;
         } finally {
@@ -122,10 +179,22 @@ public class TenantCacheImpl implements TenantCache {
     @Override
     public void removeServerCache(ImmutableBytesPtr cacheId) {
         getServerCaches().invalidate(cacheId);
+        getPersistentServerCaches().invalidate(cacheId);
     }
 
     @Override
     public void removeAllServerCache() {
         getServerCaches().invalidateAll();
+        getPersistentServerCaches().invalidateAll();
+    }
+
+    private static class PersistentCacheEntry {
+        private final Closeable cache;
+        private final int size;
+
+        private PersistentCacheEntry(Closeable cache, int size) {
+            this.cache = cache;
+            this.size = size;
+        }
     }
 }
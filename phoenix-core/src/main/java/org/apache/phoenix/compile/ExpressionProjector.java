@@ -22,8 +22,23 @@ import java.sql.SQLException;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.phoenix.expression.Expression;
-import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.SortOrder;
 import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.types.PDataType.PDataCodec;
+import org.apache.phoenix.schema.types.PDouble;
+import org.apache.phoenix.schema.types.PFloat;
+import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.schema.types.PLong;
+import org.apache.phoenix.schema.types.PSmallint;
+import org.apache.phoenix.schema.types.PTinyint;
+import org.apache.phoenix.schema.types.PUnsignedDouble;
+import org.apache.phoenix.schema.types.PUnsignedFloat;
+import org.apache.phoenix.schema.types.PUnsignedInt;
+import org.apache.phoenix.schema.types.PUnsignedLong;
+import org.apache.phoenix.schema.types.PUnsignedSmallint;
+import org.apache.phoenix.schema.types.PUnsignedTinyint;
+import org.apache.phoenix.util.ByteUtil;
 
 
 
@@ -39,12 +54,21 @@ public class ExpressionProjector implements ColumnProjector {
     private final Expression expression;
     private final String tableName;
     private final boolean isCaseSensitive;
+    // Codec decoding the value of the expression into any numeric primitive, or null if
+    // the primitive getters have to convert the value through its object representation
+    private final PDataCodec codec;
     
     public ExpressionProjector(String name, String tableName, Expression expression, boolean isCaseSensitive) {
         this.name = name;
         this.expression = expression;
         this.tableName = tableName;
         this.isCaseSensitive = isCaseSensitive;
+        PDataType type = expression.getDataType();
+        // Same types as the ones the numeric types convert from with the codec in toObject
+        this.codec = type != null && PDataType.equalsAny(type, PLong.INSTANCE, PUnsignedLong.INSTANCE, PInteger.INSTANCE,
+                PUnsignedInt.INSTANCE, PSmallint.INSTANCE, PUnsignedSmallint.INSTANCE, PTinyint.INSTANCE,
+                PUnsignedTinyint.INSTANCE, PFloat.INSTANCE, PUnsignedFloat.INSTANCE, PDouble.INSTANCE,
+                PUnsignedDouble.INSTANCE) ? type.getCodec() : null;
     }
     
     @Override
@@ -62,6 +86,27 @@ public class ExpressionProjector implements ColumnProjector {
         return name;
     }
 
+    /**
+     * Evaluates the expression into ptr, which is left empty if the value is null.
+     * @return true if the value is not null
+     */
+    private boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+        if (!getExpression().evaluate(tuple, ptr)) {
+            ptr.set(ByteUtil.EMPTY_BYTE_ARRAY);
+            return false;
+        }
+        return ptr.getLength() != 0;
+    }
+
+    // FIXME: Expression.evaluate does not throw SQLException
+    // so this will unwrap throws from that.
+    private static SQLException unwrap(RuntimeException e) {
+        if (e.getCause() instanceof SQLException) {
+            return (SQLException) e.getCause();
+        }
+        throw e;
+    }
+
     @Override
     public final Object getValue(Tuple tuple, PDataType type, ImmutableBytesWritable ptr) throws SQLException {
         try {
@@ -74,12 +119,102 @@ public class ExpressionProjector implements ColumnProjector {
             }        
             return type.toObject(ptr, expression.getDataType(), expression.getSortOrder(), expression.getMaxLength(), expression.getScale());
         } catch (RuntimeException e) {
-            // FIXME: Expression.evaluate does not throw SQLException
-            // so this will unwrap throws from that.
-            if (e.getCause() instanceof SQLException) {
-                throw (SQLException) e.getCause();
-            }
-            throw e;
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Gets the value through its object representation, for the types without a codec
+     * decoding it directly.
+     * @return the value, or null after emptying ptr if the value is null
+     */
+    private Number getNumber(Tuple tuple, PDataType type, ImmutableBytesWritable ptr) throws SQLException {
+        Number value = (Number)getValue(tuple, type, ptr);
+        if (value == null) {
+            ptr.set(ByteUtil.EMPTY_BYTE_ARRAY);
+        }
+        return value;
+    }
+
+    private SortOrder getSortOrder() {
+        return getExpression().getSortOrder();
+    }
+
+    @Override
+    public final long getLong(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PLong.INSTANCE, ptr);
+            return value == null ? 0 : value.longValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeLong(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public final int getInt(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PInteger.INSTANCE, ptr);
+            return value == null ? 0 : value.intValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeInt(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public final short getShort(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PSmallint.INSTANCE, ptr);
+            return value == null ? 0 : value.shortValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeShort(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public final byte getByte(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PTinyint.INSTANCE, ptr);
+            return value == null ? 0 : value.byteValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeByte(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public final double getDouble(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PDouble.INSTANCE, ptr);
+            return value == null ? 0 : value.doubleValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeDouble(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public final float getFloat(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        if (codec == null) {
+            Number value = getNumber(tuple, PFloat.INSTANCE, ptr);
+            return value == null ? 0 : value.floatValue();
+        }
+        try {
+            return evaluate(tuple, ptr) ? codec.decodeFloat(ptr.get(), ptr.getOffset(), getSortOrder()) : 0;
+        } catch (RuntimeException e) {
+            throw unwrap(e);
         }
     }
 
@@ -229,6 +229,7 @@ public class FromCompiler {
             return new SingleTableColumnResolver(connection, (NamedTableNode) fromNode, true, 1, statement.getUdfParseNodes(), alwaysHitServer, mutatingTableName);
 
         MultiTableColumnResolver visitor = new MultiTableColumnResolver(connection, 1, statement.getUdfParseNodes(), mutatingTableName);
+        visitor.prefetchTables(fromNode);
         fromNode.accept(visitor);
         return visitor;
     }
@@ -761,6 +762,32 @@ public class FromCompiler {
             return tables;
         }
 
+        /**
+         * Gets the tables joined directly in the FROM clause with one round trip to the server
+         * instead of one round trip per table.
+         */
+        private void prefetchTables(TableNode fromNode) throws SQLException {
+            List<TableName> tableNames = Lists.newArrayList();
+            addTableNames(fromNode, tableNames);
+            if (tableNames.size() > 1) {
+                client.prefetchTables(tableNames);
+            }
+        }
+
+        private void addTableNames(TableNode node, List<TableName> tableNames) throws SQLException {
+            if (node instanceof JoinTableNode) {
+                addTableNames(((JoinTableNode) node).getLHS(), tableNames);
+                addTableNames(((JoinTableNode) node).getRHS(), tableNames);
+            } else if (node instanceof NamedTableNode) {
+                TableName name = ((NamedTableNode) node).getName();
+                String schemaName = name.getSchemaName();
+                if (schemaName == null && connection.getSchema() != null) {
+                    name = TableName.create(connection.getSchema(), name.getTableName());
+                }
+                tableNames.add(name);
+            }
+        }
+
         @Override
         public Void visit(BindTableNode boundTableNode) throws SQLException {
             throw new SQLFeatureNotSupportedException();
@@ -34,6 +34,7 @@ import org.apache.phoenix.compile.OrderByCompiler.OrderBy;
 import org.apache.phoenix.execute.AggregatePlan;
 import org.apache.phoenix.execute.ClientAggregatePlan;
 import org.apache.phoenix.execute.ClientScanPlan;
+import org.apache.phoenix.execute.GraceHashJoinPlan;
 import org.apache.phoenix.execute.HashJoinPlan;
 import org.apache.phoenix.execute.HashJoinPlan.HashSubPlan;
 import org.apache.phoenix.execute.HashJoinPlan.WhereClauseSubPlan;
@@ -103,6 +104,7 @@ public class QueryCompiler {
     private final SequenceManager sequenceManager;
     private final boolean projectTuples;
     private final boolean useSortMergeJoin;
+    private final boolean useGraceHashJoin;
     private final boolean noChildParentJoinOptimization;
 
     public QueryCompiler(PhoenixStatement statement, SelectStatement select, ColumnResolver resolver) throws SQLException {
@@ -123,6 +125,7 @@ public class QueryCompiler {
         this.sequenceManager = sequenceManager;
         this.projectTuples = projectTuples;
         this.useSortMergeJoin = select.getHint().hasHint(Hint.USE_SORT_MERGE_JOIN);
+        this.useGraceHashJoin = select.getHint().hasHint(Hint.USE_GRACE_HASH_JOIN);
         this.noChildParentJoinOptimization = select.getHint().hasHint(Hint.NO_CHILD_PARENT_JOIN_OPTIMIZATION);
         if (statement.getConnection().getQueryServices().getLowestClusterHBaseVersion() >= PhoenixDatabaseMetaData.ESSENTIAL_FAMILY_VERSION_THRESHOLD) {
             this.scan.setAttribute(LOAD_COLUMN_FAMILIES_ON_DEMAND_ATTR, QueryConstants.TRUE);
@@ -208,14 +211,14 @@ public class QueryCompiler {
      * This matches the input JoinTable node against patterns in the following order:
      * 1. A (leaf JoinTable node, which can be a named table reference or a subquery of any kind.)
      *    Returns the compilation result of a single table scan or of an independent subquery.
-     * 2. Matching either of (when hint USE_SORT_MERGE_JOIN not specified):
+     * 2. Matching either of (when hint USE_SORT_MERGE_JOIN or USE_GRACE_HASH_JOIN not specified):
      *        1) A LEFT/INNER JOIN B
      *        2) A LEFT/INNER JOIN B (LEFT/INNER JOIN C)+, if hint NO_STAR_JOIN not specified
      *        where A can be a named table reference or a flat subquery, and B, C, ... can be a named
      *        table reference, a sub-join or a subquery of any kind.
      *    Returns a HashJoinPlan{scan: A, hash: B, C, ...}.
      * 3. Matching pattern:
-     *        A RIGHT/INNER JOIN B (when hint USE_SORT_MERGE_JOIN not specified)
+     *        A RIGHT/INNER JOIN B (when hint USE_SORT_MERGE_JOIN or USE_GRACE_HASH_JOIN not specified)
      *        where B can be a named table reference or a flat subquery, and A can be a named table
      *        reference, a sub-join or a subquery of any kind.
      *    Returns a HashJoinPlan{scan: B, hash: A}.
@@ -225,7 +228,8 @@ public class QueryCompiler {
      *    viewed as a sub-join.
      * 4. All the rest that do not qualify for previous patterns or conditions, including FULL joins.
      *    Returns a SortMergeJoinPlan, the sorting part of which is pushed down to the JoinTable nodes
-     *    of both sides as order-by clauses.
+     *    of both sides as order-by clauses. If hint USE_GRACE_HASH_JOIN is specified, returns a
+     *    GraceHashJoinPlan instead for all but FULL joins, which needs neither side to be sorted.
      * NOTE that SEMI or ANTI joins are treated the same way as LEFT joins in JoinTable pattern matching.
      *    
      * If no join algorithm hint is provided, according to the above compilation process, a join query 
@@ -256,7 +260,7 @@ public class QueryCompiler {
         }
 
         boolean[] starJoinVector;
-        if (!this.useSortMergeJoin && (starJoinVector = joinTable.getStarJoinVector()) != null) {
+        if (!this.useSortMergeJoin && !this.useGraceHashJoin && (starJoinVector = joinTable.getStarJoinVector()) != null) {
             Table table = joinTable.getTable();
             PTable initialProjectedTable;
             TableRef tableRef;
@@ -336,7 +340,7 @@ public class QueryCompiler {
 
         JoinSpec lastJoinSpec = joinSpecs.get(joinSpecs.size() - 1);
         JoinType type = lastJoinSpec.getType();
-        if (!this.useSortMergeJoin 
+        if (!this.useSortMergeJoin && !this.useGraceHashJoin
                 && (type == JoinType.Right || type == JoinType.Inner) 
                 && lastJoinSpec.getJoinTable().getJoinSpecs().isEmpty()
                 && lastJoinSpec.getJoinTable().getTable().isFlat()) {
@@ -410,16 +414,17 @@ public class QueryCompiler {
             rhsOrderBy.add(NODE_FACTORY.orderBy(type == JoinType.Right ? condition.getLHS() : condition.getRHS(), false, true));
         }
         
+        boolean useGraceHashJoin = this.useGraceHashJoin && type != JoinType.Full;
         Scan lhsScan = ScanUtil.newScan(originalScan);
         StatementContext lhsCtx = new StatementContext(statement, context.getResolver(), lhsScan, new SequenceManager(statement));
         boolean preserveRowkey = !projectPKColumns && type != JoinType.Full;
-        QueryPlan lhsPlan = compileJoinQuery(lhsCtx, binds, lhsJoin, true, !preserveRowkey, lhsOrderBy);
+        QueryPlan lhsPlan = compileJoinQuery(lhsCtx, binds, lhsJoin, true, !preserveRowkey, useGraceHashJoin ? null : lhsOrderBy);
         PTable lhsProjTable = lhsCtx.getResolver().getTables().get(0).getTable();
-        boolean isInRowKeyOrder = preserveRowkey && lhsPlan.getOrderBy().getOrderByExpressions().isEmpty();
+        boolean isInRowKeyOrder = !useGraceHashJoin && preserveRowkey && lhsPlan.getOrderBy().getOrderByExpressions().isEmpty();
         
         Scan rhsScan = ScanUtil.newScan(originalScan);
         StatementContext rhsCtx = new StatementContext(statement, context.getResolver(), rhsScan, new SequenceManager(statement));
-        QueryPlan rhsPlan = compileJoinQuery(rhsCtx, binds, rhsJoin, true, true, rhsOrderBy);
+        QueryPlan rhsPlan = compileJoinQuery(rhsCtx, binds, rhsJoin, true, true, useGraceHashJoin ? null : rhsOrderBy);
         PTable rhsProjTable = rhsCtx.getResolver().getTables().get(0).getTable();
         
         Pair<List<Expression>, List<Expression>> joinConditions = lastJoinSpec.compileJoinConditions(type == JoinType.Right ? rhsCtx : lhsCtx, type == JoinType.Right ? lhsCtx : rhsCtx, false);
@@ -434,7 +439,9 @@ public class QueryCompiler {
         TableRef tableRef = resolver.getTables().get(0);
         StatementContext subCtx = new StatementContext(statement, resolver, ScanUtil.newScan(originalScan), new SequenceManager(statement));
         subCtx.setCurrentTable(tableRef);
-        QueryPlan innerPlan = new SortMergeJoinPlan(subCtx, joinTable.getStatement(), tableRef, type == JoinType.Right ? JoinType.Left : type, lhsPlan, rhsPlan, lhsKeyExpressions, rhsKeyExpressions, projectedTable, lhsProjTable, needsMerge ? rhsProjTable : null, fieldPosition, lastJoinSpec.isSingleValueOnly());
+        QueryPlan innerPlan = useGraceHashJoin
+                ? new GraceHashJoinPlan(subCtx, joinTable.getStatement(), tableRef, type == JoinType.Right ? JoinType.Left : type, lhsPlan, rhsPlan, lhsKeyExpressions, rhsKeyExpressions, projectedTable, lhsProjTable, needsMerge ? rhsProjTable : null, fieldPosition, lastJoinSpec.isSingleValueOnly())
+                : new SortMergeJoinPlan(subCtx, joinTable.getStatement(), tableRef, type == JoinType.Right ? JoinType.Left : type, lhsPlan, rhsPlan, lhsKeyExpressions, rhsKeyExpressions, projectedTable, lhsProjTable, needsMerge ? rhsProjTable : null, fieldPosition, lastJoinSpec.isSingleValueOnly());
         context.setCurrentTable(tableRef);
         context.setResolver(resolver);
         TableNode from = NODE_FACTORY.namedTable(tableRef.getTableAlias(), NODE_FACTORY.table(tableRef.getTable().getSchemaName().getString(), tableRef.getTable().getTableName().getString()));
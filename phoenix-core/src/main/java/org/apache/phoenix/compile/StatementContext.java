@@ -83,6 +83,8 @@ public class StatementContext {
     private Map<SelectStatement, Object> subqueryResults;
     private final ReadMetricQueue readMetricsQueue;
     private final OverAllQueryMetrics overAllQueryMetrics;
+    // Whether a row of the query was read from a region replica by a timeline consistent scan
+    private volatile boolean isStale;
     
     public StatementContext(PhoenixStatement statement) {
         this(statement, new Scan());
@@ -104,7 +106,9 @@ public class StatementContext {
     }
 
     public StatementContext(PhoenixStatement statement, ColumnResolver resolver, Scan scan, SequenceManager seqManager) {
-        this(statement, resolver, scan, seqManager, statement.getConnection().isRequestLevelMetricsEnabled());
+        // Request level metrics carry the server side scan metrics reported by EXPLAIN ANALYZE
+        this(statement, resolver, scan, seqManager, statement.getConnection().isRequestLevelMetricsEnabled()
+                || statement.getExecutionProfile() != null);
     }
     
     public StatementContext(PhoenixStatement statement, ColumnResolver resolver, Scan scan, SequenceManager seqManager, boolean isRequestMetricsEnabled) {
@@ -306,5 +310,13 @@ public class StatementContext {
     public OverAllQueryMetrics getOverallQueryMetrics() {
         return overAllQueryMetrics;
     }
+
+    public boolean isStale() {
+        return isStale;
+    }
+
+    public void setStale() {
+        isStale = true;
+    }
     
 }
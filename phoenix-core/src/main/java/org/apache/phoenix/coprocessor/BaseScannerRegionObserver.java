@@ -56,6 +56,7 @@ abstract public class BaseScannerRegionObserver extends BaseRegionObserver {
     public static final String ESTIMATED_DISTINCT_VALUES = "_EstDistinctValues";
     public static final String NON_AGGREGATE_QUERY = "_NonAggregateQuery";
     public static final String TOPN = "_TopN";
+    public static final String TOPN_THRESHOLD = "_TopNThreshold";
     public static final String UNGROUPED_AGG = "_UngroupedAgg";
     public static final String DELETE_AGG = "_DeleteAgg";
     public static final String UPSERT_SELECT_TABLE = "_UpsertSelectTable";
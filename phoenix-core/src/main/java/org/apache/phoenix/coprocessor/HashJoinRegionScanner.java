@@ -38,6 +38,7 @@ import org.apache.phoenix.execute.TupleProjector;
 import org.apache.phoenix.execute.TupleProjector.ProjectedValueTuple;
 import org.apache.phoenix.expression.Expression;
 import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.apache.phoenix.join.HashJoinCacheNotFoundException;
 import org.apache.phoenix.join.HashJoinInfo;
 import org.apache.phoenix.parse.JoinTableNode.JoinType;
 import org.apache.phoenix.schema.IllegalDataException;
@@ -97,10 +98,12 @@ public class HashJoinRegionScanner implements RegionScanner {
                 continue;
             }
             HashCache hashCache = (HashCache)cache.getServerCache(joinId);
-            if (hashCache == null)
-                throw new DoNotRetryIOException("Could not find hash cache for joinId: "
+            if (hashCache == null) {
+                Exception cause = new HashJoinCacheNotFoundException("Could not find hash cache for joinId: "
                         + Bytes.toString(joinId.get(), joinId.getOffset(), joinId.getLength())
                         + ". The cache might have expired and have been removed.");
+                throw new DoNotRetryIOException(cause.getMessage(), cause);
+            }
             hashCaches[i] = hashCache;
             tempSrcBitSet[i] = ValueBitSet.newInstance(joinInfo.getSchemas()[i]);
         }
@@ -151,10 +151,13 @@ import org.apache.phoenix.coprocessor.generated.MetaDataProtos.DropTableRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetFunctionsRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetSchemaRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest;
+import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest;
+import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionResponse;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.UpdateIndexStateRequest;
+import org.apache.phoenix.coprocessor.generated.PTableProtos;
 import org.apache.phoenix.expression.Expression;
 import org.apache.phoenix.expression.KeyValueColumnExpression;
 import org.apache.phoenix.expression.LiteralExpression;
@@ -498,59 +501,86 @@ public class MetaDataEndpointImpl extends MetaDataProtocol implements Coprocesso
     @Override
     public void getTable(RpcController controller, GetTableRequest request,
             RpcCallback<MetaDataResponse> done) {
+        try {
+            done.run(getTable(request));
+        } catch (Throwable t) {
+        	logger.error("getTable failed", t);
+            ProtobufUtil.setControllerException(controller,
+                ServerUtil.createIOException(SchemaUtil.getTableName(request.getSchemaName().toByteArray(),
+                        request.getTableName().toByteArray()), t));
+        }
+    }
+
+    /**
+     * Resolves many tables in a single RPC. The response holds one {@link MetaDataResponse} per
+     * requested table, in order, as the getTable RPC would have returned it. Tables whose rows
+     * aren't in this region come back with TABLE_NOT_IN_REGION, for the client to look them up
+     * with getTable.
+     */
+    @Override
+    public void getTables(RpcController controller, GetTablesRequest request,
+            RpcCallback<GetTablesResponse> done) {
+        GetTablesResponse.Builder builder = GetTablesResponse.newBuilder();
+        GetTableRequest tableRequest = null;
+        try {
+            for (int i = 0; i < request.getTablesCount(); i++) {
+                tableRequest = request.getTables(i);
+                builder.addTables(getTable(tableRequest));
+            }
+            done.run(builder.build());
+        } catch (Throwable t) {
+            logger.error("getTables failed", t);
+            ProtobufUtil.setControllerException(controller,
+                ServerUtil.createIOException(SchemaUtil.getTableName(tableRequest.getSchemaName().toByteArray(),
+                        tableRequest.getTableName().toByteArray()), t));
+        }
+    }
+
+    private MetaDataResponse getTable(GetTableRequest request) throws IOException, SQLException {
         MetaDataResponse.Builder builder = MetaDataResponse.newBuilder();
         byte[] tenantId = request.getTenantId().toByteArray();
         byte[] schemaName = request.getSchemaName().toByteArray();
         byte[] tableName = request.getTableName().toByteArray();
         byte[] key = SchemaUtil.getTableKey(tenantId, schemaName, tableName);
         long tableTimeStamp = request.getTableTimestamp();
-        try {
-            // TODO: check that key is within region.getStartKey() and region.getEndKey()
-            // and return special code to force client to lookup region from meta.
-            Region region = env.getRegion();
-            MetaDataMutationResult result = checkTableKeyInRegion(key, region);
-            if (result != null) {
-                done.run(MetaDataMutationResult.toProto(result));
-                return;
-            }
+        // TODO: check that key is within region.getStartKey() and region.getEndKey()
+        // and return special code to force client to lookup region from meta.
+        Region region = env.getRegion();
+        MetaDataMutationResult result = checkTableKeyInRegion(key, region);
+        if (result != null) {
+            return MetaDataMutationResult.toProto(result);
+        }
 
-            long currentTime = EnvironmentEdgeManager.currentTimeMillis();
-            PTable table = doGetTable(key, request.getClientTimestamp());
-            if (table == null) {
-                builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_NOT_FOUND);
-                builder.setMutationTime(currentTime);
-                done.run(builder.build());
-                return;
-            }
-            builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_ALREADY_EXISTS);
-            long disableIndexTimestamp = table.getIndexDisableTimestamp();
-            long minNonZerodisableIndexTimestamp = disableIndexTimestamp > 0 ? disableIndexTimestamp : Long.MAX_VALUE;
-            for (PTable index : table.getIndexes()) {
-                disableIndexTimestamp = index.getIndexDisableTimestamp();
-                if (disableIndexTimestamp > 0 && index.getIndexState() == PIndexState.ACTIVE && disableIndexTimestamp < minNonZerodisableIndexTimestamp) {
-                    minNonZerodisableIndexTimestamp = disableIndexTimestamp;
-                }
-            }
-            // Freeze time for table at min non-zero value of INDEX_DISABLE_TIMESTAMP
-            // This will keep the table consistent with index as the table has had one more
-            // batch applied to it.
-            if (minNonZerodisableIndexTimestamp == Long.MAX_VALUE) {
-                builder.setMutationTime(currentTime);
-            } else {
-                // Subtract one because we add one due to timestamp granularity in Windows
-                builder.setMutationTime(minNonZerodisableIndexTimestamp - 1);
+        long currentTime = EnvironmentEdgeManager.currentTimeMillis();
+        PTable table = doGetTable(key, request.getClientTimestamp());
+        if (table == null) {
+            builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_NOT_FOUND);
+            builder.setMutationTime(currentTime);
+            return builder.build();
+        }
+        builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_ALREADY_EXISTS);
+        long disableIndexTimestamp = table.getIndexDisableTimestamp();
+        long minNonZerodisableIndexTimestamp = disableIndexTimestamp > 0 ? disableIndexTimestamp : Long.MAX_VALUE;
+        for (PTable index : table.getIndexes()) {
+            disableIndexTimestamp = index.getIndexDisableTimestamp();
+            if (disableIndexTimestamp > 0 && index.getIndexState() == PIndexState.ACTIVE && disableIndexTimestamp < minNonZerodisableIndexTimestamp) {
+                minNonZerodisableIndexTimestamp = disableIndexTimestamp;
             }
+        }
+        // Freeze time for table at min non-zero value of INDEX_DISABLE_TIMESTAMP
+        // This will keep the table consistent with index as the table has had one more
+        // batch applied to it.
+        if (minNonZerodisableIndexTimestamp == Long.MAX_VALUE) {
+            builder.setMutationTime(currentTime);
+        } else {
+            // Subtract one because we add one due to timestamp granularity in Windows
+            builder.setMutationTime(minNonZerodisableIndexTimestamp - 1);
+        }
 
-            if (table.getTimeStamp() != tableTimeStamp) {
-                builder.setTable(PTableImpl.toProto(table));
-            }
-            done.run(builder.build());
-            return;
-        } catch (Throwable t) {
-        	logger.error("getTable failed", t);
-            ProtobufUtil.setControllerException(controller,
-                ServerUtil.createIOException(SchemaUtil.getTableName(schemaName, tableName), t));
+        if (table.getTimeStamp() != tableTimeStamp) {
+            builder.setTable(toProto(table));
         }
+        return builder.build();
     }
 
     private PTable buildTable(byte[] key, ImmutableBytesPtr cacheKey, Region region,
@@ -1455,7 +1485,7 @@ public class MetaDataEndpointImpl extends MetaDataProtocol implements Coprocesso
                         if (parentTable.getSequenceNumber() != parentTableSeqNumber) {
                             builder.setReturnCode(MetaDataProtos.MutationCode.CONCURRENT_TABLE_MUTATION);
                             builder.setMutationTime(EnvironmentEdgeManager.currentTimeMillis());
-                            builder.setTable(PTableImpl.toProto(parentTable));
+                            builder.setTable(toProto(parentTable));
                             done.run(builder.build());
                             return;
                         }
@@ -1474,14 +1504,14 @@ public class MetaDataEndpointImpl extends MetaDataProtocol implements Coprocesso
                         if (!isTableDeleted(table)) {
                             builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_ALREADY_EXISTS);
                             builder.setMutationTime(EnvironmentEdgeManager.currentTimeMillis());
-                            builder.setTable(PTableImpl.toProto(table));
+                            builder.setTable(toProto(table));
                             done.run(builder.build());
                             return;
                         }
                     } else {
                         builder.setReturnCode(MetaDataProtos.MutationCode.NEWER_TABLE_FOUND);
                         builder.setMutationTime(EnvironmentEdgeManager.currentTimeMillis());
-                        builder.setTable(PTableImpl.toProto(table));
+                        builder.setTable(toProto(table));
                         done.run(builder.build());
                         return;
                     }
@@ -3107,6 +3137,20 @@ public class MetaDataEndpointImpl extends MetaDataProtocol implements Coprocesso
         }
     }
 
+    /**
+     * Returns the protobuf form of the table, reusing the one built for a previous request if the
+     * same table is still being served from the metadata cache.
+     */
+    private PTableProtos.PTable toProto(PTable table) {
+        Cache<PTable, PTableProtos.PTable> serializedTableCache = GlobalCache.getInstance(this.env).getSerializedTableCache();
+        PTableProtos.PTable serializedTable = serializedTableCache.getIfPresent(table);
+        if (serializedTable == null) {
+            serializedTable = PTableImpl.toProto(table);
+            serializedTableCache.put(table, serializedTable);
+        }
+        return serializedTable;
+    }
+
     private PTable doGetTable(byte[] key, long clientTimeStamp) throws IOException, SQLException {
         return doGetTable(key, clientTimeStamp, null);
     }
@@ -3604,7 +3648,7 @@ public class MetaDataEndpointImpl extends MetaDataProtocol implements Coprocesso
                 builder.setReturnCode(MetaDataProtos.MutationCode.TABLE_ALREADY_EXISTS);
                 builder.setMutationTime(currentTime);
                 if (returnTable != null) {
-                    builder.setTable(PTableImpl.toProto(returnTable));
+                    builder.setTable(toProto(returnTable));
                 }
                 done.run(builder.build());
                 return;
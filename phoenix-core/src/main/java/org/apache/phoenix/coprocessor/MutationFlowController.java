@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.coprocessor;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.regionserver.Region;
+import org.apache.phoenix.coprocessor.metrics.MetricsMutationFlowSource;
+import org.apache.phoenix.coprocessor.metrics.MetricsMutationFlowSourceFactory;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Paces the batches of mutations written to a region by a server side UPSERT SELECT, DELETE
+ * or local index build, so that they don't push the region into blocking flushes.
+ *
+ * The size of the batches follows the memstore headroom left before the blocking memstore size,
+ * and a batch that doesn't fit in the headroom waits for about the time the observed flush rate
+ * takes to free enough of it, up to a maximum wait after which it is written anyway. All the
+ * controllers of a region server also share a token bucket limiting the rate at which they write.
+ *
+ * A controller is used by a single scan and is not thread safe.
+ */
+public class MutationFlowController {
+    // Bounds of a single wait for memstore headroom
+    @VisibleForTesting
+    static final long MIN_WAIT_MS = 10;
+    @VisibleForTesting
+    static final long MAX_WAIT_MS = 1000;
+    // Wait when no flush has been observed yet, as the flush rate is then unknown
+    @VisibleForTesting
+    static final long DEFAULT_WAIT_MS = 100;
+    // Smallest batch as a fraction of the configured batch size
+    private static final int MIN_BATCH_SIZE_DIVISOR = 16;
+    // Weight of the latest observation in the moving average of the flush rate
+    private static final double FLUSH_RATE_WEIGHT = 0.3;
+
+    private static TokenBucket regionServerBucket;
+
+    private final Region region;
+    private final long blockingMemStoreSize;
+    private final long maxBatchSizeBytes;
+    private final long minBatchSizeBytes;
+    private final long maxWaitMs;
+    private final TokenBucket bucket;
+    private final MetricsMutationFlowSource metricsSource;
+    // Bytes freed per millisecond by flushes, 0 until a flush is observed
+    private double flushRate;
+    private long lastMemStoreSize = -1;
+    private long lastSampleTime;
+    private long bytesWrittenSinceSample;
+    private long waitStartTime = -1;
+
+    public MutationFlowController(Region region, long blockingMemStoreSize, long maxBatchSizeBytes, Configuration conf) {
+        this(region, blockingMemStoreSize, maxBatchSizeBytes,
+                conf.getLong(QueryServices.MUTATION_FLOW_CONTROL_MAX_WAIT_MS_ATTRIB,
+                        QueryServicesOptions.DEFAULT_MUTATION_FLOW_CONTROL_MAX_WAIT_MS),
+                getRegionServerBucket(conf), MetricsMutationFlowSourceFactory.getInstance().create());
+    }
+
+    @VisibleForTesting
+    MutationFlowController(Region region, long blockingMemStoreSize, long maxBatchSizeBytes, long maxWaitMs,
+            TokenBucket bucket, MetricsMutationFlowSource metricsSource) {
+        this.region = region;
+        this.blockingMemStoreSize = blockingMemStoreSize;
+        this.maxBatchSizeBytes = maxBatchSizeBytes;
+        this.minBatchSizeBytes = Math.max(1, maxBatchSizeBytes / MIN_BATCH_SIZE_DIVISOR);
+        this.maxWaitMs = maxWaitMs;
+        this.bucket = bucket;
+        this.metricsSource = metricsSource;
+    }
+
+    private static synchronized TokenBucket getRegionServerBucket(Configuration conf) {
+        if (regionServerBucket == null) {
+            regionServerBucket = new TokenBucket(conf.getLong(QueryServices.MUTATION_FLOW_CONTROL_BYTES_PER_SEC_ATTRIB,
+                    QueryServicesOptions.DEFAULT_MUTATION_FLOW_CONTROL_BYTES_PER_SEC));
+        }
+        return regionServerBucket;
+    }
+
+    /**
+     * @return the size in bytes at which the next batch should be written, which shrinks with
+     * the memstore headroom so that concurrent writers don't overshoot it
+     */
+    public long getBatchSizeBytes() {
+        if (maxBatchSizeBytes <= 0) {
+            return maxBatchSizeBytes;
+        }
+        long headroom = blockingMemStoreSize - region.getMemstoreSize();
+        long batchSizeBytes;
+        if (headroom > 0) {
+            batchSizeBytes = headroom / 2;
+        } else {
+            // About what flushes free while a batch is waiting
+            batchSizeBytes = (long) (flushRate * DEFAULT_WAIT_MS);
+        }
+        return Math.max(minBatchSizeBytes, Math.min(maxBatchSizeBytes, batchSizeBytes));
+    }
+
+    /**
+     * Called before writing a batch until it returns 0.
+     * @param batchSizeBytes the size of the batch
+     * @return the time in milliseconds to wait for memstore headroom before calling again,
+     * or 0 if the batch can be written
+     */
+    public long getWaitTime(long batchSizeBytes) {
+        long now = EnvironmentEdgeManager.currentTimeMillis();
+        long memStoreSize = region.getMemstoreSize();
+        sample(now, memStoreSize);
+        long needed = memStoreSize + batchSizeBytes - blockingMemStoreSize;
+        // A batch larger than the whole headroom only waits for the memstore to be below the blocking size
+        if (needed <= 0 || (memStoreSize <= blockingMemStoreSize && batchSizeBytes > blockingMemStoreSize)) {
+            endWait(now, false);
+            return 0;
+        }
+        if (waitStartTime < 0) {
+            waitStartTime = now;
+            metricsSource.incrementThrottledBatches();
+        }
+        long remaining = waitStartTime + maxWaitMs - now;
+        if (remaining <= 0) {
+            endWait(now, true);
+            return 0;
+        }
+        long wait = flushRate > 0 ? (long) Math.ceil(needed / flushRate) : DEFAULT_WAIT_MS;
+        return Math.min(remaining, Math.max(MIN_WAIT_MS, Math.min(MAX_WAIT_MS, wait)));
+    }
+
+    /**
+     * Takes the batch from the token bucket of the region server, once it has enough memstore headroom.
+     * @param batchSizeBytes the size of the batch
+     * @return the time in milliseconds to wait before writing the batch
+     */
+    public long reserve(long batchSizeBytes) {
+        long wait = bucket.reserve(batchSizeBytes);
+        if (wait > 0) {
+            metricsSource.updateRateLimitWaitTime(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Called once a batch has been written.
+     * @param batchSizeBytes the size of the batch
+     */
+    public void committed(long batchSizeBytes) {
+        bytesWrittenSinceSample += batchSizeBytes;
+        metricsSource.updateBatchSizeBytes(batchSizeBytes);
+    }
+
+    private void endWait(long now, boolean forced) {
+        if (waitStartTime >= 0) {
+            metricsSource.updateMemstoreWaitTime(now - waitStartTime);
+            if (forced) {
+                metricsSource.incrementForcedBatches();
+            }
+            waitStartTime = -1;
+        }
+    }
+
+    /**
+     * Estimates the rate at which flushes free the memstore from what is left of the previous
+     * sample and of the batches written since.
+     */
+    private void sample(long now, long memStoreSize) {
+        if (lastMemStoreSize >= 0 && now > lastSampleTime) {
+            long freed = lastMemStoreSize + bytesWrittenSinceSample - memStoreSize;
+            if (freed > 0) {
+                double rate = (double) freed / (now - lastSampleTime);
+                flushRate = flushRate == 0 ? rate : (1 - FLUSH_RATE_WEIGHT) * flushRate + FLUSH_RATE_WEIGHT * rate;
+            }
+        }
+        lastMemStoreSize = memStoreSize;
+        lastSampleTime = now;
+        bytesWrittenSinceSample = 0;
+    }
+
+    @VisibleForTesting
+    double getFlushRate() {
+        return flushRate;
+    }
+
+    /**
+     * Token bucket holding up to one second worth of bytes at its rate. A rate of 0 or less
+     * disables it.
+     */
+    @VisibleForTesting
+    static class TokenBucket {
+        private final long bytesPerSec;
+        private double tokens;
+        private long lastRefillTime;
+
+        TokenBucket(long bytesPerSec) {
+            this.bytesPerSec = bytesPerSec;
+            this.tokens = bytesPerSec;
+            this.lastRefillTime = EnvironmentEdgeManager.currentTimeMillis();
+        }
+
+        /**
+         * Takes the bytes from the bucket, which may go in debt so that a caller never waits
+         * for more than its own bytes.
+         * @return the time in milliseconds until the bucket is out of debt
+         */
+        synchronized long reserve(long bytes) {
+            if (bytesPerSec <= 0) {
+                return 0;
+            }
+            long now = EnvironmentEdgeManager.currentTimeMillis();
+            if (now > lastRefillTime) {
+                tokens = Math.min(bytesPerSec, tokens + (double) (now - lastRefillTime) * bytesPerSec / 1000);
+                lastRefillTime = now;
+            }
+            tokens -= bytes;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * 1000 / bytesPerSec);
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.coprocessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.CoprocessorEnvironment;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.coprocessor.BaseRegionObserver;
+import org.apache.hadoop.hbase.coprocessor.ObserverContext;
+import org.apache.hadoop.hbase.coprocessor.RegionCoprocessorEnvironment;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.ipc.RpcControllerFactory;
+import org.apache.hadoop.hbase.ipc.controller.InterRegionServerIndexRpcControllerFactory;
+import org.apache.hadoop.hbase.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.protobuf.generated.ClientProtos.MutationProto;
+import org.apache.hadoop.hbase.protobuf.generated.ClientProtos.MutationProto.MutationType;
+import org.apache.hadoop.hbase.regionserver.MiniBatchOperationInProgress;
+import org.apache.hadoop.hbase.regionserver.Region;
+import org.apache.hadoop.hbase.regionserver.wal.HLogKey;
+import org.apache.hadoop.hbase.regionserver.wal.WALEdit;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.compile.RowProjector;
+import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.hbase.index.table.HTableInterfaceReference;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.apache.phoenix.hbase.index.write.IndexWriter;
+import org.apache.phoenix.hbase.index.write.RecoveryIndexWriter;
+import org.apache.phoenix.hbase.index.write.recovery.PerRegionIndexWriteCache;
+import org.apache.phoenix.hbase.index.write.recovery.StoreFailuresInCachePolicy;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.apache.phoenix.schema.RollupDefinition;
+import org.apache.phoenix.schema.tuple.MultiKeyValueTuple;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+import org.apache.phoenix.util.PropertiesUtil;
+import org.apache.phoenix.util.QueryUtil;
+import org.apache.phoenix.util.ServerUtil;
+import org.apache.phoenix.util.TrustedByteArrayOutputStream;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Region observer coprocessor adding the rows written to a table to the rollups defined over it.
+ * The rows of a batch are aggregated into a delta per group of each rollup, and each delta is
+ * turned into an atomic UPSERT with an ON DUPLICATE KEY UPDATE clause merging it into the row of
+ * its group. As index updates are, the deltas are added to the WAL edit of the batch and only
+ * written to the rollups once the batch has been written, killing the server if they can't be, so
+ * that they're written again when the WAL is replayed. The deltas of a batch that fails are never
+ * written.
+ * <p>
+ * Since only the rows written are aggregated, rollups may only be defined over tables with
+ * immutable rows: rows that already exist when written again, whether by a retried batch or
+ * by a later UPSERT, aren't added again, and deleting a row doesn't update the rollups. The
+ * COUNT and SUM deltas of a batch whose WAL edit is replayed after they were written are added
+ * again, and those of a batch written without the WAL are lost if they can't be written.
+ */
+public class RollupRegionObserver extends BaseRegionObserver {
+    private static final Log LOG = LogFactory.getLog(RollupRegionObserver.class);
+    private static final byte[] DELTA_QUALIFIER = Bytes.toBytes("ROLLUP_DELTA");
+
+    private List<RollupDefinition> rollups = Collections.emptyList();
+    // Row query expressions of each rollup, compiled on the first batch written
+    private List<Expression>[] rowExpressions;
+    private Configuration rollupConfig;
+    // Connection turning the deltas into mutations, opened on the first batch written
+    private PhoenixConnection connection;
+    private IndexWriter writer;
+    private IndexWriter recoveryWriter;
+    // Deltas that couldn't be written during WAL replay, written again once the region is open
+    private final PerRegionIndexWriteCache failedDeltas = new PerRegionIndexWriteCache();
+    // Deltas of the batch being written by the handler thread, written once the batch succeeds
+    private final ThreadLocal<List<Pair<Mutation, byte[]>>> batchDeltas =
+            new ThreadLocal<List<Pair<Mutation, byte[]>>>();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void start(CoprocessorEnvironment e) throws IOException {
+        super.start(e);
+        RegionCoprocessorEnvironment env = (RegionCoprocessorEnvironment)e;
+        rollups = RollupDefinition.fromDescriptor(env.getRegion().getTableDesc());
+        rowExpressions = new List[rollups.size()];
+        if (rollups.isEmpty()) {
+            return;
+        }
+        /*
+         * Write the deltas with the index priority, as index updates are, so that the handlers
+         * writing batches don't wait on the handlers of the regions of the rollups.
+         */
+        rollupConfig = PropertiesUtil.cloneConfig(e.getConfiguration());
+        rollupConfig.setClass(RpcControllerFactory.CUSTOM_CONTROLLER_CONF_KEY,
+                InterRegionServerIndexRpcControllerFactory.class, RpcControllerFactory.class);
+        DelegateRegionCoprocessorEnvironment writerEnv = new DelegateRegionCoprocessorEnvironment(rollupConfig, env);
+        String serverName = env.getRegionServerServices().getServerName().getServerName();
+        writer = new IndexWriter(writerEnv, serverName + "-rollup-writer");
+        recoveryWriter = new RecoveryIndexWriter(new StoreFailuresInCachePolicy(failedDeltas), writerEnv,
+                serverName + "-rollup-recovery-writer");
+    }
+
+    @Override
+    public void stop(CoprocessorEnvironment e) throws IOException {
+        if (writer != null) {
+            String msg = "RollupRegionObserver is being stopped";
+            writer.stop(msg);
+            recoveryWriter.stop(msg);
+        }
+        synchronized (this) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    LOG.warn("Failed to close the connection writing to the rollups", ex);
+                }
+                connection = null;
+            }
+        }
+        super.stop(e);
+    }
+
+    @Override
+    public void preBatchMutate(ObserverContext<RegionCoprocessorEnvironment> c,
+            MiniBatchOperationInProgress<Mutation> miniBatchOp) throws IOException {
+        batchDeltas.remove();
+        if (rollups.isEmpty()) {
+            return;
+        }
+        Region region = c.getEnvironment().getRegion();
+        List<Mutation> rows = getNewRows(region, miniBatchOp);
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Pair<Mutation, byte[]>> deltas;
+        try {
+            PhoenixConnection connection = getConnection();
+            // Neither the connection nor the expressions are thread safe
+            synchronized (connection) {
+                List<Pair<RollupDefinition, Object[]>> groupDeltas = Lists.newArrayList();
+                for (int i = 0; i < rollups.size(); i++) {
+                    for (Object[] delta : getDeltas(connection, i, rows)) {
+                        groupDeltas.add(new Pair<RollupDefinition, Object[]>(rollups.get(i), delta));
+                    }
+                }
+                deltas = toMutations(connection, groupDeltas);
+            }
+        } catch (ClassNotFoundException | SQLException e) {
+            ServerUtil.throwIOException("Failed to add the rows written to "
+                    + region.getRegionInfo().getRegionNameAsString() + " to its rollups", e);
+            return;
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Add the deltas to the WAL edit of a row written to the WAL so that they're replayed with it
+        int walIndex = getWALIndex(region, miniBatchOp, rows);
+        if (walIndex >= 0) {
+            WALEdit edit = miniBatchOp.getWalEdit(walIndex);
+            if (edit == null) {
+                edit = new WALEdit();
+                miniBatchOp.setWalEdit(walIndex, edit);
+            }
+            for (Pair<Mutation, byte[]> delta : deltas) {
+                edit.add(toWALCell(delta));
+            }
+        }
+        batchDeltas.set(deltas);
+    }
+
+    @Override
+    public void postBatchMutateIndispensably(ObserverContext<RegionCoprocessorEnvironment> c,
+            MiniBatchOperationInProgress<Mutation> miniBatchOp, boolean success) throws IOException {
+        List<Pair<Mutation, byte[]>> deltas = batchDeltas.get();
+        batchDeltas.remove();
+        if (!success || deltas == null) {
+            return;
+        }
+        writer.writeAndKillYourselfOnFailure(deltas, false);
+    }
+
+    @Override
+    public void preWALRestore(ObserverContext<RegionCoprocessorEnvironment> c, HRegionInfo info,
+            HLogKey logKey, WALEdit logEdit) throws IOException {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<Pair<Mutation, byte[]>> deltas = Lists.newArrayList();
+        for (Cell cell : logEdit.getCells()) {
+            if (CellUtil.matchingFamily(cell, WALEdit.METAFAMILY)
+                    && CellUtil.matchingQualifier(cell, DELTA_QUALIFIER)) {
+                deltas.add(fromWALCell(cell));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            recoveryWriter.writeAndKillYourselfOnFailure(deltas, false);
+        }
+    }
+
+    @Override
+    public void postOpen(ObserverContext<RegionCoprocessorEnvironment> c) {
+        Multimap<HTableInterfaceReference, Mutation> deltas = failedDeltas.getEdits(c.getEnvironment().getRegion());
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+        LOG.info("Writing the rollup deltas that couldn't be written during WAL replay of "
+                + c.getEnvironment().getRegion().getRegionInfo().getRegionNameAsString());
+        try {
+            writer.writeAndKillYourselfOnFailure(deltas, false);
+        } catch (IOException e) {
+            LOG.error("Failed to write the rollup deltas that couldn't be written during WAL replay", e);
+        }
+    }
+
+    private synchronized PhoenixConnection getConnection() throws ClassNotFoundException, SQLException {
+        if (connection == null) {
+            connection = QueryUtil.getConnectionOnServer(rollupConfig).unwrap(PhoenixConnection.class);
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    /**
+     * @return the index of an operation of the batch writing one of the rows and going to the WAL,
+     * or -1 if none of the rows go to the WAL
+     */
+    private static int getWALIndex(Region region, MiniBatchOperationInProgress<Mutation> miniBatchOp,
+            List<Mutation> rows) {
+        Durability defaultDurability = region.getTableDesc().getDurability();
+        for (int i = 0; i < miniBatchOp.size(); i++) {
+            Mutation m = miniBatchOp.getOperation(i);
+            Durability durability = m.getDurability() == Durability.USE_DEFAULT ? defaultDurability : m.getDurability();
+            if (durability != Durability.SKIP_WAL && rows.contains(m)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static KeyValue toWALCell(Pair<Mutation, byte[]> delta) throws IOException {
+        Mutation m = delta.getFirst();
+        MutationType type = m instanceof Increment ? MutationType.INCREMENT : MutationType.PUT;
+        TrustedByteArrayOutputStream bytes = new TrustedByteArrayOutputStream(128);
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            Bytes.writeByteArray(output, delta.getSecond());
+            Bytes.writeByteArray(output, ProtobufUtil.toMutation(type, m).toByteArray());
+        } finally {
+            output.close();
+        }
+        return new KeyValue(m.getRow(), WALEdit.METAFAMILY, DELTA_QUALIFIER,
+                EnvironmentEdgeManager.currentTimeMillis(), bytes.toByteArray());
+    }
+
+    private static Pair<Mutation, byte[]> fromWALCell(Cell cell) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(
+                cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
+        try {
+            byte[] tableName = Bytes.readByteArray(input);
+            MutationProto proto = MutationProto.parseFrom(Bytes.readByteArray(input));
+            Mutation m = proto.getMutateType() == MutationType.INCREMENT
+                    ? ProtobufUtil.toIncrement(proto, null) : ProtobufUtil.toMutation(proto);
+            return new Pair<Mutation, byte[]>(m, tableName);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * @return the Puts of the batch that write rows that don't exist yet, at or after the start
+     * timestamp of a rollup
+     */
+    private List<Mutation> getNewRows(Region region, MiniBatchOperationInProgress<Mutation> miniBatchOp)
+            throws IOException {
+        long minStartTimestamp = Long.MAX_VALUE;
+        for (RollupDefinition rollup : rollups) {
+            minStartTimestamp = Math.min(minStartTimestamp, rollup.getStartTimestamp());
+        }
+        List<Mutation> rows = Lists.newArrayListWithExpectedSize(miniBatchOp.size());
+        Set<ImmutableBytesPtr> rowKeys = Sets.newHashSetWithExpectedSize(miniBatchOp.size());
+        for (int i = 0; i < miniBatchOp.size(); i++) {
+            Mutation m = miniBatchOp.getOperation(i);
+            if (!(m instanceof Put) || m.isEmpty()
+                    || miniBatchOp.getOperationStatus(i).getOperationStatusCode() != HConstants.OperationStatusCode.NOT_RUN
+                    || getTimestamp(m) < minStartTimestamp
+                    || !rowKeys.add(new ImmutableBytesPtr(m.getRow()))) {
+                continue;
+            }
+            // The row locks are held, so the row can't be written concurrently
+            Get get = new Get(m.getRow());
+            get.setFilter(new FirstKeyOnlyFilter());
+            if (region.get(get).isEmpty()) {
+                rows.add(m);
+            }
+        }
+        return rows;
+    }
+
+    private static long getTimestamp(Mutation m) {
+        return m.getFamilyCellMap().values().iterator().next().get(0).getTimestamp();
+    }
+
+    /**
+     * Turns deltas into the mutations of the UPSERTs merging them into the rows of their groups.
+     */
+    private static List<Pair<Mutation, byte[]>> toMutations(PhoenixConnection connection,
+            List<Pair<RollupDefinition, Object[]>> deltas) throws SQLException {
+        List<Pair<Mutation, byte[]>> mutations = Lists.newArrayList();
+        if (deltas.isEmpty()) {
+            return mutations;
+        }
+        try {
+            for (Pair<RollupDefinition, Object[]> delta : deltas) {
+                delta.getFirst().upsert(connection, delta.getSecond());
+            }
+            Iterator<Pair<byte[],List<Mutation>>> iterator = connection.getMutationState().toMutations();
+            while (iterator.hasNext()) {
+                Pair<byte[],List<Mutation>> tableMutations = iterator.next();
+                for (Mutation m : tableMutations.getSecond()) {
+                    mutations.add(new Pair<Mutation, byte[]>(m, tableMutations.getFirst()));
+                }
+            }
+        } finally {
+            connection.rollback();
+        }
+        return mutations;
+    }
+
+    /**
+     * Aggregates the rows written by a batch into a delta per group of a rollup. Must be called
+     * holding the lock of the connection.
+     */
+    private Iterable<Object[]> getDeltas(PhoenixConnection connection, int rollupIndex, List<Mutation> rows)
+            throws SQLException {
+        RollupDefinition rollup = rollups.get(rollupIndex);
+        List<Expression> expressions = getRowExpressions(connection, rollupIndex);
+        PDataType[] types = new PDataType[expressions.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = expressions.get(i).getDataType();
+        }
+        Map<List<Object>, Object[]> deltas = Maps.newHashMap();
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        Object[] row = new Object[expressions.size()];
+        for (Mutation m : rows) {
+            // Rows written before the start timestamp were aggregated when the rollup was created
+            if (getTimestamp(m) < rollup.getStartTimestamp()) {
+                continue;
+            }
+            List<Cell> cells = Lists.newArrayList();
+            for (List<Cell> familyCells : m.getFamilyCellMap().values()) {
+                cells.addAll(familyCells);
+            }
+            Collections.sort(cells, KeyValue.COMPARATOR);
+            MultiKeyValueTuple tuple = new MultiKeyValueTuple(cells);
+            for (int j = 0; j < row.length; j++) {
+                Expression expression = expressions.get(j);
+                if (expression.evaluate(tuple, ptr) && ptr.getLength() > 0) {
+                    row[j] = types[j].toObject(ptr, types[j], expression.getSortOrder());
+                } else {
+                    row[j] = null;
+                }
+            }
+            Object[] delta = rollup.newDelta(row);
+            if (!rollup.hasGroup(delta)) {
+                continue;
+            }
+            List<Object> group = Lists.newArrayListWithExpectedSize(delta.length);
+            for (int j = 0; j < delta.length; j++) {
+                if (rollup.getColumns().get(j).isGroupBy()) {
+                    group.add(delta[j]);
+                }
+            }
+            Object[] groupDelta = deltas.get(group);
+            if (groupDelta == null) {
+                deltas.put(group, groupDelta = delta);
+            }
+            rollup.aggregate(groupDelta, row, types);
+        }
+        return deltas.values();
+    }
+
+    private List<Expression> getRowExpressions(PhoenixConnection connection, int rollupIndex) throws SQLException {
+        List<Expression> expressions = rowExpressions[rollupIndex];
+        if (expressions == null) {
+            QueryPlan plan = new PhoenixStatement(connection).compileQuery(rollups.get(rollupIndex).getRowQuery());
+            RowProjector projector = plan.getProjector();
+            expressions = Lists.newArrayListWithExpectedSize(projector.getColumnCount());
+            for (int i = 0; i < projector.getColumnCount(); i++) {
+                expressions.add(projector.getColumnProjector(i).getExpression());
+            }
+            rowExpressions[rollupIndex] = expressions;
+        }
+        return expressions;
+    }
+}
@@ -200,26 +200,37 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
             InterRegionServerIndexRpcControllerFactory.class, RpcControllerFactory.class);
     }
 
-    private void commitBatch(Region region, List<Mutation> mutations, long blockingMemstoreSize) throws IOException {
-      if (mutations.isEmpty()) {
-          return;
-      }
+    private void commitBatch(Region region, List<Mutation> mutations, MutationFlowController flowController) throws IOException {
+        if (mutations.isEmpty()) {
+            return;
+        }
 
         Mutation[] mutationArray = new Mutation[mutations.size()];
-      // When memstore size reaches blockingMemstoreSize we are waiting 3 seconds for the
-      // flush happen which decrease the memstore size and then writes allowed on the region.
-      for (int i = 0; region.getMemstoreSize() > blockingMemstoreSize && i < 30; i++) {
-          try {
-              checkForRegionClosing();
-              Thread.sleep(100);
-          } catch (InterruptedException e) {
-              Thread.currentThread().interrupt();
-              throw new IOException(e);
-          }
-      }
-      // TODO: should we use the one that is all or none?
-      logger.debug("Committing bactch of " + mutations.size() + " mutations for " + region.getRegionInfo().getTable().getNameAsString());
-      region.batchMutate(mutations.toArray(mutationArray), HConstants.NO_NONCE, HConstants.NO_NONCE);
+        long byteSize = 0;
+        for (Mutation mutation : mutations) {
+            byteSize += KeyValueUtil.calculateMutationDiskSize(mutation);
+        }
+        // Wait for flushes to free enough of the memstore for the batch, for at most
+        // phoenix.coprocessor.mutationFlowControl.maxWaitMs, and then for the write rate
+        // limit shared by the region server.
+        try {
+            for (long waitTime = flowController.getWaitTime(byteSize); waitTime > 0; waitTime = flowController.getWaitTime(byteSize)) {
+                checkForRegionClosing();
+                Thread.sleep(waitTime);
+            }
+            long waitTime = flowController.reserve(byteSize);
+            if (waitTime > 0) {
+                checkForRegionClosing();
+                Thread.sleep(waitTime);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        // TODO: should we use the one that is all or none?
+        logger.debug("Committing bactch of " + mutations.size() + " mutations for " + region.getRegionInfo().getTable().getNameAsString());
+        region.batchMutate(mutations.toArray(mutationArray), HConstants.NO_NONCE, HConstants.NO_NONCE);
+        flowController.committed(byteSize);
     }
 
     private void setIndexAndTransactionProperties(List<Mutation> mutations, byte[] indexUUID, byte[] indexMaintainersPtr, byte[] txState, boolean useIndexProto) {
@@ -453,6 +464,7 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
             maxBatchSizeBytes = conf.getLong(MUTATE_BATCH_SIZE_BYTES_ATTRIB,
                 QueryServicesOptions.DEFAULT_MUTATE_BATCH_SIZE_BYTES);
         }
+        MutationFlowController flowController = new MutationFlowController(region, blockingMemStoreSize, maxBatchSizeBytes, conf);
         Aggregators aggregators = ServerAggregators.deserialize(
                 scan.getAttribute(BaseScannerRegionObserver.AGGREGATORS), conf);
         Aggregator[] rowAggregators = aggregators.getAggregators();
@@ -700,16 +712,16 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
                                 }
                             }
                         }
-                        if (ServerUtil.readyToCommit(mutations.size(), mutations.byteSize(), maxBatchSize, maxBatchSizeBytes)) {
-                            commit(region, mutations, indexUUID, blockingMemStoreSize, indexMaintainersPtr,
+                        if (ServerUtil.readyToCommit(mutations.size(), mutations.byteSize(), maxBatchSize, flowController.getBatchSizeBytes())) {
+                            commit(region, mutations, indexUUID, flowController, indexMaintainersPtr,
                                 txState, targetHTable, useIndexProto, isPKChanging);
                             mutations.clear();
                         }
                         // Commit in batches based on UPSERT_BATCH_SIZE_BYTES_ATTRIB in config
 
-                        if (ServerUtil.readyToCommit(indexMutations.size(), indexMutations.byteSize(), maxBatchSize, maxBatchSizeBytes)) {
+                        if (ServerUtil.readyToCommit(indexMutations.size(), indexMutations.byteSize(), maxBatchSize, flowController.getBatchSizeBytes())) {
                             setIndexAndTransactionProperties(indexMutations, indexUUID, indexMaintainersPtr, txState, useIndexProto);
-                            commitBatch(region, indexMutations, blockingMemStoreSize);
+                            commitBatch(region, indexMutations, flowController);
                             indexMutations.clear();
                         }
                         aggregators.aggregate(rowAggregators, result);
@@ -717,13 +729,13 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
                     }
                 } while (hasMore);
                 if (!mutations.isEmpty()) {
-                    commit(region, mutations, indexUUID, blockingMemStoreSize, indexMaintainersPtr, txState,
+                    commit(region, mutations, indexUUID, flowController, indexMaintainersPtr, txState,
                         targetHTable, useIndexProto, isPKChanging);
                     mutations.clear();
                 }
 
                 if (!indexMutations.isEmpty()) {
-                    commitBatch(region, indexMutations, blockingMemStoreSize);
+                    commitBatch(region, indexMutations, flowController);
                     indexMutations.clear();
                 }
             }
@@ -779,7 +791,7 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
 
     }
 
-    private void commit(Region region, List<Mutation> mutations, byte[] indexUUID, long blockingMemStoreSize,
+    private void commit(Region region, List<Mutation> mutations, byte[] indexUUID, MutationFlowController flowController,
             byte[] indexMaintainersPtr, byte[] txState, HTable targetHTable, boolean useIndexProto,
                         boolean isPKChanging)
             throws IOException {
@@ -788,7 +800,7 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         setIndexAndTransactionProperties(mutations, indexUUID, indexMaintainersPtr, txState, useIndexProto);
         separateLocalAndRemoteMutations(targetHTable, region, mutations, localRegionMutations, remoteRegionMutations,
             isPKChanging);
-        commitBatch(region, localRegionMutations, blockingMemStoreSize);
+        commitBatch(region, localRegionMutations, flowController);
         commitBatchWithHTable(targetHTable, remoteRegionMutations);
         localRegionMutations.clear();
         remoteRegionMutations.clear();
@@ -15720,6 +15720,1541 @@ public final class MetaDataProtos {
     // @@protoc_insertion_point(class_scope:ClearTableFromCacheResponse)
   }
 
+  public interface GetTablesRequestOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // repeated .GetTableRequest tables = 1;
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> 
+        getTablesList();
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest getTables(int index);
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    int getTablesCount();
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder> 
+        getTablesOrBuilderList();
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder getTablesOrBuilder(
+        int index);
+
+    // optional int32 clientVersion = 2;
+    /**
+     * <code>optional int32 clientVersion = 2;</code>
+     */
+    boolean hasClientVersion();
+    /**
+     * <code>optional int32 clientVersion = 2;</code>
+     */
+    int getClientVersion();
+  }
+  /**
+   * Protobuf type {@code GetTablesRequest}
+   */
+  public static final class GetTablesRequest extends
+      com.google.protobuf.GeneratedMessage
+      implements GetTablesRequestOrBuilder {
+    // Use GetTablesRequest.newBuilder() to construct.
+    private GetTablesRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private GetTablesRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final GetTablesRequest defaultInstance;
+    public static GetTablesRequest getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public GetTablesRequest getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private GetTablesRequest(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                tables_ = new java.util.ArrayList<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              tables_.add(input.readMessage(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.PARSER, extensionRegistry));
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              clientVersion_ = input.readInt32();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          tables_ = java.util.Collections.unmodifiableList(tables_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesRequest_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.class, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<GetTablesRequest> PARSER =
+        new com.google.protobuf.AbstractParser<GetTablesRequest>() {
+      public GetTablesRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new GetTablesRequest(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<GetTablesRequest> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // repeated .GetTableRequest tables = 1;
+    public static final int TABLES_FIELD_NUMBER = 1;
+    private java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> tables_;
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> getTablesList() {
+      return tables_;
+    }
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    public java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder> 
+        getTablesOrBuilderList() {
+      return tables_;
+    }
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    public int getTablesCount() {
+      return tables_.size();
+    }
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest getTables(int index) {
+      return tables_.get(index);
+    }
+    /**
+     * <code>repeated .GetTableRequest tables = 1;</code>
+     */
+    public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder getTablesOrBuilder(
+        int index) {
+      return tables_.get(index);
+    }
+
+    // optional int32 clientVersion = 2;
+    public static final int CLIENTVERSION_FIELD_NUMBER = 2;
+    private int clientVersion_;
+    /**
+     * <code>optional int32 clientVersion = 2;</code>
+     */
+    public boolean hasClientVersion() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional int32 clientVersion = 2;</code>
+     */
+    public int getClientVersion() {
+      return clientVersion_;
+    }
+
+    private void initFields() {
+      tables_ = java.util.Collections.emptyList();
+      clientVersion_ = 0;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      for (int i = 0; i < getTablesCount(); i++) {
+        if (!getTables(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      for (int i = 0; i < tables_.size(); i++) {
+        output.writeMessage(1, tables_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt32(2, clientVersion_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < tables_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, tables_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, clientVersion_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest)) {
+        return super.equals(obj);
+      }
+      org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest other = (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest) obj;
+
+      boolean result = true;
+      result = result && getTablesList()
+          .equals(other.getTablesList());
+      result = result && (hasClientVersion() == other.hasClientVersion());
+      if (hasClientVersion()) {
+        result = result && (getClientVersion()
+            == other.getClientVersion());
+      }
+      result = result &&
+          getUnknownFields().equals(other.getUnknownFields());
+      return result;
+    }
+
+    private int memoizedHashCode = 0;
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptorForType().hashCode();
+      if (getTablesCount() > 0) {
+        hash = (37 * hash) + TABLES_FIELD_NUMBER;
+        hash = (53 * hash) + getTablesList().hashCode();
+      }
+      if (hasClientVersion()) {
+        hash = (37 * hash) + CLIENTVERSION_FIELD_NUMBER;
+        hash = (53 * hash) + getClientVersion();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code GetTablesRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesRequest_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.class, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.Builder.class);
+      }
+
+      // Construct using org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getTablesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (tablesBuilder_ == null) {
+          tables_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          tablesBuilder_.clear();
+        }
+        clientVersion_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesRequest_descriptor;
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest getDefaultInstanceForType() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.getDefaultInstance();
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest build() {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest buildPartial() {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest result = new org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (tablesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            tables_ = java.util.Collections.unmodifiableList(tables_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.tables_ = tables_;
+        } else {
+          result.tables_ = tablesBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.clientVersion_ = clientVersion_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest) {
+          return mergeFrom((org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest other) {
+        if (other == org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.getDefaultInstance()) return this;
+        if (tablesBuilder_ == null) {
+          if (!other.tables_.isEmpty()) {
+            if (tables_.isEmpty()) {
+              tables_ = other.tables_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureTablesIsMutable();
+              tables_.addAll(other.tables_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.tables_.isEmpty()) {
+            if (tablesBuilder_.isEmpty()) {
+              tablesBuilder_.dispose();
+              tablesBuilder_ = null;
+              tables_ = other.tables_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              tablesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getTablesFieldBuilder() : null;
+            } else {
+              tablesBuilder_.addAllMessages(other.tables_);
+            }
+          }
+        }
+        if (other.hasClientVersion()) {
+          setClientVersion(other.getClientVersion());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getTablesCount(); i++) {
+          if (!getTables(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // repeated .GetTableRequest tables = 1;
+      private java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> tables_ =
+        java.util.Collections.emptyList();
+      private void ensureTablesIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          tables_ = new java.util.ArrayList<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest>(tables_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder> tablesBuilder_;
+
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> getTablesList() {
+        if (tablesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(tables_);
+        } else {
+          return tablesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public int getTablesCount() {
+        if (tablesBuilder_ == null) {
+          return tables_.size();
+        } else {
+          return tablesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest getTables(int index) {
+        if (tablesBuilder_ == null) {
+          return tables_.get(index);
+        } else {
+          return tablesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder setTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.set(index, value);
+          onChanged();
+        } else {
+          tablesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder setTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder addTables(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.add(value);
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder addTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.add(index, value);
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder addTables(
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.add(builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder addTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder addAllTables(
+          java.lang.Iterable<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest> values) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          super.addAll(values, tables_);
+          onChanged();
+        } else {
+          tablesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder clearTables() {
+        if (tablesBuilder_ == null) {
+          tables_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          tablesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public Builder removeTables(int index) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.remove(index);
+          onChanged();
+        } else {
+          tablesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder getTablesBuilder(
+          int index) {
+        return getTablesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder getTablesOrBuilder(
+          int index) {
+        if (tablesBuilder_ == null) {
+          return tables_.get(index);  } else {
+          return tablesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder> 
+           getTablesOrBuilderList() {
+        if (tablesBuilder_ != null) {
+          return tablesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(tables_);
+        }
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder addTablesBuilder() {
+        return getTablesFieldBuilder().addBuilder(
+            org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder addTablesBuilder(
+          int index) {
+        return getTablesFieldBuilder().addBuilder(
+            index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .GetTableRequest tables = 1;</code>
+       */
+      public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder> 
+           getTablesBuilderList() {
+        return getTablesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder> 
+          getTablesFieldBuilder() {
+        if (tablesBuilder_ == null) {
+          tablesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequestOrBuilder>(
+                  tables_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          tables_ = null;
+        }
+        return tablesBuilder_;
+      }
+
+      // optional int32 clientVersion = 2;
+      private int clientVersion_ ;
+      /**
+       * <code>optional int32 clientVersion = 2;</code>
+       */
+      public boolean hasClientVersion() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional int32 clientVersion = 2;</code>
+       */
+      public int getClientVersion() {
+        return clientVersion_;
+      }
+      /**
+       * <code>optional int32 clientVersion = 2;</code>
+       */
+      public Builder setClientVersion(int value) {
+        bitField0_ |= 0x00000002;
+        clientVersion_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 clientVersion = 2;</code>
+       */
+      public Builder clearClientVersion() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        clientVersion_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:GetTablesRequest)
+    }
+
+    static {
+      defaultInstance = new GetTablesRequest(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:GetTablesRequest)
+  }
+
+  public interface GetTablesResponseOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // repeated .MetaDataResponse tables = 1;
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> 
+        getTablesList();
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse getTables(int index);
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    int getTablesCount();
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder> 
+        getTablesOrBuilderList();
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder getTablesOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code GetTablesResponse}
+   */
+  public static final class GetTablesResponse extends
+      com.google.protobuf.GeneratedMessage
+      implements GetTablesResponseOrBuilder {
+    // Use GetTablesResponse.newBuilder() to construct.
+    private GetTablesResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private GetTablesResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final GetTablesResponse defaultInstance;
+    public static GetTablesResponse getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public GetTablesResponse getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private GetTablesResponse(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                tables_ = new java.util.ArrayList<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              tables_.add(input.readMessage(org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          tables_ = java.util.Collections.unmodifiableList(tables_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesResponse_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.class, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<GetTablesResponse> PARSER =
+        new com.google.protobuf.AbstractParser<GetTablesResponse>() {
+      public GetTablesResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new GetTablesResponse(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<GetTablesResponse> getParserForType() {
+      return PARSER;
+    }
+
+    // repeated .MetaDataResponse tables = 1;
+    public static final int TABLES_FIELD_NUMBER = 1;
+    private java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> tables_;
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> getTablesList() {
+      return tables_;
+    }
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    public java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder> 
+        getTablesOrBuilderList() {
+      return tables_;
+    }
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    public int getTablesCount() {
+      return tables_.size();
+    }
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse getTables(int index) {
+      return tables_.get(index);
+    }
+    /**
+     * <code>repeated .MetaDataResponse tables = 1;</code>
+     */
+    public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder getTablesOrBuilder(
+        int index) {
+      return tables_.get(index);
+    }
+
+    private void initFields() {
+      tables_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      for (int i = 0; i < getTablesCount(); i++) {
+        if (!getTables(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      for (int i = 0; i < tables_.size(); i++) {
+        output.writeMessage(1, tables_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < tables_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, tables_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse)) {
+        return super.equals(obj);
+      }
+      org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse other = (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse) obj;
+
+      boolean result = true;
+      result = result && getTablesList()
+          .equals(other.getTablesList());
+      result = result &&
+          getUnknownFields().equals(other.getUnknownFields());
+      return result;
+    }
+
+    private int memoizedHashCode = 0;
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptorForType().hashCode();
+      if (getTablesCount() > 0) {
+        hash = (37 * hash) + TABLES_FIELD_NUMBER;
+        hash = (53 * hash) + getTablesList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code GetTablesResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesResponse_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.class, org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.Builder.class);
+      }
+
+      // Construct using org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getTablesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (tablesBuilder_ == null) {
+          tables_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          tablesBuilder_.clear();
+        }
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.internal_static_GetTablesResponse_descriptor;
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse getDefaultInstanceForType() {
+        return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance();
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse build() {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse buildPartial() {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse result = new org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse(this);
+        int from_bitField0_ = bitField0_;
+        if (tablesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            tables_ = java.util.Collections.unmodifiableList(tables_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.tables_ = tables_;
+        } else {
+          result.tables_ = tablesBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse) {
+          return mergeFrom((org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse other) {
+        if (other == org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance()) return this;
+        if (tablesBuilder_ == null) {
+          if (!other.tables_.isEmpty()) {
+            if (tables_.isEmpty()) {
+              tables_ = other.tables_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureTablesIsMutable();
+              tables_.addAll(other.tables_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.tables_.isEmpty()) {
+            if (tablesBuilder_.isEmpty()) {
+              tablesBuilder_.dispose();
+              tablesBuilder_ = null;
+              tables_ = other.tables_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              tablesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getTablesFieldBuilder() : null;
+            } else {
+              tablesBuilder_.addAllMessages(other.tables_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getTablesCount(); i++) {
+          if (!getTables(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // repeated .MetaDataResponse tables = 1;
+      private java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> tables_ =
+        java.util.Collections.emptyList();
+      private void ensureTablesIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          tables_ = new java.util.ArrayList<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse>(tables_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder> tablesBuilder_;
+
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> getTablesList() {
+        if (tablesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(tables_);
+        } else {
+          return tablesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public int getTablesCount() {
+        if (tablesBuilder_ == null) {
+          return tables_.size();
+        } else {
+          return tablesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse getTables(int index) {
+        if (tablesBuilder_ == null) {
+          return tables_.get(index);
+        } else {
+          return tablesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder setTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.set(index, value);
+          onChanged();
+        } else {
+          tablesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder setTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder addTables(org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.add(value);
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder addTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse value) {
+        if (tablesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTablesIsMutable();
+          tables_.add(index, value);
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder addTables(
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.add(builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder addTables(
+          int index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder builderForValue) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          tablesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder addAllTables(
+          java.lang.Iterable<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse> values) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          super.addAll(values, tables_);
+          onChanged();
+        } else {
+          tablesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder clearTables() {
+        if (tablesBuilder_ == null) {
+          tables_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          tablesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public Builder removeTables(int index) {
+        if (tablesBuilder_ == null) {
+          ensureTablesIsMutable();
+          tables_.remove(index);
+          onChanged();
+        } else {
+          tablesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder getTablesBuilder(
+          int index) {
+        return getTablesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder getTablesOrBuilder(
+          int index) {
+        if (tablesBuilder_ == null) {
+          return tables_.get(index);  } else {
+          return tablesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public java.util.List<? extends org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder> 
+           getTablesOrBuilderList() {
+        if (tablesBuilder_ != null) {
+          return tablesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(tables_);
+        }
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder addTablesBuilder() {
+        return getTablesFieldBuilder().addBuilder(
+            org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder addTablesBuilder(
+          int index) {
+        return getTablesFieldBuilder().addBuilder(
+            index, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .MetaDataResponse tables = 1;</code>
+       */
+      public java.util.List<org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder> 
+           getTablesBuilderList() {
+        return getTablesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder> 
+          getTablesFieldBuilder() {
+        if (tablesBuilder_ == null) {
+          tablesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse.Builder, org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponseOrBuilder>(
+                  tables_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          tables_ = null;
+        }
+        return tablesBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:GetTablesResponse)
+    }
+
+    static {
+      defaultInstance = new GetTablesResponse(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:GetTablesResponse)
+  }
+
   /**
    * Protobuf service {@code MetaDataService}
    */
@@ -15848,6 +17383,14 @@ public final class MetaDataProtos {
           org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest request,
           com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse> done);
 
+      /**
+       * <code>rpc getTables(.GetTablesRequest) returns (.GetTablesResponse);</code>
+       */
+      public abstract void getTables(
+          com.google.protobuf.RpcController controller,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request,
+          com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse> done);
+
     }
 
     public static com.google.protobuf.Service newReflectiveService(
@@ -15973,6 +17516,14 @@ public final class MetaDataProtos {
           impl.clearTableFromCache(controller, request, done);
         }
 
+        @java.lang.Override
+        public  void getTables(
+            com.google.protobuf.RpcController controller,
+            org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request,
+            com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse> done) {
+          impl.getTables(controller, request, done);
+        }
+
       };
     }
 
@@ -16025,6 +17576,8 @@ public final class MetaDataProtos {
               return impl.getVersion(controller, (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionRequest)request);
             case 14:
               return impl.clearTableFromCache(controller, (org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest)request);
+            case 15:
+              return impl.getTables(controller, (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest)request);
             default:
               throw new java.lang.AssertionError("Can't get here.");
           }
@@ -16069,6 +17622,8 @@ public final class MetaDataProtos {
               return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionRequest.getDefaultInstance();
             case 14:
               return org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest.getDefaultInstance();
+            case 15:
+              return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.getDefaultInstance();
             default:
               throw new java.lang.AssertionError("Can't get here.");
           }
@@ -16113,6 +17668,8 @@ public final class MetaDataProtos {
               return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionResponse.getDefaultInstance();
             case 14:
               return org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse.getDefaultInstance();
+            case 15:
+              return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance();
             default:
               throw new java.lang.AssertionError("Can't get here.");
           }
@@ -16241,6 +17798,14 @@ public final class MetaDataProtos {
         org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest request,
         com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse> done);
 
+    /**
+     * <code>rpc getTables(.GetTablesRequest) returns (.GetTablesResponse);</code>
+     */
+    public abstract void getTables(
+        com.google.protobuf.RpcController controller,
+        org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request,
+        com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse> done);
+
     public static final
         com.google.protobuf.Descriptors.ServiceDescriptor
         getDescriptor() {
@@ -16338,6 +17903,11 @@ public final class MetaDataProtos {
             com.google.protobuf.RpcUtil.<org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse>specializeCallback(
               done));
           return;
+        case 15:
+          this.getTables(controller, (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest)request,
+            com.google.protobuf.RpcUtil.<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse>specializeCallback(
+              done));
+          return;
         default:
           throw new java.lang.AssertionError("Can't get here.");
       }
@@ -16382,6 +17952,8 @@ public final class MetaDataProtos {
           return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionRequest.getDefaultInstance();
         case 14:
           return org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest.getDefaultInstance();
+        case 15:
+          return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest.getDefaultInstance();
         default:
           throw new java.lang.AssertionError("Can't get here.");
       }
@@ -16426,6 +17998,8 @@ public final class MetaDataProtos {
           return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionResponse.getDefaultInstance();
         case 14:
           return org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse.getDefaultInstance();
+        case 15:
+          return org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance();
         default:
           throw new java.lang.AssertionError("Can't get here.");
       }
@@ -16671,6 +18245,21 @@ public final class MetaDataProtos {
             org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse.class,
             org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse.getDefaultInstance()));
       }
+
+      public  void getTables(
+          com.google.protobuf.RpcController controller,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request,
+          com.google.protobuf.RpcCallback<org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse> done) {
+        channel.callMethod(
+          getDescriptor().getMethods().get(15),
+          controller,
+          request,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance(),
+          com.google.protobuf.RpcUtil.generalizeCallback(
+            done,
+            org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.class,
+            org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance()));
+      }
     }
 
     public static BlockingInterface newBlockingStub(
@@ -16753,6 +18342,11 @@ public final class MetaDataProtos {
           com.google.protobuf.RpcController controller,
           org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheRequest request)
           throws com.google.protobuf.ServiceException;
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse getTables(
+          com.google.protobuf.RpcController controller,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request)
+          throws com.google.protobuf.ServiceException;
     }
 
     private static final class BlockingStub implements BlockingInterface {
@@ -16941,6 +18535,18 @@ public final class MetaDataProtos {
           org.apache.phoenix.coprocessor.generated.MetaDataProtos.ClearTableFromCacheResponse.getDefaultInstance());
       }
 
+
+      public org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse getTables(
+          com.google.protobuf.RpcController controller,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest request)
+          throws com.google.protobuf.ServiceException {
+        return (org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse) channel.callBlockingMethod(
+          getDescriptor().getMethods().get(15),
+          controller,
+          request,
+          org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse.getDefaultInstance());
+      }
+
     }
 
     // @@protoc_insertion_point(class_scope:MetaDataService)
@@ -17046,6 +18652,16 @@ public final class MetaDataProtos {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_ClearTableFromCacheResponse_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_GetTablesRequest_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_GetTablesRequest_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_GetTablesResponse_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_GetTablesResponse_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -17108,46 +18724,51 @@ public final class MetaDataProtos {
       "tId\030\001 \002(\014\022\022\n\nschemaName\030\002 \002(\014\022\021\n\ttableNa" +
       "me\030\003 \002(\014\022\027\n\017clientTimestamp\030\004 \002(\003\022\025\n\rcli" +
       "entVersion\030\005 \001(\005\"\035\n\033ClearTableFromCacheR" +
-      "esponse*\365\004\n\014MutationCode\022\030\n\024TABLE_ALREAD" +
-      "Y_EXISTS\020\000\022\023\n\017TABLE_NOT_FOUND\020\001\022\024\n\020COLUM" +
-      "N_NOT_FOUND\020\002\022\031\n\025COLUMN_ALREADY_EXISTS\020\003" +
-      "\022\035\n\031CONCURRENT_TABLE_MUTATION\020\004\022\027\n\023TABLE" +
-      "_NOT_IN_REGION\020\005\022\025\n\021NEWER_TABLE_FOUND\020\006\022" +
-      "\034\n\030UNALLOWED_TABLE_MUTATION\020\007\022\021\n\rNO_PK_C" +
-      "OLUMNS\020\010\022\032\n\026PARENT_TABLE_NOT_FOUND\020\t\022\033\n\027",
-      "FUNCTION_ALREADY_EXISTS\020\n\022\026\n\022FUNCTION_NO" +
-      "T_FOUND\020\013\022\030\n\024NEWER_FUNCTION_FOUND\020\014\022\032\n\026F" +
-      "UNCTION_NOT_IN_REGION\020\r\022\031\n\025SCHEMA_ALREAD" +
-      "Y_EXISTS\020\016\022\026\n\022NEWER_SCHEMA_FOUND\020\017\022\024\n\020SC" +
-      "HEMA_NOT_FOUND\020\020\022\030\n\024SCHEMA_NOT_IN_REGION" +
-      "\020\021\022\032\n\026TABLES_EXIST_ON_SCHEMA\020\022\022\035\n\031UNALLO" +
-      "WED_SCHEMA_MUTATION\020\023\022%\n!AUTO_PARTITION_" +
-      "SEQUENCE_NOT_FOUND\020\024\022#\n\037CANNOT_COERCE_AU" +
-      "TO_PARTITION_ID\020\025\022\024\n\020TOO_MANY_INDEXES\020\0262" +
-      "\345\006\n\017MetaDataService\022/\n\010getTable\022\020.GetTab",
-      "leRequest\032\021.MetaDataResponse\0227\n\014getFunct" +
-      "ions\022\024.GetFunctionsRequest\032\021.MetaDataRes" +
-      "ponse\0221\n\tgetSchema\022\021.GetSchemaRequest\032\021." +
-      "MetaDataResponse\0225\n\013createTable\022\023.Create" +
-      "TableRequest\032\021.MetaDataResponse\022;\n\016creat" +
-      "eFunction\022\026.CreateFunctionRequest\032\021.Meta" +
-      "DataResponse\0227\n\014createSchema\022\024.CreateSch" +
-      "emaRequest\032\021.MetaDataResponse\0221\n\tdropTab" +
-      "le\022\021.DropTableRequest\032\021.MetaDataResponse" +
-      "\0223\n\ndropSchema\022\022.DropSchemaRequest\032\021.Met",
-      "aDataResponse\0227\n\014dropFunction\022\024.DropFunc" +
-      "tionRequest\032\021.MetaDataResponse\0221\n\taddCol" +
-      "umn\022\021.AddColumnRequest\032\021.MetaDataRespons" +
-      "e\0223\n\ndropColumn\022\022.DropColumnRequest\032\021.Me" +
-      "taDataResponse\022?\n\020updateIndexState\022\030.Upd" +
-      "ateIndexStateRequest\032\021.MetaDataResponse\022" +
-      "5\n\nclearCache\022\022.ClearCacheRequest\032\023.Clea" +
-      "rCacheResponse\0225\n\ngetVersion\022\022.GetVersio" +
-      "nRequest\032\023.GetVersionResponse\022P\n\023clearTa" +
-      "bleFromCache\022\033.ClearTableFromCacheReques",
-      "t\032\034.ClearTableFromCacheResponseBB\n(org.a" +
-      "pache.phoenix.coprocessor.generatedB\016Met" +
-      "aDataProtosH\001\210\001\001\240\001\001"
+      "esponse\"K\n\020GetTablesRequest\022 \n\006tables\030\001 " +
+      "\003(\0132\020.GetTableRequest\022\025\n\rclientVersion\030\002" +
+      " \001(\005\"6\n\021GetTablesResponse\022!\n\006tables\030\001 \003(" +
+      "\0132\021.MetaDataResponse*\365\004\n\014MutationCode\022\030\n" +
+      "\024TABLE_ALREADY_EXISTS\020\000\022\023\n\017TABLE_NOT_FOU" +
+      "ND\020\001\022\024\n\020COLUMN_NOT_FOUND\020\002\022\031\n\025COLUMN_ALR" +
+      "EADY_EXISTS\020\003\022\035\n\031CONCURRENT_TABLE_MUTATI",
+      "ON\020\004\022\027\n\023TABLE_NOT_IN_REGION\020\005\022\025\n\021NEWER_T" +
+      "ABLE_FOUND\020\006\022\034\n\030UNALLOWED_TABLE_MUTATION" +
+      "\020\007\022\021\n\rNO_PK_COLUMNS\020\010\022\032\n\026PARENT_TABLE_NO" +
+      "T_FOUND\020\t\022\033\n\027FUNCTION_ALREADY_EXISTS\020\n\022\026" +
+      "\n\022FUNCTION_NOT_FOUND\020\013\022\030\n\024NEWER_FUNCTION" +
+      "_FOUND\020\014\022\032\n\026FUNCTION_NOT_IN_REGION\020\r\022\031\n\025" +
+      "SCHEMA_ALREADY_EXISTS\020\016\022\026\n\022NEWER_SCHEMA_" +
+      "FOUND\020\017\022\024\n\020SCHEMA_NOT_FOUND\020\020\022\030\n\024SCHEMA_" +
+      "NOT_IN_REGION\020\021\022\032\n\026TABLES_EXIST_ON_SCHEM" +
+      "A\020\022\022\035\n\031UNALLOWED_SCHEMA_MUTATION\020\023\022%\n!AU",
+      "TO_PARTITION_SEQUENCE_NOT_FOUND\020\024\022#\n\037CAN" +
+      "NOT_COERCE_AUTO_PARTITION_ID\020\025\022\024\n\020TOO_MA" +
+      "NY_INDEXES\020\0262\231\007\n\017MetaDataService\022/\n\010getT" +
+      "able\022\020.GetTableRequest\032\021.MetaDataRespons" +
+      "e\0227\n\014getFunctions\022\024.GetFunctionsRequest\032" +
+      "\021.MetaDataResponse\0221\n\tgetSchema\022\021.GetSch" +
+      "emaRequest\032\021.MetaDataResponse\0225\n\013createT" +
+      "able\022\023.CreateTableRequest\032\021.MetaDataResp" +
+      "onse\022;\n\016createFunction\022\026.CreateFunctionR" +
+      "equest\032\021.MetaDataResponse\0227\n\014createSchem",
+      "a\022\024.CreateSchemaRequest\032\021.MetaDataRespon" +
+      "se\0221\n\tdropTable\022\021.DropTableRequest\032\021.Met" +
+      "aDataResponse\0223\n\ndropSchema\022\022.DropSchema" +
+      "Request\032\021.MetaDataResponse\0227\n\014dropFuncti" +
+      "on\022\024.DropFunctionRequest\032\021.MetaDataRespo" +
+      "nse\0221\n\taddColumn\022\021.AddColumnRequest\032\021.Me" +
+      "taDataResponse\0223\n\ndropColumn\022\022.DropColum" +
+      "nRequest\032\021.MetaDataResponse\022?\n\020updateInd" +
+      "exState\022\030.UpdateIndexStateRequest\032\021.Meta" +
+      "DataResponse\0225\n\nclearCache\022\022.ClearCacheR",
+      "equest\032\023.ClearCacheResponse\0225\n\ngetVersio" +
+      "n\022\022.GetVersionRequest\032\023.GetVersionRespon" +
+      "se\022P\n\023clearTableFromCache\022\033.ClearTableFr" +
+      "omCacheRequest\032\034.ClearTableFromCacheResp" +
+      "onse\0222\n\tgetTables\022\021.GetTablesRequest\032\022.G" +
+      "etTablesResponseBB\n(org.apache.phoenix.c" +
+      "oprocessor.generatedB\016MetaDataProtosH\001\210\001" +
+      "\001\240\001\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -17274,6 +18895,18 @@ public final class MetaDataProtos {
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_ClearTableFromCacheResponse_descriptor,
               new java.lang.String[] { });
+          internal_static_GetTablesRequest_descriptor =
+            getDescriptor().getMessageTypes().get(20);
+          internal_static_GetTablesRequest_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_GetTablesRequest_descriptor,
+              new java.lang.String[] { "Tables", "ClientVersion", });
+          internal_static_GetTablesResponse_descriptor =
+            getDescriptor().getMessageTypes().get(21);
+          internal_static_GetTablesResponse_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_GetTablesResponse_descriptor,
+              new java.lang.String[] { "Tables", });
           return null;
         }
       };
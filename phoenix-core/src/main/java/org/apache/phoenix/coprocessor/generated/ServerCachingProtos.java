@@ -5660,6 +5660,16 @@ public final class ServerCachingProtos {
      * <code>optional bool hasProtoBufIndexMaintainer = 6;</code>
      */
     boolean getHasProtoBufIndexMaintainer();
+
+    // optional bool persistent = 7;
+    /**
+     * <code>optional bool persistent = 7;</code>
+     */
+    boolean hasPersistent();
+    /**
+     * <code>optional bool persistent = 7;</code>
+     */
+    boolean getPersistent();
   }
   /**
    * Protobuf type {@code AddServerCacheRequest}
@@ -5758,6 +5768,11 @@ public final class ServerCachingProtos {
               hasProtoBufIndexMaintainer_ = input.readBool();
               break;
             }
+            case 56: {
+              bitField0_ |= 0x00000040;
+              persistent_ = input.readBool();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -5906,6 +5921,22 @@ public final class ServerCachingProtos {
       return hasProtoBufIndexMaintainer_;
     }
 
+    // optional bool persistent = 7;
+    public static final int PERSISTENT_FIELD_NUMBER = 7;
+    private boolean persistent_;
+    /**
+     * <code>optional bool persistent = 7;</code>
+     */
+    public boolean hasPersistent() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional bool persistent = 7;</code>
+     */
+    public boolean getPersistent() {
+      return persistent_;
+    }
+
     private void initFields() {
       tenantId_ = com.google.protobuf.ByteString.EMPTY;
       cacheId_ = com.google.protobuf.ByteString.EMPTY;
@@ -5913,6 +5944,7 @@ public final class ServerCachingProtos {
       cacheFactory_ = org.apache.phoenix.coprocessor.generated.ServerCacheFactoryProtos.ServerCacheFactory.getDefaultInstance();
       txState_ = com.google.protobuf.ByteString.EMPTY;
       hasProtoBufIndexMaintainer_ = false;
+      persistent_ = false;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -5964,6 +5996,9 @@ public final class ServerCachingProtos {
       if (((bitField0_ & 0x00000020) == 0x00000020)) {
         output.writeBool(6, hasProtoBufIndexMaintainer_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeBool(7, persistent_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -5997,6 +6032,10 @@ public final class ServerCachingProtos {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(6, hasProtoBufIndexMaintainer_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(7, persistent_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -6050,6 +6089,11 @@ public final class ServerCachingProtos {
         result = result && (getHasProtoBufIndexMaintainer()
             == other.getHasProtoBufIndexMaintainer());
       }
+      result = result && (hasPersistent() == other.hasPersistent());
+      if (hasPersistent()) {
+        result = result && (getPersistent()
+            == other.getPersistent());
+      }
       result = result &&
           getUnknownFields().equals(other.getUnknownFields());
       return result;
@@ -6087,6 +6131,10 @@ public final class ServerCachingProtos {
         hash = (37 * hash) + HASPROTOBUFINDEXMAINTAINER_FIELD_NUMBER;
         hash = (53 * hash) + hashBoolean(getHasProtoBufIndexMaintainer());
       }
+      if (hasPersistent()) {
+        hash = (37 * hash) + PERSISTENT_FIELD_NUMBER;
+        hash = (53 * hash) + hashBoolean(getPersistent());
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -6218,6 +6266,8 @@ public final class ServerCachingProtos {
         bitField0_ = (bitField0_ & ~0x00000010);
         hasProtoBufIndexMaintainer_ = false;
         bitField0_ = (bitField0_ & ~0x00000020);
+        persistent_ = false;
+        bitField0_ = (bitField0_ & ~0x00000040);
         return this;
       }
 
@@ -6278,6 +6328,10 @@ public final class ServerCachingProtos {
           to_bitField0_ |= 0x00000020;
         }
         result.hasProtoBufIndexMaintainer_ = hasProtoBufIndexMaintainer_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.persistent_ = persistent_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -6312,6 +6366,9 @@ public final class ServerCachingProtos {
         if (other.hasHasProtoBufIndexMaintainer()) {
           setHasProtoBufIndexMaintainer(other.getHasProtoBufIndexMaintainer());
         }
+        if (other.hasPersistent()) {
+          setPersistent(other.getPersistent());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -6734,6 +6791,39 @@ public final class ServerCachingProtos {
         return this;
       }
 
+      // optional bool persistent = 7;
+      private boolean persistent_ ;
+      /**
+       * <code>optional bool persistent = 7;</code>
+       */
+      public boolean hasPersistent() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional bool persistent = 7;</code>
+       */
+      public boolean getPersistent() {
+        return persistent_;
+      }
+      /**
+       * <code>optional bool persistent = 7;</code>
+       */
+      public Builder setPersistent(boolean value) {
+        bitField0_ |= 0x00000040;
+        persistent_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool persistent = 7;</code>
+       */
+      public Builder clearPersistent() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        persistent_ = false;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:AddServerCacheRequest)
     }
 
@@ -8542,22 +8632,23 @@ public final class ServerCachingProtos {
       "ed\030\020 \002(\010\022\033\n\023indexRowKeyByteSize\030\021 \002(\005\022\021\n" +
       "\timmutable\030\022 \002(\010\022&\n\021indexedColumnInfo\030\023 " +
       "\003(\0132\013.ColumnInfo\022\026\n\016encodingScheme\030\024 \002(\005" +
-      "\022\036\n\026immutableStorageScheme\030\025 \002(\005\"\305\001\n\025Add" +
+      "\022\036\n\026immutableStorageScheme\030\025 \002(\005\"\331\001\n\025Add" +
       "ServerCacheRequest\022\020\n\010tenantId\030\001 \001(\014\022\017\n\007" +
       "cacheId\030\002 \002(\014\022)\n\010cachePtr\030\003 \002(\0132\027.Immuta" +
       "bleBytesWritable\022)\n\014cacheFactory\030\004 \002(\0132\023" +
       ".ServerCacheFactory\022\017\n\007txState\030\005 \001(\014\022\"\n\032" +
-      "hasProtoBufIndexMaintainer\030\006 \001(\010\"(\n\026AddS" +
-      "erverCacheResponse\022\016\n\006return\030\001 \002(\010\"=\n\030Re",
-      "moveServerCacheRequest\022\020\n\010tenantId\030\001 \001(\014" +
-      "\022\017\n\007cacheId\030\002 \002(\014\"+\n\031RemoveServerCacheRe" +
-      "sponse\022\016\n\006return\030\001 \002(\0102\245\001\n\024ServerCaching" +
-      "Service\022A\n\016addServerCache\022\026.AddServerCac" +
-      "heRequest\032\027.AddServerCacheResponse\022J\n\021re" +
-      "moveServerCache\022\031.RemoveServerCacheReque" +
-      "st\032\032.RemoveServerCacheResponseBG\n(org.ap" +
-      "ache.phoenix.coprocessor.generatedB\023Serv" +
-      "erCachingProtosH\001\210\001\001\240\001\001"
+      "hasProtoBufIndexMaintainer\030\006 \001(\010\022\022\n\npers" +
+      "istent\030\007 \001(\010\"(\n\026AddServerCacheResponse\022\016",
+      "\n\006return\030\001 \002(\010\"=\n\030RemoveServerCacheReque" +
+      "st\022\020\n\010tenantId\030\001 \001(\014\022\017\n\007cacheId\030\002 \002(\014\"+\n" +
+      "\031RemoveServerCacheResponse\022\016\n\006return\030\001 \002" +
+      "(\0102\245\001\n\024ServerCachingService\022A\n\016addServer" +
+      "Cache\022\026.AddServerCacheRequest\032\027.AddServe" +
+      "rCacheResponse\022J\n\021removeServerCache\022\031.Re" +
+      "moveServerCacheRequest\032\032.RemoveServerCac" +
+      "heResponseBG\n(org.apache.phoenix.coproce" +
+      "ssor.generatedB\023ServerCachingProtosH\001\210\001\001" +
+      "\240\001\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -8593,7 +8684,7 @@ public final class ServerCachingProtos {
           internal_static_AddServerCacheRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_AddServerCacheRequest_descriptor,
-              new java.lang.String[] { "TenantId", "CacheId", "CachePtr", "CacheFactory", "TxState", "HasProtoBufIndexMaintainer", });
+              new java.lang.String[] { "TenantId", "CacheId", "CachePtr", "CacheFactory", "TxState", "HasProtoBufIndexMaintainer", "Persistent", });
           internal_static_AddServerCacheResponse_descriptor =
             getDescriptor().getMessageTypes().get(5);
           internal_static_AddServerCacheResponse_fieldAccessorTable = new
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.coprocessor.metrics;
+
+import org.apache.hadoop.hbase.metrics.BaseSource;
+import org.apache.phoenix.coprocessor.MutationFlowController;
+
+/**
+ * Interface for metrics about the throttling decisions of {@link MutationFlowController}.
+ */
+public interface MetricsMutationFlowSource extends BaseSource {
+  // Metrics2 and JMX constants
+  String METRICS_NAME = "PhoenixMutationFlow";
+  String METRICS_CONTEXT = "phoenix";
+  String METRICS_DESCRIPTION = "Metrics about the flow control of server side mutations";
+  String METRICS_JMX_CONTEXT = "RegionServer,sub=" + METRICS_NAME;
+
+  String MEMSTORE_WAIT_TIME = "memstoreWaitTime";
+  String MEMSTORE_WAIT_TIME_DESC = "Histogram for the time in milliseconds a batch waited for memstore headroom";
+  String THROTTLED_BATCHES = "throttledBatches";
+  String THROTTLED_BATCHES_DESC = "The number of batches that waited for memstore headroom";
+  String FORCED_BATCHES = "forcedBatches";
+  String FORCED_BATCHES_DESC = "The number of batches written without enough memstore headroom after the maximum wait";
+
+  String RATE_LIMIT_WAIT_TIME = "rateLimitWaitTime";
+  String RATE_LIMIT_WAIT_TIME_DESC = "Histogram for the time in milliseconds a batch waited for the region server write rate limit";
+
+  String BATCH_SIZE_BYTES = "batchSizeBytes";
+  String BATCH_SIZE_BYTES_DESC = "Histogram for the batch size in bytes chosen from the memstore headroom and flush rate";
+
+  /**
+   * Updates the histogram of the time waited for memstore headroom.
+   *
+   * @param t time waited in milliseconds
+   */
+  void updateMemstoreWaitTime(long t);
+
+  /**
+   * Increments the number of batches that waited for memstore headroom.
+   */
+  void incrementThrottledBatches();
+
+  /**
+   * Increments the number of batches written after waiting the maximum time for memstore headroom.
+   */
+  void incrementForcedBatches();
+
+  /**
+   * Updates the histogram of the time waited for the region server write rate limit.
+   *
+   * @param t time waited in milliseconds
+   */
+  void updateRateLimitWaitTime(long t);
+
+  /**
+   * Updates the histogram of the batch sizes.
+   *
+   * @param bytes the size of the batch in bytes
+   */
+  void updateBatchSizeBytes(long bytes);
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.coprocessor.metrics;
+
+import org.apache.hadoop.hbase.metrics.BaseSourceImpl;
+import org.apache.hadoop.metrics2.MetricHistogram;
+import org.apache.hadoop.metrics2.lib.MutableFastCounter;
+
+/**
+ * Implementation for tracking the flow control of server side mutations.
+ */
+public class MetricsMutationFlowSourceImpl extends BaseSourceImpl implements MetricsMutationFlowSource {
+
+    private final MetricHistogram memstoreWaitTimeHisto;
+    private final MutableFastCounter throttledBatches;
+    private final MutableFastCounter forcedBatches;
+    private final MetricHistogram rateLimitWaitTimeHisto;
+    private final MetricHistogram batchSizeBytesHisto;
+
+    public MetricsMutationFlowSourceImpl() {
+        this(METRICS_NAME, METRICS_DESCRIPTION, METRICS_CONTEXT, METRICS_JMX_CONTEXT);
+    }
+
+    public MetricsMutationFlowSourceImpl(String metricsName, String metricsDescription,
+        String metricsContext, String metricsJmxContext) {
+        super(metricsName, metricsDescription, metricsContext, metricsJmxContext);
+
+        memstoreWaitTimeHisto = getMetricsRegistry().newHistogram(MEMSTORE_WAIT_TIME, MEMSTORE_WAIT_TIME_DESC);
+        throttledBatches = getMetricsRegistry().newCounter(THROTTLED_BATCHES, THROTTLED_BATCHES_DESC, 0L);
+        forcedBatches = getMetricsRegistry().newCounter(FORCED_BATCHES, FORCED_BATCHES_DESC, 0L);
+        rateLimitWaitTimeHisto = getMetricsRegistry().newHistogram(RATE_LIMIT_WAIT_TIME, RATE_LIMIT_WAIT_TIME_DESC);
+        batchSizeBytesHisto = getMetricsRegistry().newHistogram(BATCH_SIZE_BYTES, BATCH_SIZE_BYTES_DESC);
+    }
+
+    @Override
+    public void updateMemstoreWaitTime(long t) {
+        memstoreWaitTimeHisto.add(t);
+    }
+
+    @Override
+    public void incrementThrottledBatches() {
+        throttledBatches.incr();
+    }
+
+    @Override
+    public void incrementForcedBatches() {
+        forcedBatches.incr();
+    }
+
+    @Override
+    public void updateRateLimitWaitTime(long t) {
+        rateLimitWaitTimeHisto.add(t);
+    }
+
+    @Override
+    public void updateBatchSizeBytes(long bytes) {
+        batchSizeBytesHisto.add(bytes);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import org.apache.phoenix.hbase.index.util.IndexManagementUtil;
 import org.apache.phoenix.jdbc.PhoenixDatabaseMetaData;
+import org.apache.phoenix.join.HashJoinCacheNotFoundException;
 import org.apache.phoenix.query.QueryConstants;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.schema.AmbiguousColumnException;
@@ -336,6 +337,8 @@ public enum SQLExceptionCode {
     AGGREGATION_NOT_ALLOWED_IN_ON_DUP_KEY(1222, "42Z22", "Aggregation in ON DUPLICATE KEY UPDATE is not allowed." ),
     CANNOT_SET_SCN_IN_ON_DUP_KEY(1223, "42Z23", "The CURRENT_SCN may not be set for statement using ON DUPLICATE KEY." ),
     CANNOT_USE_ON_DUP_KEY_WITH_GLOBAL_IDX(1224, "42Z24", "The ON DUPLICATE KEY clause may not be used when a table has a global index." ),
+    INVALID_ROLLUP_DEFINITION(1225, "42Z25", "Invalid rollup definition." ),
+    ROLLUP_SOURCE_NOT_SUPPORTED(1226, "42Z26", "Rollups may only be defined over non transactional tables with immutable rows." ),
 
     /** Parser error. (errorcode 06, sqlState 42P) */
     PARSER_ERROR(601, "42P00", "Syntax error.", Factory.SYNTAX_ERROR),
@@ -376,6 +379,13 @@ public enum SQLExceptionCode {
     MAX_COLUMNS_EXCEEDED(1136, "XCL36", "The number of columns exceed the maximum supported by the table's qualifier encoding scheme"),
     INVALID_IMMUTABLE_STORAGE_SCHEME_AND_COLUMN_QUALIFIER_BYTES(1137, "XCL37", "If IMMUTABLE_STORAGE_SCHEME property is not set to ONE_CELL_PER_COLUMN COLUMN_ENCODED_BYTES cannot be 0"),
     INVALID_IMMUTABLE_STORAGE_SCHEME_CHANGE(1138, "XCL38", "IMMUTABLE_STORAGE_SCHEME property cannot be changed from/to ONE_CELL_PER_COLUMN "),
+    EXPLAIN_ANALYZE_NOT_SUPPORTED(1139, "XCL39", "EXPLAIN ANALYZE is only supported for queries."),
+    HASH_JOIN_CACHE_NOT_FOUND(1140, "XCL40", "Hash join cache not found.", new Factory() {
+        @Override
+        public SQLException newException(SQLExceptionInfo info) {
+            return new HashJoinCacheNotFoundException(info.getMessage());
+        }
+    }),
 
     /**
      * Implementation defined class. Phoenix internal error. (errorcode 20, sqlstate INT).
@@ -42,6 +42,7 @@ import org.apache.phoenix.iterate.ConcatResultIterator;
 import org.apache.phoenix.iterate.DistinctAggregatingResultIterator;
 import org.apache.phoenix.iterate.FilterAggregatingResultIterator;
 import org.apache.phoenix.iterate.GroupedAggregatingResultIterator;
+import org.apache.phoenix.iterate.HashAggregatingResultIterator;
 import org.apache.phoenix.iterate.LimitingResultIterator;
 import org.apache.phoenix.iterate.MergeSortRowKeyResultIterator;
 import org.apache.phoenix.iterate.OffsetResultIterator;
@@ -59,12 +60,14 @@ import org.apache.phoenix.iterate.SpoolingResultIterator;
 import org.apache.phoenix.iterate.UngroupedAggregatingResultIterator;
 import org.apache.phoenix.parse.FilterableStatement;
 import org.apache.phoenix.parse.HintNode;
+import org.apache.phoenix.query.ConnectionQueryServices;
 import org.apache.phoenix.query.KeyRange;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.schema.PTable.IndexType;
 import org.apache.phoenix.schema.TableRef;
 import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.util.ReadOnlyProps;
 import org.apache.phoenix.util.ScanUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -174,6 +177,9 @@ public class AggregatePlan extends BaseQueryPlan {
             } else {
                 innerFactory = new SpoolingResultIterator.SpoolingResultIteratorFactory(services);
             }
+        } else if (useHashAggregation()) {
+            // Rows are aggregated by key as they come, so there's no need to sort them by scan
+            innerFactory = ParallelIteratorFactory.NOOP_FACTORY;
         } else {
             innerFactory = new OrderingResultIteratorFactory(services,this.getOrderBy());
         }
@@ -184,6 +190,20 @@ public class AggregatePlan extends BaseQueryPlan {
         return new WrappingResultIteratorFactory(innerFactory, parallelIteratorFactory);
     }
     
+    /**
+     * Whether to merge the partial aggregates of the groups into hash tables rather than merge
+     * sorting them, which is possible when the groups aren't returned in row key order.
+     */
+    private boolean useHashAggregation() {
+        if (groupBy.isEmpty() || groupBy.isOrderPreserving() || groupBy.isUngroupedAggregate()
+                || orderBy == OrderBy.FWD_ROW_KEY_ORDER_BY || orderBy == OrderBy.REV_ROW_KEY_ORDER_BY) {
+            return false;
+        }
+        return context.getConnection().getQueryServices().getProps().getBoolean(
+                QueryServices.CLIENT_HASH_AGGREGATION_ENABLED_ATTRIB,
+                QueryServicesOptions.DEFAULT_CLIENT_HASH_AGGREGATION_ENABLED);
+    }
+
     @Override
     protected ResultIterator newIterator(ParallelScanGrouper scanGrouper, Scan scan) throws SQLException {
         if (groupBy.isEmpty()) {
@@ -235,6 +255,18 @@ public class AggregatePlan extends BaseQueryPlan {
         // If salted or local index we still need a merge sort as we'll potentially have multiple group by keys that aren't contiguous.
         } else if (groupBy.isOrderPreserving() && !(this.getTableRef().getTable().getBucketNum() != null || this.getTableRef().getTable().getIndexType() == IndexType.LOCAL)) {
             aggResultIterator = new RowKeyOrderedAggregateResultIterator(iterators, aggregators);
+        } else if (useHashAggregation()) {
+            ConnectionQueryServices services = context.getConnection().getQueryServices();
+            ReadOnlyProps props = services.getProps();
+            aggResultIterator = new HashAggregatingResultIterator(iterators, context.getAggregationManager().getAggregators(),
+                    services.getExecutor(), services.getMemoryManager(),
+                    props.getInt(QueryServices.CLIENT_HASH_AGGREGATION_PARTITIONS_ATTRIB,
+                            QueryServicesOptions.DEFAULT_CLIENT_HASH_AGGREGATION_PARTITIONS),
+                    props.getLong(QueryServices.CLIENT_HASH_AGGREGATION_MAX_MEMORY_BYTES_ATTRIB,
+                            QueryServicesOptions.DEFAULT_CLIENT_HASH_AGGREGATION_MAX_MEMORY_BYTES),
+                    props.getLong(QueryServices.MAX_SPOOL_TO_DISK_BYTES_ATTRIB,
+                            QueryServicesOptions.DEFAULT_MAX_SPOOL_TO_DISK_BYTES),
+                    props.get(QueryServices.SPOOL_DIRECTORY, QueryServicesOptions.DEFAULT_SPOOL_DIRECTORY));
         } else {
             aggResultIterator = new GroupedAggregatingResultIterator(
                     new MergeSortRowKeyResultIterator(iterators, 0, this.getOrderBy() == OrderBy.REV_ROW_KEY_ORDER_BY),aggregators);
@@ -29,6 +29,7 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Consistency;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.io.TimeRange;
@@ -50,6 +51,7 @@ import org.apache.phoenix.expression.ProjectedColumnExpression;
 import org.apache.phoenix.index.IndexMaintainer;
 import org.apache.phoenix.iterate.DefaultParallelScanGrouper;
 import org.apache.phoenix.iterate.DelegateResultIterator;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.ParallelIteratorFactory;
 import org.apache.phoenix.iterate.ParallelScanGrouper;
 import org.apache.phoenix.iterate.ResultIterator;
@@ -269,7 +271,14 @@ public abstract class BaseQueryPlan implements QueryPlan {
 
         // set read consistency
         if (table.getType() != PTableType.SYSTEM) {
-            scan.setConsistency(connection.getConsistency());
+            Consistency consistency = connection.getConsistency();
+            // Hedge single row point lookups: with timeline consistency the HBase client reads the
+            // region replicas too when the primary region hasn't answered within the hedged read delay
+            if (connection.isHedgedPointLookups() && !table.isTransactional()
+                    && context.getScanRanges().getPointLookupCount() == 1) {
+                consistency = Consistency.TIMELINE;
+            }
+            scan.setConsistency(consistency);
         }
         // TODO fix this in PHOENIX-2415 Support ROW_TIMESTAMP with transactional tables
         if (!table.isTransactional()) {
@@ -348,7 +357,7 @@ public abstract class BaseQueryPlan implements QueryPlan {
         	LOG.debug(LogUtil.addCustomAnnotations("Scan ready for iteration: " + scan, connection));
         }
         
-        ResultIterator iterator = getWrappedIterator(dependencies, newIterator(scanGrouper, scan));
+        ResultIterator iterator = ExecutionProfile.wrap(this, getWrappedIterator(dependencies, newIterator(scanGrouper, scan)));
         if (LOG.isDebugEnabled()) {
         	LOG.debug(LogUtil.addCustomAnnotations("Iterator ready: " + iterator, connection));
         }
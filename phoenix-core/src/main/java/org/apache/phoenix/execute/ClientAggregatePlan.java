@@ -43,6 +43,7 @@ import org.apache.phoenix.expression.aggregator.ServerAggregators;
 import org.apache.phoenix.iterate.AggregatingResultIterator;
 import org.apache.phoenix.iterate.BaseGroupedAggregatingResultIterator;
 import org.apache.phoenix.iterate.DistinctAggregatingResultIterator;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.FilterAggregatingResultIterator;
 import org.apache.phoenix.iterate.FilterResultIterator;
 import org.apache.phoenix.iterate.GroupedAggregatingResultIterator;
@@ -137,7 +138,7 @@ public class ClientAggregatePlan extends ClientProcessingPlan {
             resultScanner = new SequenceResultIterator(resultScanner, context.getSequenceManager());
         }
         
-        return resultScanner;
+        return ExecutionProfile.wrap(this, resultScanner);
     }
 
     @Override
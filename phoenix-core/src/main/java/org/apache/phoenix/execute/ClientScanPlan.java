@@ -27,6 +27,7 @@ import org.apache.phoenix.compile.QueryPlan;
 import org.apache.phoenix.compile.RowProjector;
 import org.apache.phoenix.compile.StatementContext;
 import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.FilterResultIterator;
 import org.apache.phoenix.iterate.LimitingResultIterator;
 import org.apache.phoenix.iterate.OffsetResultIterator;
@@ -74,7 +75,7 @@ public class ClientScanPlan extends ClientProcessingPlan {
             iterator = new SequenceResultIterator(iterator, context.getSequenceManager());
         }
         
-        return iterator;
+        return ExecutionProfile.wrap(this, iterator);
     }
 
     @Override
@@ -0,0 +1,672 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.execute;
+
+import static org.apache.phoenix.util.NumberUtil.add;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.ParameterMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.phoenix.compile.ExplainPlan;
+import org.apache.phoenix.compile.GroupByCompiler.GroupBy;
+import org.apache.phoenix.compile.OrderByCompiler.OrderBy;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.compile.RowProjector;
+import org.apache.phoenix.compile.StatementContext;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.exception.SQLExceptionInfo;
+import org.apache.phoenix.execute.TupleProjector.ProjectedValueTuple;
+import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.apache.phoenix.iterate.DefaultParallelScanGrouper;
+import org.apache.phoenix.iterate.ExecutionProfile;
+import org.apache.phoenix.iterate.ParallelScanGrouper;
+import org.apache.phoenix.iterate.ResultIterator;
+import org.apache.phoenix.jdbc.PhoenixParameterMetaData;
+import org.apache.phoenix.jdbc.PhoenixStatement.Operation;
+import org.apache.phoenix.memory.MemoryManager;
+import org.apache.phoenix.memory.MemoryManager.MemoryChunk;
+import org.apache.phoenix.parse.FilterableStatement;
+import org.apache.phoenix.parse.JoinTableNode.JoinType;
+import org.apache.phoenix.query.ConnectionQueryServices;
+import org.apache.phoenix.query.KeyRange;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.schema.KeyValueSchema;
+import org.apache.phoenix.schema.PTable;
+import org.apache.phoenix.schema.TableRef;
+import org.apache.phoenix.schema.ValueBitSet;
+import org.apache.phoenix.schema.tuple.ResultTuple;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.ResultUtil;
+import org.apache.phoenix.util.ServerUtil;
+import org.apache.phoenix.util.SizedUtil;
+import org.apache.phoenix.util.TupleUtil;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Client side join of two plans that hash partitions both of them by the join key, the way a
+ * grace hash join does. The right hand side is read first. Its partitions are kept in memory as
+ * long as they fit in the memory allocated from the {@link MemoryManager}, the largest ones being
+ * spilled to disk otherwise. The rows of the left hand side that fall in a resident partition are
+ * joined right away, the others are spilled along with the partition. The spilled partitions are
+ * then joined one at a time, partitioning them again with a different hash function if they
+ * still don't fit in memory.
+ *
+ * The order of the rows of the left hand side is not preserved and full outer joins are not
+ * supported. This plan is used instead of a {@link HashJoinPlan} when the USE_GRACE_HASH_JOIN
+ * hint is specified, or when a hash join fails because its hash cache is too big to be sent to
+ * the region servers.
+ */
+public class GraceHashJoinPlan implements QueryPlan {
+    private static final Log LOG = LogFactory.getLog(GraceHashJoinPlan.class);
+    // Partitions are spilled up to this level, the partitions of the last level are kept in
+    // memory whatever their size, as the rows of these have mostly the same join key.
+    private static final int MAX_SPILL_LEVEL = 3;
+    private static final long TUPLE_OVERHEAD = SizedUtil.RESULT_SIZE + SizedUtil.KEY_VALUE_SIZE
+            + SizedUtil.IMMUTABLE_BYTES_PTR_SIZE + SizedUtil.MAP_ENTRY_SIZE + SizedUtil.POINTER_SIZE;
+
+    private final StatementContext context;
+    private final FilterableStatement statement;
+    private final TableRef table;
+    private final JoinType type;
+    private final QueryPlan lhsPlan;
+    private final QueryPlan rhsPlan;
+    private final List<Expression> lhsKeyExpressions;
+    private final List<Expression> rhsKeyExpressions;
+    private final KeyValueSchema joinedSchema;
+    private final KeyValueSchema lhsSchema;
+    private final KeyValueSchema rhsSchema;
+    private final int rhsFieldPosition;
+    private final boolean isSingleValueOnly;
+    private final Set<TableRef> tableRefs;
+    private final int numPartitions;
+    private final long maxMemoryBytes;
+    private final String spoolDirectory;
+    private Long estimatedBytes;
+    private Long estimatedRows;
+    private boolean explainPlanCalled;
+
+    public GraceHashJoinPlan(StatementContext context, FilterableStatement statement, TableRef table,
+            JoinType type, QueryPlan lhsPlan, QueryPlan rhsPlan, List<Expression> lhsKeyExpressions, List<Expression> rhsKeyExpressions,
+            PTable joinedTable, PTable lhsTable, PTable rhsTable, int rhsFieldPosition, boolean isSingleValueOnly) {
+        if (type == JoinType.Right || type == JoinType.Full) throw new IllegalArgumentException("JoinType should not be " + type);
+        this.context = context;
+        this.statement = statement;
+        this.table = table;
+        this.type = type;
+        this.lhsPlan = lhsPlan;
+        this.rhsPlan = rhsPlan;
+        this.lhsKeyExpressions = lhsKeyExpressions;
+        this.rhsKeyExpressions = rhsKeyExpressions;
+        this.joinedSchema = SortMergeJoinPlan.buildSchema(joinedTable);
+        this.lhsSchema = SortMergeJoinPlan.buildSchema(lhsTable);
+        this.rhsSchema = SortMergeJoinPlan.buildSchema(rhsTable);
+        this.rhsFieldPosition = rhsFieldPosition;
+        this.isSingleValueOnly = isSingleValueOnly;
+        this.tableRefs = Sets.newHashSetWithExpectedSize(lhsPlan.getSourceRefs().size() + rhsPlan.getSourceRefs().size());
+        this.tableRefs.addAll(lhsPlan.getSourceRefs());
+        this.tableRefs.addAll(rhsPlan.getSourceRefs());
+        ConnectionQueryServices services = context.getConnection().getQueryServices();
+        this.numPartitions = Math.max(2, services.getProps().getInt(
+                QueryServices.GRACE_HASH_JOIN_PARTITIONS_ATTRIB, QueryServicesOptions.DEFAULT_GRACE_HASH_JOIN_PARTITIONS));
+        this.maxMemoryBytes = services.getProps().getLong(
+                QueryServices.GRACE_HASH_JOIN_MAX_MEMORY_BYTES_ATTRIB, QueryServicesOptions.DEFAULT_GRACE_HASH_JOIN_MAX_MEMORY_BYTES);
+        this.spoolDirectory = services.getProps().get(
+                QueryServices.SPOOL_DIRECTORY, QueryServicesOptions.DEFAULT_SPOOL_DIRECTORY);
+    }
+
+    @Override
+    public Operation getOperation() {
+        return statement.getOperation();
+    }
+
+    @Override
+    public ResultIterator iterator(ParallelScanGrouper scanGrouper) throws SQLException {
+        return iterator(scanGrouper, null);
+    }
+
+    @Override
+    public ResultIterator iterator(ParallelScanGrouper scanGrouper, Scan scan) throws SQLException {
+        ResultIterator rhsIterator = rhsPlan.iterator(scanGrouper);
+        ResultIterator lhsIterator;
+        try {
+            lhsIterator = lhsPlan.iterator(scanGrouper);
+        } catch (SQLException e) {
+            rhsIterator.close();
+            throw e;
+        }
+        return ExecutionProfile.wrap(this, new GraceHashJoinIterator(lhsIterator, rhsIterator, 0));
+    }
+
+    @Override
+    public ResultIterator iterator() throws SQLException {
+        return iterator(DefaultParallelScanGrouper.getInstance());
+    }
+
+    @Override
+    public ExplainPlan getExplainPlan() throws SQLException {
+        explainPlanCalled = true;
+        List<String> steps = Lists.newArrayList();
+        steps.add("GRACE-HASH-JOIN (" + type.toString().toUpperCase() + ") TABLES");
+        for (String step : lhsPlan.getExplainPlan().getPlanSteps()) {
+            steps.add("    " + step);
+        }
+        steps.add("AND" + (rhsSchema.getFieldCount() == 0 ? " (SKIP MERGE)" : ""));
+        for (String step : rhsPlan.getExplainPlan().getPlanSteps()) {
+            steps.add("    " + step);
+        }
+        estimatedBytes = add(add(estimatedBytes, lhsPlan.getEstimatedBytesToScan()), rhsPlan.getEstimatedBytesToScan());
+        estimatedRows = add(add(estimatedRows, lhsPlan.getEstimatedRowsToScan()), rhsPlan.getEstimatedRowsToScan());
+        return new ExplainPlan(steps);
+    }
+
+    @Override
+    public StatementContext getContext() {
+        return context;
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() {
+        return PhoenixParameterMetaData.EMPTY_PARAMETER_META_DATA;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return lhsPlan.getEstimatedSize() + rhsPlan.getEstimatedSize();
+    }
+
+    @Override
+    public TableRef getTableRef() {
+        return table;
+    }
+
+    @Override
+    public RowProjector getProjector() {
+        return null;
+    }
+
+    @Override
+    public Integer getLimit() {
+        return null;
+    }
+
+    @Override
+    public Integer getOffset() {
+        return null;
+    }
+
+    @Override
+    public OrderBy getOrderBy() {
+        return null;
+    }
+
+    @Override
+    public GroupBy getGroupBy() {
+        return null;
+    }
+
+    @Override
+    public List<KeyRange> getSplits() {
+        return Collections.<KeyRange> emptyList();
+    }
+
+    @Override
+    public List<List<Scan>> getScans() {
+        return Collections.<List<Scan>> emptyList();
+    }
+
+    @Override
+    public FilterableStatement getStatement() {
+        return statement;
+    }
+
+    @Override
+    public boolean isDegenerate() {
+        return false;
+    }
+
+    @Override
+    public boolean isRowKeyOrdered() {
+        return false;
+    }
+
+    private class GraceHashJoinIterator implements ResultIterator {
+        private final ResultIterator lhsIterator;
+        private final ResultIterator rhsIterator;
+        private final int level;
+        private final HashFunction hashFunction;
+        private final Partition[] partitions;
+        private final LinkedList<Tuple> resultQueue;
+        private final ValueBitSet destBitSet;
+        private final ValueBitSet lhsBitSet;
+        private final ValueBitSet rhsBitSet;
+        private MemoryChunk chunk;
+        private boolean initialized;
+        private boolean lhsDone;
+        private int spilledPartitionIndex;
+        private ResultIterator spilledPartitionIterator;
+
+        public GraceHashJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator, int level) {
+            this.lhsIterator = lhsIterator;
+            this.rhsIterator = rhsIterator;
+            this.level = level;
+            this.hashFunction = Hashing.murmur3_32(level);
+            this.partitions = new Partition[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                partitions[i] = new Partition();
+            }
+            this.resultQueue = Lists.newLinkedList();
+            this.destBitSet = ValueBitSet.newInstance(joinedSchema);
+            this.lhsBitSet = ValueBitSet.newInstance(lhsSchema);
+            this.rhsBitSet = ValueBitSet.newInstance(rhsSchema);
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            try {
+                if (!initialized) {
+                    initialized = true;
+                    build();
+                }
+                while (resultQueue.isEmpty()) {
+                    if (!lhsDone) {
+                        Tuple lhs = lhsIterator.next();
+                        if (lhs == null) {
+                            lhsDone = true;
+                            releaseResidentPartitions();
+                        } else {
+                            probe(lhs);
+                        }
+                    } else if (spilledPartitionIterator != null) {
+                        Tuple next = spilledPartitionIterator.next();
+                        if (next != null) {
+                            return next;
+                        }
+                        spilledPartitionIterator.close();
+                        spilledPartitionIterator = null;
+                    } else if (!nextSpilledPartition()) {
+                        return null;
+                    }
+                }
+                return resultQueue.poll();
+            } catch (IOException e) {
+                throw ServerUtil.parseServerException(e);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            SQLException e = SortMergeJoinPlan.closeIterators(lhsIterator, rhsIterator);
+            try {
+                if (spilledPartitionIterator != null) {
+                    spilledPartitionIterator.close();
+                }
+            } catch (SQLException e1) {
+                if (e == null) {
+                    e = e1;
+                } else {
+                    e.setNextException(e1);
+                }
+            } finally {
+                for (Partition partition : partitions) {
+                    partition.close();
+                }
+                releaseChunk();
+            }
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        @Override
+        public void explain(List<String> planSteps) {
+        }
+
+        /**
+         * Read the right hand side into its partitions, spilling the largest resident partition
+         * each time the memory allocated for this level is exceeded.
+         */
+        private void build() throws SQLException, IOException {
+            chunk = context.getConnection().getQueryServices().getMemoryManager().allocate(0, maxMemoryBytes);
+            long residentBytes = 0;
+            for (Tuple rhs = rhsIterator.next(); rhs != null; rhs = rhsIterator.next()) {
+                ImmutableBytesPtr key = TupleUtil.getConcatenatedValue(rhs, rhsKeyExpressions);
+                Partition partition = partitions[getPartition(key)];
+                if (partition.isSpilled()) {
+                    partition.rhsSpill.write(rhs);
+                    continue;
+                }
+                residentBytes += partition.add(key, rhs);
+                while (residentBytes > chunk.getSize()) {
+                    Partition largest = level < MAX_SPILL_LEVEL ? getLargestResidentPartition() : null;
+                    if (largest == null) {
+                        // Throws InsufficientMemoryException if the memory is not available
+                        chunk.resize(Math.max(residentBytes, 2 * chunk.getSize()));
+                    } else {
+                        residentBytes -= largest.spill();
+                    }
+                }
+            }
+            if (LOG.isDebugEnabled()) {
+                int spilled = 0;
+                for (Partition partition : partitions) {
+                    spilled += partition.isSpilled() ? 1 : 0;
+                }
+                LOG.debug("Grace hash join spilled " + spilled + " of " + numPartitions + " partitions at level " + level);
+            }
+        }
+
+        private void probe(Tuple lhs) throws SQLException, IOException {
+            ImmutableBytesPtr key = TupleUtil.getConcatenatedValue(lhs, lhsKeyExpressions);
+            Partition partition = partitions[getPartition(key)];
+            if (partition.isSpilled()) {
+                partition.spillLhs(lhs);
+                return;
+            }
+            List<Tuple> rhsTuples = partition.tuples.get(key);
+            if (rhsTuples == null) {
+                if (type == JoinType.Left) {
+                    resultQueue.offer(join(lhs, null));
+                } else if (type == JoinType.Anti) {
+                    resultQueue.offer(lhs);
+                }
+                return;
+            }
+            if (type == JoinType.Semi) {
+                resultQueue.offer(lhs);
+                return;
+            }
+            if (type == JoinType.Anti) {
+                return;
+            }
+            if (isSingleValueOnly && rhsTuples.size() > 1) {
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.SINGLE_ROW_SUBQUERY_RETURNS_MULTIPLE_ROWS).build().buildException();
+            }
+            for (Tuple rhs : rhsTuples) {
+                resultQueue.offer(join(lhs, rhs));
+            }
+        }
+
+        /**
+         * Start joining the next spilled partition that has rows on both sides.
+         * @return false if there is no spilled partition left
+         */
+        private boolean nextSpilledPartition() throws IOException {
+            while (spilledPartitionIndex < numPartitions) {
+                Partition partition = partitions[spilledPartitionIndex++];
+                if (partition.isSpilled() && partition.lhsSpill != null) {
+                    spilledPartitionIterator = new GraceHashJoinIterator(
+                            partition.lhsSpill.iterator(), partition.rhsSpill.iterator(), level + 1);
+                    return true;
+                }
+                partition.close();
+            }
+            return false;
+        }
+
+        private void releaseResidentPartitions() {
+            for (Partition partition : partitions) {
+                partition.tuples = null;
+            }
+            releaseChunk();
+        }
+
+        private void releaseChunk() {
+            if (chunk != null) {
+                chunk.close();
+                chunk = null;
+            }
+        }
+
+        private int getPartition(ImmutableBytesPtr key) {
+            int hash = hashFunction.hashBytes(key.get(), key.getOffset(), key.getLength()).asInt();
+            return (hash & Integer.MAX_VALUE) % numPartitions;
+        }
+
+        private Partition getLargestResidentPartition() {
+            Partition largest = null;
+            for (Partition partition : partitions) {
+                if (!partition.isSpilled() && partition.size > 0 && (largest == null || partition.size > largest.size)) {
+                    largest = partition;
+                }
+            }
+            return largest;
+        }
+
+        private Tuple join(Tuple lhs, Tuple rhs) throws SQLException {
+            try {
+                ProjectedValueTuple t = null;
+                if (lhs instanceof ProjectedValueTuple) {
+                    t = (ProjectedValueTuple) lhs;
+                } else {
+                    ImmutableBytesWritable ptr = context.getTempPtr();
+                    TupleProjector.decodeProjectedValue(lhs, ptr);
+                    lhsBitSet.clear();
+                    lhsBitSet.or(ptr);
+                    int bitSetLen = lhsBitSet.getEstimatedLength();
+                    t = new ProjectedValueTuple(lhs, lhs.getValue(0).getTimestamp(),
+                            ptr.get(), ptr.getOffset(), ptr.getLength(), bitSetLen);
+                }
+                return rhsBitSet == ValueBitSet.EMPTY_VALUE_BITSET ?
+                        t : TupleProjector.mergeProjectedValue(
+                                t, joinedSchema, destBitSet,
+                                rhs, rhsSchema, rhsBitSet, rhsFieldPosition, true);
+            } catch (IOException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    /**
+     * Partition of both sides of the join. The right hand side rows of a resident partition are
+     * kept in memory by join key. Once spilled, the rows of both sides go to their own file.
+     */
+    private class Partition {
+        private Map<ImmutableBytesPtr, List<Tuple>> tuples = Maps.newHashMap();
+        private long size;
+        private SpillFile rhsSpill;
+        private SpillFile lhsSpill;
+
+        private boolean isSpilled() {
+            return rhsSpill != null;
+        }
+
+        private long add(ImmutableBytesPtr key, Tuple tuple) {
+            List<Tuple> list = tuples.get(key);
+            if (list == null) {
+                list = Lists.newArrayListWithExpectedSize(1);
+                tuples.put(key, list);
+            }
+            list.add(tuple);
+            long tupleSize = TUPLE_OVERHEAD;
+            for (int i = 0; i < tuple.size(); i++) {
+                tupleSize += KeyValueUtil.ensureKeyValue(tuple.getValue(i)).getLength();
+            }
+            size += tupleSize;
+            return tupleSize;
+        }
+
+        /**
+         * Write the right hand side rows of the partition to disk and release them.
+         * @return the estimated size in bytes of the released rows
+         */
+        private long spill() throws IOException {
+            rhsSpill = new SpillFile(spoolDirectory);
+            for (List<Tuple> list : tuples.values()) {
+                for (Tuple tuple : list) {
+                    rhsSpill.write(tuple);
+                }
+            }
+            tuples = null;
+            long spilledBytes = size;
+            size = 0;
+            return spilledBytes;
+        }
+
+        private void spillLhs(Tuple tuple) throws IOException {
+            if (lhsSpill == null) {
+                lhsSpill = new SpillFile(spoolDirectory);
+            }
+            lhsSpill.write(tuple);
+        }
+
+        private void close() {
+            tuples = null;
+            if (rhsSpill != null) {
+                rhsSpill.delete();
+            }
+            if (lhsSpill != null) {
+                lhsSpill.delete();
+            }
+        }
+    }
+
+    private static class SpillFile {
+        private final File file;
+        private final DataOutputStream out;
+        private boolean closed;
+
+        private SpillFile(String spoolDirectory) throws IOException {
+            this.file = File.createTempFile("GraceHashJoin", ".bin", new File(spoolDirectory));
+            this.file.deleteOnExit();
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        }
+
+        private void write(Tuple tuple) throws IOException {
+            TupleUtil.write(tuple, out);
+        }
+
+        private void closeOutput() {
+            if (!closed) {
+                closed = true;
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                    // ignore close error
+                }
+            }
+        }
+
+        /**
+         * Get an iterator over the rows written to the file, which deletes the file once closed.
+         */
+        private ResultIterator iterator() throws IOException {
+            out.close();
+            closed = true;
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            return new ResultIterator() {
+                @Override
+                public Tuple next() throws SQLException {
+                    try {
+                        int length;
+                        try {
+                            length = WritableUtils.readVInt(in);
+                        } catch (EOFException e) {
+                            return null;
+                        }
+                        byte[] buffer = new byte[length];
+                        in.readFully(buffer);
+                        return new ResultTuple(ResultUtil.toResult(new ImmutableBytesWritable(buffer)));
+                    } catch (IOException e) {
+                        throw ServerUtil.parseServerException(e);
+                    }
+                }
+
+                @Override
+                public void close() throws SQLException {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                        // ignore close error
+                    } finally {
+                        delete();
+                    }
+                }
+
+                @Override
+                public void explain(List<String> planSteps) {
+                }
+            };
+        }
+
+        private void delete() {
+            closeOutput();
+            file.delete();
+        }
+    }
+
+    @Override
+    public boolean useRoundRobinIterator() {
+        return false;
+    }
+
+    @Override
+    public Set<TableRef> getSourceRefs() {
+        return tableRefs;
+    }
+
+    public QueryPlan getLhsPlan() {
+        return lhsPlan;
+    }
+
+    public QueryPlan getRhsPlan() {
+        return rhsPlan;
+    }
+
+    @Override
+    public Long getEstimatedRowsToScan() throws SQLException {
+        if (!explainPlanCalled) {
+            getExplainPlan();
+        }
+        return estimatedRows;
+    }
+
+    @Override
+    public Long getEstimatedBytesToScan() throws SQLException {
+        if (!explainPlanCalled) {
+            getExplainPlan();
+        }
+        return estimatedBytes;
+    }
+}
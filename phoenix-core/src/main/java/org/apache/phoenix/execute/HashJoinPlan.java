@@ -22,8 +22,10 @@ import static org.apache.phoenix.util.LogUtil.addCustomAnnotations;
 import static org.apache.phoenix.util.NumberUtil.add;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
@@ -36,6 +38,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.phoenix.cache.ServerCacheClient.ServerCache;
+import org.apache.phoenix.compile.BindManager;
 import org.apache.phoenix.compile.ColumnProjector;
 import org.apache.phoenix.compile.ExplainPlan;
 import org.apache.phoenix.compile.FromCompiler;
@@ -51,18 +54,25 @@ import org.apache.phoenix.expression.Expression;
 import org.apache.phoenix.expression.InListExpression;
 import org.apache.phoenix.expression.LiteralExpression;
 import org.apache.phoenix.expression.RowValueConstructorExpression;
+import org.apache.phoenix.iterate.ExecutionProfile;
+import org.apache.phoenix.iterate.ExecutionProfile.OperatorProfile;
 import org.apache.phoenix.iterate.FilterResultIterator;
 import org.apache.phoenix.iterate.ParallelScanGrouper;
 import org.apache.phoenix.iterate.ResultIterator;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.job.FairShareJob;
 import org.apache.phoenix.job.JobManager.JobCallable;
 import org.apache.phoenix.join.HashCacheClient;
+import org.apache.phoenix.join.HashJoinCacheNotFoundException;
 import org.apache.phoenix.join.HashJoinInfo;
 import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.apache.phoenix.parse.BindParseNode;
 import org.apache.phoenix.parse.FilterableStatement;
+import org.apache.phoenix.parse.HintNode.Hint;
 import org.apache.phoenix.parse.ParseNode;
 import org.apache.phoenix.parse.SQLParser;
 import org.apache.phoenix.parse.SelectStatement;
+import org.apache.phoenix.parse.StatelessTraverseAllStatementVisitor;
 import org.apache.phoenix.query.ConnectionQueryServices;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
@@ -76,10 +86,13 @@ import org.apache.phoenix.schema.types.PVarbinary;
 import org.apache.phoenix.util.SQLCloseable;
 import org.apache.phoenix.util.SQLCloseables;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 
-public class HashJoinPlan extends DelegateQueryPlan {
+public class HashJoinPlan extends DelegateQueryPlan implements FairShareJob {
     private static final Log LOG = LogFactory.getLog(HashJoinPlan.class);
 
     private final SelectStatement statement;
@@ -88,10 +101,13 @@ public class HashJoinPlan extends DelegateQueryPlan {
     private final boolean recompileWhereClause;
     private final Set<TableRef> tableRefs;
     private final int maxServerCacheTimeToLive;
+    private final boolean usePersistentCache;
     private final List<SQLCloseable> dependencies = Lists.newArrayList();
     private HashCacheClient hashClient;
     private AtomicLong firstJobEndTime;
     private List<Expression> keyRangeExpressions;
+    private List<byte[]> reusedPersistentCacheIds;
+    private boolean rebuildPersistentCaches;
     private Long estimatedRows;
     private Long estimatedBytes;
     private boolean explainPlanCalled;
@@ -129,6 +145,7 @@ public class HashJoinPlan extends DelegateQueryPlan {
         }
         this.maxServerCacheTimeToLive = plan.getContext().getConnection().getQueryServices().getProps().getInt(
                 QueryServices.MAX_SERVER_CACHE_TIME_TO_LIVE_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_TIME_TO_LIVE_MS);
+        this.usePersistentCache = statement.getHint().hasHint(Hint.USE_PERSISTENT_CACHE);
     }
     
     @Override
@@ -138,6 +155,7 @@ public class HashJoinPlan extends DelegateQueryPlan {
         
     @Override
     public ResultIterator iterator(ParallelScanGrouper scanGrouper, Scan scan) throws SQLException {
+        final Scan originalScan = scan;
         if (scan == null) {
             scan = delegate.getContext().getScan();
         }
@@ -147,12 +165,15 @@ public class HashJoinPlan extends DelegateQueryPlan {
         ConnectionQueryServices services = connection.getQueryServices();
         ExecutorService executor = services.getExecutor();
         List<Future<ServerCache>> futures = Lists.newArrayListWithExpectedSize(count);
+        OperatorProfile buildProfile = ExecutionProfile.newOperator(getContext(), "HashJoinPlan SUB PLANS");
+        long buildStartTime = buildProfile == null ? 0 : System.nanoTime();
         if (joinInfo != null) {
             hashClient = hashClient != null ? 
                     hashClient 
                   : new HashCacheClient(delegate.getContext().getConnection());
             firstJobEndTime = new AtomicLong(0);
             keyRangeExpressions = new CopyOnWriteArrayList<Expression>();
+            reusedPersistentCacheIds = new CopyOnWriteArrayList<byte[]>();
         }
         
         for (int i = 0; i < count; i++) {
@@ -201,6 +222,9 @@ public class HashJoinPlan extends DelegateQueryPlan {
             SQLCloseables.closeAllQuietly(dependencies);
             throw firstException;
         }
+        if (buildProfile != null) {
+            buildProfile.addElapsedTime(System.nanoTime() - buildStartTime);
+        }
         
         Expression postFilter = null;
         boolean hasKeyRangeExpressions = keyRangeExpressions != null && !keyRangeExpressions.isEmpty();
@@ -225,8 +249,68 @@ public class HashJoinPlan extends DelegateQueryPlan {
         if (statement.getInnerSelectStatement() != null && postFilter != null) {
             iterator = new FilterResultIterator(iterator, postFilter);
         }
+        if (reusedPersistentCacheIds != null && !reusedPersistentCacheIds.isEmpty()) {
+            iterator = new PersistentCacheRetryIterator(iterator, scanGrouper, originalScan);
+        }
         
-        return iterator;
+        return ExecutionProfile.wrap(this, iterator);
+    }
+
+    /**
+     * Runs the query again, building and sending all its hash caches, if a region server no longer
+     * has a persisted hash cache that the query reused. This is only possible before any row has
+     * been returned, which is when the scans using the hash caches are started.
+     */
+    private class PersistentCacheRetryIterator implements ResultIterator {
+        private final ParallelScanGrouper scanGrouper;
+        private final Scan scan;
+        private final List<byte[]> persistentCacheIds;
+        private ResultIterator iterator;
+        private boolean started;
+
+        private PersistentCacheRetryIterator(ResultIterator iterator, ParallelScanGrouper scanGrouper, Scan scan) {
+            this.iterator = iterator;
+            this.scanGrouper = scanGrouper;
+            this.scan = scan;
+            this.persistentCacheIds = Lists.newArrayList(reusedPersistentCacheIds);
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            if (started) {
+                return iterator.next();
+            }
+            started = true;
+            try {
+                return iterator.next();
+            } catch (HashJoinCacheNotFoundException e) {
+                LOG.warn(addCustomAnnotations("Persisted hash cache not found on region server, rebuilding hash caches: "
+                        + e.getMessage(), getContext().getConnection()));
+                // Closes the hash caches of the sub plans that weren't reused
+                iterator.close();
+                dependencies.clear();
+                for (byte[] cacheId : persistentCacheIds) {
+                    hashClient.invalidatePersistentHashCache(cacheId);
+                }
+                rebuildPersistentCaches = true;
+                try {
+                    iterator = HashJoinPlan.this.iterator(scanGrouper, scan);
+                } finally {
+                    rebuildPersistentCaches = false;
+                }
+                return iterator.next();
+            }
+        }
+
+        @Override
+        public void explain(List<String> planSteps) {
+            iterator.explain(planSteps);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            iterator.close();
+        }
     }
 
     private Expression createKeyRangeExpression(Expression lhsExpression,
@@ -387,24 +471,37 @@ public class HashJoinPlan extends DelegateQueryPlan {
             }
             ServerCache cache = null;
             if (hashExpressions != null) {
-                ResultIterator iterator = plan.iterator();
-                try {
-                    cache =
-                            parent.hashClient.addHashCache(ranges, iterator,
-                                plan.getEstimatedSize(), hashExpressions, singleValueOnly,
-                                parent.delegate.getTableRef(), keyRangeRhsExpression,
-                                keyRangeRhsValues);
-                    long endTime = System.currentTimeMillis();
-                    boolean isSet = parent.firstJobEndTime.compareAndSet(0, endTime);
-                    if (!isSet && (endTime
-                            - parent.firstJobEndTime.get()) > parent.maxServerCacheTimeToLive) {
-                        LOG.warn(addCustomAnnotations(
-                            "Hash plan [" + index
-                                    + "] execution seems too slow. Earlier hash cache(s) might have expired on servers.",
-                            parent.delegate.getContext().getConnection()));
+                byte[] persistentCacheId = null;
+                if (parent.usePersistentCache) {
+                    persistentCacheId = getPersistentCacheId(parent);
+                    if (!parent.rebuildPersistentCaches) {
+                        cache = parent.hashClient.getPersistentHashCache(ranges, persistentCacheId,
+                            parent.delegate.getTableRef(), keyRangeRhsValues);
+                    }
+                    if (cache != null) {
+                        parent.reusedPersistentCacheIds.add(persistentCacheId);
+                    }
+                }
+                if (cache == null) {
+                    ResultIterator iterator = plan.iterator();
+                    try {
+                        cache =
+                                parent.hashClient.addHashCache(ranges, iterator,
+                                    plan.getEstimatedSize(), hashExpressions, singleValueOnly,
+                                    parent.delegate.getTableRef(), keyRangeRhsExpression,
+                                    keyRangeRhsValues, persistentCacheId);
+                        long endTime = System.currentTimeMillis();
+                        boolean isSet = parent.firstJobEndTime.compareAndSet(0, endTime);
+                        if (!isSet && (endTime
+                                - parent.firstJobEndTime.get()) > parent.maxServerCacheTimeToLive) {
+                            LOG.warn(addCustomAnnotations(
+                                "Hash plan [" + index
+                                        + "] execution seems too slow. Earlier hash cache(s) might have expired on servers.",
+                                parent.delegate.getContext().getConnection()));
+                        }
+                    } finally {
+                        iterator.close();
                     }
-                } finally {
-                    iterator.close();
                 }
             } else {
                 assert (keyRangeRhsExpression != null);
@@ -425,6 +522,37 @@ public class HashJoinPlan extends DelegateQueryPlan {
             return cache;
         }
 
+        /**
+         * Get the id under which the hash cache is persisted on the region servers. It is derived from
+         * everything that determines the contents of the hash cache: the sub plan statement and the
+         * values of the binds it uses, the join expressions, the tenant and the SCN of the connection,
+         * and the timestamp and sequence number of the tables the sub plan reads. Changes to the data
+         * of the tables don't change the id, so they are not seen until the cache expires.
+         */
+        private byte[] getPersistentCacheId(HashJoinPlan parent) throws SQLException {
+            PhoenixConnection connection = parent.getContext().getConnection();
+            StringBuilder buf = new StringBuilder();
+            buf.append(connection.getTenantId()).append('\n');
+            buf.append(connection.getSCN()).append('\n');
+            buf.append(plan.getStatement()).append('\n');
+            BindManager binds = plan.getContext().getBindManager();
+            BindCollector bindCollector = new BindCollector();
+            bindCollector.traverse(plan.getStatement());
+            for (BindParseNode bind : bindCollector.binds.values()) {
+                Object value = binds.getBindValue(bind);
+                buf.append(bind.getName()).append('=');
+                buf.append(value == null ? null : value.getClass().getName()).append(':');
+                buf.append(Arrays.deepToString(new Object[] {value})).append('\n');
+            }
+            buf.append(hashExpressions).append(singleValueOnly).append(keyRangeRhsExpression).append('\n');
+            for (TableRef tableRef : plan.getSourceRefs()) {
+                PTable table = tableRef.getTable();
+                buf.append(table.getPhysicalName()).append(':').append(table.getTimeStamp()).append(':')
+                        .append(table.getSequenceNumber()).append('\n');
+            }
+            return Hashing.md5().hashString(buf.toString(), Charsets.UTF_8).asBytes();
+        }
+
         @Override
         public void postProcess(ServerCache result, HashJoinPlan parent)
                 throws SQLException {
@@ -484,6 +612,30 @@ public class HashJoinPlan extends DelegateQueryPlan {
         }
         return estimatedBytes;
     }
-}
 
+    @Override
+    public Object getFairShareKey() {
+        PhoenixConnection connection = getContext().getConnection();
+        return connection.getTenantId() == null ? connection : connection.getTenantId().getString();
+    }
+
+    @Override
+    public Long getEstimatedBytes() {
+        // The sub-plans wait for their own scans, so they are queued with the large queries
+        return null;
+    }
 
+    /**
+     * Collects the bind parameters of a statement, including those of its derived tables,
+     * subqueries and unions, by their index.
+     */
+    private static class BindCollector extends StatelessTraverseAllStatementVisitor {
+        private final Map<Integer, BindParseNode> binds = Maps.newTreeMap();
+
+        @Override
+        public Void visit(BindParseNode node) throws SQLException {
+            binds.put(node.getIndex(), node);
+            return null;
+        }
+    }
+}
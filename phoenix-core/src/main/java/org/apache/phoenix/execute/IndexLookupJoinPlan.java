@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.execute;
+
+import static org.apache.phoenix.monitoring.TaskExecutionMetricsHolder.NO_OP_INSTANCE;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.io.TimeRange;
+import org.apache.phoenix.compile.ExplainPlan;
+import org.apache.phoenix.compile.OrderByCompiler.OrderBy;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.exception.SQLExceptionInfo;
+import org.apache.phoenix.index.IndexMaintainer;
+import org.apache.phoenix.iterate.ExecutionProfile;
+import org.apache.phoenix.iterate.LimitingResultIterator;
+import org.apache.phoenix.iterate.ParallelScanGrouper;
+import org.apache.phoenix.iterate.ResultIterator;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.apache.phoenix.parse.ParseNode;
+import org.apache.phoenix.query.QueryConstants;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.schema.PTable;
+import org.apache.phoenix.schema.tuple.ResultTuple;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.ScanUtil;
+import org.apache.phoenix.util.ServerUtil;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Query plan for a query using a global index that does not cover all the columns of the query.
+ * The rows of the index are read in the order of the index plan, their row keys are turned into
+ * data table row keys and the data table rows are read with batches of gets, each batch being
+ * read while the rows of the previous one are returned. The rows keep the order of the index,
+ * so an ORDER BY and LIMIT evaluated against the index only read as many data table rows as
+ * are returned. The conditions that the index can't evaluate are checked by the filter of the
+ * data plan, which is set on the gets.
+ */
+public class IndexLookupJoinPlan extends DelegateQueryPlan {
+    private final QueryPlan indexPlan;
+    private final IndexMaintainer indexMaintainer;
+    private final byte[][] viewConstants;
+    private final ParseNode residualCondition;
+    private final int batchSize;
+
+    /**
+     * @param dataPlan the plan of the query against the data table, which projects the rows
+     * @param indexPlan the plan returning the index rows to look up, in the order of the query
+     * @param indexMaintainer the maintainer of the index, to build data row keys from index row keys
+     * @param viewConstants the view constants of the data table, if it is a view
+     * @param residualCondition the part of the WHERE clause the index plan does not evaluate or null
+     */
+    public IndexLookupJoinPlan(QueryPlan dataPlan, QueryPlan indexPlan, IndexMaintainer indexMaintainer,
+            byte[][] viewConstants, ParseNode residualCondition) {
+        super(dataPlan);
+        this.indexPlan = indexPlan;
+        this.indexMaintainer = indexMaintainer;
+        this.viewConstants = viewConstants;
+        this.residualCondition = residualCondition;
+        this.batchSize = Math.max(1, dataPlan.getContext().getConnection().getQueryServices().getProps().getInt(
+                QueryServices.INDEX_LOOKUP_JOIN_BATCH_SIZE_ATTRIB, QueryServicesOptions.DEFAULT_INDEX_LOOKUP_JOIN_BATCH_SIZE));
+    }
+
+    public QueryPlan getIndexPlan() {
+        return indexPlan;
+    }
+
+    @Override
+    public ExplainPlan getExplainPlan() throws SQLException {
+        List<String> planSteps = Lists.newArrayList(indexPlan.getExplainPlan().getPlanSteps());
+        planSteps.add("CLIENT BATCHED LOOKUP JOIN OVER " + getTableRef().getTable().getName().getString()
+                + " IN BATCHES OF " + batchSize + " ROWS");
+        if (residualCondition != null) {
+            planSteps.add("    SERVER FILTER BY " + residualCondition.toString());
+        }
+        if (getLimit() != null) {
+            planSteps.add("CLIENT " + getLimit() + " ROW LIMIT");
+        }
+        return new ExplainPlan(planSteps);
+    }
+
+    @Override
+    public ResultIterator iterator(ParallelScanGrouper scanGrouper, Scan scan) throws SQLException {
+        PhoenixConnection connection = getContext().getConnection();
+        TimeRange timeRange = getTimeRange(connection);
+        if (timeRange == null) {
+            return ResultIterator.EMPTY_ITERATOR;
+        }
+        PTable table = getTableRef().getTable();
+        HTableInterface htable = connection.getQueryServices().getTable(table.getPhysicalName().getBytes());
+        ResultIterator iterator;
+        try {
+            iterator = new LookupResultIterator(indexPlan.iterator(scanGrouper), htable, timeRange);
+        } catch (SQLException e) {
+            closeTable(htable);
+            throw e;
+        }
+        iterator = ExecutionProfile.wrap(this, iterator);
+        // The limit is not pushed to the index plan when the data table rows may be filtered out
+        if (getLimit() != null) {
+            iterator = new LimitingResultIterator(iterator, getLimit());
+        }
+        return iterator;
+    }
+
+    @Override
+    public OrderBy getOrderBy() {
+        OrderBy orderBy = delegate.getOrderBy();
+        // Rows are returned in the order of the index, not in the row key order of the data table
+        if (orderBy == OrderBy.FWD_ROW_KEY_ORDER_BY || orderBy == OrderBy.REV_ROW_KEY_ORDER_BY) {
+            return OrderBy.EMPTY_ORDER_BY;
+        }
+        return orderBy;
+    }
+
+    @Override
+    public boolean isRowKeyOrdered() {
+        return false;
+    }
+
+    @Override
+    public Long getEstimatedRowsToScan() throws SQLException {
+        return indexPlan.getEstimatedRowsToScan();
+    }
+
+    @Override
+    public Long getEstimatedBytesToScan() throws SQLException {
+        return indexPlan.getEstimatedBytesToScan();
+    }
+
+    private TimeRange getTimeRange(PhoenixConnection connection) throws SQLException {
+        Long scn = connection.getSCN();
+        if (scn == null) {
+            scn = getTableRef().getTimeStamp();
+            if (scn == QueryConstants.UNSET_TIMESTAMP) {
+                scn = HConstants.LATEST_TIMESTAMP;
+            }
+        }
+        try {
+            return ScanUtil.intersectTimeRange(getContext().getScanRanges().getRowTimestampRange(),
+                    getContext().getScan().getTimeRange(), scn);
+        } catch (IOException e) {
+            throw ServerUtil.parseServerException(e);
+        }
+    }
+
+    private static void closeTable(HTableInterface htable) throws SQLException {
+        try {
+            htable.close();
+        } catch (IOException e) {
+            throw ServerUtil.parseServerException(e);
+        }
+    }
+
+    private class LookupResultIterator implements ResultIterator {
+        private final ResultIterator indexIterator;
+        private final HTableInterface htable;
+        private final TimeRange timeRange;
+        private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        private Future<Result[]> pendingBatch;
+        private Result[] batch;
+        private int batchIndex;
+        private boolean initialized;
+
+        public LookupResultIterator(ResultIterator indexIterator, HTableInterface htable, TimeRange timeRange) {
+            this.indexIterator = indexIterator;
+            this.htable = htable;
+            this.timeRange = timeRange;
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            if (!initialized) {
+                pendingBatch = submitNextBatch();
+                initialized = true;
+            }
+            while (true) {
+                while (batch != null && batchIndex < batch.length) {
+                    Result result = batch[batchIndex++];
+                    // Rows filtered out by the residual condition come back empty
+                    if (result != null && !result.isEmpty()) {
+                        return new ResultTuple(result);
+                    }
+                }
+                if (pendingBatch == null) {
+                    return null;
+                }
+                batch = getResults(pendingBatch);
+                batchIndex = 0;
+                pendingBatch = submitNextBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (pendingBatch != null) {
+                pendingBatch.cancel(false);
+                pendingBatch = null;
+            }
+            try {
+                indexIterator.close();
+            } finally {
+                closeTable(htable);
+            }
+        }
+
+        @Override
+        public void explain(List<String> planSteps) {
+            indexIterator.explain(planSteps);
+        }
+
+        private Future<Result[]> submitNextBatch() throws SQLException {
+            final List<Get> gets = Lists.newArrayListWithExpectedSize(batchSize);
+            Scan scan = getContext().getScan();
+            for (Tuple tuple = indexIterator.next(); tuple != null; tuple = gets.size() < batchSize ? indexIterator.next() : null) {
+                tuple.getKey(ptr);
+                Get get = new Get(indexMaintainer.buildDataRowKey(ptr, viewConstants));
+                for (Map.Entry<byte[], NavigableSet<byte[]>> entry : scan.getFamilyMap().entrySet()) {
+                    if (entry.getValue() == null) {
+                        get.addFamily(entry.getKey());
+                    } else {
+                        for (byte[] qualifier : entry.getValue()) {
+                            get.addColumn(entry.getKey(), qualifier);
+                        }
+                    }
+                }
+                get.setFilter(scan.getFilter());
+                get.setConsistency(getContext().getConnection().getConsistency());
+                try {
+                    get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+                } catch (IOException e) {
+                    throw ServerUtil.parseServerException(e);
+                }
+                gets.add(get);
+            }
+            if (gets.isEmpty()) {
+                return null;
+            }
+            // The gets of a batch are grouped by region server and sent in parallel by the table
+            return getContext().getConnection().getQueryServices().getExecutor().submit(new JobCallable<Result[]>() {
+                @Override
+                public Result[] call() throws Exception {
+                    return htable.get(gets);
+                }
+
+                @Override
+                public Object getJobId() {
+                    return LookupResultIterator.this;
+                }
+
+                @Override
+                public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                    return NO_OP_INSTANCE;
+                }
+            });
+        }
+
+        private Result[] getResults(Future<Result[]> future) throws SQLException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.INTERRUPTED_EXCEPTION).setRootCause(e).build().buildException();
+            } catch (ExecutionException e) {
+                throw ServerUtil.parseServerException(e.getCause());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LookupResultIterator [indexIterator=" + indexIterator + ", batchSize=" + batchSize + "]";
+        }
+    }
+}
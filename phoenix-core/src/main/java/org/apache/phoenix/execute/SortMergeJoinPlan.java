@@ -17,6 +17,7 @@
  */
 package org.apache.phoenix.execute;
 
+import static org.apache.phoenix.monitoring.TaskExecutionMetricsHolder.NO_OP_INSTANCE;
 import static org.apache.phoenix.util.NumberUtil.add;
 
 import java.io.IOException;
@@ -30,6 +31,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.KeyValueUtil;
@@ -48,11 +52,17 @@ import org.apache.phoenix.exception.SQLExceptionInfo;
 import org.apache.phoenix.execute.TupleProjector.ProjectedValueTuple;
 import org.apache.phoenix.expression.Expression;
 import org.apache.phoenix.iterate.DefaultParallelScanGrouper;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.MappedByteBufferQueue;
+import org.apache.phoenix.iterate.MaterializedResultIterator;
 import org.apache.phoenix.iterate.ParallelScanGrouper;
 import org.apache.phoenix.iterate.ResultIterator;
 import org.apache.phoenix.jdbc.PhoenixParameterMetaData;
 import org.apache.phoenix.jdbc.PhoenixStatement.Operation;
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.memory.MemoryManager;
+import org.apache.phoenix.memory.MemoryManager.MemoryChunk;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
 import org.apache.phoenix.parse.FilterableStatement;
 import org.apache.phoenix.parse.JoinTableNode.JoinType;
 import org.apache.phoenix.query.KeyRange;
@@ -66,8 +76,10 @@ import org.apache.phoenix.schema.TableRef;
 import org.apache.phoenix.schema.ValueBitSet;
 import org.apache.phoenix.schema.tuple.ResultTuple;
 import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.ExpressionUtil;
 import org.apache.phoenix.util.ResultUtil;
 import org.apache.phoenix.util.SchemaUtil;
+import org.apache.phoenix.util.ServerUtil;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -90,6 +102,9 @@ public class SortMergeJoinPlan implements QueryPlan {
     private final boolean isSingleValueOnly;
     private final Set<TableRef> tableRefs;
     private final int thresholdBytes;
+    private final int parallelism;
+    private final int partitionRows;
+    private final long maxMemoryBytes;
     private Long estimatedBytes;
     private Long estimatedRows;
     private boolean explainPlanCalled;
@@ -116,6 +131,18 @@ public class SortMergeJoinPlan implements QueryPlan {
         this.tableRefs.addAll(rhsPlan.getSourceRefs());
         this.thresholdBytes = context.getConnection().getQueryServices().getProps().getInt(
                 QueryServices.SPOOL_THRESHOLD_BYTES_ATTRIB, QueryServicesOptions.DEFAULT_SPOOL_THRESHOLD_BYTES);
+        int parallelism = context.getConnection().getQueryServices().getProps().getInt(
+                QueryServices.SORT_MERGE_JOIN_PARALLELISM_ATTRIB, QueryServicesOptions.DEFAULT_SORT_MERGE_JOIN_PARALLELISM);
+        // Partitions are joined with copies of the key expressions, which evaluate with side effects
+        if (parallelism > 1 && (ExpressionUtil.copyExpressions(lhsKeyExpressions) == null
+                || ExpressionUtil.copyExpressions(rhsKeyExpressions) == null)) {
+            parallelism = 1;
+        }
+        this.parallelism = parallelism;
+        this.partitionRows = Math.max(1, context.getConnection().getQueryServices().getProps().getInt(
+                QueryServices.SORT_MERGE_JOIN_PARTITION_ROWS_ATTRIB, QueryServicesOptions.DEFAULT_SORT_MERGE_JOIN_PARTITION_ROWS));
+        this.maxMemoryBytes = context.getConnection().getQueryServices().getProps().getLong(
+                QueryServices.SORT_MERGE_JOIN_MAX_MEMORY_BYTES_ATTRIB, QueryServicesOptions.DEFAULT_SORT_MERGE_JOIN_MAX_MEMORY_BYTES);
     }
 
     @Override
@@ -123,7 +150,7 @@ public class SortMergeJoinPlan implements QueryPlan {
         return statement.getOperation();
     }
 
-    private static KeyValueSchema buildSchema(PTable table) {
+    static KeyValueSchema buildSchema(PTable table) {
         KeyValueSchemaBuilder builder = new KeyValueSchemaBuilder(0);
         if (table != null) {
             for (PColumn column : table.getColumns()) {
@@ -142,9 +169,12 @@ public class SortMergeJoinPlan implements QueryPlan {
 
     @Override
     public ResultIterator iterator(ParallelScanGrouper scanGrouper, Scan scan) throws SQLException {        
-        return type == JoinType.Semi || type == JoinType.Anti ? 
+        ResultIterator iterator = parallelism > 1 ?
+                new ParallelJoinIterator(lhsPlan.iterator(scanGrouper), rhsPlan.iterator(scanGrouper)) :
+                type == JoinType.Semi || type == JoinType.Anti ? 
                 new SemiAntiJoinIterator(lhsPlan.iterator(scanGrouper), rhsPlan.iterator(scanGrouper)) :
                 new BasicJoinIterator(lhsPlan.iterator(scanGrouper), rhsPlan.iterator(scanGrouper));
+        return ExecutionProfile.wrap(this, iterator);
     }
     
     @Override
@@ -239,7 +269,7 @@ public class SortMergeJoinPlan implements QueryPlan {
         return false;
     }
     
-    private static SQLException closeIterators(ResultIterator lhsIterator, ResultIterator rhsIterator) {
+    static SQLException closeIterators(ResultIterator lhsIterator, ResultIterator rhsIterator) {
         SQLException e = null;
         try {
             lhsIterator.close();
@@ -277,8 +307,14 @@ public class SortMergeJoinPlan implements QueryPlan {
         private byte[] emptyProjectedValue;
         private MappedByteBufferTupleQueue queue;
         private Iterator<Tuple> queueIterator;
+        private final ImmutableBytesWritable tempPtr;
         
         public BasicJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator) {
+            this(lhsIterator, rhsIterator, lhsKeyExpressions, rhsKeyExpressions);
+        }
+        
+        public BasicJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator,
+                List<Expression> lhsKeyExpressions, List<Expression> rhsKeyExpressions) {
             this.lhsIterator = lhsIterator;
             this.rhsIterator = rhsIterator;
             this.initialized = false;
@@ -299,6 +335,7 @@ public class SortMergeJoinPlan implements QueryPlan {
             lhsBitSet.toBytes(emptyProjectedValue, 0);
             this.queue = new MappedByteBufferTupleQueue(thresholdBytes);
             this.queueIterator = null;
+            this.tempPtr = new ImmutableBytesWritable();
         }
         
         @Override
@@ -432,7 +469,7 @@ public class SortMergeJoinPlan implements QueryPlan {
                 } else if (lhs instanceof ProjectedValueTuple) {
                     t = (ProjectedValueTuple) lhs;
                 } else {
-                    ImmutableBytesWritable ptr = context.getTempPtr();
+                    ImmutableBytesWritable ptr = tempPtr;
                     TupleProjector.decodeProjectedValue(lhs, ptr);
                     lhsBitSet.clear();
                     lhsBitSet.or(ptr);
@@ -462,6 +499,11 @@ public class SortMergeJoinPlan implements QueryPlan {
         private JoinKey rhsKey;
         
         public SemiAntiJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator) {
+            this(lhsIterator, rhsIterator, lhsKeyExpressions, rhsKeyExpressions);
+        }
+        
+        public SemiAntiJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator,
+                List<Expression> lhsKeyExpressions, List<Expression> rhsKeyExpressions) {
             if (type != JoinType.Semi && type != JoinType.Anti) throw new IllegalArgumentException("Type " + type + " is not allowed by " + SemiAntiJoinIterator.class.getName());
             this.lhsIterator = lhsIterator;
             this.rhsIterator = rhsIterator;
@@ -539,6 +581,291 @@ public class SortMergeJoinPlan implements QueryPlan {
         }
     }
     
+    /**
+     * Merge joins the sorted inputs in partitions run concurrently on the query executor. The
+     * inputs are read on the calling thread and cut into partitions of about partitionRows rows
+     * of the left hand side, never splitting the rows that have the same key. A partition holds
+     * the rows of the right hand side with keys lower than the first key of the next partition.
+     * The outputs of the partitions are returned in order, so the order of the serial merge join
+     * is preserved. The rows of a partition are spooled to disk past the spool threshold, the
+     * bytes they hold in memory are charged to the memory manager, and no more partitions are
+     * cut while those in flight hold maxMemoryBytes.
+     */
+    private class ParallelJoinIterator implements ResultIterator {
+        private final ResultIterator lhsIterator;
+        private final ResultIterator rhsIterator;
+        private final JoinKey lhsKey;
+        private final JoinKey rhsKey;
+        private final JoinKey lastKey;
+        private final LinkedList<Partition> partitions;
+        private final ExecutorService executor;
+        private final MemoryManager memoryManager;
+        private boolean initialized;
+        private Tuple lhsTuple;
+        private Tuple rhsTuple;
+        private Partition current;
+        private Iterator<Tuple> currentIterator;
+
+        public ParallelJoinIterator(ResultIterator lhsIterator, ResultIterator rhsIterator) {
+            this.lhsIterator = lhsIterator;
+            this.rhsIterator = rhsIterator;
+            this.lhsKey = new JoinKey(lhsKeyExpressions);
+            this.rhsKey = new JoinKey(rhsKeyExpressions);
+            this.lastKey = new JoinKey(lhsKeyExpressions);
+            this.partitions = Lists.newLinkedList();
+            this.executor = context.getConnection().getQueryServices().getExecutor();
+            this.memoryManager = context.getConnection().getQueryServices().getMemoryManager();
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            if (!initialized) {
+                advance(true);
+                advance(false);
+                initialized = true;
+            }
+            while (currentIterator == null || !currentIterator.hasNext()) {
+                if (current != null) {
+                    current.close();
+                    current = null;
+                }
+                while (canSubmit() && !isEnd()) {
+                    Partition partition = nextPartition();
+                    partitions.add(partition);
+                    submit(partition);
+                }
+                if (partitions.isEmpty()) {
+                    currentIterator = null;
+                    return null;
+                }
+                current = partitions.removeFirst();
+                getResults(current.future);
+                currentIterator = current.results.iterator();
+            }
+            return currentIterator.next();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            for (Partition partition : partitions) {
+                // Wait for partitions already running, as they still use their spool files
+                if (!partition.future.cancel(false)) {
+                    try {
+                        partition.future.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                    }
+                }
+                partition.close();
+            }
+            partitions.clear();
+            SQLException e = closeIterators(lhsIterator, rhsIterator);
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        @Override
+        public void explain(List<String> planSteps) {
+        }
+
+        /**
+         * @return true if the rest of the inputs can't produce any row
+         */
+        private boolean isEnd() {
+            switch (type) {
+            case Full:
+                return lhsTuple == null && rhsTuple == null;
+            case Inner:
+            case Semi:
+                return lhsTuple == null || rhsTuple == null;
+            default:
+                return lhsTuple == null;
+            }
+        }
+
+        /**
+         * @return true if another partition may be cut, which is always the case when none is in
+         * flight, so that a single partition larger than maxMemoryBytes is still joined
+         */
+        private boolean canSubmit() {
+            if (partitions.isEmpty()) {
+                return true;
+            }
+            if (partitions.size() >= parallelism) {
+                return false;
+            }
+            long bytes = 0;
+            for (Partition partition : partitions) {
+                bytes += partition.chunk.getSize();
+            }
+            return bytes < maxMemoryBytes;
+        }
+
+        private Partition nextPartition() throws SQLException {
+            Partition partition = new Partition(memoryManager);
+            boolean success = false;
+            try {
+                int lhsRows = 0;
+                while (lhsTuple != null && (lhsRows < partitionRows || lhsKey.equals(lastKey))) {
+                    partition.add(partition.lhs, lhsTuple);
+                    lhsRows++;
+                    lastKey.set(lhsKey);
+                    advance(true);
+                }
+                if (lhsTuple != null) {
+                    // The next partition starts with the current key of the left hand side
+                    while (rhsTuple != null && rhsKey.compareTo(lhsKey) < 0) {
+                        partition.add(partition.rhs, rhsTuple);
+                        advance(false);
+                    }
+                } else if (type == JoinType.Full && lhsRows == 0) {
+                    // Only the right hand side is left, so cut it into partitions as well
+                    int rhsRows = 0;
+                    while (rhsTuple != null && rhsRows < partitionRows) {
+                        partition.add(partition.rhs, rhsTuple);
+                        rhsRows++;
+                        advance(false);
+                    }
+                } else if (type == JoinType.Full) {
+                    while (rhsTuple != null && rhsKey.compareTo(lastKey) <= 0) {
+                        partition.add(partition.rhs, rhsTuple);
+                        advance(false);
+                    }
+                } else {
+                    // Rows of the right hand side after the last key of the left hand side don't join
+                    while (rhsTuple != null && lhsRows > 0 && rhsKey.compareTo(lastKey) <= 0) {
+                        partition.add(partition.rhs, rhsTuple);
+                        advance(false);
+                    }
+                    rhsTuple = null;
+                }
+                success = true;
+                return partition;
+            } finally {
+                if (!success) {
+                    partition.close();
+                }
+            }
+        }
+
+        private void submit(final Partition partition) {
+            partition.future = executor.submit(new JobCallable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ResultIterator lhs = new MaterializedResultIterator(partition.lhs);
+                    ResultIterator rhs = new MaterializedResultIterator(partition.rhs);
+                    List<Expression> lhsExpressions = ExpressionUtil.copyExpressions(lhsKeyExpressions);
+                    List<Expression> rhsExpressions = ExpressionUtil.copyExpressions(rhsKeyExpressions);
+                    ResultIterator iterator = type == JoinType.Semi || type == JoinType.Anti ?
+                            new SemiAntiJoinIterator(lhs, rhs, lhsExpressions, rhsExpressions) :
+                            new BasicJoinIterator(lhs, rhs, lhsExpressions, rhsExpressions);
+                    try {
+                        for (Tuple tuple = iterator.next(); tuple != null; tuple = iterator.next()) {
+                            partition.add(partition.results, tuple);
+                        }
+                    } finally {
+                        iterator.close();
+                        partition.closeInputs();
+                    }
+                    return null;
+                }
+
+                @Override
+                public Object getJobId() {
+                    return ParallelJoinIterator.this;
+                }
+
+                @Override
+                public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                    return NO_OP_INSTANCE;
+                }
+            });
+        }
+
+        private void getResults(Future<Void> future) throws SQLException {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.INTERRUPTED_EXCEPTION).setRootCause(e).build().buildException();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw ServerUtil.parseServerException(e.getCause());
+            }
+        }
+
+        private void advance(boolean lhs) throws SQLException {
+            if (lhs) {
+                lhsTuple = lhsIterator.next();
+                if (lhsTuple != null) {
+                    lhsKey.evaluate(lhsTuple);
+                } else {
+                    lhsKey.clear();
+                }
+            } else {
+                rhsTuple = rhsIterator.next();
+                if (rhsTuple != null) {
+                    rhsKey.evaluate(rhsTuple);
+                } else {
+                    rhsKey.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * The rows of a partition of a parallel sort merge join and of its output. Each queue holds at
+     * most thresholdBytes in memory before spooling to disk, and the memory held by the queues is
+     * charged to a chunk of the memory manager, which is grown as rows are added.
+     */
+    private class Partition {
+        private final MappedByteBufferTupleQueue lhs;
+        private final MappedByteBufferTupleQueue rhs;
+        private final MappedByteBufferTupleQueue results;
+        private final MemoryChunk chunk;
+        private volatile Future<Void> future;
+
+        public Partition(MemoryManager memoryManager) {
+            this.lhs = new MappedByteBufferTupleQueue(thresholdBytes);
+            this.rhs = new MappedByteBufferTupleQueue(thresholdBytes);
+            this.results = new MappedByteBufferTupleQueue(thresholdBytes);
+            this.chunk = memoryManager.allocate(0);
+        }
+
+        public void add(MappedByteBufferTupleQueue queue, Tuple tuple) {
+            queue.offer(tuple);
+            long bytes = lhs.getByteSize() + rhs.getByteSize() + results.getByteSize();
+            if (bytes > chunk.getSize()) {
+                // Grow by doubling to not resize on every row, up to what the queues may hold
+                chunk.resize(Math.max(bytes, Math.min(2 * chunk.getSize(), 3L * thresholdBytes)));
+            }
+        }
+
+        public void closeInputs() {
+            lhs.close();
+            rhs.close();
+            long bytes = results.getByteSize();
+            if (bytes < chunk.getSize()) {
+                chunk.resize(bytes);
+            }
+        }
+
+        public void close() {
+            lhs.close();
+            rhs.close();
+            results.close();
+            chunk.close();
+        }
+    }
+    
     private static class JoinKey implements Comparable<JoinKey> {
         private final List<Expression> expressions;
         private final List<ImmutableBytesWritable> keys;
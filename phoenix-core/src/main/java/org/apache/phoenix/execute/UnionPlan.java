@@ -35,6 +35,7 @@ import org.apache.phoenix.compile.ScanRanges;
 import org.apache.phoenix.compile.StatementContext;
 import org.apache.phoenix.iterate.ConcatResultIterator;
 import org.apache.phoenix.iterate.DefaultParallelScanGrouper;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.LimitingResultIterator;
 import org.apache.phoenix.iterate.MergeSortTopNResultIterator;
 import org.apache.phoenix.iterate.OffsetResultIterator;
@@ -166,7 +167,7 @@ public class UnionPlan implements QueryPlan {
                 scanner = new LimitingResultIterator(scanner, limit);
             }          
         }
-        return scanner;
+        return ExecutionProfile.wrap(this, scanner);
     }
 
     @Override
@@ -79,6 +79,9 @@ import org.apache.phoenix.filter.DistinctPrefixFilter;
 import org.apache.phoenix.filter.EncodedQualifiersColumnProjectionFilter;
 import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.hbase.index.util.VersionUtil;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.job.FairShareJob;
+import org.apache.phoenix.join.HashJoinCacheNotFoundException;
 import org.apache.phoenix.parse.FilterableStatement;
 import org.apache.phoenix.parse.HintNode;
 import org.apache.phoenix.parse.HintNode.Hint;
@@ -86,6 +89,7 @@ import org.apache.phoenix.query.ConnectionQueryServices;
 import org.apache.phoenix.query.KeyRange;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.query.TableRegionBoundaries;
 import org.apache.phoenix.schema.PColumnFamily;
 import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTable.ImmutableStorageScheme;
@@ -125,7 +129,7 @@ import com.google.common.collect.Lists;
  * 
  * @since 0.1
  */
-public abstract class BaseResultIterators extends ExplainTable implements ResultIterators {
+public abstract class BaseResultIterators extends ExplainTable implements ResultIterators, FairShareJob {
 	private static final Logger logger = LoggerFactory.getLogger(BaseResultIterators.class);
     private static final int ESTIMATED_GUIDEPOSTS_PER_REGION = 20;
     private static final int MIN_SEEK_TO_COLUMN_VERSION = VersionUtil.encodeVersion("0", "98", "12");
@@ -512,35 +516,9 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
             return scans;
     }
 
-    private List<HRegionLocation> getRegionBoundaries(ParallelScanGrouper scanGrouper)
+    private TableRegionBoundaries getRegionBoundaries(ParallelScanGrouper scanGrouper)
         throws SQLException{
-        return scanGrouper.getRegionBoundaries(context, physicalTableName);
-    }
-
-    private static List<byte[]> toBoundaries(List<HRegionLocation> regionLocations) {
-        int nBoundaries = regionLocations.size() - 1;
-        List<byte[]> ranges = Lists.newArrayListWithExpectedSize(nBoundaries);
-        for (int i = 0; i < nBoundaries; i++) {
-            HRegionInfo regionInfo = regionLocations.get(i).getRegionInfo();
-            ranges.add(regionInfo.getEndKey());
-        }
-        return ranges;
-    }
-    
-    private static int getIndexContainingInclusive(List<byte[]> boundaries, byte[] inclusiveKey) {
-        int guideIndex = Collections.binarySearch(boundaries, inclusiveKey, Bytes.BYTES_COMPARATOR);
-        // If we found an exact match, return the index+1, as the inclusiveKey will be contained
-        // in the next region (since we're matching on the end boundary).
-        guideIndex = (guideIndex < 0 ? -(guideIndex + 1) : (guideIndex + 1));
-        return guideIndex;
-    }
-    
-    private static int getIndexContainingExclusive(List<byte[]> boundaries, byte[] exclusiveKey) {
-        int guideIndex = Collections.binarySearch(boundaries, exclusiveKey, Bytes.BYTES_COMPARATOR);
-        // If we found an exact match, return the index we found as the exclusiveKey won't be
-        // contained in the next region as with getIndexContainingInclusive.
-        guideIndex = (guideIndex < 0 ? -(guideIndex + 1) : guideIndex);
-        return guideIndex;
+        return TableRegionBoundaries.of(scanGrouper.getRegionBoundaries(context, physicalTableName));
     }
 
     private GuidePostsInfo getGuidePosts() throws SQLException {
@@ -610,15 +588,16 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
      * @throws SQLException
      */
     private List<List<Scan>> getParallelScans(Scan scan) throws SQLException {
-        List<HRegionLocation> regionLocations = getRegionBoundaries(scanGrouper);
-        List<byte[]> regionBoundaries = toBoundaries(regionLocations);
+        TableRegionBoundaries tableRegions = getRegionBoundaries(scanGrouper);
+        List<HRegionLocation> regionLocations = tableRegions.getRegionLocations();
+        List<byte[]> regionBoundaries = tableRegions.getBoundaries();
         int regionIndex = 0;
         int stopIndex = regionBoundaries.size();
         if (scan.getStartRow().length > 0) {
-            regionIndex = getIndexContainingInclusive(regionBoundaries, scan.getStartRow());
+            regionIndex = tableRegions.getIndexContainingInclusive(scan.getStartRow());
         }
         if (scan.getStopRow().length > 0) {
-            stopIndex = Math.min(stopIndex, regionIndex + getIndexContainingExclusive(regionBoundaries.subList(regionIndex, stopIndex), scan.getStopRow()));
+            stopIndex = tableRegions.getIndexContainingExclusive(regionIndex, stopIndex, scan.getStopRow());
         }
         List<List<Scan>> parallelScans = Lists.newArrayListWithExpectedSize(stopIndex - regionIndex + 1);
         List<Scan> scans = Lists.newArrayListWithExpectedSize(2);
@@ -662,8 +641,9 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
      * @throws SQLException
      */
     private List<List<Scan>> getParallelScans(byte[] startKey, byte[] stopKey) throws SQLException {
-        List<HRegionLocation> regionLocations = getRegionBoundaries(scanGrouper);
-        List<byte[]> regionBoundaries = toBoundaries(regionLocations);
+        TableRegionBoundaries tableRegions = getRegionBoundaries(scanGrouper);
+        List<HRegionLocation> regionLocations = tableRegions.getRegionLocations();
+        List<byte[]> regionBoundaries = tableRegions.getBoundaries();
         ScanRanges scanRanges = context.getScanRanges();
         PTable table = getTable();
         boolean isSalted = table.getBucketNum() != null;
@@ -686,10 +666,10 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
         int regionIndex = 0;
         int stopIndex = regionBoundaries.size();
         if (startKey.length > 0) {
-            regionIndex = getIndexContainingInclusive(regionBoundaries, startKey);
+            regionIndex = tableRegions.getIndexContainingInclusive(startKey);
         }
         if (stopKey.length > 0) {
-            stopIndex = Math.min(stopIndex, regionIndex + getIndexContainingExclusive(regionBoundaries.subList(regionIndex, stopIndex), stopKey));
+            stopIndex = tableRegions.getIndexContainingExclusive(regionIndex, stopIndex, stopKey);
             if (isLocalIndex) {
                 stopKey = regionLocations.get(stopIndex).getRegionInfo().getEndKey();
             }
@@ -892,6 +872,10 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
                             concatIterators = Lists.newArrayList();
                             getIterators(newNestedScans, services, isLocalIndex, allIterators, iterators, isReverse,
                                     maxQueryEndTime, newNestedScans.size(), previousScan);
+                        } catch (HashJoinCacheNotFoundException e2) {
+                            // The region may have moved to a server the hash cache wasn't sent to
+                            services.clearTableRegionCache(physicalTableName);
+                            throw e2;
                         }
                     }
                 }
@@ -1087,6 +1071,17 @@ public abstract class BaseResultIterators extends ExplainTable implements Result
     public Long getEstimatedByteCount() {
         return this.estimatedSize;
     }
+
+    @Override
+    public Object getFairShareKey() {
+        PhoenixConnection connection = context.getConnection();
+        return connection.getTenantId() == null ? connection : connection.getTenantId().getString();
+    }
+
+    @Override
+    public Long getEstimatedBytes() {
+        return this.estimatedSize;
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.compile.StatementContext;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.apache.phoenix.monitoring.MetricType;
+import org.apache.phoenix.schema.TableRef;
+
+/**
+ * Collects the actual number of rows produced and the time spent by each operator of a query plan
+ * while it is executed by EXPLAIN ANALYZE. The iterators of the plans are wrapped through
+ * {@link #wrap(QueryPlan, ResultIterator)}, which is a no-op unless a profile is being
+ * recorded for the statement, so the regular execution path is not affected. The server side work is
+ * reported through the scan metrics HBase returns with every scan response, which are collected in the
+ * {@link org.apache.phoenix.monitoring.ReadMetricQueue} of each statement context.
+ */
+public class ExecutionProfile {
+    private final List<OperatorProfile> operators = new CopyOnWriteArrayList<OperatorProfile>();
+    private final Set<StatementContext> contexts = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<StatementContext, Boolean>()));
+    private volatile boolean isRecording;
+    private long startTime;
+    private long elapsedTime;
+    private long rowCount;
+
+    public void startRecording() {
+        isRecording = true;
+        startTime = System.nanoTime();
+    }
+
+    public void stopRecording(long rowCount) {
+        isRecording = false;
+        this.elapsedTime = System.nanoTime() - startTime;
+        this.rowCount = rowCount;
+    }
+
+    public boolean isRecording() {
+        return isRecording;
+    }
+
+    private static ExecutionProfile getRecordingProfile(StatementContext context) {
+        PhoenixStatement statement = context.getStatement();
+        ExecutionProfile profile = statement == null ? null : statement.getExecutionProfile();
+        return profile != null && profile.isRecording() ? profile : null;
+    }
+
+    /**
+     * @return an operator to record into if a profile is being recorded for the statement, or null otherwise
+     */
+    public static OperatorProfile newOperator(StatementContext context, String name) {
+        ExecutionProfile profile = getRecordingProfile(context);
+        if (profile == null) {
+            return null;
+        }
+        profile.contexts.add(context);
+        OperatorProfile operator = new OperatorProfile(name);
+        profile.operators.add(operator);
+        return operator;
+    }
+
+    /**
+     * Wraps the iterator of the plan to count its rows and time its calls if a profile is being recorded
+     * for the statement. Otherwise the iterator is returned as is.
+     */
+    public static ResultIterator wrap(QueryPlan plan, ResultIterator iterator) {
+        StatementContext context = plan.getContext();
+        if (context == null || getRecordingProfile(context) == null) {
+            return iterator;
+        }
+        TableRef tableRef = plan.getTableRef();
+        String name = plan.getClass().getSimpleName();
+        if (tableRef != null && tableRef.getTable() != null && tableRef.getTable().getName() != null) {
+            name += " OVER " + tableRef.getTable().getName().getString();
+        }
+        OperatorProfile operator = newOperator(context, name);
+        return operator == null ? iterator : new ProfilingResultIterator(iterator, operator);
+    }
+
+    /**
+     * @return the steps describing the recorded profile, to be appended to the plan steps
+     */
+    public List<String> getProfileSteps() {
+        List<String> steps = new ArrayList<String>(operators.size() + contexts.size() + 1);
+        steps.add("EXECUTION PROFILE: " + rowCount + " ROW" + (rowCount == 1 ? "" : "S") + " IN "
+                + toMillis(elapsedTime) + " MS");
+        // Operators are registered once their inputs are created, so inputs are listed before their consumers
+        for (OperatorProfile operator : operators) {
+            steps.add("    " + operator);
+        }
+        Map<String, Map<MetricType, Long>> readMetrics = new TreeMap<String, Map<MetricType, Long>>();
+        synchronized (contexts) {
+            for (StatementContext context : contexts) {
+                for (Entry<String, Map<MetricType, Long>> entry : context.getReadMetricsQueue().aggregate().entrySet()) {
+                    Map<MetricType, Long> tableMetrics = readMetrics.get(entry.getKey());
+                    if (tableMetrics == null) {
+                        tableMetrics = new EnumMap<MetricType, Long>(MetricType.class);
+                        readMetrics.put(entry.getKey(), tableMetrics);
+                    }
+                    for (Entry<MetricType, Long> metric : entry.getValue().entrySet()) {
+                        Long value = tableMetrics.get(metric.getKey());
+                        tableMetrics.put(metric.getKey(), value == null ? metric.getValue() : value + metric.getValue());
+                    }
+                }
+            }
+        }
+        for (Entry<String, Map<MetricType, Long>> entry : readMetrics.entrySet()) {
+            StringBuilder buf = new StringBuilder("    SERVER METRICS FOR " + entry.getKey() + ":");
+            String separator = " ";
+            for (Entry<MetricType, Long> metric : entry.getValue().entrySet()) {
+                buf.append(separator).append(metric.getKey().name()).append('=').append(metric.getValue());
+                separator = ", ";
+            }
+            steps.add(buf.toString());
+        }
+        return steps;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", (double)nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Counters of a single operator. Rows and time may be added from multiple threads.
+     */
+    public static class OperatorProfile {
+        private final String name;
+        private final AtomicLong rowCount = new AtomicLong();
+        private final AtomicLong elapsedTime = new AtomicLong();
+
+        OperatorProfile(String name) {
+            this.name = name;
+        }
+
+        public void addRows(long rows) {
+            rowCount.addAndGet(rows);
+        }
+
+        public void addElapsedTime(long nanos) {
+            elapsedTime.addAndGet(nanos);
+        }
+
+        public long getRowCount() {
+            return rowCount.get();
+        }
+
+        public long getElapsedTime() {
+            return elapsedTime.get();
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + rowCount.get() + " ROW" + (rowCount.get() == 1 ? "" : "S") + " IN "
+                    + toMillis(elapsedTime.get()) + " MS";
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_SPOOL_FILE_COUNTER;
+import static org.apache.phoenix.query.QueryConstants.AGG_TIMESTAMP;
+import static org.apache.phoenix.query.QueryConstants.SINGLE_COLUMN;
+import static org.apache.phoenix.query.QueryConstants.SINGLE_COLUMN_FAMILY;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.phoenix.expression.aggregator.Aggregator;
+import org.apache.phoenix.expression.aggregator.ClientAggregators;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.memory.MemoryManager;
+import org.apache.phoenix.memory.MemoryManager.MemoryChunk;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.apache.phoenix.schema.tuple.SingleKeyValueTuple;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.KeyValueUtil;
+import org.apache.phoenix.util.ServerUtil;
+import org.apache.phoenix.util.SizedUtil;
+import org.apache.phoenix.util.TupleUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ *
+ * Result scanner that aggregates the partial aggregates of the rows with the same key
+ * into hash tables, for rows from the backing result iterators in no particular order.
+ * Unlike {@link GroupedAggregatingResultIterator}, the rows don't need to be merge sorted
+ * by key first. The keys are hash partitioned, and the rows of the backing result iterators
+ * are aggregated into the partitions concurrently on the given executor.
+ *
+ * Once the groups of a partition use up its share of memory, the rows of groups not
+ * already in memory are spilled to disk, and aggregated after the groups in memory have
+ * been returned. Groups are returned in no particular order.
+ *
+ */
+public class HashAggregatingResultIterator implements AggregatingResultIterator {
+    private static final Logger logger = LoggerFactory.getLogger(HashAggregatingResultIterator.class);
+    // Number of rows of a partition buffered by a thread before they're aggregated under its lock
+    private static final int BATCH_SIZE = 64;
+
+    private final ResultIterators resultIterators;
+    private final ClientAggregators aggregators;
+    private final ExecutorService executor;
+    private final MemoryManager memoryManager;
+    private final long maxMemoryBytes;
+    private final long maxSpoolToDiskBytes;
+    private final String spoolDirectory;
+    private final Partition[] partitions;
+    private int partitionIndex = -1;
+    private Iterator<Map.Entry<ImmutableBytesPtr, Aggregator[]>> groups;
+    private boolean initialized;
+
+    public HashAggregatingResultIterator(ResultIterators resultIterators, ClientAggregators aggregators,
+            ExecutorService executor, MemoryManager memoryManager, int numPartitions, long maxMemoryBytes,
+            long maxSpoolToDiskBytes, String spoolDirectory) {
+        if (resultIterators == null) throw new NullPointerException();
+        if (aggregators == null) throw new NullPointerException();
+        this.resultIterators = resultIterators;
+        this.aggregators = aggregators;
+        this.executor = executor;
+        this.memoryManager = memoryManager;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSpoolToDiskBytes = maxSpoolToDiskBytes;
+        this.spoolDirectory = spoolDirectory;
+        this.partitions = new Partition[Math.max(1, numPartitions)];
+    }
+
+    private int getPartition(ImmutableBytesPtr key) {
+        // Mix the bits of the hash code, as the hash tables of the partitions index
+        // their buckets by its low bits
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return (h & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    private void init() throws SQLException {
+        initialized = true;
+        List<PeekingResultIterator> iterators = resultIterators.getIterators();
+        long partitionMaxBytes = maxMemoryBytes / partitions.length;
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(memoryManager.allocate(0, partitionMaxBytes));
+        }
+        int numTasks = Math.min(iterators.size(), partitions.length);
+        List<Future<Void>> futures = Lists.newArrayListWithExpectedSize(numTasks);
+        List<JobCallable<Void>> rejected = Lists.newArrayList();
+        for (int i = 0; i < numTasks; i++) {
+            // Each task aggregates the rows of every numTasks-th iterator
+            final List<PeekingResultIterator> taskIterators = Lists.newArrayList();
+            for (int j = i; j < iterators.size(); j += numTasks) {
+                taskIterators.add(iterators.get(j));
+            }
+            JobCallable<Void> task = new JobCallable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    aggregate(taskIterators);
+                    return null;
+                }
+
+                @Override
+                public Object getJobId() {
+                    return resultIterators;
+                }
+
+                @Override
+                public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                    return TaskExecutionMetricsHolder.NO_OP_INSTANCE;
+                }
+            };
+            try {
+                futures.add(executor.submit(task));
+            } catch (RejectedExecutionException e) {
+                rejected.add(task);
+            }
+        }
+        boolean success = false;
+        try {
+            // Rather than failing the query, aggregate on this thread what the pool has no room for
+            for (JobCallable<Void> task : rejected) {
+                task.call();
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            success = true;
+        } catch (ExecutionException e) {
+            throw ServerUtil.parseServerException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ServerUtil.parseServerException(e);
+        } catch (Exception e) {
+            throw ServerUtil.parseServerException(e);
+        } finally {
+            if (!success) {
+                for (Future<Void> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Aggregated the rows of " + iterators.size() + " scans into " + partitions.length
+                    + " partitions with " + numTasks + " threads");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aggregate(List<PeekingResultIterator> iterators) throws SQLException, IOException {
+        List<Tuple>[] batches = new List[partitions.length];
+        for (int i = 0; i < batches.length; i++) {
+            batches[i] = Lists.newArrayListWithExpectedSize(BATCH_SIZE);
+        }
+        ImmutableBytesPtr key = new ImmutableBytesPtr();
+        for (PeekingResultIterator iterator : iterators) {
+            for (Tuple result = iterator.next(); result != null; result = iterator.next()) {
+                result.getKey(key);
+                int partition = getPartition(key);
+                List<Tuple> batch = batches[partition];
+                batch.add(result);
+                if (batch.size() == BATCH_SIZE) {
+                    partitions[partition].aggregate(batch);
+                    batch.clear();
+                }
+            }
+        }
+        for (int i = 0; i < batches.length; i++) {
+            if (!batches[i].isEmpty()) {
+                partitions[i].aggregate(batches[i]);
+            }
+        }
+    }
+
+    @Override
+    public Tuple next() throws SQLException {
+        if (!initialized) {
+            init();
+        }
+        while (partitionIndex < partitions.length) {
+            if (groups != null && groups.hasNext()) {
+                Map.Entry<ImmutableBytesPtr, Aggregator[]> group = groups.next();
+                // Let the group be garbage collected once it's returned
+                groups.remove();
+                byte[] value = partitions[partitionIndex].aggregators.toBytes(group.getValue());
+                return new SingleKeyValueTuple(KeyValueUtil.newKeyValue(group.getKey(), SINGLE_COLUMN_FAMILY,
+                        SINGLE_COLUMN, AGG_TIMESTAMP, value, 0, value.length));
+            }
+            if (partitionIndex < 0 || !partitions[partitionIndex].aggregateSpilled()) {
+                if (partitionIndex >= 0) {
+                    partitions[partitionIndex].close();
+                }
+                if (++partitionIndex == partitions.length) {
+                    break;
+                }
+            }
+            groups = partitions[partitionIndex].groups.entrySet().iterator();
+        }
+        groups = null;
+        return null;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            resultIterators.close();
+        } finally {
+            for (Partition partition : partitions) {
+                if (partition != null) {
+                    partition.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Aggregator[] aggregate(Tuple result) {
+        Aggregator[] rowAggregators = aggregators.getAggregators();
+        aggregators.reset(rowAggregators);
+        aggregators.aggregate(rowAggregators, result);
+        return rowAggregators;
+    }
+
+    @Override
+    public void explain(List<String> planSteps) {
+        resultIterators.explain(planSteps);
+        planSteps.add("CLIENT HASH AGGREGATE INTO " + partitions.length + " PARTITIONS");
+    }
+
+    @Override
+    public String toString() {
+        return "HashAggregatingResultIterator [resultIterators=" + resultIterators
+                + ", aggregators=" + aggregators + ", partitions=" + partitions.length + "]";
+    }
+
+    /**
+     * Groups of the keys of a partition, along with the rows spilled to disk once the
+     * groups exceeded the memory of the partition.
+     */
+    private class Partition {
+        // ClientAggregators aren't thread safe, so each partition has its own
+        private final ClientAggregators aggregators;
+        private final MemoryChunk chunk;
+        private final ImmutableBytesPtr key = new ImmutableBytesPtr();
+        private Map<ImmutableBytesPtr, Aggregator[]> groups = Maps.newHashMap();
+        private long size;
+        private File spillFile;
+        private DataOutputStream spillTo;
+        private long spilledBytes;
+
+        private Partition(MemoryChunk chunk) {
+            this.aggregators = new ClientAggregators(
+                    Arrays.asList(HashAggregatingResultIterator.this.aggregators.getFunctions()),
+                    HashAggregatingResultIterator.this.aggregators.getMinNullableIndex());
+            this.chunk = chunk;
+        }
+
+        private synchronized void aggregate(List<Tuple> results) throws IOException {
+            for (Tuple result : results) {
+                aggregate(result);
+            }
+        }
+
+        private void aggregate(Tuple result) throws IOException {
+            result.getKey(key);
+            Aggregator[] rowAggregators = groups.get(key);
+            if (rowAggregators == null) {
+                // Always keep one group in memory, so that aggregating spilled rows makes progress
+                if (size >= chunk.getSize() && !groups.isEmpty()) {
+                    spill(result);
+                    return;
+                }
+                rowAggregators = aggregators.newAggregators();
+                groups.put(new ImmutableBytesPtr(key.copyBytes()), rowAggregators);
+                size += SizedUtil.MAP_ENTRY_SIZE + SizedUtil.IMMUTABLE_BYTES_PTR_SIZE + key.getLength()
+                        + aggregators.getEstimatedByteSize();
+            }
+            aggregators.aggregate(rowAggregators, result);
+        }
+
+        private void spill(Tuple result) throws IOException {
+            if (spillTo == null) {
+                spillFile = File.createTempFile("HashAggregateSpill", ".bin", new File(spoolDirectory));
+                spillTo = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+                GLOBAL_SPOOL_FILE_COUNTER.increment();
+            }
+            spilledBytes += TupleUtil.write(result, spillTo);
+            if (maxSpoolToDiskBytes != -1 && spilledBytes > maxSpoolToDiskBytes) {
+                throw new SpoolTooBigToDiskException("result too big, max allowed(bytes): " + maxSpoolToDiskBytes);
+            }
+        }
+
+        /**
+         * Replaces the groups of the partition by the groups of the rows it spilled, spilling
+         * again the rows of the groups that don't fit in memory.
+         * @return false if the partition hadn't spilled any row
+         */
+        private boolean aggregateSpilled() throws SQLException {
+            if (spillTo == null) {
+                return false;
+            }
+            File file = spillFile;
+            try {
+                spillTo.close();
+            } catch (IOException e) {
+                throw ServerUtil.parseServerException(e);
+            } finally {
+                spillTo = null;
+                spillFile = null;
+                spilledBytes = 0;
+                groups = Maps.newHashMap();
+                size = 0;
+            }
+            // Deletes the file once read
+            PeekingResultIterator spilled = new SpoolingResultIterator.OnDiskResultIterator(file);
+            try {
+                for (Tuple result = spilled.next(); result != null; result = spilled.next()) {
+                    aggregate(result);
+                }
+            } catch (IOException e) {
+                throw ServerUtil.parseServerException(e);
+            } finally {
+                spilled.close();
+            }
+            return true;
+        }
+
+        private void close() {
+            groups = Maps.newHashMap();
+            try {
+                if (spillTo != null) {
+                    spillTo.close();
+                }
+            } catch (IOException ignored) {
+                // ignore close error
+            } finally {
+                if (spillFile != null) {
+                    spillFile.delete();
+                }
+                spillTo = null;
+                spillFile = null;
+                chunk.close();
+            }
+        }
+    }
+}
@@ -183,8 +183,9 @@ public class NonAggregateRegionScannerFactory extends RegionScannerFactory {
       }
       PTable.QualifierEncodingScheme encodingScheme = EncodedColumnsUtil.getQualifierEncodingScheme(scan);
       ResultIterator inner = new RegionScannerResultIterator(s, EncodedColumnsUtil.getMinMaxQualifiersFromScan(scan), encodingScheme);
+      byte[] threshold = scan.getAttribute(BaseScannerRegionObserver.TOPN_THRESHOLD);
       return new OrderedResultIterator(inner, orderByExpressions, thresholdBytes, limit >= 0 ? limit : null, null,
-          estimatedRowSize);
+          estimatedRowSize, threshold == null ? null : new ImmutableBytesWritable(threshold));
     } catch (IOException e) {
       throw new RuntimeException(e);
     } finally {
@@ -98,6 +98,9 @@ public class OrderedResultIterator implements PeekingResultIterator {
     private final List<OrderByExpression> orderByExpressions;
     private final long estimatedByteSize;
     
+    // Sort key of the first column in ORDER BY clause beyond which rows can't be in the result, if known
+    private final ImmutableBytesWritable threshold;
+    
     private PeekingResultIterator resultIterator;
     private long byteSize;
 
@@ -117,10 +120,21 @@ public class OrderedResultIterator implements PeekingResultIterator {
 
     public OrderedResultIterator(ResultIterator delegate, List<OrderByExpression> orderByExpressions, 
             int thresholdBytes, Integer limit, Integer offset,int estimatedRowSize) {
+        this(delegate, orderByExpressions, thresholdBytes, limit, offset, estimatedRowSize, null);
+    }
+
+    /**
+     * @param threshold sort key of the first column in ORDER BY clause that the sort key of a row may
+     * not be greater than, in the order of the column, for the row to be part of the result. Rows
+     * beyond the threshold are skipped instead of being sorted. May be null.
+     */
+    public OrderedResultIterator(ResultIterator delegate, List<OrderByExpression> orderByExpressions, 
+            int thresholdBytes, Integer limit, Integer offset,int estimatedRowSize, ImmutableBytesWritable threshold) {
         checkArgument(!orderByExpressions.isEmpty());
         this.delegate = delegate;
         this.orderByExpressions = orderByExpressions;
         this.thresholdBytes = thresholdBytes;
+        this.threshold = threshold;
         this.offset = offset == null ? 0 : offset;
         if (limit != null) {
             this.limit = limit + this.offset;
@@ -157,26 +171,35 @@ public class OrderedResultIterator implements PeekingResultIterator {
      * @param orderByExpressions the columns in ORDER BY clause.
      * @return the comparator built from the list of columns in ORDER BY clause.
      */
-    // ImmutableBytesWritable.Comparator doesn't implement generics
-    @SuppressWarnings("unchecked")
     private static Comparator<ResultEntry> buildComparator(List<OrderByExpression> orderByExpressions) {
         Ordering<ResultEntry> ordering = null;
         int pos = 0;
         for (OrderByExpression col : orderByExpressions) {
-            Expression e = col.getExpression();
-            Comparator<ImmutableBytesWritable> comparator = 
-                    e.getSortOrder() == SortOrder.DESC && !e.getDataType().isFixedWidth() 
-                    ? buildDescVarLengthComparator() 
-                    : new ImmutableBytesWritable.Comparator();
-            Ordering<ImmutableBytesWritable> o = Ordering.from(comparator);
-            if(!col.isAscending()) o = o.reverse();
-            o = col.isNullsLast() ? o.nullsLast() : o.nullsFirst();
-            Ordering<ResultEntry> entryOrdering = o.onResultOf(new NthKey(pos++));
+            Ordering<ResultEntry> entryOrdering = buildSortKeyOrdering(col).onResultOf(new NthKey(pos++));
             ordering = ordering == null ? entryOrdering : ordering.compound(entryOrdering);
         }
         return ordering;
     }
 
+    /**
+     * Builds the ordering of the sort keys of a column in ORDER BY clause, where a null sort key
+     * stands for a null value.
+     * @param col the column in ORDER BY clause.
+     * @return the ordering of the sort keys of the column.
+     */
+    // ImmutableBytesWritable.Comparator doesn't implement generics
+    @SuppressWarnings("unchecked")
+    static Ordering<ImmutableBytesWritable> buildSortKeyOrdering(OrderByExpression col) {
+        Expression e = col.getExpression();
+        Comparator<ImmutableBytesWritable> comparator = 
+                e.getSortOrder() == SortOrder.DESC && !e.getDataType().isFixedWidth() 
+                ? buildDescVarLengthComparator() 
+                : new ImmutableBytesWritable.Comparator();
+        Ordering<ImmutableBytesWritable> o = Ordering.from(comparator);
+        if(!col.isAscending()) o = o.reverse();
+        return col.isNullsLast() ? o.nullsLast() : o.nullsFirst();
+    }
+
     /*
      * Same as regular comparator, but if all the bytes match and the length is
      * different, returns the longer length as bigger.
@@ -207,6 +230,8 @@ public class OrderedResultIterator implements PeekingResultIterator {
         final int numSortKeys = orderByExpressions.size();
         List<Expression> expressions = Lists.newArrayList(Collections2.transform(orderByExpressions, TO_EXPRESSION));
         final Comparator<ResultEntry> comparator = buildComparator(orderByExpressions);
+        final Ordering<ImmutableBytesWritable> thresholdOrdering =
+                threshold == null ? null : buildSortKeyOrdering(orderByExpressions.get(0));
         try{
             final MappedByteBufferSortedQueue queueEntries = new MappedByteBufferSortedQueue(comparator, limit,
                     thresholdBytes);
@@ -261,6 +286,9 @@ public class OrderedResultIterator implements PeekingResultIterator {
                     // set the sort key that failed to get evaluated with null
                     sortKeys[pos++] = evaluated && sortKey.getLength() > 0 ? sortKey : null;
                 }
+                if (thresholdOrdering != null && thresholdOrdering.compare(sortKeys[0], threshold) > 0) {
+                    continue;
+                }
                 queueEntries.add(new ResultEntry(sortKeys, result));
             }
             this.byteSize = queueEntries.getByteSize();
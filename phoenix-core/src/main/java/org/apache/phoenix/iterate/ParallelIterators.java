@@ -21,7 +21,9 @@ import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_NUM_PARAL
 
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -34,6 +36,8 @@ import org.apache.phoenix.monitoring.MetricType;
 import org.apache.phoenix.monitoring.ReadMetricQueue;
 import org.apache.phoenix.monitoring.ScanMetricsHolder;
 import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.trace.util.Tracing;
 import org.apache.phoenix.util.LogUtil;
 import org.apache.phoenix.util.ScanUtil;
@@ -54,12 +58,25 @@ public class ParallelIterators extends BaseResultIterators {
 	private static final String NAME = "PARALLEL";
     private final ParallelIteratorFactory iteratorFactory;
     private final boolean initFirstScanOnly;
+    // Scans of the iterators that may be split by splitScan(), if work stealing is enabled
+    private final Map<PeekingResultIterator, TableResultIterator> splittableIterators;
+    // Sort key bound sent to the scans of a top-n query as they are started, if pushed down
+    private final TopNThreshold topNThreshold;
     
     public ParallelIterators(QueryPlan plan, Integer perScanLimit, ParallelIteratorFactory iteratorFactory, ParallelScanGrouper scanGrouper, Scan scan, boolean initFirstScanOnly)
             throws SQLException {
         super(plan, perScanLimit, null, scanGrouper, scan);
         this.iteratorFactory = iteratorFactory;
         this.initFirstScanOnly = initFirstScanOnly;
+        // Only the iterators read lazily by a round robin iterator are split, as the rows of the other
+        // ones are either read ahead in a single task or read by a single thread in key order
+        boolean workStealing = iteratorFactory == ParallelIteratorFactory.NOOP_FACTORY && plan.useRoundRobinIterator()
+                && context.getConnection().getQueryServices().getProps().getBoolean(
+                        QueryServices.WORK_STEALING_ENABLED_ATTRIB, QueryServicesOptions.DEFAULT_WORK_STEALING_ENABLED);
+        this.splittableIterators = workStealing
+                ? Collections.synchronizedMap(new IdentityHashMap<PeekingResultIterator, TableResultIterator>())
+                : null;
+        this.topNThreshold = TopNThreshold.create(plan, scan);
     }   
     
     public ParallelIterators(QueryPlan plan, Integer perScanLimit, ParallelIteratorFactory iteratorFactory, Scan scan, boolean initOneScanPerRegion)
@@ -116,7 +133,16 @@ public class ParallelIterators extends BaseResultIterators {
                     if (logger.isDebugEnabled()) {
                         logger.debug(LogUtil.addCustomAnnotations("Id: " + scanId + ", Time: " + (System.currentTimeMillis() - startTime) + "ms, Scan: " + scan, ScanUtil.getCustomAnnotations(scan)));
                     }
-                    PeekingResultIterator iterator = iteratorFactory.newIterator(context, tableResultItr, scan, physicalTableName, ParallelIterators.this.plan);
+                    ResultIterator scanner = tableResultItr;
+                    if (topNThreshold != null) {
+                        // The scanner is opened lazily, so the threshold is the latest one
+                        topNThreshold.setScanAttribute(scan);
+                        scanner = topNThreshold.newIterator(scanner);
+                    }
+                    PeekingResultIterator iterator = iteratorFactory.newIterator(context, scanner, scan, physicalTableName, ParallelIterators.this.plan);
+                    if (splittableIterators != null) {
+                        splittableIterators.put(iterator, tableResultItr);
+                    }
                     if (initFirstScanOnly) {
                         if ((!isReverse && scanLocation.isFirstScan()) || (isReverse && scanLocation.isLastScan())) {
                             // Fill the scanner's cache. This helps reduce latency since we are parallelizing the I/O needed.
@@ -150,6 +176,42 @@ public class ParallelIterators extends BaseResultIterators {
         }
     }
 
+    /**
+     * Splits off the rows left to read by an iterator returned by {@link #getIterators()} when
+     * work stealing is enabled, so that they are read concurrently by another scan.
+     * @param iterator the iterator, which stops before the rows split off
+     * @return an iterator over the rows split off, which may be split again, or null if the
+     * scan of the iterator can't be split
+     */
+    PeekingResultIterator splitScan(PeekingResultIterator iterator) throws SQLException {
+        TableResultIterator tableResultItr = splittableIterators == null ? null : splittableIterators.get(iterator);
+        if (tableResultItr == null) {
+            return null;
+        }
+        Scan splitScan = tableResultItr.split();
+        if (splitScan == null) {
+            return null;
+        }
+        ReadMetricQueue readMetrics = context.getReadMetricsQueue();
+        String physicalTableName = tableRef.getTable().getPhysicalName().getString();
+        ScanMetricsHolder scanMetricsHolder = ScanMetricsHolder.getInstance(readMetrics, physicalTableName,
+                splitScan, readMetrics.isRequestMetricsEnabled());
+        TableResultIterator splitTableResultItr =
+                context.getConnection().getTableResultIteratorFactory().newIterator(
+                    mutationState, tableRef, splitScan, scanMetricsHolder,
+                    context.getConnection().getQueryServices().getRenewLeaseThresholdMilliSeconds(), plan,
+                    scanGrouper);
+        context.getConnection().addIteratorForLeaseRenewal(splitTableResultItr);
+        PeekingResultIterator splitIterator = iteratorFactory.newIterator(context, splitTableResultItr, splitScan, physicalTableName, plan);
+        splittableIterators.put(splitIterator, splitTableResultItr);
+        context.getOverallQueryMetrics().updateNumParallelScans(1);
+        GLOBAL_NUM_PARALLEL_SCANS.update(1);
+        if (logger.isDebugEnabled()) {
+            logger.debug(LogUtil.addCustomAnnotations("Id: " + scanId + ", Split off scan: " + splitScan, ScanUtil.getCustomAnnotations(splitScan)));
+        }
+        return splitIterator;
+    }
+
     @Override
     protected String getName() {
         return NAME;
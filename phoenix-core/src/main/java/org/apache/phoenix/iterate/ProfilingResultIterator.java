@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import java.sql.SQLException;
+
+import org.apache.phoenix.iterate.ExecutionProfile.OperatorProfile;
+import org.apache.phoenix.schema.tuple.Tuple;
+
+/**
+ * Iterator that records the rows returned by and the time spent in the delegate iterator,
+ * including the time spent in the iterators it consumes.
+ */
+public class ProfilingResultIterator extends DelegateResultIterator {
+    private final OperatorProfile operator;
+
+    public ProfilingResultIterator(ResultIterator delegate, OperatorProfile operator) {
+        super(delegate);
+        this.operator = operator;
+    }
+
+    @Override
+    public Tuple next() throws SQLException {
+        long startTime = System.nanoTime();
+        try {
+            Tuple tuple = super.next();
+            if (tuple != null) {
+                operator.addRows(1);
+            }
+            return tuple;
+        } finally {
+            operator.addElapsedTime(System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        long startTime = System.nanoTime();
+        try {
+            super.close();
+        } finally {
+            operator.addElapsedTime(System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProfilingResultIterator [operator=" + operator + ", delegate=" + getDelegate() + "]";
+    }
+}
@@ -19,17 +19,19 @@ package org.apache.phoenix.iterate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_FAILED_QUERY_COUNTER;
+import static org.apache.phoenix.monitoring.TaskExecutionMetricsHolder.NO_OP_INSTANCE;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.apache.phoenix.compile.QueryPlan;
 import org.apache.phoenix.compile.StatementContext;
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
 import org.apache.phoenix.query.ConnectionQueryServices;
 import org.apache.phoenix.schema.tuple.Tuple;
 import org.apache.phoenix.util.ServerUtil;
@@ -61,6 +63,8 @@ public class RoundRobinResultIterator implements ResultIterator {
     private int index;
     private boolean closed;
     private final QueryPlan plan;
+    // Number of scanners the query started with
+    private int numScans;
 
     // For testing purposes
     private int numParallelFetches;
@@ -171,14 +175,37 @@ public class RoundRobinResultIterator implements ResultIterator {
              * All the scanners have exhausted their cache. Submit the scanners back to the pool so that they can fetch
              * the next batch of records in parallel.
              */
+            stealWork();
             initOpenIterators(fetchNextBatch());
         } else if (openIterators.size() == 0 && resultIterators != null) {
             List<PeekingResultIterator> iterators = resultIterators.getIterators();
+            numScans = iterators.size();
             initOpenIterators(wrapToRoundRobinIterators(iterators));
         }
         return openIterators;
     }
 
+    /**
+     * Splits off the rows left to the open scanners when fewer scanners are open than the query
+     * started with, so that the next batches are fetched by as many threads as when it started.
+     * This evens out the scans whose key ranges were estimated from out of date or skewed stats.
+     */
+    private void stealWork() throws SQLException {
+        if (!(resultIterators instanceof ParallelIterators)) {
+            return;
+        }
+        ParallelIterators parallelIterators = (ParallelIterators)resultIterators;
+        int numOpenIterators = openIterators.size();
+        int numSplits = numScans - numOpenIterators;
+        for (int i = 0; i < numOpenIterators && numSplits > 0; i++) {
+            PeekingResultIterator splitIterator = parallelIterators.splitScan(openIterators.get(i).delegate);
+            if (splitIterator != null) {
+                openIterators.add(new RoundRobinIterator(splitIterator, null));
+                numSplits--;
+            }
+        }
+    }
+
     private List<RoundRobinIterator> wrapToRoundRobinIterators(List<PeekingResultIterator> iterators) {
         List<RoundRobinIterator> roundRobinItrs = new ArrayList<>(iterators.size());
         for (PeekingResultIterator itr : iterators) {
@@ -226,13 +253,25 @@ public class RoundRobinResultIterator implements ResultIterator {
             if (logger.isDebugEnabled()) {
                 logger.debug("Performing parallel fetch for " + openIterators.size() + " iterators. ");
             }
+            // The fetches are scheduled as tasks of the scans when these are a job of the executor
+            final Object jobId = resultIterators != null ? resultIterators : this;
             for (final RoundRobinIterator itr : openIterators) {
-                Future<Tuple> future = executor.submit(new Callable<Tuple>() {
+                Future<Tuple> future = executor.submit(new JobCallable<Tuple>() {
                     @Override
                     public Tuple call() throws Exception {
                         // Read the next record to refill the scanner's cache.
                         return itr.next();
                     }
+
+                    @Override
+                    public Object getJobId() {
+                        return jobId;
+                    }
+
+                    @Override
+                    public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                        return NO_OP_INSTANCE;
+                    }
                 });
                 futures.add(future);
             }
@@ -17,6 +17,8 @@
  */
 package org.apache.phoenix.iterate;
 
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_HEDGED_READ_COUNTER;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_HEDGED_READ_WIN_COUNTER;
 import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_SCAN_BYTES;
 
 import java.io.IOException;
@@ -24,9 +26,11 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.hadoop.hbase.client.Consistency;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.phoenix.compile.StatementContext;
 import org.apache.phoenix.monitoring.CombinableMetric;
 import org.apache.phoenix.monitoring.ScanMetricsHolder;
 import org.apache.phoenix.schema.tuple.ResultTuple;
@@ -39,6 +43,9 @@ public class ScanningResultIterator implements ResultIterator {
     private final ScanMetricsHolder scanMetricsHolder;
     boolean scanMetricsUpdated;
     boolean scanMetricsEnabled;
+    // Whether a result of this timeline consistent scan was served by a region replica
+    private boolean isStale;
+    private final StatementContext context;
 
     // These metric names are how HBase refers them
     // Since HBase stores these strings as static final, we are using the same here
@@ -56,11 +63,24 @@ public class ScanningResultIterator implements ResultIterator {
     static final String GLOBAL_BYTES_IN_RESULTS_METRIC_NAME = "BYTES_IN_RESULTS";
 
     public ScanningResultIterator(ResultScanner scanner, Scan scan, ScanMetricsHolder scanMetricsHolder) {
+        this(scanner, scan, scanMetricsHolder, null);
+    }
+
+    /**
+     * @param context the context of the query the scan belongs to, told when a result of the scan
+     * comes from a region replica, or null
+     */
+    public ScanningResultIterator(ResultScanner scanner, Scan scan, ScanMetricsHolder scanMetricsHolder,
+            StatementContext context) {
         this.scanner = scanner;
+        this.context = context;
         this.scan = scan;
         this.scanMetricsHolder = scanMetricsHolder;
         scanMetricsUpdated = false;
         scanMetricsEnabled = scan.isScanMetricsEnabled();
+        if (scan.getConsistency() == Consistency.TIMELINE) {
+            GLOBAL_HEDGED_READ_COUNTER.increment();
+        }
     }
 
     @Override
@@ -120,6 +140,13 @@ public class ScanningResultIterator implements ResultIterator {
                 close(); // Free up resources early
                 return null;
             }
+            if (result.isStale() && !isStale) {
+                isStale = true;
+                GLOBAL_HEDGED_READ_WIN_COUNTER.increment();
+                if (context != null) {
+                    context.setStale();
+                }
+            }
             // TODO: use ResultTuple.setResult(result)?
             // Need to create a new one if holding on to it (i.e. OrderedResultIterator)
             return new ResultTuple(result);
@@ -132,6 +159,14 @@ public class ScanningResultIterator implements ResultIterator {
     public void explain(List<String> planSteps) {
     }
 
+    /**
+     * @return true if a result of this scan was served by a region replica of the table, and may
+     * thus be stale, because the scan was timeline consistent and the primary region was slow to answer.
+     */
+    public boolean isStale() {
+        return isStale;
+    }
+
     @Override
     public String toString() {
         return "ScanningResultIterator [scanner=" + scanner + "]";
@@ -260,13 +260,13 @@ public class SpoolingResultIterator implements PeekingResultIterator {
      *
      * @since 0.1
      */
-    private static class OnDiskResultIterator implements PeekingResultIterator {
+    static class OnDiskResultIterator implements PeekingResultIterator {
         private final File file;
         private DataInputStream spoolFrom;
         private Tuple next;
         private boolean isClosed;
 
-        private OnDiskResultIterator (File file) {
+        OnDiskResultIterator (File file) {
             this.file = file;
         }
 
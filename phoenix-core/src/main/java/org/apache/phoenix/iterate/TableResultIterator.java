@@ -39,7 +39,9 @@ import org.apache.hadoop.hbase.client.AbstractClientScanner;
 import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.coprocessor.BaseScannerRegionObserver;
 import org.apache.phoenix.execute.MutationState;
 import org.apache.phoenix.monitoring.CombinableMetric;
 import org.apache.phoenix.monitoring.ScanMetricsHolder;
@@ -72,6 +74,7 @@ public class TableResultIterator implements ResultIterator {
     private final ParallelScanGrouper scanGrouper;
     private Tuple lastTuple = null;
     private ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+    private final ImmutableBytesWritable splitPtr = new ImmutableBytesWritable();
 
     @GuardedBy("renewLeaseLock")
     private ResultIterator scanIterator;
@@ -84,6 +87,20 @@ public class TableResultIterator implements ResultIterator {
     
     private final Lock renewLeaseLock = new ReentrantLock();
 
+    // Guards the position of the scan, which is split by other threads than the one reading it
+    private final Object splitLock = new Object();
+
+    // Last row returned
+    @GuardedBy("splitLock")
+    private Tuple lastReturnedTuple;
+
+    // Start row of the rows split off by split(), which this iterator doesn't return
+    @GuardedBy("splitLock")
+    private byte[] splitKey;
+
+    @GuardedBy("splitLock")
+    private boolean ended;
+
     @VisibleForTesting // Exposed for testing. DON'T USE ANYWHERE ELSE!
     TableResultIterator() {
         this.scanMetricsHolder = null;
@@ -104,7 +121,9 @@ public class TableResultIterator implements ResultIterator {
         this.scanMetricsHolder = scanMetricsHolder;
         this.plan = plan;
         PTable table = plan.getTableRef().getTable();
-        htable = mutationState.getHTable(table);
+        htable = ScanUtil.isHedgedRead(scan, mutationState.getConnection())
+                ? mutationState.getConnection().getQueryServices().getHedgedReadTable(table.getPhysicalName().getBytes())
+                : mutationState.getHTable(table);
         this.scanIterator = UNINITIALIZED_SCANNER;
         this.renewLeaseThreshold = renewLeaseThreshold;
         this.scanGrouper = scanGrouper;
@@ -133,6 +152,10 @@ public class TableResultIterator implements ResultIterator {
     
     @Override
     public Tuple next() throws SQLException {
+        return checkSplitKey(nextTuple());
+    }
+
+    private Tuple nextTuple() throws SQLException {
         try {
             renewLeaseLock.lock();
             initScanner();
@@ -177,6 +200,68 @@ public class TableResultIterator implements ResultIterator {
         }
     }
 
+    /**
+     * Ends the iteration at the first row of the rows split off.
+     */
+    private Tuple checkSplitKey(Tuple tuple) {
+        synchronized (splitLock) {
+            if (ended) {
+                return null;
+            }
+            if (tuple != null && splitKey != null) {
+                tuple.getKey(splitPtr);
+                if (Bytes.compareTo(splitPtr.get(), splitPtr.getOffset(), splitPtr.getLength(), splitKey, 0, splitKey.length) >= 0) {
+                    tuple = null;
+                }
+            }
+            ended = tuple == null;
+            lastReturnedTuple = tuple;
+            return tuple;
+        }
+    }
+
+    /**
+     * Splits off the rows this iterator has not returned yet from about the middle of the key range
+     * left, so that another scan reads them concurrently. The rows of this iterator all sort before
+     * the rows split off, so that the scans can be concatenated in key order. Only forward non aggregate
+     * scans of data rows, whose rows are returned in key order, can be split.
+     * @return the scan of the rows split off, which this iterator won't return, or null if the scan
+     * can't be split
+     */
+    public Scan split() {
+        if (!ScanUtil.isNonAggregateScan(scan) || ScanUtil.isLocalIndex(scan) || ScanUtil.isReversed(scan)
+                || scan.getAttribute(BaseScannerRegionObserver.TOPN) != null) {
+            return null;
+        }
+        synchronized (splitLock) {
+            if (ended) {
+                return null;
+            }
+            byte[] stopKey = splitKey != null ? splitKey : scan.getStopRow();
+            // The end of the last region is unbounded
+            if (stopKey.length == 0) {
+                return null;
+            }
+            byte[] startKey;
+            if (lastReturnedTuple != null) {
+                lastReturnedTuple.getKey(splitPtr);
+                startKey = ByteUtil.copyKeyBytesIfNecessary(splitPtr);
+            } else {
+                startKey = scan.getStartRow();
+            }
+            if (Bytes.compareTo(startKey, stopKey) >= 0) {
+                return null;
+            }
+            byte[] midKey = ByteUtil.midKey(startKey, stopKey);
+            Scan splitScan = ScanUtil.newScan(scan);
+            splitScan.setStartRow(midKey);
+            splitScan.setStopRow(stopKey);
+            splitScan.setAttribute(SCAN_ACTUAL_START_ROW, midKey);
+            splitKey = midKey;
+            return splitScan;
+        }
+    }
+
     public void initScanner() throws SQLException {
         try {
             renewLeaseLock.lock();
@@ -187,7 +272,7 @@ public class TableResultIterator implements ResultIterator {
             if (delegate == UNINITIALIZED_SCANNER) {
                 try {
                     this.scanIterator =
-                            new ScanningResultIterator(htable.getScanner(scan), scan, scanMetricsHolder);
+                            new ScanningResultIterator(htable.getScanner(scan), scan, scanMetricsHolder, plan.getContext());
                 } catch (IOException e) {
                     Closeables.closeQuietly(htable);
                     throw ServerUtil.parseServerException(e);
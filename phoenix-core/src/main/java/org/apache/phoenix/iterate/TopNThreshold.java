@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.iterate;
+
+import java.sql.SQLException;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.coprocessor.BaseScannerRegionObserver;
+import org.apache.phoenix.expression.OrderByExpression;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.ByteUtil;
+import org.apache.phoenix.util.QueryUtil;
+
+import com.google.common.collect.Ordering;
+
+/**
+ * Tracks the sort key of the first ORDER BY column beyond which rows can't make it into the result
+ * of a top-n query, as the parallel scans of the query complete.
+ * <p>
+ * Each scan returns its own top n rows, sorted, so the sort key of the n-th row returned by any
+ * scan bounds the sort key of the n-th row of the whole query. Scans started afterwards are sent
+ * the lowest bound found so far, and their regions then skip the rows beyond it instead of sorting
+ * them. Rows with a sort key equal to the threshold are kept, as they may still tie with the n-th row.
+ */
+public class TopNThreshold {
+    private final OrderByExpression orderByExpression;
+    private final Ordering<ImmutableBytesWritable> ordering;
+    private final int limit;
+    // Guarded by this
+    private ImmutableBytesWritable threshold;
+
+    TopNThreshold(OrderByExpression orderByExpression, int limit) {
+        this.orderByExpression = orderByExpression;
+        this.ordering = OrderedResultIterator.buildSortKeyOrdering(orderByExpression);
+        this.limit = limit;
+    }
+
+    /**
+     * @return the threshold tracker of a plan whose scans are sorted and limited on the server,
+     * or null if the plan doesn't do a top-n on the server or threshold pushdown is disabled.
+     */
+    public static TopNThreshold create(QueryPlan plan, Scan scan) {
+        if (scan.getAttribute(BaseScannerRegionObserver.TOPN) == null
+                || plan.getLimit() == null || plan.getOrderBy().getOrderByExpressions().isEmpty()
+                || !plan.getContext().getConnection().getQueryServices().getProps().getBoolean(
+                        QueryServices.TOPN_THRESHOLD_PUSHDOWN_ENABLED_ATTRIB,
+                        QueryServicesOptions.DEFAULT_TOPN_THRESHOLD_PUSHDOWN_ENABLED)) {
+            return null;
+        }
+        return new TopNThreshold(plan.getOrderBy().getOrderByExpressions().get(0),
+                QueryUtil.getOffsetLimit(plan.getLimit(), plan.getOffset()));
+    }
+
+    /**
+     * Sends the current threshold, if any, to the region of a scan about to be started.
+     */
+    public void setScanAttribute(Scan scan) {
+        ImmutableBytesWritable threshold = getThreshold();
+        if (threshold != null) {
+            scan.setAttribute(BaseScannerRegionObserver.TOPN_THRESHOLD, ByteUtil.copyKeyBytesIfNecessary(threshold));
+        }
+    }
+
+    public synchronized ImmutableBytesWritable getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Lowers the threshold to the sort key of the n-th row returned by a scan, if it is lower.
+     * Null sort keys are ignored.
+     */
+    private void update(Tuple row) {
+        ImmutableBytesWritable sortKey = new ImmutableBytesWritable();
+        synchronized (this) {
+            // Expressions aren't guaranteed to be thread safe
+            if (!orderByExpression.getExpression().evaluate(row, sortKey) || sortKey.getLength() == 0) {
+                return;
+            }
+            if (threshold == null || ordering.compare(sortKey, threshold) < 0) {
+                threshold = new ImmutableBytesWritable(ByteUtil.copyKeyBytesIfNecessary(sortKey));
+            }
+        }
+    }
+
+    /**
+     * Wraps the iterator over the rows returned by a scan to update the threshold from its n-th row.
+     */
+    public ResultIterator newIterator(ResultIterator delegate) {
+        return new DelegateResultIterator(delegate) {
+            private int count;
+
+            @Override
+            public Tuple next() throws SQLException {
+                Tuple tuple = super.next();
+                if (tuple != null && ++count == limit) {
+                    update(tuple);
+                }
+                return tuple;
+            }
+        };
+    }
+}
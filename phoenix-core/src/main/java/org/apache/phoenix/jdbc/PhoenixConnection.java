@@ -75,6 +75,7 @@ import org.apache.phoenix.iterate.ParallelIteratorFactory;
 import org.apache.phoenix.iterate.TableResultIterator;
 import org.apache.phoenix.iterate.TableResultIteratorFactory;
 import org.apache.phoenix.jdbc.PhoenixStatement.PhoenixStatementParser;
+import org.apache.phoenix.monitoring.HistogramSnapshot;
 import org.apache.phoenix.monitoring.MetricType;
 import org.apache.phoenix.parse.PFunction;
 import org.apache.phoenix.parse.PSchema;
@@ -162,6 +163,7 @@ public class PhoenixConnection implements Connection, MetaDataMutated, SQLClosea
     private Sampler<?> sampler;
     private boolean readOnly = false;
     private Consistency consistency = Consistency.STRONG;
+    private boolean isHedgedPointLookups = false;
     private Map<String, String> customTracingAnnotations = emptyMap();
     private final boolean isRequestLevelMetricsEnabled;
     private final boolean isDescVarLengthRowKeyUpgrade;
@@ -259,6 +261,9 @@ public class PhoenixConnection implements Connection, MetaDataMutated, SQLClosea
         this.consistency = JDBCUtil.getConsistencyLevel(url, this.info, this.services.getProps()
                  .get(QueryServices.CONSISTENCY_ATTRIB,
                          QueryServicesOptions.DEFAULT_CONSISTENCY_LEVEL));
+        this.isHedgedPointLookups = JDBCUtil.isHedgedPointLookups(url, this.info, this.services.getProps()
+                .getBoolean(QueryServices.HEDGED_POINT_LOOKUPS_ATTRIB,
+                        QueryServicesOptions.DEFAULT_HEDGED_POINT_LOOKUPS));
         // currently we are not resolving schema set through property, so if schema doesn't exists ,connection will not fail
         // but queries may fail
         this.schema = JDBCUtil.getSchema(url, this.info,
@@ -676,6 +681,14 @@ public class PhoenixConnection implements Connection, MetaDataMutated, SQLClosea
         return this.consistency;
     }
 
+    /**
+     * @return true if single row point lookups are read with timeline consistency, so that the
+     * region replicas of the table are read when the primary region is slow to answer.
+     */
+    public boolean isHedgedPointLookups() {
+        return this.isHedgedPointLookups;
+    }
+
     @Override
     public String getCatalog() throws SQLException {
         return "";
@@ -831,6 +844,10 @@ public class PhoenixConnection implements Connection, MetaDataMutated, SQLClosea
         this.consistency = val;
     }
 
+    public void setHedgedPointLookups(boolean isHedgedPointLookups) {
+        this.isHedgedPointLookups = isHedgedPointLookups;
+    }
+
     @Override
     public void setCatalog(String catalog) throws SQLException {
         if (!this.getCatalog().equalsIgnoreCase(catalog)) {
@@ -1025,6 +1042,10 @@ public class PhoenixConnection implements Connection, MetaDataMutated, SQLClosea
         return mutationState.getMutationMetricQueue().aggregate();
     }
     
+    public Map<String, HistogramSnapshot> getMutationCommitTimeHistograms() {
+        return mutationState.getMutationMetricQueue().getCommitTimeHistograms();
+    }
+    
     public Map<String, Map<MetricType, Long>> getReadMetrics() {
         return mutationState.getReadMetricQueue() != null ? mutationState.getReadMetricQueue().aggregate() : Collections.<String, Map<MetricType, Long>>emptyMap();
     }
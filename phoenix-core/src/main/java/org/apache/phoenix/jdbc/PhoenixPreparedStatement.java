@@ -45,6 +45,8 @@ import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.phoenix.compile.BindManager;
 import org.apache.phoenix.compile.MutationPlan;
@@ -58,6 +60,8 @@ import org.apache.phoenix.schema.Sequence;
 import org.apache.phoenix.schema.types.PDataType;
 import org.apache.phoenix.util.SQLCloseable;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 /**
  * JDBC PreparedStatement implementation of Phoenix. Currently only the following methods (in addition to the ones
  * supported on {@link PhoenixStatement} are supported: - {@link #executeQuery()} - {@link #setInt(int, int)} -
@@ -186,6 +190,25 @@ public class PhoenixPreparedStatement extends PhoenixStatement implements Prepar
         return executeQuery(statement);
     }
 
+    /**
+     * @see PhoenixStatement#executeQueryAsync(String)
+     */
+    public ListenableFuture<PhoenixResultSet> executeQueryAsync() {
+        return executeQueryAsync(getConnection().getQueryServices().getAsyncExecutor());
+    }
+
+    /**
+     * @see PhoenixStatement#executeQueryAsync(String, ExecutorService)
+     */
+    public ListenableFuture<PhoenixResultSet> executeQueryAsync(ExecutorService executor) {
+        return executeQueryAsync(new Callable<ResultSet>() {
+            @Override
+            public ResultSet call() throws SQLException {
+                return executeQuery();
+            }
+        }, executor);
+    }
+
     @Override
     public int executeUpdate() throws SQLException {
         throwIfUnboundParameters();
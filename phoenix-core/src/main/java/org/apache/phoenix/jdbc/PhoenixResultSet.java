@@ -38,8 +38,11 @@ import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.Format;
+import java.util.ArrayDeque;
 import java.util.Calendar;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -50,28 +53,27 @@ import org.apache.phoenix.compile.StatementContext;
 import org.apache.phoenix.exception.SQLExceptionCode;
 import org.apache.phoenix.exception.SQLExceptionInfo;
 import org.apache.phoenix.iterate.ResultIterator;
+import org.apache.phoenix.job.JobManager;
+import org.apache.phoenix.job.JobManager.JobCallable;
 import org.apache.phoenix.monitoring.MetricType;
 import org.apache.phoenix.monitoring.OverAllQueryMetrics;
 import org.apache.phoenix.monitoring.ReadMetricQueue;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
 import org.apache.phoenix.schema.tuple.ResultTuple;
 import org.apache.phoenix.schema.tuple.Tuple;
 import org.apache.phoenix.schema.types.PBoolean;
 import org.apache.phoenix.schema.types.PDataType;
 import org.apache.phoenix.schema.types.PDate;
 import org.apache.phoenix.schema.types.PDecimal;
-import org.apache.phoenix.schema.types.PDouble;
-import org.apache.phoenix.schema.types.PFloat;
 import org.apache.phoenix.schema.types.PInteger;
-import org.apache.phoenix.schema.types.PLong;
-import org.apache.phoenix.schema.types.PSmallint;
 import org.apache.phoenix.schema.types.PTime;
 import org.apache.phoenix.schema.types.PTimestamp;
-import org.apache.phoenix.schema.types.PTinyint;
 import org.apache.phoenix.schema.types.PVarbinary;
 import org.apache.phoenix.schema.types.PVarchar;
 import org.apache.phoenix.util.SQLCloseable;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
 
 
 
@@ -122,6 +124,11 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     private boolean isClosed = false;
     private boolean wasNull = false;
     private boolean firstRecordRead = false;
+    // Rows fetched ahead by nextBatchAsync that next hasn't returned yet
+    private final Queue<Tuple> fetchedRows = new ArrayDeque<Tuple>();
+    private boolean fetchedLastRow = false;
+    // Held while reading the scanner, which fetches may do concurrently with the caller
+    private final Object scannerLock = new Object();
     
     public PhoenixResultSet(ResultIterator resultIterator, RowProjector rowProjector, StatementContext ctx) throws SQLException {
         this.rowProjector = rowProjector;
@@ -158,14 +165,17 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
 
     @Override
     public void close() throws SQLException {
-        if (isClosed) { return; }
-        try {
-            scanner.close();
-        } finally {
-            isClosed = true;
-            statement.getResultSets().remove(this);
-            overAllQueryMetrics.endQuery();
-            overAllQueryMetrics.stopResultSetWatch();
+        synchronized (scannerLock) {
+            if (isClosed) { return; }
+            try {
+                scanner.close();
+            } finally {
+                isClosed = true;
+                fetchedRows.clear();
+                statement.getResultSets().remove(this);
+                overAllQueryMetrics.endQuery();
+                overAllQueryMetrics.stopResultSetWatch();
+            }
         }
     }
 
@@ -321,12 +331,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     public byte getByte(int columnIndex) throws SQLException {
 //        throw new SQLFeatureNotSupportedException();
         checkCursorState();
-        Byte value = (Byte)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow,
-            PTinyint.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        byte value = rowProjector.getColumnProjector(columnIndex-1).getByte(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -403,12 +409,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     @Override
     public double getDouble(int columnIndex) throws SQLException {
         checkCursorState();
-        Double value = (Double)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow,
-            PDouble.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        double value = rowProjector.getColumnProjector(columnIndex-1).getDouble(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -430,12 +432,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     @Override
     public float getFloat(int columnIndex) throws SQLException {
         checkCursorState();
-        Float value = (Float)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow,
-            PFloat.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        float value = rowProjector.getColumnProjector(columnIndex-1).getFloat(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -452,12 +450,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     @Override
     public int getInt(int columnIndex) throws SQLException {
         checkCursorState();
-        Integer value = (Integer)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow,
-            PInteger.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        int value = rowProjector.getColumnProjector(columnIndex-1).getInt(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -469,12 +463,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     @Override
     public long getLong(int columnIndex) throws SQLException {
         checkCursorState();
-        Long value = (Long)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow,
-            PLong.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        long value = rowProjector.getColumnProjector(columnIndex-1).getLong(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -581,11 +571,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
     @Override
     public short getShort(int columnIndex) throws SQLException {
         checkCursorState();
-        Short value = (Short)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow, PSmallint.INSTANCE, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        short value = rowProjector.getColumnProjector(columnIndex-1).getShort(currentRow, ptr);
+        wasNull = ptr.getLength() == 0;
         return value;
     }
 
@@ -770,15 +757,13 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
 
     @Override
     public boolean next() throws SQLException {
-        checkOpen();
         try {
-            if (!firstRecordRead) {
-                firstRecordRead = true;
-                overAllQueryMetrics.startResultSetWatch();
-            }
-            currentRow = scanner.next();
-            if (currentRow == null) {
-                close();
+            synchronized (scannerLock) {
+                checkOpen();
+                currentRow = nextRow();
+                if (currentRow == null) {
+                    close();
+                }
             }
             rowProjector.reset();
         } catch (RuntimeException e) {
@@ -796,6 +781,84 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
         return currentRow != null;
     }
 
+    /**
+     * @return the next row fetched ahead, or else read from the scanner
+     */
+    private Tuple nextRow() throws SQLException {
+        Tuple row = fetchedRows.poll();
+        if (row != null || fetchedLastRow) {
+            return row;
+        }
+        return readRow();
+    }
+
+    private Tuple readRow() throws SQLException {
+        if (!firstRecordRead) {
+            firstRecordRead = true;
+            overAllQueryMetrics.startResultSetWatch();
+        }
+        return scanner.next();
+    }
+
+    /**
+     * Fetches the next rows on the executor of the query services for asynchronous calls, so that
+     * the caller isn't blocked while they are read. The rows are then returned by {@link #next()}
+     * without blocking, while a call to {@link #next()} before the fetch is done waits for it.
+     * Fetches may be chained without waiting for the previous ones, and their rows are returned
+     * in order.
+     * @param maxRows the maximum number of rows to fetch
+     * @return a future of the number of rows fetched, less than maxRows only when the last row
+     * has been fetched
+     */
+    public ListenableFuture<Integer> nextBatchAsync(int maxRows) {
+        return nextBatchAsync(maxRows, statement.getConnection().getQueryServices().getAsyncExecutor());
+    }
+
+    /**
+     * Fetches the next rows on the given executor, which must not be the one running the
+     * parallel scans of the query services, as the fetch waits on them.
+     * @see #nextBatchAsync(int)
+     */
+    public ListenableFuture<Integer> nextBatchAsync(final int maxRows, ExecutorService executor) {
+        return JobManager.submitListenable(executor,
+                new JobCallable<Integer>() {
+            @Override
+            public Integer call() throws SQLException {
+                int count = 0;
+                try {
+                    synchronized (scannerLock) {
+                        checkOpen();
+                        while (count < maxRows && !fetchedLastRow) {
+                            Tuple row = readRow();
+                            if (row == null) {
+                                fetchedLastRow = true;
+                            } else {
+                                fetchedRows.add(row);
+                                count++;
+                            }
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    if (e.getCause() instanceof SQLException) {
+                        throw (SQLException) e.getCause();
+                    }
+                    throw e;
+                }
+                return count;
+            }
+
+            @Override
+            public Object getJobId() {
+                return PhoenixResultSet.this;
+            }
+
+            @Override
+            public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                return TaskExecutionMetricsHolder.NO_OP_INSTANCE;
+            }
+        });
+    }
+
     @Override
     public boolean previous() throws SQLException {
         throw new SQLFeatureNotSupportedException();
@@ -1308,4 +1371,13 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable {
         return context;
     }
 
+    /**
+     * @return true if a row read so far was served by a region replica rather than the primary
+     * region, and may thus be stale, as happens to timeline consistent reads such as hedged point
+     * lookups when the primary region is slow to answer
+     */
+    public boolean isStale() {
+        return context.isStale();
+    }
+
 }
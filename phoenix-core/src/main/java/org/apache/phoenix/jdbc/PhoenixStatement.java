@@ -39,6 +39,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -87,9 +89,14 @@ import org.apache.phoenix.exception.UpgradeRequiredException;
 import org.apache.phoenix.execute.MutationState;
 import org.apache.phoenix.expression.KeyValueColumnExpression;
 import org.apache.phoenix.expression.RowKeyColumnExpression;
+import org.apache.phoenix.iterate.ExecutionProfile;
 import org.apache.phoenix.iterate.MaterializedResultIterator;
 import org.apache.phoenix.iterate.ParallelScanGrouper;
 import org.apache.phoenix.iterate.ResultIterator;
+import org.apache.phoenix.job.JobManager;
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.join.MaxServerCacheSizeExceededException;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
 import org.apache.phoenix.parse.AddColumnStatement;
 import org.apache.phoenix.parse.AddJarsStatement;
 import org.apache.phoenix.parse.AliasedNode;
@@ -101,6 +108,7 @@ import org.apache.phoenix.parse.ColumnDef;
 import org.apache.phoenix.parse.ColumnName;
 import org.apache.phoenix.parse.CreateFunctionStatement;
 import org.apache.phoenix.parse.CreateIndexStatement;
+import org.apache.phoenix.parse.CreateRollupStatement;
 import org.apache.phoenix.parse.CreateSchemaStatement;
 import org.apache.phoenix.parse.CreateSequenceStatement;
 import org.apache.phoenix.parse.CreateTableStatement;
@@ -119,6 +127,7 @@ import org.apache.phoenix.parse.ExplainStatement;
 import org.apache.phoenix.parse.FetchStatement;
 import org.apache.phoenix.parse.FilterableStatement;
 import org.apache.phoenix.parse.HintNode;
+import org.apache.phoenix.parse.HintNode.Hint;
 import org.apache.phoenix.parse.IndexKeyConstraint;
 import org.apache.phoenix.parse.LimitNode;
 import org.apache.phoenix.parse.ListJarsStatement;
@@ -144,6 +153,7 @@ import org.apache.phoenix.parse.UseSchemaStatement;
 import org.apache.phoenix.query.HBaseFactoryProvider;
 import org.apache.phoenix.query.KeyRange;
 import org.apache.phoenix.query.QueryConstants;
+import org.apache.phoenix.query.QueryResultCache;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.schema.ExecuteQueryNotApplicableException;
@@ -185,6 +195,7 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.ListenableFuture;
 /**
  * 
  * JDBC Statement implementation of Phoenix.
@@ -238,6 +249,7 @@ public class PhoenixStatement implements Statement, SQLCloseable {
     private int lastUpdateCount = NO_UPDATE;
     private Operation lastUpdateOperation;
     private boolean isClosed = false;
+    private ExecutionProfile executionProfile;
     private int maxRows;
     private int fetchSize = -1;
     private int queryTimeoutMillis;
@@ -296,7 +308,9 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                                 && stmt.getOperation() != Operation.UPGRADE) {
                             throw new UpgradeRequiredException();
                         }
-                        QueryPlan plan = stmt.compilePlan(PhoenixStatement.this, Sequence.ValueOp.VALIDATE_SEQUENCE);
+                        QueryPlan plan = isExplainAnalyze(stmt)
+                                ? ((ExecutableExplainStatement)stmt).analyzePlan(PhoenixStatement.this)
+                                : stmt.compilePlan(PhoenixStatement.this, Sequence.ValueOp.VALIDATE_SEQUENCE);
                         // Send mutations to hbase, so they are visible to subsequent reads.
                         // Use original plan for data table so that data and immutable indexes will be sent
                         // TODO: for joins, we need to iterate through all tables, but we need the original table,
@@ -306,7 +320,7 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                         plan = connection.getQueryServices().getOptimizer().optimize(PhoenixStatement.this, plan);
                          // this will create its own trace internally, so we don't wrap this
                          // whole thing in tracing
-                        ResultIterator resultIterator = plan.iterator();
+                        ResultIterator resultIterator = newResultIterator(stmt, plan);
                         if (logger.isDebugEnabled()) {
                             String explainPlan = QueryUtil.getExplainPlan(resultIterator);
                             logger.debug(LogUtil.addCustomAnnotations("Explain plan: " + explainPlan, connection));
@@ -337,6 +351,17 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                             }
                         }
                         throw e;
+                    }
+                    // Run the query again as a grace hash join if a hash cache was too big to be sent
+                    catch (SQLException e) {
+                        if (isGraceHashJoinFallbackAllowed(stmt, e)) {
+                            logger.warn(LogUtil.addCustomAnnotations("Running query again with "
+                                    + Hint.USE_GRACE_HASH_JOIN + " hint: " + e.getMessage(), connection));
+                            ExecutableSelectStatement select = (ExecutableSelectStatement) stmt;
+                            return executeQuery(new ExecutableSelectStatement(select,
+                                    HintNode.create(select.getHint(), Hint.USE_GRACE_HASH_JOIN)), doRetryOnMetaNotFoundError);
+                        }
+                        throw e;
                     }catch (RuntimeException e) {
                         // FIXME: Expression.evaluate does not throw SQLException
                         // so this will unwrap throws from that.
@@ -359,6 +384,55 @@ public class PhoenixStatement implements Statement, SQLCloseable {
         }
     }
     
+    private static boolean isExplainAnalyze(CompilableStatement stmt) {
+        return stmt instanceof ExecutableExplainStatement && ((ExecutableExplainStatement)stmt).isAnalyze();
+    }
+
+    /**
+     * Replays the results of the query from the client-side result cache if they're cached, or else
+     * executes the query, caching its results if its tables allow it.
+     */
+    private ResultIterator newResultIterator(CompilableStatement stmt, QueryPlan plan) throws SQLException {
+        QueryResultCache resultCache = connection.getQueryServices().getQueryResultCache();
+        QueryResultCache.Key key = null;
+        if (resultCache.isEnabled() && stmt instanceof ExecutableSelectStatement
+                && !((ExecutableSelectStatement) stmt).hasSequence()) {
+            key = resultCache.getKey(connection, stmt.toString(), getParameters(), plan);
+        }
+        if (key == null) {
+            return plan.iterator();
+        }
+        ResultIterator cachedIterator = resultCache.get(key, plan.getContext());
+        if (cachedIterator != null) {
+            return cachedIterator;
+        }
+        return resultCache.cache(key, plan.iterator());
+    }
+
+    /**
+     * A query may be run again as a grace hash join if one of its hash caches exceeded
+     * {@link QueryServices#MAX_SERVER_CACHE_SIZE_ATTRIB}, unless the join algorithm was hinted
+     * already or running it again would allocate sequence values twice.
+     */
+    private boolean isGraceHashJoinFallbackAllowed(CompilableStatement stmt, SQLException e) {
+        if (!(stmt instanceof ExecutableSelectStatement)) {
+            return false;
+        }
+        ExecutableSelectStatement select = (ExecutableSelectStatement) stmt;
+        if (select.hasSequence() || select.getHint().hasHint(Hint.USE_GRACE_HASH_JOIN)
+                || select.getHint().hasHint(Hint.USE_SORT_MERGE_JOIN)
+                || !connection.getQueryServices().getProps().getBoolean(QueryServices.GRACE_HASH_JOIN_FALLBACK_ENABLED_ATTRIB,
+                        QueryServicesOptions.DEFAULT_GRACE_HASH_JOIN_FALLBACK_ENABLED)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MaxServerCacheSizeExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected int executeMutation(final CompilableStatement stmt) throws SQLException {
       return executeMutation(stmt, true);
     }
@@ -392,6 +466,10 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                                 state.checkpointIfNeccessary(plan);
                                 MutationState lastState = plan.execute();
                                 state.join(lastState);
+                                if (plan.getTargetRef() != null && plan.getTargetRef().getTable() != null) {
+                                    // Rows may have been written on the server already
+                                    conn.getQueryServices().getQueryResultCache().invalidate(plan.getTargetRef().getTable());
+                                }
                                 if (connection.getAutoCommit()) {
                                     connection.commit();
                                 }
@@ -451,7 +529,11 @@ public class PhoenixStatement implements Statement, SQLCloseable {
         }
         
         private ExecutableSelectStatement(ExecutableSelectStatement select) {
-            this(select.getFrom(), select.getHint(), select.isDistinct(), select.getSelect(), select.getWhere(),
+            this(select, select.getHint());
+        }
+
+        private ExecutableSelectStatement(ExecutableSelectStatement select, HintNode hint) {
+            this(select.getFrom(), hint, select.isDistinct(), select.getSelect(), select.getWhere(),
                     select.getGroupBy(), select.getHaving(), select.getOrderBy(), select.getLimit(), select.getOffset(), select.getBindCount(),
                     select.isAggregate(), select.hasSequence(), select.getSelects(), select.getUdfParseNodes());
         }
@@ -550,6 +632,10 @@ public class PhoenixStatement implements Statement, SQLCloseable {
             super(statement);
         }
 
+        public ExecutableExplainStatement(BindableStatement statement, boolean isAnalyze) {
+            super(statement, isAnalyze);
+        }
+
         @Override
         public CompilableStatement getStatement() {
             return (CompilableStatement) super.getStatement();
@@ -560,12 +646,60 @@ public class PhoenixStatement implements Statement, SQLCloseable {
             return getStatement().getBindCount();
         }
 
+        /**
+         * Executes an EXPLAIN ANALYZE statement: sends the uncommitted mutations of the tables of the
+         * query, executes the optimized plan of the query, discarding its rows, and returns the steps
+         * of the executed plan followed by the rows and time of each operator and the server side
+         * scan metrics. Compiling the statement with {@link #compilePlan} doesn't execute the query.
+         */
+        public QueryPlan analyzePlan(PhoenixStatement stmt) throws SQLException {
+            // Set the profile before compiling so that the statement contexts collect the scan metrics
+            ExecutionProfile profile = new ExecutionProfile();
+            stmt.setExecutionProfile(profile);
+            try {
+                QueryPlan plan = compileQueryPlan(stmt);
+                stmt.getConnection().getMutationState().sendUncommitted(plan.getSourceRefs().iterator());
+                plan = stmt.getConnection().getQueryServices().getOptimizer().optimize(stmt, plan);
+                List<String> planSteps = Lists.newArrayList(plan.getExplainPlan().getPlanSteps());
+                long rowCount = 0;
+                profile.startRecording();
+                ResultIterator iterator = plan.iterator();
+                try {
+                    while (iterator.next() != null) {
+                        rowCount++;
+                    }
+                } finally {
+                    try {
+                        iterator.close();
+                    } finally {
+                        profile.stopRecording(rowCount);
+                    }
+                }
+                planSteps.addAll(profile.getProfileSteps());
+                return newExplainPlan(plan, planSteps);
+            } finally {
+                stmt.setExecutionProfile(null);
+            }
+        }
+
+        private QueryPlan compileQueryPlan(PhoenixStatement stmt) throws SQLException {
+            StatementPlan plan = getStatement().compilePlan(stmt, Sequence.ValueOp.VALIDATE_SEQUENCE);
+            if (!(plan instanceof QueryPlan)) {
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.EXPLAIN_ANALYZE_NOT_SUPPORTED)
+                        .build().buildException();
+            }
+            return (QueryPlan)plan;
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public QueryPlan compilePlan(PhoenixStatement stmt, Sequence.ValueOp seqAction) throws SQLException {
-            CompilableStatement compilableStmt = getStatement();
-            final StatementPlan plan = compilableStmt.compilePlan(stmt, Sequence.ValueOp.VALIDATE_SEQUENCE);
-            List<String> planSteps = plan.getExplainPlan().getPlanSteps();
+            StatementPlan plan = isAnalyze() ? compileQueryPlan(stmt)
+                    : getStatement().compilePlan(stmt, Sequence.ValueOp.VALIDATE_SEQUENCE);
+            return newExplainPlan(plan, plan.getExplainPlan().getPlanSteps());
+        }
+
+        private static QueryPlan newExplainPlan(final StatementPlan plan, List<String> planSteps) throws SQLException {
             List<Tuple> tuples = Lists.newArrayListWithExpectedSize(planSteps.size());
             Long estimatedBytesToScan = plan.getEstimatedBytesToScan();
             Long estimatedRowsToScan = plan.getEstimatedRowsToScan();
@@ -1017,6 +1151,33 @@ public class PhoenixStatement implements Statement, SQLCloseable {
         }
     }
     
+    private static class ExecutableCreateRollupStatement extends CreateRollupStatement implements CompilableStatement {
+
+        ExecutableCreateRollupStatement(TableName tableName, SelectStatement select,
+                ListMultimap<String,Pair<String,Object>> props, boolean ifNotExists, int bindCount) {
+            super(tableName, select, props, ifNotExists, bindCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public MutationPlan compilePlan(final PhoenixStatement stmt, Sequence.ValueOp seqAction) throws SQLException {
+            final StatementContext context = new StatementContext(stmt);
+            return new BaseMutationPlan(context, this.getOperation()) {
+
+                @Override
+                public ExplainPlan getExplainPlan() throws SQLException {
+                    return new ExplainPlan(Collections.singletonList("CREATE ROLLUP"));
+                }
+
+                @Override
+                public MutationState execute() throws SQLException {
+                    MetaDataClient client = new MetaDataClient(getContext().getConnection());
+                    return client.createRollup(ExecutableCreateRollupStatement.this);
+                }
+            };
+        }
+    }
+
     private static class ExecutableCreateSequenceStatement extends	CreateSequenceStatement implements CompilableStatement {
 
         public ExecutableCreateSequenceStatement(TableName sequenceName, ParseNode startWith,
@@ -1229,6 +1390,10 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                         	getContext().getConnection().setConsistency(Consistency.STRONG);
                         }
                     }
+                    Object hedgedPointLookups = getProps().get(PhoenixRuntime.HEDGED_POINT_LOOKUPS_ATTRIB.toUpperCase());
+                    if (hedgedPointLookups != null) {
+                        getContext().getConnection().setHedgedPointLookups(Boolean.valueOf(hedgedPointLookups.toString()));
+                    }
                     return new MutationState(0, 0, context.getConnection());
                 }
             };
@@ -1461,6 +1626,12 @@ public class PhoenixStatement implements Statement, SQLCloseable {
                 ListMultimap<String,Pair<String,Object>> props, boolean ifNotExists, IndexType indexType, boolean async, int bindCount, Map<String, UDFParseNode> udfParseNodes) {
             return new ExecutableCreateIndexStatement(indexName, dataTable, ikConstraint, includeColumns, splits, props, ifNotExists, indexType, async, bindCount, udfParseNodes);
         }
+
+        @Override
+        public CreateRollupStatement createRollup(TableName tableName, SelectStatement select,
+                ListMultimap<String,Pair<String,Object>> props, boolean ifNotExists, int bindCount) {
+            return new ExecutableCreateRollupStatement(tableName, select, props, ifNotExists, bindCount);
+        }
         
         @Override
         public AddColumnStatement addColumn(NamedTableNode table,  PTableType tableType, List<ColumnDef> columnDefs, boolean ifNotExists, ListMultimap<String,Pair<String,Object>> props) {
@@ -1517,6 +1688,11 @@ public class PhoenixStatement implements Statement, SQLCloseable {
             return new ExecutableExplainStatement(statement);
         }
 
+        @Override
+        public ExplainStatement explain(BindableStatement statement, boolean isAnalyze) {
+            return new ExecutableExplainStatement(statement, isAnalyze);
+        }
+
         @Override
         public UpdateStatisticsStatement updateStatistics(NamedTableNode table, StatisticsCollectionScope scope, Map<String,Object> props) {
             return new ExecutableUpdateStatisticsStatement(table, scope, props);
@@ -1675,6 +1851,53 @@ public class PhoenixStatement implements Statement, SQLCloseable {
         return executeQuery(stmt);
     }
 
+    /**
+     * Executes the query on the executor of the query services for asynchronous calls, so that
+     * the caller isn't blocked while it runs. The statement must not be used again until the
+     * returned future is done.
+     * @return a future of the result set, whose rows may then be fetched without blocking with
+     * {@link PhoenixResultSet#nextBatchAsync(int)}
+     * @see QueryServices#ASYNC_THREAD_POOL_SIZE_ATTRIB
+     */
+    public ListenableFuture<PhoenixResultSet> executeQueryAsync(String sql) {
+        return executeQueryAsync(sql, connection.getQueryServices().getAsyncExecutor());
+    }
+
+    /**
+     * Executes the query on the given executor, so that the caller isn't blocked while it runs.
+     * The executor must not be the one running the parallel scans of the query services, as the
+     * query waits on them.
+     * @see #executeQueryAsync(String)
+     */
+    public ListenableFuture<PhoenixResultSet> executeQueryAsync(final String sql, ExecutorService executor) {
+        return executeQueryAsync(new Callable<ResultSet>() {
+            @Override
+            public ResultSet call() throws SQLException {
+                return executeQuery(sql);
+            }
+        }, executor);
+    }
+
+    protected ListenableFuture<PhoenixResultSet> executeQueryAsync(final Callable<ResultSet> query, ExecutorService executor) {
+        return JobManager.submitListenable(executor,
+                new JobCallable<PhoenixResultSet>() {
+            @Override
+            public PhoenixResultSet call() throws Exception {
+                return (PhoenixResultSet)query.call();
+            }
+
+            @Override
+            public Object getJobId() {
+                return PhoenixStatement.this;
+            }
+
+            @Override
+            public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                return TaskExecutionMetricsHolder.NO_OP_INSTANCE;
+            }
+        });
+    }
+
     @Override
     public int executeUpdate(String sql) throws SQLException {
         CompilableStatement stmt = parseStatement(sql);
@@ -1979,6 +2202,17 @@ public class PhoenixStatement implements Statement, SQLCloseable {
     private void setLastQueryPlan(QueryPlan lastQueryPlan) {
         this.lastQueryPlan = lastQueryPlan;
     }
+
+    /**
+     * @return the profile being collected for an EXPLAIN ANALYZE statement, or null if none is being collected
+     */
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    private void setExecutionProfile(ExecutionProfile executionProfile) {
+        this.executionProfile = executionProfile;
+    }
     
     private void throwIfUnallowedUserDefinedFunctions(Map<String, UDFParseNode> udfParseNodes) throws SQLException {
         if (!connection
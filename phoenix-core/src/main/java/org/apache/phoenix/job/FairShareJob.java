@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.job;
+
+/**
+ * Job whose tasks are scheduled by a {@link FairShareJobQueue}, returned as the job id of its
+ * {@link JobManager.JobCallable} and {@link JobManager.JobRunnable} tasks.
+ */
+public interface FairShareJob {
+    /**
+     * @return the key of the tenant sharing the executor, the tenant id of the connection or the
+     * connection itself for a connection without tenant
+     */
+    public Object getFairShareKey();
+
+    /**
+     * @return the estimated number of bytes read by the job, or null if unknown
+     */
+    public Long getEstimatedBytes();
+}
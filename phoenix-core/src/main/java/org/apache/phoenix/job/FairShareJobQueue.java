@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.job;
+
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_LARGE_TASK_QUEUE_DEPTH;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_LARGE_TASK_QUEUE_WAIT_TIME;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_SMALL_TASK_QUEUE_DEPTH;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_SMALL_TASK_QUEUE_WAIT_TIME;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.phoenix.job.JobManager.JobFutureTask;
+import org.apache.phoenix.monitoring.GlobalClientMetrics;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+import org.apache.phoenix.util.ReadOnlyProps;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
+
+/**
+ * Bounded blocking queue of the client thread pool that shares the pool fairly between tenants.
+ *
+ * The tasks are queued in two lanes: the tasks of the jobs reading at most a given number of
+ * estimated bytes go to the small lane, the others and the ones without an estimate go to the large
+ * lane. The small lane is polled first, up to a given number of tasks in a row while tasks wait in the
+ * large lane, so that point lookups and short scans don't wait behind large scans while these still progress.
+ *
+ * Within a lane, tenants are served with start time fair queuing: each served task advances the virtual
+ * time of its tenant by the inverse of the weight of the tenant and the tenant with the smallest virtual
+ * time is served next, so that busy tenants get a share of the lane proportional to their weight whatever
+ * the number of tasks they queue. A tenant becoming busy starts at the virtual time of the lane so that
+ * it gets no credit for the time it was idle. The jobs of a tenant are served in round robin fashion.
+ *
+ * Tasks whose job is not a {@link FairShareJob} are queued in the large lane, their job being their tenant.
+ */
+public class FairShareJobQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+    private final int maxSize;
+    private final long smallJobMaxBytes;
+    private final int smallTasksPerLargeTask;
+    private final Map<String, Integer> tenantWeights;
+    private final Lane smallLane;
+    private final Lane largeLane;
+    private final Object lock = new Object();
+    private int size;
+    // Number of tasks polled in a row from the small lane while tasks were waiting in the large lane
+    private int smallTasksInARow;
+
+    public FairShareJobQueue(int maxSize, ReadOnlyProps props) {
+        this(maxSize,
+                props.getLong(QueryServices.FAIR_SHARE_SMALL_QUERY_MAX_BYTES_ATTRIB,
+                        QueryServicesOptions.DEFAULT_FAIR_SHARE_SMALL_QUERY_MAX_BYTES),
+                props.getInt(QueryServices.FAIR_SHARE_SMALL_TASKS_PER_LARGE_TASK_ATTRIB,
+                        QueryServicesOptions.DEFAULT_FAIR_SHARE_SMALL_TASKS_PER_LARGE_TASK),
+                parseTenantWeights(props.get(QueryServices.FAIR_SHARE_TENANT_WEIGHTS_ATTRIB,
+                        QueryServicesOptions.DEFAULT_FAIR_SHARE_TENANT_WEIGHTS)));
+    }
+
+    @VisibleForTesting
+    FairShareJobQueue(int maxSize, long smallJobMaxBytes, int smallTasksPerLargeTask, Map<String, Integer> tenantWeights) {
+        this.maxSize = maxSize;
+        this.smallJobMaxBytes = smallJobMaxBytes;
+        this.smallTasksPerLargeTask = Math.max(1, smallTasksPerLargeTask);
+        this.tenantWeights = tenantWeights;
+        this.smallLane = new Lane(GLOBAL_SMALL_TASK_QUEUE_WAIT_TIME, GLOBAL_SMALL_TASK_QUEUE_DEPTH);
+        this.largeLane = new Lane(GLOBAL_LARGE_TASK_QUEUE_WAIT_TIME, GLOBAL_LARGE_TASK_QUEUE_DEPTH);
+    }
+
+    /**
+     * @param weights comma separated tenant:weight pairs
+     * @return the weight of each tenant
+     */
+    @VisibleForTesting
+    static Map<String, Integer> parseTenantWeights(String weights) {
+        if (weights == null || weights.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> tenantWeights = Maps.newHashMap();
+        for (Map.Entry<String, String> entry : Splitter.on(',').trimResults().omitEmptyStrings()
+                .withKeyValueSeparator(":").split(weights).entrySet()) {
+            int weight = Integer.parseInt(entry.getValue().trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight of tenant " + entry.getKey() + " must be positive: " + weight);
+            }
+            tenantWeights.put(entry.getKey().trim(), weight);
+        }
+        return tenantWeights;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        Object jobId = task instanceof JobFutureTask ? ((JobFutureTask<?>)task).getJobId() : task;
+        Object tenantKey = jobId;
+        Long estimatedBytes = null;
+        if (jobId instanceof FairShareJob) {
+            tenantKey = ((FairShareJob)jobId).getFairShareKey();
+            estimatedBytes = ((FairShareJob)jobId).getEstimatedBytes();
+        }
+        Lane lane = estimatedBytes != null && estimatedBytes <= smallJobMaxBytes ? smallLane : largeLane;
+        synchronized (lock) {
+            if (size == maxSize) {
+                return false;
+            }
+            lane.add(tenantKey, jobId, new Entry(task, EnvironmentEdgeManager.currentTimeMillis()));
+            size++;
+            lock.notifyAll();
+        }
+        lane.queueDepth.increment();
+        return true;
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        long endAt = System.currentTimeMillis() + unit.toMillis(timeout);
+        synchronized (lock) {
+            boolean taken;
+            long waitTime = endAt - System.currentTimeMillis();
+            while (!(taken = offer(task)) && waitTime > 0) {
+                lock.wait(waitTime);
+                waitTime = endAt - System.currentTimeMillis();
+            }
+            return taken;
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        synchronized (lock) {
+            while (!offer(task)) {
+                lock.wait();
+            }
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        Lane lane;
+        Entry entry;
+        synchronized (lock) {
+            lane = selectLane();
+            if (lane == null) {
+                return null;
+            }
+            smallTasksInARow = lane == smallLane && !largeLane.isEmpty() ? smallTasksInARow + 1 : 0;
+            entry = lane.poll();
+            size--;
+            lock.notifyAll();
+        }
+        lane.queueDepth.decrement();
+        lane.queueWaitTime.update(EnvironmentEdgeManager.currentTimeMillis() - entry.enqueueTime);
+        return entry.task;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long endAt = System.currentTimeMillis() + unit.toMillis(timeout);
+        synchronized (lock) {
+            long waitTime = endAt - System.currentTimeMillis();
+            while (size == 0 && waitTime > 0) {
+                lock.wait(waitTime);
+                waitTime = endAt - System.currentTimeMillis();
+            }
+            return poll();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        synchronized (lock) {
+            while (size == 0) {
+                lock.wait();
+            }
+            return poll();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        synchronized (lock) {
+            Lane lane = selectLane();
+            return lane == null ? null : lane.peek().task;
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Lane lane = null;
+        synchronized (lock) {
+            if (smallLane.remove(o)) {
+                lane = smallLane;
+            } else if (largeLane.remove(o)) {
+                lane = largeLane;
+            } else {
+                return false;
+            }
+            size--;
+            lock.notifyAll();
+        }
+        lane.queueDepth.decrement();
+        return true;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        Runnable task;
+        while (n < maxElements && (task = poll()) != null) {
+            c.add(task);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        synchronized (lock) {
+            return maxSize - size;
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+        synchronized (lock) {
+            List<Runnable> tasks = new ArrayList<Runnable>(size);
+            smallLane.addTasksTo(tasks);
+            largeLane.addTasksTo(tasks);
+            return tasks.iterator();
+        }
+    }
+
+    private Lane selectLane() {
+        if (smallLane.isEmpty()) {
+            return largeLane.isEmpty() ? null : largeLane;
+        }
+        if (largeLane.isEmpty() || smallTasksInARow < smallTasksPerLargeTask) {
+            return smallLane;
+        }
+        return largeLane;
+    }
+
+    private int getWeight(Object tenantKey) {
+        Integer weight = tenantKey instanceof String ? tenantWeights.get(tenantKey) : null;
+        return weight == null ? 1 : weight;
+    }
+
+    private static class Entry {
+        private final Runnable task;
+        private final long enqueueTime;
+
+        private Entry(Runnable task, long enqueueTime) {
+            this.task = task;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+
+    private static class TenantQueue {
+        private final int weight;
+        // Tasks of each job, the first job being the next one served
+        private final LinkedHashMap<Object, ArrayDeque<Entry>> jobs = new LinkedHashMap<Object, ArrayDeque<Entry>>();
+        private double virtualTime;
+
+        private TenantQueue(int weight) {
+            this.weight = weight;
+        }
+
+        private void add(Object jobId, Entry entry) {
+            ArrayDeque<Entry> tasks = jobs.get(jobId);
+            if (tasks == null) {
+                tasks = new ArrayDeque<Entry>();
+                jobs.put(jobId, tasks);
+            }
+            tasks.add(entry);
+        }
+
+        private Entry peek() {
+            return jobs.values().iterator().next().peek();
+        }
+
+        private Entry poll() {
+            Iterator<Map.Entry<Object, ArrayDeque<Entry>>> iterator = jobs.entrySet().iterator();
+            Map.Entry<Object, ArrayDeque<Entry>> job = iterator.next();
+            Entry entry = job.getValue().poll();
+            iterator.remove();
+            // Move on to the next job
+            if (!job.getValue().isEmpty()) {
+                jobs.put(job.getKey(), job.getValue());
+            }
+            return entry;
+        }
+
+        private boolean remove(Object task) {
+            Iterator<ArrayDeque<Entry>> iterator = jobs.values().iterator();
+            while (iterator.hasNext()) {
+                ArrayDeque<Entry> tasks = iterator.next();
+                Iterator<Entry> taskIterator = tasks.iterator();
+                while (taskIterator.hasNext()) {
+                    if (taskIterator.next().task.equals(task)) {
+                        taskIterator.remove();
+                        if (tasks.isEmpty()) {
+                            iterator.remove();
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isEmpty() {
+            return jobs.isEmpty();
+        }
+    }
+
+    private class Lane {
+        private final GlobalClientMetrics queueWaitTime;
+        private final GlobalClientMetrics queueDepth;
+        // Tenants with queued tasks, and idle tenants whose virtual time is still ahead of the lane
+        private final Map<Object, TenantQueue> tenants = new LinkedHashMap<Object, TenantQueue>();
+        // Virtual time of the last served task
+        private double virtualTime;
+        private int size;
+
+        private Lane(GlobalClientMetrics queueWaitTime, GlobalClientMetrics queueDepth) {
+            this.queueWaitTime = queueWaitTime;
+            this.queueDepth = queueDepth;
+        }
+
+        private void add(Object tenantKey, Object jobId, Entry entry) {
+            TenantQueue tenant = tenants.get(tenantKey);
+            if (tenant == null) {
+                tenant = new TenantQueue(getWeight(tenantKey));
+                tenants.put(tenantKey, tenant);
+            }
+            if (tenant.isEmpty()) {
+                tenant.virtualTime = Math.max(tenant.virtualTime, virtualTime);
+            }
+            tenant.add(jobId, entry);
+            size++;
+        }
+
+        private TenantQueue selectTenant() {
+            TenantQueue next = null;
+            Iterator<TenantQueue> iterator = tenants.values().iterator();
+            while (iterator.hasNext()) {
+                TenantQueue tenant = iterator.next();
+                if (tenant.isEmpty()) {
+                    if (tenant.virtualTime <= virtualTime) {
+                        iterator.remove();
+                    }
+                } else if (next == null || tenant.virtualTime < next.virtualTime) {
+                    next = tenant;
+                }
+            }
+            return next;
+        }
+
+        private Entry peek() {
+            return selectTenant().peek();
+        }
+
+        private Entry poll() {
+            TenantQueue tenant = selectTenant();
+            virtualTime = tenant.virtualTime;
+            tenant.virtualTime += 1.0 / tenant.weight;
+            size--;
+            if (size == 0) {
+                // No tenant is busy anymore, so none is ahead of the others
+                tenants.clear();
+            }
+            return tenant.poll();
+        }
+
+        private boolean remove(Object task) {
+            for (TenantQueue tenant : tenants.values()) {
+                if (tenant.remove(task)) {
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addTasksTo(List<Runnable> tasks) {
+            for (TenantQueue tenant : tenants.values()) {
+                for (ArrayDeque<Entry> jobTasks : tenant.jobs.values()) {
+                    for (Entry entry : jobTasks) {
+                        tasks.add(entry.task);
+                    }
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
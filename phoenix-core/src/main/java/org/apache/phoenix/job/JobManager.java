@@ -25,7 +25,9 @@ import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_TASK_QUEU
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -39,7 +41,13 @@ import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.util.ReadOnlyProps;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 /**
  * 
@@ -52,6 +60,8 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 public class JobManager<T> extends AbstractRoundRobinQueue<T> {
 	
     private static final AtomicLong PHOENIX_POOL_INDEX = new AtomicLong(1);
+    public static final String ROUND_ROBIN_SCHEDULER = "ROUND_ROBIN";
+    public static final String FAIR_SHARE_SCHEDULER = "FAIR_SHARE";
 	
     public JobManager(int maxSize) {
         super(maxSize, true); // true -> new producers move to front of queue; this reduces latency.
@@ -71,11 +81,27 @@ public class JobManager<T> extends AbstractRoundRobinQueue<T> {
     }
 
     public static ThreadPoolExecutor createThreadPoolExec(int keepAliveMs, int size, int queueSize, boolean useInstrumentedThreadPool) {
+        return createThreadPoolExec(keepAliveMs, size, queueSize, useInstrumentedThreadPool, ReadOnlyProps.EMPTY_PROPS);
+    }
+
+    /**
+     * @param props the properties choosing the scheduler of the queued tasks with
+     * {@link QueryServices#QUEUE_SCHEDULER_ATTRIB} and configuring it
+     */
+    public static ThreadPoolExecutor createThreadPoolExec(int keepAliveMs, int size, int queueSize, boolean useInstrumentedThreadPool, ReadOnlyProps props) {
         BlockingQueue<Runnable> queue;
         if (queueSize == 0) {
             queue = new SynchronousQueue<Runnable>(); // Specialized for 0 length.
         } else {
-            queue = new JobManager<Runnable>(queueSize);
+            String scheduler = props.get(QueryServices.QUEUE_SCHEDULER_ATTRIB, QueryServicesOptions.DEFAULT_QUEUE_SCHEDULER);
+            if (ROUND_ROBIN_SCHEDULER.equalsIgnoreCase(scheduler)) {
+                queue = new JobManager<Runnable>(queueSize);
+            } else if (FAIR_SHARE_SCHEDULER.equalsIgnoreCase(scheduler)) {
+                queue = new FairShareJobQueue(queueSize, props);
+            } else {
+                throw new IllegalArgumentException("Unknown scheduler " + scheduler + " for "
+                        + QueryServices.QUEUE_SCHEDULER_ATTRIB + ", expected " + ROUND_ROBIN_SCHEDULER + " or " + FAIR_SHARE_SCHEDULER);
+            }
         }
         String name = "phoenix-" + PHOENIX_POOL_INDEX.getAndIncrement();
         ThreadFactory threadFactory = new ThreadFactoryBuilder()
@@ -201,6 +227,59 @@ public class JobManager<T> extends AbstractRoundRobinQueue<T> {
         public TaskExecutionMetricsHolder getTaskExecutionMetric();
     }
 
+    /**
+     * Submits a task whose completion is notified through a {@link ListenableFuture} instead of
+     * being waited for. Cancelling the returned future cancels the task, and a result of the task
+     * that can't be set because the future was cancelled in the meantime is closed.
+     */
+    public static <T> ListenableFuture<T> submitListenable(ExecutorService executor, final JobCallable<T> callable) {
+        final SettableFuture<T> result = SettableFuture.create();
+        final Future<?> future;
+        try {
+            future = executor.submit(new JobCallable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    if (result.isCancelled()) {
+                        return null;
+                    }
+                    T value;
+                    try {
+                        value = callable.call();
+                    } catch (Throwable t) {
+                        result.setException(t);
+                        return null;
+                    }
+                    if (!result.set(value) && value instanceof AutoCloseable) {
+                        ((AutoCloseable)value).close();
+                    }
+                    return null;
+                }
+
+                @Override
+                public Object getJobId() {
+                    return callable.getJobId();
+                }
+
+                @Override
+                public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                    return callable.getTaskExecutionMetric();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.setException(e);
+            return result;
+        }
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (result.isCancelled()) {
+                    future.cancel(false);
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return result;
+    }
+
 
     /**
      * Extension of the default thread factory returned by {@code Executors.defaultThreadFactory}
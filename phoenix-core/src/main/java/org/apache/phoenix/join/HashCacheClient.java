@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.WritableUtils;
@@ -34,6 +35,7 @@ import org.apache.phoenix.expression.LiteralExpression;
 import org.apache.phoenix.expression.RowValueConstructorExpression;
 import org.apache.phoenix.iterate.ResultIterator;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.join.PersistentHashCacheTracker.PersistentHashCache;
 import org.apache.phoenix.query.QueryServices;
 import org.apache.phoenix.query.QueryServicesOptions;
 import org.apache.phoenix.schema.TableRef;
@@ -76,12 +78,61 @@ public class HashCacheClient  {
      * size
      */
     public ServerCache addHashCache(ScanRanges keyRanges, ResultIterator iterator, long estimatedSize, List<Expression> onExpressions, boolean singleValueOnly, TableRef cacheUsingTableRef, Expression keyRangeRhsExpression, List<Expression> keyRangeRhsValues) throws SQLException {
+        return addHashCache(keyRanges, iterator, estimatedSize, onExpressions, singleValueOnly, cacheUsingTableRef, keyRangeRhsExpression, keyRangeRhsValues, null);
+    }
+
+    /**
+     * Send the results of scanning through the scanner to all region servers, as with
+     * {@link #addHashCache(ScanRanges, ResultIterator, long, List, boolean, TableRef, Expression, List)}.
+     * @param persistentCacheId if not null, the id under which the hash cache is kept on the
+     * region servers after the query completes, see {@link #getPersistentHashCache(ScanRanges, byte[], TableRef, List)}
+     */
+    public ServerCache addHashCache(ScanRanges keyRanges, ResultIterator iterator, long estimatedSize, List<Expression> onExpressions, boolean singleValueOnly, TableRef cacheUsingTableRef, Expression keyRangeRhsExpression, List<Expression> keyRangeRhsValues, byte[] persistentCacheId) throws SQLException {
         /**
          * Serialize and compress hashCacheTable
          */
         ImmutableBytesWritable ptr = new ImmutableBytesWritable();
         serialize(ptr, iterator, estimatedSize, onExpressions, singleValueOnly, keyRangeRhsExpression, keyRangeRhsValues);
-        return serverCache.addServerCache(keyRanges, ptr, ByteUtil.EMPTY_BYTE_ARRAY, new HashCacheFactory(), cacheUsingTableRef);
+        ServerCache cache = serverCache.addServerCache(keyRanges, ptr, ByteUtil.EMPTY_BYTE_ARRAY, new HashCacheFactory(), cacheUsingTableRef, persistentCacheId);
+        if (persistentCacheId != null) {
+            getPersistentHashCacheTracker().add(persistentCacheId, cache.getServers(), cache.getSize(), keyRangeRhsValues);
+        }
+        return cache;
+    }
+
+    /**
+     * Get a hash cache that was persisted on the region servers by an earlier query.
+     * @param keyRangeRhsValues if not null, filled with the values of the right hand side key
+     * expression that were evaluated when the hash cache was built
+     * @return the client-side {@link ServerCache} or null if any of the region servers the hash
+     * cache would be sent to doesn't have it
+     */
+    public ServerCache getPersistentHashCache(ScanRanges keyRanges, byte[] persistentCacheId, TableRef cacheUsingTableRef, List<Expression> keyRangeRhsValues) throws SQLException {
+        PersistentHashCache persistentCache = getPersistentHashCacheTracker().get(persistentCacheId);
+        if (persistentCache == null || (keyRangeRhsValues != null && persistentCache.getKeyRangeRhsValues() == null)) {
+            return null;
+        }
+        for (HRegionLocation location : serverCache.getCacheLocations(keyRanges, cacheUsingTableRef)) {
+            if (!persistentCache.getServers().contains(location)) {
+                return null;
+            }
+        }
+        if (keyRangeRhsValues != null) {
+            keyRangeRhsValues.addAll(persistentCache.getKeyRangeRhsValues());
+        }
+        return serverCache.new ServerCache(persistentCacheId, persistentCache.getServers(), persistentCache.getSize(), true);
+    }
+
+    /**
+     * Stop using the hash cache persisted under the given id, for example because a region server
+     * no longer has it. The next query will build and send it again.
+     */
+    public void invalidatePersistentHashCache(byte[] persistentCacheId) {
+        getPersistentHashCacheTracker().invalidate(persistentCacheId);
+    }
+
+    private PersistentHashCacheTracker getPersistentHashCacheTracker() {
+        return serverCache.getConnection().getQueryServices().getPersistentHashCacheTracker();
     }
     
     private void serialize(ImmutableBytesWritable ptr, ResultIterator iterator, long estimatedSize, List<Expression> onExpressions, boolean singleValueOnly, Expression keyRangeRhsExpression, List<Expression> keyRangeRhsValues) throws SQLException {
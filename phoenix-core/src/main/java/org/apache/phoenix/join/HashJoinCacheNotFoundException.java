@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.join;
+
+import java.sql.SQLException;
+
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.exception.SQLExceptionInfo;
+
+/**
+ * Thrown when a region server no longer has the hash cache of a join, for example because it
+ * expired or was evicted while the query that uses it was running.
+ */
+public class HashJoinCacheNotFoundException extends SQLException {
+    private static final long serialVersionUID = 1L;
+    private static SQLExceptionCode ERROR_CODE = SQLExceptionCode.HASH_JOIN_CACHE_NOT_FOUND;
+
+    public HashJoinCacheNotFoundException(String message) {
+        super(new SQLExceptionInfo.Builder(ERROR_CODE).setMessage(message).build().toString(),
+            ERROR_CODE.getSQLState(), ERROR_CODE.getErrorCode(), null);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.join;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.expression.LiteralExpression;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tracks on the client which region servers hold the hash join caches persisted through the
+ * USE_PERSISTENT_CACHE hint, so that later executions of the same join can use them without
+ * running the sub plan and sending its results again.
+ */
+public class PersistentHashCacheTracker {
+    private final Cache<ImmutableBytesPtr, PersistentHashCache> caches;
+
+    public PersistentHashCacheTracker(long maxTimeToLiveMs) {
+        this.caches = CacheBuilder.newBuilder()
+                .expireAfterAccess(maxTimeToLiveMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * @return the persisted hash cache with the given id, or null if it hasn't been sent to
+     * any region server or has expired
+     */
+    public PersistentHashCache get(byte[] cacheId) {
+        return caches.getIfPresent(new ImmutableBytesPtr(cacheId));
+    }
+
+    /**
+     * Record that the hash cache with the given id was sent to the given servers
+     */
+    public synchronized void add(byte[] cacheId, Set<HRegionLocation> servers, int size, List<Expression> keyRangeRhsValues) {
+        ImmutableBytesPtr key = new ImmutableBytesPtr(cacheId);
+        PersistentHashCache existing = caches.getIfPresent(key);
+        ImmutableSet.Builder<HRegionLocation> builder = ImmutableSet.builder();
+        if (existing != null) {
+            builder.addAll(existing.getServers());
+        }
+        builder.addAll(servers);
+        caches.put(key, new PersistentHashCache(builder.build(), size, keyRangeRhsValues));
+    }
+
+    public void invalidate(byte[] cacheId) {
+        caches.invalidate(new ImmutableBytesPtr(cacheId));
+    }
+
+    public static class PersistentHashCache {
+        private final Set<HRegionLocation> servers;
+        private final int size;
+        private final List<Expression> keyRangeRhsValues;
+
+        private PersistentHashCache(Set<HRegionLocation> servers, int size, List<Expression> keyRangeRhsValues) {
+            this.servers = servers;
+            this.size = size;
+            this.keyRangeRhsValues = keyRangeRhsValues == null ? Collections.<Expression>emptyList() : copyIfLiterals(keyRangeRhsValues);
+        }
+
+        // Only literals are safe to share between queries, as other expressions hold evaluation state
+        private static List<Expression> copyIfLiterals(List<Expression> values) {
+            for (Expression value : values) {
+                if (!(value instanceof LiteralExpression)) {
+                    return null;
+                }
+            }
+            return ImmutableList.copyOf(values);
+        }
+
+        public Set<HRegionLocation> getServers() {
+            return servers;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return the values of the right hand side key expression evaluated while the cache was built,
+         * used for the dynamic server filter of the join, or null if they can't be reused
+         */
+        public List<Expression> getKeyRangeRhsValues() {
+            return keyRangeRhsValues;
+        }
+    }
+}
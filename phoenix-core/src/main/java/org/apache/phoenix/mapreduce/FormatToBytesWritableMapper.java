@@ -51,6 +51,7 @@ import org.apache.phoenix.schema.PColumnFamily;
 import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTable.ImmutableStorageScheme;
 import org.apache.phoenix.util.ColumnInfo;
+import org.apache.phoenix.util.DirectRowEncoder;
 import org.apache.phoenix.util.EncodedColumnsUtil;
 import org.apache.phoenix.util.PhoenixRuntime;
 import org.apache.phoenix.util.QueryUtil;
@@ -96,6 +97,9 @@ public abstract class FormatToBytesWritableMapper<RECORD> extends Mapper<LongWri
     /** Configuration key for the table logical names */
     public static final String LOGICAL_NAMES_CONFKEY = "phoenix.mapreduce.import.logicalnames";
 
+    /** Configuration key for the flag to encode rows directly instead of executing upserts */
+    public static final String DIRECT_ENCODING_CONFKEY = "phoenix.mapreduce.import.directencoding";
+
     /**
      * Parses a single input line, returning a {@code T}.
      */
@@ -105,6 +109,7 @@ public abstract class FormatToBytesWritableMapper<RECORD> extends Mapper<LongWri
 
     protected PhoenixConnection conn;
     protected UpsertExecutor<RECORD, ?> upsertExecutor;
+    protected DirectRowEncoder rowEncoder;
     protected ImportPreUpsertKeyValueProcessor preUpdateProcessor;
     protected List<String> tableNames;
     protected List<String> logicalNames;
@@ -148,6 +153,14 @@ public abstract class FormatToBytesWritableMapper<RECORD> extends Mapper<LongWri
         upsertListener = new MapperUpsertListener<RECORD>(
                 context, conf.getBoolean(IGNORE_INVALID_ROW_CONFKEY, true));
         upsertExecutor = buildUpsertExecutor(conf);
+        if (conf.getBoolean(DIRECT_ENCODING_CONFKEY, true)) {
+            try {
+                rowEncoder = DirectRowEncoder.create(conn, conf.get(TABLE_NAME_CONFKEY), buildColumnInfoList(conf));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            upsertExecutor.setRowEncoder(rowEncoder);
+        }
         preUpdateProcessor = PhoenixConfigurationUtil.loadPreUpsertProcessor(conf);
     }
 
@@ -173,8 +186,9 @@ public abstract class FormatToBytesWritableMapper<RECORD> extends Mapper<LongWri
             }
             upsertExecutor.execute(ImmutableList.<RECORD>of(record));
             Map<Integer, List<KeyValue>> map = new HashMap<>();
-            Iterator<Pair<byte[], List<KeyValue>>> uncommittedDataIterator
-                    = PhoenixRuntime.getUncommittedDataIterator(conn, true);
+            Iterator<Pair<byte[], List<KeyValue>>> uncommittedDataIterator = rowEncoder != null
+                    ? rowEncoder.getEncodedRow().iterator()
+                    : PhoenixRuntime.getUncommittedDataIterator(conn, true);
             while (uncommittedDataIterator.hasNext()) {
                 Pair<byte[], List<KeyValue>> kvPair = uncommittedDataIterator.next();
                 List<KeyValue> keyValueList = kvPair.getSecond();
@@ -200,6 +214,9 @@ public abstract class FormatToBytesWritableMapper<RECORD> extends Mapper<LongWri
                 // All KV values combines to a single byte array
                 writeAggregatedRow(context, tableNames.get(tableIndex), lkv);
             }
+            if (rowEncoder != null) {
+                rowEncoder.clear();
+            }
             conn.rollback();
         } catch (Exception e) {
             throw new RuntimeException(e);
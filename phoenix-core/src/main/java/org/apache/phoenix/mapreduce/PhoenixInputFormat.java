@@ -93,6 +93,10 @@ public class PhoenixInputFormat<T extends DBWritable> extends InputFormat<NullWr
         Preconditions.checkNotNull(qplan);
         Preconditions.checkNotNull(splits);
 
+        if (config.get(PhoenixConfigurationUtil.SNAPSHOT_NAME_KEY) != null) {
+            return generateSnapshotSplits(qplan);
+        }
+
         // Get the RegionSizeCalculator
         org.apache.hadoop.hbase.client.Connection connection = ConnectionFactory.createConnection(config);
         RegionLocator regionLocator = connection.getRegionLocator(TableName.valueOf(qplan
@@ -155,6 +159,25 @@ public class PhoenixInputFormat<T extends DBWritable> extends InputFormat<NullWr
         return psplits;
     }
     
+    /**
+     * Generates a split for each scan of the regions of a snapshot, which are split at the
+     * guideposts of the table. The snapshot is read without going through the region servers,
+     * so there's no region location or size to get from them.
+     */
+    private List<InputSplit> generateSnapshotSplits(final QueryPlan qplan) {
+        final List<InputSplit> psplits = Lists.newArrayList();
+        for (List<Scan> scans : qplan.getScans()) {
+            for (Scan aScan : scans) {
+                psplits.add(new PhoenixInputSplit(Collections.singletonList(aScan)));
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Generated " + psplits.size() + " splits for the " + qplan.getScans().size()
+                    + " regions of the snapshot");
+        }
+        return psplits;
+    }
+
     /**
      * Returns the query plan associated with the select query.
      * @param context
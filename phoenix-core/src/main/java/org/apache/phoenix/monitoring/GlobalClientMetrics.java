@@ -18,6 +18,10 @@
 package org.apache.phoenix.monitoring;
 
 import static org.apache.phoenix.monitoring.MetricType.HCONNECTIONS_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.HEDGED_READ_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.HEDGED_READ_WIN_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.LARGE_TASK_QUEUE_DEPTH;
+import static org.apache.phoenix.monitoring.MetricType.LARGE_TASK_QUEUE_WAIT_TIME;
 import static org.apache.phoenix.monitoring.MetricType.MEMORY_CHUNK_BYTES;
 import static org.apache.phoenix.monitoring.MetricType.MEMORY_WAIT_TIME;
 import static org.apache.phoenix.monitoring.MetricType.MUTATION_BATCH_FAILED_SIZE;
@@ -31,8 +35,12 @@ import static org.apache.phoenix.monitoring.MetricType.QUERY_FAILED_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.QUERY_SERVICES_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.QUERY_TIME;
 import static org.apache.phoenix.monitoring.MetricType.QUERY_TIMEOUT_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.RESULT_CACHE_HIT_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.RESULT_CACHE_MISS_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.SCAN_BYTES;
 import static org.apache.phoenix.monitoring.MetricType.SELECT_SQL_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.SMALL_TASK_QUEUE_DEPTH;
+import static org.apache.phoenix.monitoring.MetricType.SMALL_TASK_QUEUE_WAIT_TIME;
 import static org.apache.phoenix.monitoring.MetricType.SPOOL_FILE_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.SPOOL_FILE_SIZE;
 import static org.apache.phoenix.monitoring.MetricType.TASK_END_TO_END_TIME;
@@ -42,10 +50,21 @@ import static org.apache.phoenix.monitoring.MetricType.TASK_QUEUE_WAIT_TIME;
 import static org.apache.phoenix.monitoring.MetricType.PHOENIX_CONNECTIONS_THROTTLED_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.PHOENIX_CONNECTIONS_ATTEMPTED_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.TASK_REJECTED_COUNTER;
+import static org.apache.phoenix.monitoring.MetricType.WALL_CLOCK_TIME_MS;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.apache.phoenix.query.QueryServicesOptions;
 
@@ -54,28 +73,38 @@ import com.google.common.annotations.VisibleForTesting;
 /**
  * Central place where we keep track of all the global client phoenix metrics. These metrics are different from
  * {@link ReadMetricQueue} or {@link MutationMetricQueue} as they are collected at the client JVM level as opposed
- * to the above two which are collected for every phoenix request.
+ * to the above two which are collected for every phoenix request. For the metrics that track latencies, the
+ * distribution of the samples is tracked in a {@link HistogramMetric} as well, which is exposed through
+ * {@link #getHistogramSnapshots(boolean)} and through JMX.
  */
 
 public enum GlobalClientMetrics {
     
     GLOBAL_MUTATION_BATCH_SIZE(MUTATION_BATCH_SIZE),
     GLOBAL_MUTATION_BYTES(MUTATION_BYTES),
-    GLOBAL_MUTATION_COMMIT_TIME(MUTATION_COMMIT_TIME),
+    GLOBAL_MUTATION_COMMIT_TIME(MUTATION_COMMIT_TIME, true),
     GLOBAL_MUTATION_BATCH_FAILED_COUNT(MUTATION_BATCH_FAILED_SIZE),
-    GLOBAL_QUERY_TIME(QUERY_TIME),
+    GLOBAL_QUERY_TIME(QUERY_TIME, true),
     GLOBAL_NUM_PARALLEL_SCANS(NUM_PARALLEL_SCANS),
     GLOBAL_SCAN_BYTES(SCAN_BYTES),
     GLOBAL_SPOOL_FILE_SIZE(SPOOL_FILE_SIZE),
     GLOBAL_MEMORY_CHUNK_BYTES(MEMORY_CHUNK_BYTES),
-    GLOBAL_MEMORY_WAIT_TIME(MEMORY_WAIT_TIME),
-    GLOBAL_TASK_QUEUE_WAIT_TIME(TASK_QUEUE_WAIT_TIME),
-    GLOBAL_TASK_END_TO_END_TIME(TASK_END_TO_END_TIME),
-    GLOBAL_TASK_EXECUTION_TIME(TASK_EXECUTION_TIME),
+    GLOBAL_MEMORY_WAIT_TIME(MEMORY_WAIT_TIME, true),
+    GLOBAL_TASK_QUEUE_WAIT_TIME(TASK_QUEUE_WAIT_TIME, true),
+    GLOBAL_TASK_END_TO_END_TIME(TASK_END_TO_END_TIME, true),
+    GLOBAL_TASK_EXECUTION_TIME(TASK_EXECUTION_TIME, true),
     GLOBAL_MUTATION_SQL_COUNTER(MUTATION_SQL_COUNTER),
     GLOBAL_SELECT_SQL_COUNTER(SELECT_SQL_COUNTER),
+    GLOBAL_RESULT_CACHE_HIT_COUNTER(RESULT_CACHE_HIT_COUNTER),
+    GLOBAL_RESULT_CACHE_MISS_COUNTER(RESULT_CACHE_MISS_COUNTER),
+    GLOBAL_HEDGED_READ_COUNTER(HEDGED_READ_COUNTER),
+    GLOBAL_HEDGED_READ_WIN_COUNTER(HEDGED_READ_WIN_COUNTER),
     GLOBAL_TASK_EXECUTED_COUNTER(TASK_EXECUTED_COUNTER),
     GLOBAL_REJECTED_TASK_COUNTER(TASK_REJECTED_COUNTER),
+    GLOBAL_SMALL_TASK_QUEUE_WAIT_TIME(SMALL_TASK_QUEUE_WAIT_TIME, true),
+    GLOBAL_LARGE_TASK_QUEUE_WAIT_TIME(LARGE_TASK_QUEUE_WAIT_TIME, true),
+    GLOBAL_SMALL_TASK_QUEUE_DEPTH(SMALL_TASK_QUEUE_DEPTH),
+    GLOBAL_LARGE_TASK_QUEUE_DEPTH(LARGE_TASK_QUEUE_DEPTH),
     GLOBAL_QUERY_TIMEOUT_COUNTER(QUERY_TIMEOUT_COUNTER),
     GLOBAL_FAILED_QUERY_COUNTER(QUERY_FAILED_COUNTER),
     GLOBAL_SPOOL_FILE_COUNTER(SPOOL_FILE_COUNTER),
@@ -83,11 +112,20 @@ public enum GlobalClientMetrics {
     GLOBAL_QUERY_SERVICES_COUNTER(QUERY_SERVICES_COUNTER),
     GLOBAL_HCONNECTIONS_COUNTER(HCONNECTIONS_COUNTER),
     GLOBAL_PHOENIX_CONNECTIONS_THROTTLED_COUNTER(PHOENIX_CONNECTIONS_THROTTLED_COUNTER),
-    GLOBAL_PHOENIX_CONNECTIONS_ATTEMPTED_COUNTER(PHOENIX_CONNECTIONS_ATTEMPTED_COUNTER);
+    GLOBAL_PHOENIX_CONNECTIONS_ATTEMPTED_COUNTER(PHOENIX_CONNECTIONS_ATTEMPTED_COUNTER),
+    GLOBAL_QUERY_WALL_CLOCK_TIME(WALL_CLOCK_TIME_MS, true);
 
     
+    private static final Log LOG = LogFactory.getLog(GlobalClientMetrics.class);
     private static final boolean isGlobalMetricsEnabled = QueryServicesOptions.withDefaults().isGlobalMetricsEnabled();
     private GlobalMetric metric;
+    private final HistogramMetric histogram;
+
+    static {
+        if (isGlobalMetricsEnabled) {
+            registerHistogramMBeans();
+        }
+    }
 
     public void update(long value) {
         if (isGlobalMetricsEnabled) {
@@ -105,8 +143,20 @@ public enum GlobalClientMetrics {
         return metric.toString();
     }
 
+    /**
+     * @return histogram of the samples of this metric, or null if the distribution of the samples is not tracked
+     */
+    public HistogramMetric getHistogram() {
+        return histogram;
+    }
+
     private GlobalClientMetrics(MetricType metricType) {
-        this.metric = new GlobalMetricImpl(metricType);
+        this(metricType, false);
+    }
+
+    private GlobalClientMetrics(MetricType metricType, boolean trackHistogram) {
+        this.histogram = trackHistogram ? new HistogramMetric() : null;
+        this.metric = new GlobalMetricImpl(metricType, histogram);
     }
 
     public void increment() {
@@ -129,6 +179,39 @@ public enum GlobalClientMetrics {
         return metrics;
     }
 
+    /**
+     * @param reset whether the histograms should be reset, so that the next call returns the distribution of
+     * the samples collected in the next interval
+     * @return map of metric type to the distribution of its samples for the metrics whose distribution is tracked
+     */
+    public static Map<MetricType, HistogramSnapshot> getHistogramSnapshots(boolean reset) {
+        Map<MetricType, HistogramSnapshot> snapshots = new EnumMap<>(MetricType.class);
+        for (GlobalClientMetrics m : GlobalClientMetrics.values()) {
+            if (m.histogram != null) {
+                snapshots.put(m.metric.getMetricType(),
+                        reset ? m.histogram.getSnapshotAndReset() : m.histogram.getSnapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    private static void registerHistogramMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (GlobalClientMetrics m : GlobalClientMetrics.values()) {
+            if (m.histogram == null) {
+                continue;
+            }
+            try {
+                ObjectName name = new ObjectName(HistogramMXBean.DOMAIN + ":type=GlobalClientMetrics,name=" + m.name());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new HistogramMXBeanImpl(m.histogram), name);
+                }
+            } catch (JMException e) {
+                LOG.warn("Unable to register JMX bean for " + m.name(), e);
+            }
+        }
+    }
+
     public static boolean isMetricsEnabled() {
         return isGlobalMetricsEnabled;
     }
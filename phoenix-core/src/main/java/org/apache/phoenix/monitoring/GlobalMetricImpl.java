@@ -15,9 +15,19 @@ public class GlobalMetricImpl implements GlobalMetric {
 
     private AtomicLong numberOfSamples = new AtomicLong(0);
     private Metric metric;
+    private final HistogramMetric histogram;
 
     public GlobalMetricImpl(MetricType type) {
+        this(type, null);
+    }
+
+    /**
+     * @param histogram histogram into which every sample is recorded in addition to the running sum, or null
+     * if the distribution of the samples is not tracked
+     */
+    public GlobalMetricImpl(MetricType type, HistogramMetric histogram) {
         this.metric = new AtomicMetric(type);
+        this.histogram = histogram;
     }
 
     /**
@@ -28,6 +38,9 @@ public class GlobalMetricImpl implements GlobalMetric {
     public void reset() {
         metric.reset();
         numberOfSamples.set(0);
+        if (histogram != null) {
+            histogram.reset();
+        }
     }
 
     @Override
@@ -44,6 +57,16 @@ public class GlobalMetricImpl implements GlobalMetric {
     public void change(long delta) {
         metric.change(delta);
         numberOfSamples.incrementAndGet();
+        if (histogram != null) {
+            histogram.record(delta);
+        }
+    }
+
+    /**
+     * @return histogram of the samples or null if the distribution of the samples is not tracked
+     */
+    public HistogramMetric getHistogram() {
+        return histogram;
     }
 
     @Override
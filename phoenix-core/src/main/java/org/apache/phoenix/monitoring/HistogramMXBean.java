@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.monitoring;
+
+/**
+ * JMX view of a {@link HistogramMetric}. The attributes reflect the values recorded since the histogram was
+ * last reset, see {@link GlobalClientMetrics#getHistogramSnapshots(boolean)}.
+ */
+public interface HistogramMXBean {
+    public static final String DOMAIN = "org.apache.phoenix";
+
+    public long getCount();
+
+    public double getMean();
+
+    public long getMax();
+
+    public long get50thPercentile();
+
+    public long get90thPercentile();
+
+    public long get99thPercentile();
+
+    public long get999thPercentile();
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return value at the given percentile
+     */
+    public long getValueAtPercentile(double percentile);
+}
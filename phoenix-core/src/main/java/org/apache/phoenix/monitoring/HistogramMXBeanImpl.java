@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.monitoring;
+
+class HistogramMXBeanImpl implements HistogramMXBean {
+    private final HistogramMetric histogram;
+
+    HistogramMXBeanImpl(HistogramMetric histogram) {
+        this.histogram = histogram;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getSnapshot().getCount();
+    }
+
+    @Override
+    public double getMean() {
+        return histogram.getSnapshot().getMean();
+    }
+
+    @Override
+    public long getMax() {
+        return histogram.getSnapshot().getMax();
+    }
+
+    @Override
+    public long get50thPercentile() {
+        return getValueAtPercentile(50);
+    }
+
+    @Override
+    public long get90thPercentile() {
+        return getValueAtPercentile(90);
+    }
+
+    @Override
+    public long get99thPercentile() {
+        return getValueAtPercentile(99);
+    }
+
+    @Override
+    public long get999thPercentile() {
+        return getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getValueAtPercentile(double percentile) {
+        return histogram.getSnapshot().getValueAtPercentile(percentile);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram used to track the distribution of a metric, typically a latency, rather than just its sum.
+ * Values are recorded into log-linear buckets in the same way as an HDR histogram: values below
+ * {@link #SUB_BUCKET_COUNT} are tracked exactly and larger values are tracked with a relative error of at most
+ * 1/{@link #SUB_BUCKET_COUNT}. To keep recording cheap when many threads record concurrently, the counts are spread
+ * over a number of stripes chosen by the recording thread and only summed up when a snapshot is taken.
+ */
+public class HistogramMetric {
+    private static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Values with more significant bits than this are recorded in the last bucket. For millisecond
+     * latencies this is more than 30 years.
+     */
+    private static final int MAX_VALUE_BITS = 40;
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+    // Each stripe holds the bucket counts followed by the sum and the max of the recorded values
+    private static final int SUM_INDEX = BUCKET_COUNT;
+    private static final int MAX_INDEX = BUCKET_COUNT + 1;
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public HistogramMetric() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param numStripes number of independent sets of counters to record into. Rounded up to a power of
+     * two and capped at {@link #MAX_STRIPES}. Use 1 for histograms which are only recorded into by a single thread.
+     */
+    public HistogramMetric(int numStripes) {
+        numStripes = Math.max(1, Math.min(MAX_STRIPES, numStripes));
+        int n = Integer.highestOneBit(numStripes);
+        if (n < numStripes) {
+            n <<= 1;
+        }
+        this.stripes = new AtomicLongArray[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT + 2);
+        }
+        this.stripeMask = n - 1;
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int)value;
+        }
+        if (value > MAX_TRACKABLE_VALUE) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - 1 - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * @return the largest value that is recorded into the bucket at the given index
+     */
+    static long getHighestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1));
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private AtomicLongArray getStripe() {
+        if (stripeMask == 0) {
+            return stripes[0];
+        }
+        long id = Thread.currentThread().getId();
+        return stripes[(int)(id ^ (id >>> 16)) & stripeMask];
+    }
+
+    public void record(long value) {
+        AtomicLongArray stripe = getStripe();
+        stripe.incrementAndGet(getBucketIndex(value));
+        stripe.addAndGet(SUM_INDEX, value);
+        long max;
+        while (value > (max = stripe.get(MAX_INDEX))) {
+            if (stripe.compareAndSet(MAX_INDEX, max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Add all the values of the snapshot to this histogram.
+     */
+    public void add(HistogramSnapshot snapshot) {
+        AtomicLongArray stripe = getStripe();
+        long[] counts = snapshot.getCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                stripe.addAndGet(i, counts[i]);
+            }
+        }
+        stripe.addAndGet(SUM_INDEX, snapshot.getSum());
+        long max;
+        while (snapshot.getMax() > (max = stripe.get(MAX_INDEX))) {
+            if (stripe.compareAndSet(MAX_INDEX, max, snapshot.getMax())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the values recorded since the histogram was created or last reset.
+     */
+    public HistogramSnapshot getSnapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Returns the values recorded since the histogram was created or last reset and resets it, so that
+     * successive calls return the distribution of the values recorded in each interval. A value that is
+     * recorded concurrently is reported in exactly one interval.
+     */
+    public HistogramSnapshot getSnapshotAndReset() {
+        return snapshot(true);
+    }
+
+    public void reset() {
+        snapshot(true);
+    }
+
+    private HistogramSnapshot snapshot(boolean reset) {
+        long[] counts = new long[BUCKET_COUNT];
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += reset ? stripe.getAndSet(i, 0) : stripe.get(i);
+            }
+            sum += reset ? stripe.getAndSet(SUM_INDEX, 0) : stripe.get(SUM_INDEX);
+            max = Math.max(max, reset ? stripe.getAndSet(MAX_INDEX, 0) : stripe.get(MAX_INDEX));
+        }
+        return new HistogramSnapshot(counts, sum, max);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.monitoring;
+
+/**
+ * Immutable view of the values recorded by a {@link HistogramMetric}.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    long[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return number of values recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of the values recorded
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return largest value recorded, or 0 if no values were recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double)sum / count;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100, for example 99.9
+     * @return the value at or below which the given percentage of the recorded values fall, within
+     * the precision of the histogram, or 0 if no values were recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, but was " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+            if (total >= target) {
+                return Math.min(max, HistogramMetric.getHighestEquivalentValue(i));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "Count: " + count + ", Mean: " + getMean() + ", P50: " + getValueAtPercentile(50) + ", P99: "
+                + getValueAtPercentile(99) + ", P99.9: " + getValueAtPercentile(99.9) + ", Max: " + max;
+    }
+}
@@ -33,12 +33,20 @@ public enum MetricType {
     NUM_PARALLEL_SCANS("ps", "Number of scans that were executed in parallel"),
     SCAN_BYTES("sb", "Number of bytes read by scans"),
     SELECT_SQL_COUNTER("sc", "Counter for number of sql queries"),
+    RESULT_CACHE_HIT_COUNTER("rch", "Number of queries answered from the client-side result cache"),
+    RESULT_CACHE_MISS_COUNTER("rcm", "Number of cacheable queries not found in the client-side result cache"),
+    HEDGED_READ_COUNTER("hr", "Number of timeline consistent scans, which are hedged against the region replicas of a table"),
+    HEDGED_READ_WIN_COUNTER("hrw", "Number of timeline consistent reads answered by a region replica rather than the primary region"),
     // task metrics
     TASK_QUEUE_WAIT_TIME("tw", "Time in milliseconds tasks had to wait in the queue of the thread pool executor"),
     TASK_END_TO_END_TIME("tee", "Time in milliseconds spent by tasks from creation to completion"),
     TASK_EXECUTION_TIME("tx", "Time in milliseconds tasks took to execute"),
     TASK_EXECUTED_COUNTER("te", "Counter for number of tasks submitted to the thread pool executor"),
     TASK_REJECTED_COUNTER("tr", "Counter for number of tasks that were rejected by the thread pool executor"),
+    SMALL_TASK_QUEUE_WAIT_TIME("tws", "Time in milliseconds tasks of small queries had to wait in the queue of the fair share scheduler"),
+    LARGE_TASK_QUEUE_WAIT_TIME("twl", "Time in milliseconds tasks of large queries had to wait in the queue of the fair share scheduler"),
+    SMALL_TASK_QUEUE_DEPTH("tds", "Number of tasks of small queries waiting in the queue of the fair share scheduler"),
+    LARGE_TASK_QUEUE_DEPTH("tdl", "Number of tasks of large queries waiting in the queue of the fair share scheduler"),
     // spool metrics
     SPOOL_FILE_SIZE("ss", "Size of spool files created in bytes"),
     SPOOL_FILE_COUNTER("sn", "Number of spool files created"),
@@ -50,6 +50,10 @@ final class MetricsStopWatch {
         }
     }
     
+    boolean isRunning() {
+        return isMetricsEnabled && stopwatch.isRunning();
+    }
+
     long getElapsedTimeInMs() {
         if (isMetricsEnabled) {
             return stopwatch.elapsedMillis();
@@ -34,8 +34,15 @@ public class MutationMetricQueue {
     
     // Map of table name -> mutation metric
     private Map<String, MutationMetric> tableMutationMetric = new HashMap<>();
+    // Map of table name -> distribution of the commit times of the batches of mutations
+    private Map<String, HistogramMetric> tableCommitTimeHistogram = new HashMap<>();
     
     public void addMetricsForTable(String tableName, MutationMetric metric) {
+        combineMetricsForTable(tableName, metric);
+        getCommitTimeHistogram(tableName).record(metric.getCommitTimeForMutations().getValue());
+    }
+
+    private void combineMetricsForTable(String tableName, MutationMetric metric) {
         MutationMetric tableMetric = tableMutationMetric.get(tableName);
         if (tableMetric == null) {
             tableMutationMetric.put(tableName, metric);
@@ -44,12 +51,36 @@ public class MutationMetricQueue {
         }
     }
 
+    private HistogramMetric getCommitTimeHistogram(String tableName) {
+        HistogramMetric histogram = tableCommitTimeHistogram.get(tableName);
+        if (histogram == null) {
+            // The queue is only used by a single connection at a time, so one stripe is enough
+            histogram = new HistogramMetric(1);
+            tableCommitTimeHistogram.put(tableName, histogram);
+        }
+        return histogram;
+    }
+
     public void combineMetricQueues(MutationMetricQueue other) {
         Map<String, MutationMetric> tableMetricMap = other.tableMutationMetric;
         for (Entry<String, MutationMetric> entry : tableMetricMap.entrySet()) {
-            addMetricsForTable(entry.getKey(), entry.getValue());
+            combineMetricsForTable(entry.getKey(), entry.getValue());
+        }
+        for (Entry<String, HistogramMetric> entry : other.tableCommitTimeHistogram.entrySet()) {
+            getCommitTimeHistogram(entry.getKey()).add(entry.getValue().getSnapshot());
         }
     }
+
+    /**
+     * @return map of table name -> distribution of the time it took to commit each batch of mutations
+     */
+    public Map<String, HistogramSnapshot> getCommitTimeHistograms() {
+        Map<String, HistogramSnapshot> histograms = new HashMap<>();
+        for (Entry<String, HistogramMetric> entry : tableCommitTimeHistogram.entrySet()) {
+            histograms.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+        return histograms;
+    }
     
     /**
      * Publish the metrics to wherever you want them published. The internal state is cleared out after every publish.
@@ -75,6 +106,7 @@ public class MutationMetricQueue {
     
     public void clearMetrics() {
         tableMutationMetric.clear(); // help gc
+        tableCommitTimeHistogram.clear();
     }
     
     /**
@@ -133,6 +165,12 @@ public class MutationMetricQueue {
 
         @Override
         public Map<String, Map<MetricType, Long>> aggregate() { return Collections.emptyMap(); }
+
+        @Override
+        public void combineMetricQueues(MutationMetricQueue other) {}
+
+        @Override
+        public Map<String, HistogramSnapshot> getCommitTimeHistograms() { return Collections.emptyMap(); }
         
         
     }
@@ -17,6 +17,7 @@
  */
 package org.apache.phoenix.monitoring;
 
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_QUERY_WALL_CLOCK_TIME;
 import static org.apache.phoenix.monitoring.MetricType.CACHE_REFRESH_SPLITS_COUNTER;
 import static org.apache.phoenix.monitoring.MetricType.NUM_PARALLEL_SCANS;
 import static org.apache.phoenix.monitoring.MetricType.QUERY_FAILED_COUNTER;
@@ -75,8 +76,15 @@ public class OverAllQueryMetrics {
     }
 
     public void endQuery() {
+        boolean wasRunning = queryWatch.isRunning();
         queryWatch.stop();
-        wallClockTimeMS.change(queryWatch.getElapsedTimeInMs());
+        long elapsedTime = queryWatch.getElapsedTimeInMs();
+        wallClockTimeMS.change(elapsedTime);
+        // endQuery is called both when the last row is read and when the result set is closed,
+        // so only record the query once in the global distribution
+        if (wasRunning) {
+            GLOBAL_QUERY_WALL_CLOCK_TIME.update(elapsedTime);
+        }
     }
 
     public void startResultSetWatch() {
@@ -22,6 +22,7 @@ import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.phoenix.compile.ColumnProjector;
 import org.apache.phoenix.compile.ColumnResolver;
@@ -34,6 +35,8 @@ import org.apache.phoenix.compile.SequenceManager;
 import org.apache.phoenix.compile.StatementContext;
 import org.apache.phoenix.compile.StatementNormalizer;
 import org.apache.phoenix.compile.SubqueryRewriter;
+import org.apache.phoenix.execute.IndexLookupJoinPlan;
+import org.apache.phoenix.execute.ScanPlan;
 import org.apache.phoenix.iterate.ParallelIteratorFactory;
 import org.apache.phoenix.jdbc.PhoenixStatement;
 import org.apache.phoenix.parse.AliasedNode;
@@ -43,6 +46,8 @@ import org.apache.phoenix.parse.ColumnParseNode;
 import org.apache.phoenix.parse.HintNode;
 import org.apache.phoenix.parse.HintNode.Hint;
 import org.apache.phoenix.parse.IndexExpressionParseNodeRewriter;
+import org.apache.phoenix.parse.LimitNode;
+import org.apache.phoenix.parse.NamedTableNode;
 import org.apache.phoenix.parse.ParseNode;
 import org.apache.phoenix.parse.ParseNodeFactory;
 import org.apache.phoenix.parse.ParseNodeRewriter;
@@ -57,10 +62,14 @@ import org.apache.phoenix.schema.PIndexState;
 import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTable.IndexType;
 import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.stats.GuidePostsInfo;
+import org.apache.phoenix.schema.stats.GuidePostsKey;
 import org.apache.phoenix.schema.types.PDataType;
 import org.apache.phoenix.util.IndexUtil;
+import org.apache.phoenix.util.SchemaUtil;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 public class QueryOptimizer {
     private static final ParseNodeFactory FACTORY = new ParseNodeFactory();
@@ -105,6 +114,14 @@ public class QueryOptimizer {
     
     private List<QueryPlan> getApplicablePlans(QueryPlan dataPlan, PhoenixStatement statement, List<? extends PDatum> targetColumns, ParallelIteratorFactory parallelIteratorFactory, boolean stopAtBestPlan) throws SQLException {
         SelectStatement select = (SelectStatement)dataPlan.getStatement();
+        // Answer aggregate queries from a rollup of the table when one covers the query and the table uses its rollups
+        if (canUseRollup(dataPlan, statement, select)
+                && !(dataPlan.getContext().getScanRanges().isPointLookup() && stopAtBestPlan)) {
+            QueryPlan rollupPlan = RollupRewriter.getRollupPlan(statement, dataPlan, targetColumns, parallelIteratorFactory);
+            if (rollupPlan != null) {
+                return Collections.singletonList(rollupPlan);
+            }
+        }
         // Exit early if we have a point lookup as we can't get better than that
         if (!useIndexes 
                 || (dataPlan.getContext().getScanRanges().isPointLookup() && stopAtBestPlan)) {
@@ -156,6 +173,18 @@ public class QueryOptimizer {
         return hintedPlan == null ? orderPlansBestToWorst(select, plans, stopAtBestPlan) : plans;
     }
     
+    private static boolean canUseRollup(QueryPlan dataPlan, PhoenixStatement statement, SelectStatement select) {
+        // Rollups are maintained as of now, for all tenants
+        if (!select.isAggregate() || select.isDistinct() || select.isUnion() || select.hasSequence()
+                || !(select.getFrom() instanceof NamedTableNode) || select.getHint().hasHint(Hint.NO_ROLLUP)
+                || statement.getConnection().getSCN() != null || statement.getConnection().getTenantId() != null
+                || dataPlan.isDegenerate() || dataPlan.getTableRef().hasDynamicCols()) {
+            return false;
+        }
+        return dataPlan.getTableRef().getTable().getType() == PTableType.TABLE
+                && dataPlan.getContext().getResolver().getTables().get(0).getTable().getType() != PTableType.PROJECTED;
+    }
+
     private static QueryPlan getHintedQueryPlan(PhoenixStatement statement, SelectStatement select, List<PTable> indexes, List<? extends PDatum> targetColumns, ParallelIteratorFactory parallelIteratorFactory, List<QueryPlan> plans) throws SQLException {
         QueryPlan dataPlan = plans.get(0);
         String indexHint = select.getHint().getHint(Hint.INDEX);
@@ -257,10 +286,17 @@ public class QueryOptimizer {
             } catch (ColumnNotFoundException e) {
                 /* Means that a column is being used that's not in our index.
                  * Since we currently don't keep stats, we don't know the selectivity of the index.
-                 * For now, if this is a hinted plan, we will try rewriting the query as a subquery;
+                 * For now, if this is a hinted plan, we will try looking up the data table rows
+                 * of the index rows with batched gets, or else rewriting the query as a subquery;
                  * otherwise we just don't use this index (as opposed to trying to join back from
                  * the index table to the data table.
                  */
+                if (isHinted && index.getIndexType() == IndexType.GLOBAL) {
+                    QueryPlan plan = addLookupJoinPlan(statement, indexSelect, index, resolver, dataPlan, isProjected);
+                    if (plan != null) {
+                        return plan;
+                    }
+                }
                 SelectStatement dataSelect = (SelectStatement)dataPlan.getStatement();
                 ParseNode where = dataSelect.getWhere();
                 if (isHinted && where != null) {
@@ -308,6 +344,50 @@ public class QueryOptimizer {
         return null;
     }
     
+    /**
+     * Builds a plan which reads the row keys of the index in the order of the query and looks up
+     * the data table rows with batched gets, or returns null if the query can't be run that way.
+     * It is used when the query can't be rewritten as a subquery, because it has no WHERE clause,
+     * or when it has an ORDER BY and a LIMIT, as the index then only needs to be read until enough
+     * data table rows are found instead of joining all the rows matching the WHERE clause.
+     */
+    private static QueryPlan addLookupJoinPlan(PhoenixStatement statement, SelectStatement indexSelect, PTable index, ColumnResolver resolver, QueryPlan dataPlan, boolean isProjected) throws SQLException {
+        SelectStatement dataSelect = (SelectStatement)dataPlan.getStatement();
+        PTable dataTable = dataPlan.getTableRef().getTable();
+        if (!statement.getConnection().getQueryServices().getProps().getBoolean(QueryServices.INDEX_LOOKUP_JOIN_ENABLED_ATTRIB, QueryServicesOptions.DEFAULT_INDEX_LOOKUP_JOIN_ENABLED)
+                || !(dataPlan instanceof ScanPlan) || isProjected || dataTable.isTransactional()
+                || dataSelect.isAggregate() || dataSelect.isDistinct() || dataSelect.getOffset() != null || dataSelect.hasSequence()) {
+            return null;
+        }
+        if (dataSelect.getWhere() != null && (dataSelect.getOrderBy().isEmpty() || dataSelect.getLimit() == null)) {
+            return null;
+        }
+        ParseNode where = dataSelect.getWhere();
+        ParseNode extractedCondition = null;
+        if (where != null) {
+            StatementContext context = new StatementContext(statement, resolver);
+            WhereConditionRewriter whereRewriter = new WhereConditionRewriter(FromCompiler.getResolver(dataPlan.getTableRef()), context);
+            where = where.accept(whereRewriter);
+            extractedCondition = whereRewriter.getExtractedCondition();
+        }
+        // The rows are filtered again on the data table, so the limit only applies to the index
+        // when all the conditions are evaluated against it
+        LimitNode limit = extractedCondition == null ? indexSelect.getLimit() : null;
+        List<AliasedNode> select = Collections.singletonList(FACTORY.aliasedNode(null, FACTORY.literal(1)));
+        SelectStatement keySelect = FACTORY.select(indexSelect.getFrom(), indexSelect.getHint(), false, select, where, null, null, indexSelect.getOrderBy(), limit, null, indexSelect.getBindCount(), false, false, Collections.<SelectStatement>emptyList(), indexSelect.getUdfParseNodes());
+        QueryPlan indexPlan;
+        try {
+            indexPlan = new QueryCompiler(statement, keySelect, resolver, Collections.<PDatum>emptyList(), null, dataPlan.getContext().getSequenceManager(), false).compile();
+        } catch (ColumnNotFoundException e) {
+            // The ORDER BY uses columns that are not in the index
+            return null;
+        }
+        if (!(indexPlan instanceof ScanPlan)) {
+            return null;
+        }
+        return new IndexLookupJoinPlan(dataPlan, indexPlan, index.getIndexMaintainer(dataTable, statement.getConnection()), IndexUtil.getViewConstants(dataTable), extractedCondition);
+    }
+    
     /**
      * Order the plans among all the possible ones from best to worst.
      * Since we don't keep stats yet, we use the following simple algorithm:
@@ -369,7 +449,7 @@ public class QueryOptimizer {
         }
         
         int nViewConstants = 0;
-        PTable dataTable = dataPlan.getTableRef().getTable();
+        final PTable dataTable = dataPlan.getTableRef().getTable();
         if (dataTable.getType() == PTableType.VIEW) {
             for (PColumn column : dataTable.getColumns()) {
                 if (column.getViewConstant() != null) {
@@ -380,6 +460,16 @@ public class QueryOptimizer {
         final int boundRanges = nViewConstants;
         final int comparisonOfDataVersusIndexTable = select.getHint().hasHint(Hint.USE_DATA_OVER_INDEX_TABLE) ? -1 : 1;
         Collections.sort(bestCandidates, new Comparator<QueryPlan>() {
+            private final Map<QueryPlan, Long> rowsPerLeadingValue = Maps.newHashMap();
+
+            private long getRowsPerLeadingValue(QueryPlan plan) {
+                Long rows = rowsPerLeadingValue.get(plan);
+                if (rows == null) {
+                    rows = getRowsPerLeadingIndexValue(plan, dataTable);
+                    rowsPerLeadingValue.put(plan, rows);
+                }
+                return rows;
+            }
 
             @Override
             public int compare(QueryPlan plan1, QueryPlan plan2) {
@@ -398,6 +488,14 @@ public class QueryOptimizer {
                         return plan1.getGroupBy().isOrderPreserving() ? -1 : 1;
                     }
                 }
+                // Among indexes bound on as many columns, use the one whose leading column selects the fewest rows
+                if (boundCount1 > 0) {
+                    long rows1 = getRowsPerLeadingValue(plan1);
+                    long rows2 = getRowsPerLeadingValue(plan2);
+                    if (rows1 >= 0 && rows2 >= 0 && rows1 != rows2) {
+                        return rows1 < rows2 ? -1 : 1;
+                    }
+                }
                 // Use smaller table (table with fewest kv columns)
                 c = (table1.getColumns().size() - table1.getPKColumns().size()) - (table2.getColumns().size() - table2.getPKColumns().size());
                 if (c != 0) return c;
@@ -430,7 +528,46 @@ public class QueryOptimizer {
         return bestCandidates;
     }
 
-    
+    /**
+     * @return the estimated number of rows per value of the leading indexed column of an index
+     * plan, from the column level statistics of the data table, or -1 if the plan isn't over an
+     * index or no column level statistics were collected for the column
+     */
+    private static long getRowsPerLeadingIndexValue(QueryPlan plan, PTable dataTable) {
+        PTable index = plan.getTableRef().getTable();
+        if (index.getType() != PTableType.INDEX) {
+            return -1;
+        }
+        int pkPosition = (index.getBucketNum() == null ? 0 : 1) + (index.isMultiTenant() ? 1 : 0)
+                + (index.getViewIndexId() == null ? 0 : 1);
+        if (pkPosition >= index.getPKColumns().size()) {
+            return -1;
+        }
+        PColumn dataColumn;
+        try {
+            dataColumn = IndexUtil.getDataColumn(dataTable, index.getPKColumns().get(pkPosition).getName().getString());
+        } catch (IllegalArgumentException e) { // Functional index
+            return -1;
+        }
+        // Column level statistics are only collected for key value columns
+        if (SchemaUtil.isPKColumn(dataColumn)) {
+            return -1;
+        }
+        try {
+            GuidePostsInfo stats = plan.getContext().getConnection().getQueryServices().getTableStats(
+                    new GuidePostsKey(dataTable.getPhysicalName().getBytes(), dataColumn.getFamilyName().getBytes()));
+            byte[] columnQualifier = dataColumn.getColumnQualifierBytes();
+            long distinctCount = stats.getDistinctCount(columnQualifier);
+            long nullCount = stats.getNullCount(columnQualifier);
+            if (distinctCount <= 0 || nullCount < 0) {
+                return -1;
+            }
+            return (stats.getColumnStatisticsRowCount() - nullCount) / distinctCount;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
     private static class WhereConditionRewriter extends BooleanParseNodeVisitor<ParseNode> {
         private final ColumnResolver dataResolver;
         private final ExpressionCompiler expressionCompiler;
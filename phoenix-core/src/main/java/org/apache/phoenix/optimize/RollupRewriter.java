@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.optimize;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.phoenix.compile.ColumnResolver;
+import org.apache.phoenix.compile.ExpressionCompiler;
+import org.apache.phoenix.compile.FromCompiler;
+import org.apache.phoenix.compile.QueryCompiler;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.compile.StatementContext;
+import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.iterate.ParallelIteratorFactory;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.apache.phoenix.parse.AliasedNode;
+import org.apache.phoenix.parse.BindParseNode;
+import org.apache.phoenix.parse.ColumnParseNode;
+import org.apache.phoenix.parse.CompoundParseNode;
+import org.apache.phoenix.parse.DistinctCountParseNode;
+import org.apache.phoenix.parse.FunctionParseNode;
+import org.apache.phoenix.parse.LiteralParseNode;
+import org.apache.phoenix.parse.OrderByNode;
+import org.apache.phoenix.parse.ParseNode;
+import org.apache.phoenix.parse.ParseNodeFactory;
+import org.apache.phoenix.parse.ParseNodeRewriter;
+import org.apache.phoenix.parse.SelectStatement;
+import org.apache.phoenix.parse.TableName;
+import org.apache.phoenix.parse.TableNode;
+import org.apache.phoenix.schema.ColumnNotFoundException;
+import org.apache.phoenix.schema.PDatum;
+import org.apache.phoenix.schema.RollupDefinition;
+import org.apache.phoenix.schema.RollupDefinition.AggregateKind;
+import org.apache.phoenix.schema.RollupDefinition.RollupColumn;
+import org.apache.phoenix.schema.TableNotFoundException;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+import org.apache.phoenix.util.IndexUtil;
+import org.apache.phoenix.util.SchemaUtil;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Rewrites an aggregate query over a table to query one of the rollups defined over the table
+ * instead, when every expression of the query is either one of the GROUP BY expressions of the
+ * rollup, or an aggregate that can be computed from the aggregates of the rollup:
+ * COUNT and SUM are computed as the SUM of the partial counts and sums of the rollup, while MIN
+ * and MAX are computed as the MIN and MAX of its partial minimums and maximums.
+ */
+public class RollupRewriter {
+    private static final ParseNodeFactory FACTORY = new ParseNodeFactory();
+
+    private static final Comparator<RollupDefinition> GROUP_BY_SIZE_COMPARATOR = new Comparator<RollupDefinition>() {
+        @Override
+        public int compare(RollupDefinition o1, RollupDefinition o2) {
+            return o1.getSelect().getGroupBy().size() - o2.getSelect().getGroupBy().size();
+        }
+    };
+
+    private RollupRewriter() {
+    }
+
+    /**
+     * @return the plan of the query over the rollup with the fewest GROUP BY expressions that can
+     * answer the query, or null if no rollup can
+     */
+    public static QueryPlan getRollupPlan(PhoenixStatement statement, QueryPlan dataPlan,
+            List<? extends PDatum> targetColumns, ParallelIteratorFactory parallelIteratorFactory) throws SQLException {
+        PhoenixConnection connection = statement.getConnection();
+        List<RollupDefinition> rollups = connection.getQueryServices().getRollupDefinitions(
+                dataPlan.getTableRef().getTable().getPhysicalName().getBytes());
+        if (rollups.isEmpty()) {
+            return null;
+        }
+        rollups = Lists.newArrayList(rollups);
+        Collections.sort(rollups, GROUP_BY_SIZE_COMPARATOR);
+        SelectStatement select = (SelectStatement)dataPlan.getStatement();
+        long now = EnvironmentEdgeManager.currentTimeMillis();
+        for (RollupDefinition rollup : rollups) {
+            // The rollup is still being created
+            if (rollup.getStartTimestamp() > now) {
+                continue;
+            }
+            try {
+                SelectStatement rollupSelect = rewrite(connection, select, dataPlan, rollup);
+                if (rollupSelect == null) {
+                    continue;
+                }
+                ColumnResolver resolver = FromCompiler.getResolverForQuery(rollupSelect, connection);
+                if (!RollupDefinition.isRollup(resolver.getTables().get(0).getTable())) {
+                    continue;
+                }
+                // Type the projection as the data plan does, so that the rollup is transparent
+                List<? extends PDatum> rollupTargetColumns = targetColumns;
+                if (rollupTargetColumns.isEmpty()) {
+                    List<PDatum> targetDatums = Lists.newArrayListWithExpectedSize(dataPlan.getProjector().getColumnCount());
+                    for (int i = 0; i < dataPlan.getProjector().getColumnCount(); i++) {
+                        targetDatums.add(dataPlan.getProjector().getColumnProjector(i).getExpression());
+                    }
+                    rollupTargetColumns = targetDatums;
+                }
+                QueryCompiler compiler = new QueryCompiler(statement, rollupSelect, resolver, rollupTargetColumns,
+                        parallelIteratorFactory, dataPlan.getContext().getSequenceManager(), false);
+                return compiler.compile();
+            } catch (TableNotFoundException | ColumnNotFoundException e) {
+                // The rollup was dropped
+            }
+        }
+        return null;
+    }
+
+    private static SelectStatement rewrite(PhoenixConnection connection, SelectStatement select, QueryPlan dataPlan,
+            RollupDefinition rollup) throws SQLException {
+        PhoenixStatement statement = new PhoenixStatement(connection);
+        ColumnResolver rollupResolver = FromCompiler.getResolverForQuery(rollup.getSelect(), connection);
+        // Both the query and the rollup must be over the same table
+        if (!rollupResolver.getTables().get(0).getTable().getName().equals(dataPlan.getTableRef().getTable().getName())) {
+            return null;
+        }
+        StatementContext rollupContext = new StatementContext(statement, rollupResolver);
+        Map<Expression, RollupColumn> groupByColumns = Maps.newHashMap();
+        Map<Expression, PDataType> groupByTypes = Maps.newHashMap();
+        List<Expression> aggregateArguments = Lists.newArrayListWithExpectedSize(rollup.getColumns().size());
+        for (RollupColumn column : rollup.getColumns()) {
+            Expression expression = column.getExpression() == null ? null
+                    : column.getExpression().accept(new ExpressionCompiler(rollupContext));
+            if (column.isGroupBy()) {
+                groupByColumns.put(expression, column);
+                groupByTypes.put(expression, expression.getDataType());
+            }
+            aggregateArguments.add(expression);
+        }
+        Rewriter rewriter = new Rewriter(rollup, new StatementContext(statement, dataPlan.getContext().getResolver()),
+                groupByColumns, groupByTypes, aggregateArguments);
+        for (AliasedNode aliasedNode : select.getSelect()) {
+            if (!rewriter.cover(aliasedNode.getNode())) {
+                return null;
+            }
+        }
+        for (ParseNode node : select.getGroupBy()) {
+            if (!rewriter.cover(node)) {
+                return null;
+            }
+        }
+        for (OrderByNode node : select.getOrderBy()) {
+            if (!rewriter.cover(node.getNode())) {
+                return null;
+            }
+        }
+        if ((select.getWhere() != null && !rewriter.cover(select.getWhere()))
+                || (select.getHaving() != null && !rewriter.cover(select.getHaving()))) {
+            return null;
+        }
+        SelectStatement rollupSelect = ParseNodeRewriter.rewrite(select, rewriter);
+        String alias = select.getFrom().getAlias();
+        TableNode from = FACTORY.namedTable(alias == null ? null : '"' + alias + '"', TableName.createNormalized(
+                SchemaUtil.getEscapedArgument(SchemaUtil.getSchemaNameFromFullName(rollup.getName())),
+                SchemaUtil.getEscapedArgument(SchemaUtil.getTableNameFromFullName(rollup.getName()))));
+        rollupSelect = FACTORY.select(rollupSelect, from);
+        // Keep the labels of the columns of the query
+        List<AliasedNode> selectNodes = Lists.newArrayListWithExpectedSize(rollupSelect.getSelect().size());
+        for (int i = 0; i < rollupSelect.getSelect().size(); i++) {
+            AliasedNode aliasedNode = rollupSelect.getSelect().get(i);
+            String label = dataPlan.getProjector().getColumnProjector(i).getName();
+            if (aliasedNode.getAlias() == null && label.indexOf('"') < 0) {
+                aliasedNode = FACTORY.aliasedNode('"' + label + '"', aliasedNode.getNode());
+            }
+            selectNodes.add(aliasedNode);
+        }
+        return FACTORY.select(rollupSelect, rollupSelect.isDistinct(), selectNodes);
+    }
+
+    /**
+     * Replaces the expressions of a query covered by a rollup with the columns of the rollup.
+     */
+    private static class Rewriter extends ParseNodeRewriter {
+        private final RollupDefinition rollup;
+        private final StatementContext context;
+        private final Map<Expression, RollupColumn> groupByColumns;
+        private final Map<Expression, PDataType> groupByTypes;
+        private final List<Expression> aggregateArguments;
+        private final Map<ParseNode, ParseNode> replacements = new IdentityHashMap<ParseNode, ParseNode>();
+
+        private Rewriter(RollupDefinition rollup, StatementContext context, Map<Expression, RollupColumn> groupByColumns,
+                Map<Expression, PDataType> groupByTypes, List<Expression> aggregateArguments) {
+            this.rollup = rollup;
+            this.context = context;
+            this.groupByColumns = groupByColumns;
+            this.groupByTypes = groupByTypes;
+            this.aggregateArguments = aggregateArguments;
+        }
+
+        /**
+         * Finds the replacements of the sub-expressions of a query expression by columns of the rollup.
+         * @return false if the expression isn't covered by the rollup
+         */
+        private boolean cover(ParseNode node) throws SQLException {
+            if (node instanceof FunctionParseNode && ((FunctionParseNode)node).isAggregate()) {
+                return coverAggregate((FunctionParseNode)node);
+            }
+            if (node instanceof LiteralParseNode || node instanceof BindParseNode) {
+                return true;
+            }
+            if (!containsAggregate(node)) {
+                Expression expression;
+                try {
+                    expression = node.accept(new ExpressionCompiler(context));
+                } catch (ColumnNotFoundException e) {
+                    return false;
+                }
+                RollupColumn column = groupByColumns.get(expression);
+                if (column != null) {
+                    ParseNode columnNode = FACTORY.column(null, '"' + column.getName() + '"', null);
+                    PDataType type = groupByTypes.get(expression);
+                    // Nullable fixed width GROUP BY expressions are stored as variable width types
+                    if (IndexUtil.getIndexColumnDataType(true, type) != type) {
+                        columnNode = FACTORY.cast(columnNode, type, null, null);
+                    }
+                    replacements.put(node, columnNode);
+                    return true;
+                }
+                if (expression.isStateless()) {
+                    return true;
+                }
+            }
+            if (!(node instanceof CompoundParseNode) || node.getChildren().isEmpty()) {
+                return false;
+            }
+            for (ParseNode child : node.getChildren()) {
+                if (!cover(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean coverAggregate(FunctionParseNode node) throws SQLException {
+            if (node instanceof DistinctCountParseNode || node.getChildren().size() != 1) {
+                return false;
+            }
+            AggregateKind kind = null;
+            for (AggregateKind aggregateKind : AggregateKind.values()) {
+                if (aggregateKind.name().equalsIgnoreCase(node.getName())) {
+                    kind = aggregateKind;
+                }
+            }
+            if (kind == null) {
+                return false;
+            }
+            ParseNode argument = node.getChildren().get(0);
+            Expression expression = null;
+            // COUNT(*) is parsed as a count of a constant
+            if (kind != AggregateKind.COUNT || !(argument instanceof LiteralParseNode)) {
+                if (containsAggregate(argument)) {
+                    return false;
+                }
+                try {
+                    expression = argument.accept(new ExpressionCompiler(context));
+                } catch (ColumnNotFoundException e) {
+                    return false;
+                }
+            }
+            List<RollupColumn> columns = rollup.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                RollupColumn column = columns.get(i);
+                Expression aggregateArgument = aggregateArguments.get(i);
+                if (column.getAggregateKind() != kind || (expression == null ? aggregateArgument != null
+                        : !expression.equals(aggregateArgument))) {
+                    continue;
+                }
+                ParseNode columnNode = FACTORY.column(null, '"' + column.getName() + '"', null);
+                ParseNode replacement;
+                switch (kind) {
+                case COUNT:
+                    replacement = FACTORY.function("COALESCE", Lists.<ParseNode>newArrayList(
+                            FACTORY.function("SUM", Collections.singletonList(columnNode)), FACTORY.literal(0L)));
+                    break;
+                default:
+                    replacement = FACTORY.function(kind.name(), Collections.singletonList(columnNode));
+                    break;
+                }
+                replacements.put(node, replacement);
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean containsAggregate(ParseNode node) {
+            if (node instanceof FunctionParseNode && ((FunctionParseNode)node).isAggregate()) {
+                return true;
+            }
+            for (ParseNode child : node.getChildren()) {
+                if (containsAggregate(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public ParseNode visit(ColumnParseNode node) throws SQLException {
+            ParseNode replacement = replacements.get(node);
+            return replacement == null ? node : replacement;
+        }
+
+        @Override
+        protected ParseNode leaveCompoundNode(CompoundParseNode node, List<ParseNode> children, CompoundNodeFactory factory) {
+            ParseNode replacement = replacements.get(node);
+            return replacement == null ? super.leaveCompoundNode(node, children, factory) : replacement;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.parse;
+
+import org.apache.hadoop.hbase.util.Pair;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * CREATE ROLLUP statement, defining a table which holds the results of an aggregate query over
+ * another table, maintained as rows are written to that table.
+ */
+public class CreateRollupStatement extends MutableStatement {
+    private final TableName tableName;
+    private final SelectStatement select;
+    private final ListMultimap<String,Pair<String,Object>> props;
+    private final boolean ifNotExists;
+    private final int bindCount;
+
+    public CreateRollupStatement(TableName tableName, SelectStatement select,
+            ListMultimap<String,Pair<String,Object>> props, boolean ifNotExists, int bindCount) {
+        this.tableName = tableName;
+        this.select = select;
+        this.props = props == null ? ArrayListMultimap.<String,Pair<String,Object>>create() : props;
+        this.ifNotExists = ifNotExists;
+        this.bindCount = bindCount;
+    }
+
+    @Override
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    public TableName getTableName() {
+        return tableName;
+    }
+
+    public SelectStatement getSelect() {
+        return select;
+    }
+
+    public ListMultimap<String,Pair<String,Object>> getProps() {
+        return props;
+    }
+
+    public boolean ifNotExists() {
+        return ifNotExists;
+    }
+}
@@ -21,9 +21,23 @@ import org.apache.phoenix.jdbc.PhoenixStatement.Operation;
 
 public class ExplainStatement implements BindableStatement {
     private final BindableStatement statement;
+    private final boolean isAnalyze;
     
     public ExplainStatement(BindableStatement statement) {
+        this(statement, false);
+    }
+
+    public ExplainStatement(BindableStatement statement, boolean isAnalyze) {
         this.statement = statement;
+        this.isAnalyze = isAnalyze;
+    }
+
+    /**
+     * @return true if the statement should be executed and the plan annotated with the actual
+     * row counts and timings, as opposed to only explaining the plan.
+     */
+    public boolean isAnalyze() {
+        return isAnalyze;
     }
 
     public BindableStatement getStatement() {
@@ -82,6 +82,11 @@ public class HintNode {
         * Use sort-merge join algorithm instead of broadcast join (hash join) algorithm.
         */
        USE_SORT_MERGE_JOIN,
+       /**
+        * Use client side grace hash join algorithm, which hash partitions both sides of the join
+        * and spills the partitions that don't fit in memory to disk, instead of broadcast join.
+        */
+       USE_GRACE_HASH_JOIN,
        /**
         * Avoid using star-join optimization. Used for broadcast join (hash join) only.
         */
@@ -104,6 +109,17 @@ public class HintNode {
       * Enforces a serial scan.
       */
      SERIAL,
+     /**
+      * Keeps the hash join caches of the query on the region servers after the query completes
+      * so that later executions of the same query reuse them instead of running the sub plans
+      * and sending their results again. Changes to the data of the joined tables are not seen
+      * until the cache expires.
+      */
+     USE_PERSISTENT_CACHE,
+     /**
+      * Prevents the usage of rollups, forcing the aggregation of the rows of the data table.
+      */
+     NO_ROLLUP,
     };
 
     private final Map<Hint,String> hints;
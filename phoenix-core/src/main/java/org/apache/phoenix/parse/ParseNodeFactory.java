@@ -208,6 +208,10 @@ public class ParseNodeFactory {
         return new ExplainStatement(statement);
     }
 
+    public ExplainStatement explain(BindableStatement statement, boolean isAnalyze) {
+        return new ExplainStatement(statement, isAnalyze);
+    }
+
     public AliasedNode aliasedNode(String alias, ParseNode expression) {
     	return new AliasedNode(alias, expression);
     }
@@ -319,6 +323,10 @@ public class ParseNodeFactory {
         return new CreateIndexStatement(indexName, dataTable, ikConstraint, includeColumns, splits, props, ifNotExists, indexType, async, bindCount, udfParseNodes);
     }
 
+    public CreateRollupStatement createRollup(TableName tableName, SelectStatement select, ListMultimap<String,Pair<String,Object>> props, boolean ifNotExists, int bindCount) {
+        return new CreateRollupStatement(tableName, select, props, ifNotExists, bindCount);
+    }
+
     public CreateSequenceStatement createSequence(TableName tableName, ParseNode startsWith,
             ParseNode incrementBy, ParseNode cacheSize, ParseNode minValue, ParseNode maxValue,
             boolean cycle, boolean ifNotExits, int bindCount) {
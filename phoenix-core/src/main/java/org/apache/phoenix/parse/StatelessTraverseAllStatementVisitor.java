@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.parse;
+
+import java.sql.SQLException;
+
+/**
+ * Visitor that traverses into all parse nodes of a statement, including those of its derived
+ * tables, subqueries and unions.
+ */
+public class StatelessTraverseAllStatementVisitor extends StatelessTraverseAllParseNodeVisitor
+        implements TableNodeVisitor<Void> {
+
+    public void traverse(FilterableStatement statement) throws SQLException {
+        if (statement instanceof SelectStatement) {
+            SelectStatement select = (SelectStatement) statement;
+            if (select.getFrom() != null) {
+                select.getFrom().accept(this);
+            }
+            for (AliasedNode node : select.getSelect()) {
+                node.getNode().accept(this);
+            }
+            for (ParseNode node : select.getGroupBy()) {
+                node.accept(this);
+            }
+            if (select.getHaving() != null) {
+                select.getHaving().accept(this);
+            }
+            for (SelectStatement union : select.getSelects()) {
+                traverse(union);
+            }
+        }
+        if (statement.getWhere() != null) {
+            statement.getWhere().accept(this);
+        }
+        for (OrderByNode node : statement.getOrderBy()) {
+            node.getNode().accept(this);
+        }
+        if (statement.getLimit() != null) {
+            statement.getLimit().getLimitParseNode().accept(this);
+        }
+        if (statement.getOffset() != null) {
+            statement.getOffset().getOffsetParseNode().accept(this);
+        }
+    }
+
+    @Override
+    public Void visit(SubqueryParseNode node) throws SQLException {
+        traverse(node.getSelectNode());
+        return null;
+    }
+
+    @Override
+    public Void visit(BindTableNode boundTableNode) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Void visit(JoinTableNode joinNode) throws SQLException {
+        joinNode.getLHS().accept(this);
+        joinNode.getRHS().accept(this);
+        if (joinNode.getOnNode() != null) {
+            joinNode.getOnNode().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(NamedTableNode namedTableNode) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Void visit(DerivedTableNode subselectNode) throws SQLException {
+        traverse(subselectNode.getSelect());
+        return null;
+    }
+}
@@ -36,20 +36,27 @@ import org.apache.phoenix.util.ReadOnlyProps;
  */
 public abstract class BaseQueryServicesImpl implements QueryServices {
     private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor asyncExecutor;
     private final MemoryManager memoryManager;
     private final ReadOnlyProps props;
     private final QueryOptimizer queryOptimizer;
     
     public BaseQueryServicesImpl(ReadOnlyProps defaultProps, QueryServicesOptions options) {
+        this.props = options.getProps(defaultProps);
         this.executor =  JobManager.createThreadPoolExec(
                 options.getKeepAliveMs(), 
                 options.getThreadPoolSize(), 
                 options.getQueueSize(),
-                options.isGlobalMetricsEnabled());
+                options.isGlobalMetricsEnabled(),
+                props);
+        this.asyncExecutor = JobManager.createThreadPoolExec(
+                options.getKeepAliveMs(),
+                options.getAsyncThreadPoolSize(),
+                options.getAsyncQueueSize(),
+                false);
         this.memoryManager = new GlobalMemoryManager(
                 Runtime.getRuntime().maxMemory() * options.getMaxMemoryPerc() / 100,
                 options.getMaxMemoryWaitMs());
-        this.props = options.getProps(defaultProps);
         this.queryOptimizer = new QueryOptimizer(this);
     }
     
@@ -58,6 +65,11 @@ public abstract class BaseQueryServicesImpl implements QueryServices {
         return executor;
     }
 
+    @Override
+    public ThreadPoolExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     @Override
     public MemoryManager getMemoryManager() {
         return memoryManager;
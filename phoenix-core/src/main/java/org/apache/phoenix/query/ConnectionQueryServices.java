@@ -36,11 +36,13 @@ import org.apache.phoenix.coprocessor.MetaDataProtocol.MetaDataMutationResult;
 import org.apache.phoenix.execute.MutationState;
 import org.apache.phoenix.hbase.index.util.KeyValueBuilder;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.join.PersistentHashCacheTracker;
 import org.apache.phoenix.parse.PFunction;
 import org.apache.phoenix.schema.PColumn;
 import org.apache.phoenix.schema.PName;
 import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.RollupDefinition;
 import org.apache.phoenix.schema.Sequence;
 import org.apache.phoenix.schema.SequenceAllocation;
 import org.apache.phoenix.schema.SequenceKey;
@@ -68,6 +70,13 @@ public interface ConnectionQueryServices extends QueryServices, MetaDataMutated
      */
     public HTableInterface getTable(byte[] tableName) throws SQLException;
 
+    /**
+     * Get an HTableInterface by the given name for hedged reads, whose timeline consistent
+     * operations wait for the hedged read delay before reading the region replicas. It is the
+     * callers responsibility to close the returned HTableInterface.
+     */
+    public HTableInterface getHedgedReadTable(byte[] tableName) throws SQLException;
+
     public HTableDescriptor getTableDescriptor(byte[] tableName) throws SQLException;
 
     public HRegionLocation getTableRegionLocation(byte[] tableName, byte[] row) throws SQLException;
@@ -76,6 +85,11 @@ public interface ConnectionQueryServices extends QueryServices, MetaDataMutated
     public PhoenixConnection connect(String url, Properties info) throws SQLException;
 
     public MetaDataMutationResult getTable(PName tenantId, byte[] schemaName, byte[] tableName, long tableTimestamp, long clientTimetamp) throws SQLException;
+    /**
+     * Gets several tables of the same tenant in a single round trip. The lists are parallel
+     * and the results come back in the same order.
+     */
+    public List<MetaDataMutationResult> getTables(PName tenantId, List<byte[]> schemaNames, List<byte[]> tableNames, List<Long> tableTimestamps, List<Long> clientTimestamps) throws SQLException;
     public MetaDataMutationResult getFunctions(PName tenantId, List<Pair<byte[], Long>> functionNameAndTimeStampPairs, long clientTimestamp) throws SQLException;
 
     public MetaDataMutationResult createTable(List<Mutation> tableMetaData, byte[] tableName, PTableType tableType,
@@ -113,7 +127,7 @@ public interface ConnectionQueryServices extends QueryServices, MetaDataMutated
      */
     public KeyValueBuilder getKeyValueBuilder();
     
-    public enum Feature {LOCAL_INDEX, RENEW_LEASE};
+    public enum Feature {LOCAL_INDEX, RENEW_LEASE, GET_TABLES};
     public boolean supportsFeature(Feature feature);
     
     public String getUserName();
@@ -126,6 +140,28 @@ public interface ConnectionQueryServices extends QueryServices, MetaDataMutated
      * @param tableName The table to remove stats for
      */
     void invalidateStats(GuidePostsKey key);
+
+    /**
+     * @return the cache of the results of queries over tables whose metadata is refreshed periodically
+     */
+    public QueryResultCache getQueryResultCache();
+
+    /**
+     * @return tracker of the hash join caches persisted on the region servers of this cluster
+     */
+    public PersistentHashCacheTracker getPersistentHashCacheTracker();
+
+    /**
+     * Registers a rollup in the descriptor of the HBase table it's defined over, or unregisters
+     * it if the definition is null.
+     */
+    public void setRollupDefinition(byte[] physicalTableName, String rollupName, String definition) throws SQLException;
+
+    /**
+     * @return the rollups registered in the descriptor of an HBase table, cached for
+     * {@link QueryServices#ROLLUP_DEFINITION_CACHE_TIME_MS_ATTRIB}
+     */
+    public List<RollupDefinition> getRollupDefinitions(byte[] physicalTableName) throws SQLException;
     
     
     public long clearCache() throws SQLException;
@@ -85,8 +85,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadLocalRandom;
@@ -94,6 +96,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.GuardedBy;
 
@@ -115,6 +118,7 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.coprocessor.Batch;
 import org.apache.hadoop.hbase.coprocessor.MultiRowMutationEndpoint;
+import org.apache.hadoop.hbase.exceptions.UnknownProtocolException;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.ipc.BlockingRpcCallback;
 import org.apache.hadoop.hbase.ipc.PhoenixRpcSchedulerFactory;
@@ -128,6 +132,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.util.VersionInfo;
 import org.apache.hadoop.hbase.zookeeper.ZKConfig;
+import org.apache.hadoop.ipc.RemoteException;
 import org.apache.phoenix.compile.MutationPlan;
 import org.apache.phoenix.coprocessor.GroupedAggregateRegionObserver;
 import org.apache.phoenix.coprocessor.MetaDataEndpointImpl;
@@ -136,6 +141,7 @@ import org.apache.phoenix.coprocessor.MetaDataProtocol.MetaDataMutationResult;
 import org.apache.phoenix.coprocessor.MetaDataProtocol.MutationCode;
 import org.apache.phoenix.coprocessor.MetaDataRegionObserver;
 import org.apache.phoenix.coprocessor.PhoenixTransactionalProcessor;
+import org.apache.phoenix.coprocessor.RollupRegionObserver;
 import org.apache.phoenix.coprocessor.ScanRegionObserver;
 import org.apache.phoenix.coprocessor.SequenceRegionObserver;
 import org.apache.phoenix.coprocessor.ServerCachingEndpointImpl;
@@ -156,6 +162,8 @@ import org.apache.phoenix.coprocessor.generated.MetaDataProtos.DropTableRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetFunctionsRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetSchemaRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTableRequest;
+import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesRequest;
+import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetTablesResponse;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionRequest;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.GetVersionResponse;
 import org.apache.phoenix.coprocessor.generated.MetaDataProtos.MetaDataResponse;
@@ -171,6 +179,7 @@ import org.apache.phoenix.execute.MutationState;
 import org.apache.phoenix.hbase.index.IndexRegionSplitPolicy;
 import org.apache.phoenix.hbase.index.Indexer;
 import org.apache.phoenix.hbase.index.covered.NonTxIndexBuilder;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.hbase.index.util.KeyValueBuilder;
 import org.apache.phoenix.hbase.index.util.VersionUtil;
 import org.apache.phoenix.index.PhoenixIndexBuilder;
@@ -181,6 +190,7 @@ import org.apache.phoenix.iterate.TableResultIterator.RenewLeaseStatus;
 import org.apache.phoenix.jdbc.PhoenixConnection;
 import org.apache.phoenix.jdbc.PhoenixDatabaseMetaData;
 import org.apache.phoenix.jdbc.PhoenixEmbeddedDriver.ConnectionInfo;
+import org.apache.phoenix.join.PersistentHashCacheTracker;
 import org.apache.phoenix.parse.PFunction;
 import org.apache.phoenix.parse.PSchema;
 import org.apache.phoenix.protobuf.ProtobufUtil;
@@ -204,6 +214,7 @@ import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTableKey;
 import org.apache.phoenix.schema.PTableType;
 import org.apache.phoenix.schema.ReadOnlyTableException;
+import org.apache.phoenix.schema.RollupDefinition;
 import org.apache.phoenix.schema.SaltingUtil;
 import org.apache.phoenix.schema.Sequence;
 import org.apache.phoenix.schema.SequenceAllocation;
@@ -250,6 +261,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -257,6 +271,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class ConnectionQueryServicesImpl extends DelegateQueryServices implements ConnectionQueryServices {
@@ -272,6 +288,11 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     private final String userName;
     private final ConcurrentHashMap<ImmutableBytesWritable,ConnectionQueryServices> childServices;
     private final GuidePostsCache tableStatsCache;
+    private final QueryResultCache queryResultCache;
+    private final PersistentHashCacheTracker persistentHashCacheTracker;
+    // Rollups of the tables that may answer queries, refreshed in the background
+    private final LoadingCache<ImmutableBytesPtr,List<RollupDefinition>> rollupDefinitionCache;
+    private final ExecutorService rollupDefinitionRefreshExecutor;
 
     // Cache the latest meta data here for future connections
     // writes guarded by "latestMetaDataLock"
@@ -286,8 +307,14 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     private int connectionCount = 0;
     private final Object connectionCountLock = new Object();
     private final boolean returnSequenceValues ;
+    private final boolean prefetchSequenceValues;
+    private final int sequencePrefetchWatermarkPercent;
+    private final long sequencePrefetchTargetIntervalMs;
+    private final long sequencePrefetchMaxAllocationMultiplier;
 
     private HConnection connection;
+    // Connection of the hedged reads, created on the first one, whose replica call timeouts are the hedged read delay
+    private volatile HConnection hedgedReadConnection;
     private ZKClientService txZKClientService;
     private volatile boolean initialized;
     private volatile int nSequenceSaltBuckets;
@@ -298,6 +325,10 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     private volatile SQLException initializationException;
     // setting this member variable guarded by "connectionCountLock"
     private volatile ConcurrentMap<SequenceKey,Sequence> sequenceMap = Maps.newConcurrentMap();
+    // Region boundaries of each physical table, replaced when the region cache of the table is cleared
+    private final ConcurrentMap<ImmutableBytesPtr,TableRegionBoundaries> tableRegionBoundaries = Maps.newConcurrentMap();
+    // Incremented for a physical table each time its region cache is cleared
+    private final ConcurrentMap<ImmutableBytesPtr,AtomicLong> tableRegionGenerations = Maps.newConcurrentMap();
     private KeyValueBuilder kvBuilder;
 
     private final int renewLeaseTaskFrequency;
@@ -320,6 +351,9 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     public static final byte[] UPGRADE_MUTEX_LOCKED = "UPGRADE_MUTEX_LOCKED".getBytes();
     public static final byte[] UPGRADE_MUTEX_UNLOCKED = "UPGRADE_MUTEX_UNLOCKED".getBytes();
 
+    // Cleared the first time a server turns out not to have the batched getTables call
+    private volatile boolean getTablesSupported = true;
+
     private static interface FeatureSupported {
         boolean isSupported(ConnectionQueryServices services);
     }
@@ -338,6 +372,12 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                     int hbaseVersion = services.getLowestClusterHBaseVersion();
                     return hbaseVersion >= PhoenixDatabaseMetaData.MIN_RENEW_LEASE_VERSION;
                 }
+            },
+            Feature.GET_TABLES, new FeatureSupported() {
+                @Override
+                public boolean isSupported(ConnectionQueryServices services) {
+                    return getTablesSupported;
+                }
             });
     
     private PMetaData newEmptyMetaData() {
@@ -383,6 +423,10 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         String hbaseVersion = VersionInfo.getVersion();
         this.kvBuilder = KeyValueBuilder.get(hbaseVersion);
         this.returnSequenceValues = props.getBoolean(QueryServices.RETURN_SEQUENCE_VALUES_ATTRIB, QueryServicesOptions.DEFAULT_RETURN_SEQUENCE_VALUES);
+        this.prefetchSequenceValues = props.getBoolean(QueryServices.SEQUENCE_PREFETCH_ENABLED_ATTRIB, QueryServicesOptions.DEFAULT_SEQUENCE_PREFETCH_ENABLED);
+        this.sequencePrefetchWatermarkPercent = props.getInt(QueryServices.SEQUENCE_PREFETCH_WATERMARK_PERCENT_ATTRIB, QueryServicesOptions.DEFAULT_SEQUENCE_PREFETCH_WATERMARK_PERCENT);
+        this.sequencePrefetchTargetIntervalMs = props.getLong(QueryServices.SEQUENCE_PREFETCH_TARGET_INTERVAL_MS_ATTRIB, QueryServicesOptions.DEFAULT_SEQUENCE_PREFETCH_TARGET_INTERVAL_MS);
+        this.sequencePrefetchMaxAllocationMultiplier = props.getLong(QueryServices.SEQUENCE_PREFETCH_MAX_ALLOCATION_MULTIPLIER_ATTRIB, QueryServicesOptions.DEFAULT_SEQUENCE_PREFETCH_MAX_ALLOCATION_MULTIPLIER);
         this.renewLeaseEnabled = config.getBoolean(RENEW_LEASE_ENABLED, DEFAULT_RENEW_LEASE_ENABLED);
         this.renewLeasePoolSize = config.getInt(RENEW_LEASE_THREAD_POOL_SIZE, DEFAULT_RENEW_LEASE_THREAD_POOL_SIZE);
         this.renewLeaseThreshold = config.getInt(RENEW_LEASE_THRESHOLD_MILLISECONDS, DEFAULT_RENEW_LEASE_THRESHOLD_MILLISECONDS);
@@ -395,6 +439,40 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         connectionQueues = ImmutableList.copyOf(list);
         // A little bit of a smell to leak `this` here, but should not be a problem
         this.tableStatsCache = new GuidePostsCache(this, config);
+        this.queryResultCache = new QueryResultCache(config);
+        this.persistentHashCacheTracker = new PersistentHashCacheTracker(config.getInt(
+                QueryServices.MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS_ATTRIB,
+                QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS));
+        this.rollupDefinitionRefreshExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("PHOENIX-ROLLUP-DEFINITION-REFRESH-%d").setDaemon(true).build());
+        final boolean useRollups = config.getBoolean(QueryServices.USE_ROLLUPS_ATTRIB, QueryServicesOptions.DEFAULT_USE_ROLLUPS);
+        this.rollupDefinitionCache = CacheBuilder.newBuilder()
+                .refreshAfterWrite(config.getLong(QueryServices.ROLLUP_DEFINITION_CACHE_TIME_MS_ATTRIB,
+                        QueryServicesOptions.DEFAULT_ROLLUP_DEFINITION_CACHE_TIME_MS), TimeUnit.MILLISECONDS)
+                .build(new CacheLoader<ImmutableBytesPtr,List<RollupDefinition>>() {
+                    @Override
+                    public List<RollupDefinition> load(ImmutableBytesPtr physicalTableName) throws Exception {
+                        HTableDescriptor descriptor = getTableDescriptor(physicalTableName.copyBytesIfNecessary());
+                        return RollupDefinition.isEnabled(descriptor, useRollups)
+                                ? RollupDefinition.fromDescriptor(descriptor)
+                                : Collections.<RollupDefinition>emptyList();
+                    }
+
+                    // Queries keep using the cached rollups while they're read again
+                    @Override
+                    public ListenableFuture<List<RollupDefinition>> reload(final ImmutableBytesPtr physicalTableName,
+                            List<RollupDefinition> oldValue) {
+                        ListenableFutureTask<List<RollupDefinition>> task = ListenableFutureTask.create(
+                                new Callable<List<RollupDefinition>>() {
+                                    @Override
+                                    public List<RollupDefinition> call() throws Exception {
+                                        return load(physicalTableName);
+                                    }
+                                });
+                        rollupDefinitionRefreshExecutor.execute(task);
+                        return task;
+                    }
+                });
         this.isAutoUpgradeEnabled = config.getBoolean(AUTO_UPGRADE_ENABLED, QueryServicesOptions.DEFAULT_AUTO_UPGRADE_ENABLED);
         this.maxConnectionsAllowed = config.getInt(QueryServices.CLIENT_CONNECTION_MAX_ALLOWED_CONNECTIONS,
             QueryServicesOptions.DEFAULT_CLIENT_CONNECTION_MAX_ALLOWED_CONNECTIONS);
@@ -439,6 +517,36 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         }
     }
 
+    @Override
+    public HTableInterface getHedgedReadTable(byte[] tableName) throws SQLException {
+        HConnection hedgedConnection = hedgedReadConnection;
+        if (hedgedConnection == null) {
+            synchronized (this) {
+                hedgedConnection = hedgedReadConnection;
+                if (hedgedConnection == null) {
+                    // The replica call timeouts are read from the configuration of the HConnection,
+                    // so the hedged reads get their own instead of changing those of every read
+                    Configuration hedgedReadConfig = new Configuration(this.config);
+                    ConfigUtil.setHedgedReadConfig(hedgedReadConfig);
+                    try {
+                        hedgedConnection = HBaseFactoryProvider.getHConnectionFactory().createConnection(hedgedReadConfig);
+                    } catch (IOException e) {
+                        throw ServerUtil.parseServerException(e);
+                    }
+                    GLOBAL_HCONNECTIONS_COUNTER.increment();
+                    hedgedReadConnection = hedgedConnection;
+                }
+            }
+        }
+        try {
+            return HBaseFactoryProvider.getHTableFactory().getTable(tableName, hedgedConnection, null);
+        } catch (org.apache.hadoop.hbase.TableNotFoundException e) {
+            throw new TableNotFoundException(SchemaUtil.getSchemaNameFromFullName(tableName), SchemaUtil.getTableNameFromFullName(tableName));
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
     @Override
     public HTableDescriptor getTableDescriptor(byte[] tableName) throws SQLException {
         HTableInterface htable = getTable(tableName);
@@ -497,10 +605,15 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                         // close the HBase connection
                         if (connection != null) connection.close();
                         GLOBAL_HCONNECTIONS_COUNTER.decrement();
+                        if (hedgedReadConnection != null) {
+                            hedgedReadConnection.close();
+                            GLOBAL_HCONNECTIONS_COUNTER.decrement();
+                        }
                     } finally {
                         if (renewLeaseExecutor != null) {
                             renewLeaseExecutor.shutdownNow();
                         }
+                        rollupDefinitionRefreshExecutor.shutdownNow();
                         // shut down the tx client service if we created one to support transactions
                         if (this.txZKClientService != null) this.txZKClientService.stopAndWait();
                     }
@@ -551,11 +664,53 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
 
     @Override
     public void clearTableRegionCache(byte[] tableName) throws SQLException {
+        ImmutableBytesPtr key = new ImmutableBytesPtr(tableName);
+        // Make region boundaries being loaded concurrently stale before removing the current ones
+        getTableRegionGeneration(key).incrementAndGet();
+        tableRegionBoundaries.remove(key);
         connection.clearRegionCache(TableName.valueOf(tableName));
     }
 
+    /**
+     * Returns an immutable snapshot of the region locations of the table. The snapshot is cached
+     * until {@link #clearTableRegionCache(byte[])} is called for the table, which happens when a
+     * scan detects that the region boundaries it was based on are stale or that a hash cache wasn't
+     * found on the server of a region. The snapshot doesn't follow regions moving to other servers,
+     * so callers needing the current server of a region get it with
+     * {@link #getTableRegionLocation(byte[], byte[])}.
+     */
     @Override
     public List<HRegionLocation> getAllTableRegions(byte[] tableName) throws SQLException {
+        ImmutableBytesPtr key = new ImmutableBytesPtr(tableName);
+        TableRegionBoundaries regions = tableRegionBoundaries.get(key);
+        if (regions == null) {
+            AtomicLong generation = getTableRegionGeneration(key);
+            long loadedGeneration = generation.get();
+            regions = TableRegionBoundaries.of(loadTableRegions(tableName));
+            TableRegionBoundaries existingRegions = tableRegionBoundaries.putIfAbsent(key, regions);
+            if (existingRegions != null) {
+                regions = existingRegions;
+            } else if (generation.get() != loadedGeneration) {
+                // The region cache was cleared while loading, so don't keep what may be stale
+                tableRegionBoundaries.remove(key, regions);
+            }
+        }
+        return regions.getRegionLocations();
+    }
+
+    private AtomicLong getTableRegionGeneration(ImmutableBytesPtr key) {
+        AtomicLong generation = tableRegionGenerations.get(key);
+        if (generation == null) {
+            generation = new AtomicLong();
+            AtomicLong existingGeneration = tableRegionGenerations.putIfAbsent(key, generation);
+            if (existingGeneration != null) {
+                generation = existingGeneration;
+            }
+        }
+        return generation;
+    }
+
+    private List<HRegionLocation> loadTableRegions(byte[] tableName) throws SQLException {
         /*
          * Use HConnection.getRegionLocation as it uses the cache in HConnection, while getting
          * all region locations from the HTable doesn't.
@@ -605,6 +760,8 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
             latestMetaData.addTable(table, resolvedTime);
             latestMetaDataLock.notifyAll();
         }
+        // Cached results of the table are unreachable once its timestamp changed
+        queryResultCache.invalidate(table.getName().getString());
     }
     @Override
     public void updateResolvedTimestamp(PTable table, long resolvedTime) throws SQLException {
@@ -678,6 +835,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
             latestMetaData.removeTable(tenantId, tableName, parentTableName, tableTimeStamp);
             latestMetaDataLock.notifyAll();
         }
+        queryResultCache.invalidate(tableName);
     }
 
     @Override
@@ -692,6 +850,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                 }
             }
         });
+        queryResultCache.invalidate(tableName);
     }
 
 
@@ -1067,6 +1226,8 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                     } else {
                         admin.createTable(newDesc, splits);
                     }
+                    // Don't use region boundaries of a table with the same name that was dropped
+                    tableRegionBoundaries.remove(new ImmutableBytesPtr(physicalTableName));
                 } catch (TableExistsException e) {
                     // We can ignore this, as it just means that another client beat us
                     // to creating the HBase metadata.
@@ -1154,6 +1315,9 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                     pollForUpdatedTableDescriptor(admin, newDesc, tableName);
                 }
             }
+        } finally {
+            // The rollups of the table, or whether it uses them, may have changed
+            rollupDefinitionCache.invalidate(new ImmutableBytesPtr(tableName));
         }
     }
 
@@ -1500,6 +1664,84 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         });
     }
 
+    @Override
+    public List<MetaDataMutationResult> getTables(final PName tenantId, final List<byte[]> schemaNames,
+            final List<byte[]> tableNames, final List<Long> tableTimestamps, final List<Long> clientTimestamps)
+            throws SQLException {
+        final byte[] tenantIdBytes = tenantId == null ? ByteUtil.EMPTY_BYTE_ARRAY : tenantId.getBytes();
+        // Send all the tables to the region holding the first one. Those living in another region
+        // come back as TABLE_NOT_IN_REGION and are left for the caller to get one at a time.
+        byte[] tableKey = SchemaUtil.getTableKey(tenantIdBytes, schemaNames.get(0), tableNames.get(0));
+        try {
+            HTableInterface ht = this.getTable(SchemaUtil.getPhysicalName(
+                    PhoenixDatabaseMetaData.SYSTEM_CATALOG_NAME_BYTES, this.getProps()).getName());
+            try {
+                final Map<byte[], GetTablesResponse> results =
+                        ht.coprocessorService(MetaDataService.class, tableKey, tableKey,
+                        new Batch.Call<MetaDataService, GetTablesResponse>() {
+                    @Override
+                    public GetTablesResponse call(MetaDataService instance) throws IOException {
+                        ServerRpcController controller = new ServerRpcController();
+                        BlockingRpcCallback<GetTablesResponse> rpcCallback =
+                                new BlockingRpcCallback<GetTablesResponse>();
+                        int clientVersion = VersionUtil.encodeVersion(PHOENIX_MAJOR_VERSION, PHOENIX_MINOR_VERSION, PHOENIX_PATCH_NUMBER);
+                        GetTablesRequest.Builder builder = GetTablesRequest.newBuilder();
+                        for (int i = 0; i < tableNames.size(); i++) {
+                            GetTableRequest.Builder tableBuilder = GetTableRequest.newBuilder();
+                            tableBuilder.setTenantId(ByteStringer.wrap(tenantIdBytes));
+                            tableBuilder.setSchemaName(ByteStringer.wrap(schemaNames.get(i)));
+                            tableBuilder.setTableName(ByteStringer.wrap(tableNames.get(i)));
+                            tableBuilder.setTableTimestamp(tableTimestamps.get(i));
+                            tableBuilder.setClientTimestamp(clientTimestamps.get(i));
+                            tableBuilder.setClientVersion(clientVersion);
+                            builder.addTables(tableBuilder);
+                        }
+                        builder.setClientVersion(clientVersion);
+                        instance.getTables(controller, builder.build(), rpcCallback);
+                        if(controller.getFailedOn() != null) {
+                            throw controller.getFailedOn();
+                        }
+                        return rpcCallback.get();
+                    }
+                });
+                assert(results.size() == 1);
+                GetTablesResponse response = results.values().iterator().next();
+                List<MetaDataMutationResult> tableResults = Lists.newArrayListWithExpectedSize(response.getTablesCount());
+                for (MetaDataResponse tableResponse : response.getTablesList()) {
+                    tableResults.add(MetaDataMutationResult.constructFromProto(tableResponse));
+                }
+                return tableResults;
+            } finally {
+                Closeables.closeQuietly(ht);
+            }
+        } catch (IOException e) {
+            if (isUnknownProtocolException(e)) {
+                getTablesSupported = false;
+            }
+            throw ServerUtil.parseServerException(e);
+        } catch (Throwable t) {
+            if (isUnknownProtocolException(t)) {
+                getTablesSupported = false;
+            }
+            throw new SQLException(t);
+        }
+    }
+
+    /**
+     * @return true if the exception was caused by the server not knowing the coprocessor
+     * method called, as happens when it runs an older version than the client
+     */
+    private static boolean isUnknownProtocolException(Throwable t) {
+        while (t != null) {
+            if (t instanceof UnknownProtocolException || (t instanceof RemoteException
+                    && UnknownProtocolException.class.getName().equals(((RemoteException)t).getClassName()))) {
+                return true;
+            }
+            t = t.getCause();
+        }
+        return false;
+    }
+
     @Override
     public MetaDataMutationResult dropTable(final List<Mutation> tableMetaData, final PTableType tableType,
             final boolean cascade) throws SQLException {
@@ -3388,6 +3630,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                     .getPhysicalName(PhoenixDatabaseMetaData.SYSTEM_CATALOG_NAME_BYTES, this.getProps()).getName());
             try {
                 tableStatsCache.invalidateAll();
+                queryResultCache.invalidateAll();
                 final Map<byte[], Long> results =
                         htable.coprocessorService(MetaDataService.class, HConstants.EMPTY_START_ROW,
                                 HConstants.EMPTY_END_ROW, new Batch.Call<MetaDataService, Long>() {
@@ -3627,6 +3870,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                 }
             }
             if (toIncrementList.isEmpty()) {
+                prefetchSequenceValues(sequences, timestamp, op);
                 return;
             }
             HTableInterface hTable = this.getTable(SchemaUtil.getPhysicalName(PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_NAME_BYTES,this.getProps()).getName());
@@ -3665,6 +3909,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
                     exceptions[indexes[i]] = e;
                 }
             }
+            prefetchSequenceValues(sequences, timestamp, op);
         } finally {
             for (Sequence sequence : sequences) {
                 sequence.getLock().unlock();
@@ -3672,6 +3917,73 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         }
     }
 
+    /**
+     * Allocates a new range of values in the background for any of the sequences whose
+     * remaining cached values fell below the prefetch watermark, so that callers don't
+     * need to wait on the SYSTEM.SEQUENCE table once the cached values are exhausted.
+     * Must be called while holding the locks of all the sequences.
+     */
+    private void prefetchSequenceValues(List<Sequence> sequences, long timestamp, Sequence.ValueOp op) {
+        if (!prefetchSequenceValues || op != Sequence.ValueOp.INCREMENT_SEQUENCE
+                || timestamp != HConstants.LATEST_TIMESTAMP) {
+            return;
+        }
+        final List<Sequence> toPrefetchList = Lists.newArrayListWithExpectedSize(sequences.size());
+        final List<Increment> incrementBatch = Lists.newArrayListWithExpectedSize(sequences.size());
+        final long[] numToAllocate = new long[sequences.size()];
+        for (Sequence sequence : sequences) {
+            if (sequence.startPrefetch(sequencePrefetchWatermarkPercent, sequencePrefetchTargetIntervalMs,
+                    sequencePrefetchMaxAllocationMultiplier)) {
+                numToAllocate[toPrefetchList.size()] = sequence.getPrefetchAllocation();
+                incrementBatch.add(sequence.newIncrement(HConstants.LATEST_TIMESTAMP,
+                        Sequence.ValueOp.INCREMENT_SEQUENCE, numToAllocate[toPrefetchList.size()]));
+                toPrefetchList.add(sequence);
+            }
+        }
+        if (toPrefetchList.isEmpty()) {
+            return;
+        }
+        try {
+            getExecutor().submit(new Runnable() {
+                @SuppressWarnings("deprecation")
+                @Override
+                public void run() {
+                    Object[] resultObjects = null;
+                    try {
+                        HTableInterface hTable = getTable(SchemaUtil.getPhysicalName(
+                                PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_NAME_BYTES, getProps()).getName());
+                        try {
+                            resultObjects = hTable.batch(incrementBatch);
+                        } finally {
+                            hTable.close();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        logger.warn("Unable to prefetch sequence values", e);
+                    }
+                    for (int i = 0; i < toPrefetchList.size(); i++) {
+                        Sequence sequence = toPrefetchList.get(i);
+                        sequence.getLock().lock();
+                        try {
+                            if (resultObjects != null && resultObjects[i] instanceof Result) {
+                                sequence.setPrefetchedValue((Result)resultObjects[i], numToAllocate[i]);
+                            } else {
+                                sequence.prefetchFailed();
+                            }
+                        } finally {
+                            sequence.getLock().unlock();
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            for (Sequence sequence : toPrefetchList) {
+                sequence.prefetchFailed();
+            }
+        }
+    }
+
     @Override
     public void clearTableFromCache(final byte[] tenantId, final byte[] schemaName, final byte[] tableName,
             final long clientTS) throws SQLException {
@@ -4315,6 +4627,60 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     @Override
     public void invalidateStats(GuidePostsKey key) {
         this.tableStatsCache.invalidate(Objects.requireNonNull(key));
+        this.queryResultCache.invalidate(Bytes.toString(key.getPhysicalName()));
+    }
+
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    @Override
+    public PersistentHashCacheTracker getPersistentHashCacheTracker() {
+        return persistentHashCacheTracker;
+    }
+
+    @Override
+    public void setRollupDefinition(byte[] physicalTableName, String rollupName, String definition) throws SQLException {
+        // The descriptor of a table is unmodifiable
+        HTableDescriptor descriptor = new HTableDescriptor(getTableDescriptor(physicalTableName));
+        String key = RollupDefinition.DESCRIPTOR_KEY_PREFIX + rollupName;
+        if (definition == null) {
+            if (descriptor.getValue(key) == null) {
+                return;
+            }
+            descriptor.remove(key);
+        } else {
+            descriptor.setValue(key, definition);
+            if (!descriptor.hasCoprocessor(RollupRegionObserver.class.getName())) {
+                int priority = props.getInt(QueryServices.COPROCESSOR_PRIORITY_ATTRIB, QueryServicesOptions.DEFAULT_COPROCESSOR_PRIORITY);
+                try {
+                    descriptor.addCoprocessor(RollupRegionObserver.class.getName(), null, priority, null);
+                } catch (IOException e) {
+                    throw ServerUtil.parseServerException(e);
+                }
+            }
+        }
+        try {
+            modifyTable(physicalTableName, descriptor, true);
+        } catch (IOException | TimeoutException e) {
+            throw ServerUtil.parseServerException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLExceptionInfo.Builder(SQLExceptionCode.INTERRUPTED_EXCEPTION).setRootCause(e).build().buildException();
+        }
+    }
+
+    @Override
+    public List<RollupDefinition> getRollupDefinitions(byte[] physicalTableName) throws SQLException {
+        try {
+            return rollupDefinitionCache.get(new ImmutableBytesPtr(physicalTableName));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException)e.getCause();
+            }
+            throw ServerUtil.parseServerException(e.getCause());
+        }
     }
 
     @Override
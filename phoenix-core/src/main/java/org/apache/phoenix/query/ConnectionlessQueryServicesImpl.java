@@ -55,6 +55,7 @@ import org.apache.phoenix.hbase.index.util.KeyValueBuilder;
 import org.apache.phoenix.jdbc.PhoenixConnection;
 import org.apache.phoenix.jdbc.PhoenixDatabaseMetaData;
 import org.apache.phoenix.jdbc.PhoenixEmbeddedDriver.ConnectionInfo;
+import org.apache.phoenix.join.PersistentHashCacheTracker;
 import org.apache.phoenix.parse.PFunction;
 import org.apache.phoenix.parse.PSchema;
 import org.apache.phoenix.schema.FunctionNotFoundException;
@@ -69,6 +70,7 @@ import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTableImpl;
 import org.apache.phoenix.schema.PTableKey;
 import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.RollupDefinition;
 import org.apache.phoenix.schema.SchemaNotFoundException;
 import org.apache.phoenix.schema.Sequence;
 import org.apache.phoenix.schema.SequenceAllocation;
@@ -110,6 +112,8 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
     private volatile SQLException initializationException;
     private final Map<String, List<HRegionLocation>> tableSplits = Maps.newHashMap();
     private final GuidePostsCache guidePostsCache;
+    private final QueryResultCache queryResultCache;
+    private final PersistentHashCacheTracker persistentHashCacheTracker;
     private final Configuration config;
     
     public ConnectionlessQueryServicesImpl(QueryServices services, ConnectionInfo connInfo, Properties info) {
@@ -137,6 +141,10 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
         this.config = HBaseFactoryProvider.getConfigurationFactory().getConfiguration(config);
         TransactionFactory.getTransactionFactory().getTransactionContext().setInMemoryTransactionClient(config);
         this.guidePostsCache = new GuidePostsCache(this, config);
+        this.queryResultCache = new QueryResultCache(config);
+        this.persistentHashCacheTracker = new PersistentHashCacheTracker(config.getInt(
+                QueryServices.MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS_ATTRIB,
+                QueryServicesOptions.DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS));
     }
 
     private PMetaData newEmptyMetaData() {
@@ -153,6 +161,11 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public HTableInterface getHedgedReadTable(byte[] tableName) throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public List<HRegionLocation> getAllTableRegions(byte[] tableName) throws SQLException {
         List<HRegionLocation> regions = tableSplits.get(Bytes.toString(tableName));
@@ -205,6 +218,15 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
         }
     }
 
+    @Override
+    public List<MetaDataMutationResult> getTables(PName tenantId, List<byte[]> schemaNames, List<byte[]> tableNames, List<Long> tableTimestamps, List<Long> clientTimestamps) throws SQLException {
+        List<MetaDataMutationResult> results = Lists.newArrayListWithExpectedSize(tableNames.size());
+        for (int i = 0; i < tableNames.size(); i++) {
+            results.add(getTable(tenantId, schemaNames.get(i), tableNames.get(i), tableTimestamps.get(i), clientTimestamps.get(i)));
+        }
+        return results;
+    }
+
     private static byte[] getTableName(List<Mutation> tableMetaData, byte[] physicalTableName) {
         if (physicalTableName != null) {
             return physicalTableName;
@@ -638,6 +660,25 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
         this.guidePostsCache.invalidate(Objects.requireNonNull(key));
     }
 
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    @Override
+    public PersistentHashCacheTracker getPersistentHashCacheTracker() {
+        return persistentHashCacheTracker;
+    }
+
+    @Override
+    public void setRollupDefinition(byte[] physicalTableName, String rollupName, String definition) throws SQLException {
+    }
+
+    @Override
+    public List<RollupDefinition> getRollupDefinitions(byte[] physicalTableName) throws SQLException {
+        return Collections.emptyList();
+    }
+
     @Override
     public void upgradeSystemTables(String url, Properties props) throws SQLException {}
 
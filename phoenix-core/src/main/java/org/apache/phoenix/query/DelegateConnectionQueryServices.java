@@ -36,12 +36,14 @@ import org.apache.phoenix.coprocessor.MetaDataProtocol.MetaDataMutationResult;
 import org.apache.phoenix.execute.MutationState;
 import org.apache.phoenix.hbase.index.util.KeyValueBuilder;
 import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.join.PersistentHashCacheTracker;
 import org.apache.phoenix.parse.PFunction;
 import org.apache.phoenix.parse.PSchema;
 import org.apache.phoenix.schema.PColumn;
 import org.apache.phoenix.schema.PName;
 import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.RollupDefinition;
 import org.apache.phoenix.schema.Sequence;
 import org.apache.phoenix.schema.SequenceAllocation;
 import org.apache.phoenix.schema.SequenceKey;
@@ -70,6 +72,11 @@ public class DelegateConnectionQueryServices extends DelegateQueryServices imple
         return getDelegate().getTable(tableName);
     }
 
+    @Override
+    public HTableInterface getHedgedReadTable(byte[] tableName) throws SQLException {
+        return getDelegate().getHedgedReadTable(tableName);
+    }
+
     @Override
     public List<HRegionLocation> getAllTableRegions(byte[] tableName) throws SQLException {
         return getDelegate().getAllTableRegions(tableName);
@@ -107,6 +114,11 @@ public class DelegateConnectionQueryServices extends DelegateQueryServices imple
         return getDelegate().getTable(tenantId, schemaBytes, tableBytes, tableTimestamp, clientTimestamp);
     }
 
+    @Override
+    public List<MetaDataMutationResult> getTables(PName tenantId, List<byte[]> schemaNames, List<byte[]> tableNames, List<Long> tableTimestamps, List<Long> clientTimestamps) throws SQLException {
+        return getDelegate().getTables(tenantId, schemaNames, tableNames, tableTimestamps, clientTimestamps);
+    }
+
     @Override
     public MetaDataMutationResult createTable(List<Mutation> tableMetaData, byte[] physicalName, PTableType tableType,
             Map<String, Object> tableProps, List<Pair<byte[], Map<String, Object>>> families, byte[][] splits,
@@ -331,6 +343,27 @@ public class DelegateConnectionQueryServices extends DelegateQueryServices imple
         getDelegate().invalidateStats(key);
     }
 
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return getDelegate().getQueryResultCache();
+    }
+
+    @Override
+    public PersistentHashCacheTracker getPersistentHashCacheTracker() {
+        return getDelegate().getPersistentHashCacheTracker();
+    }
+
+    @Override
+    public void setRollupDefinition(byte[] physicalTableName, String rollupName, String definition)
+            throws SQLException {
+        getDelegate().setRollupDefinition(physicalTableName, rollupName, definition);
+    }
+
+    @Override
+    public List<RollupDefinition> getRollupDefinitions(byte[] physicalTableName) throws SQLException {
+        return getDelegate().getRollupDefinitions(physicalTableName);
+    }
+
     @Override
     public void upgradeSystemTables(String url, Properties props) throws SQLException {
         getDelegate().upgradeSystemTables(url, props);
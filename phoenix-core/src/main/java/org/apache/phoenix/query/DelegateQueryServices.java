@@ -50,6 +50,11 @@ public class DelegateQueryServices implements QueryServices {
         return parent.getExecutor();
     }
 
+    @Override
+    public ThreadPoolExecutor getAsyncExecutor() {
+        return parent.getAsyncExecutor();
+    }
+
     @Override
     public MemoryManager getMemoryManager() {
         return parent.getMemoryManager();
@@ -0,0 +1,465 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.query;
+
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_RESULT_CACHE_HIT_COUNTER;
+import static org.apache.phoenix.monitoring.GlobalClientMetrics.GLOBAL_RESULT_CACHE_MISS_COUNTER;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.phoenix.compile.QueryPlan;
+import org.apache.phoenix.compile.RowProjector;
+import org.apache.phoenix.compile.StatementContext;
+import org.apache.phoenix.execute.UnionPlan;
+import org.apache.phoenix.expression.Determinism;
+import org.apache.phoenix.expression.OrderByExpression;
+import org.apache.phoenix.expression.aggregator.Aggregator;
+import org.apache.phoenix.expression.aggregator.Aggregators;
+import org.apache.phoenix.expression.function.RandomFunction;
+import org.apache.phoenix.iterate.DelegateResultIterator;
+import org.apache.phoenix.iterate.ResultIterator;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.parse.CurrentDateParseNode;
+import org.apache.phoenix.parse.CurrentTimeParseNode;
+import org.apache.phoenix.parse.FunctionParseNode;
+import org.apache.phoenix.parse.StatelessTraverseAllStatementVisitor;
+import org.apache.phoenix.parse.TableName;
+import org.apache.phoenix.parse.UDFParseNode;
+import org.apache.phoenix.schema.PTable;
+import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.RollupDefinition;
+import org.apache.phoenix.schema.TableRef;
+import org.apache.phoenix.schema.tuple.ResultTuple;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.util.ByteUtil;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+import org.apache.phoenix.util.ResultUtil;
+import org.apache.phoenix.util.SchemaUtil;
+import org.apache.phoenix.util.ServerUtil;
+import org.apache.phoenix.util.TrustedByteArrayOutputStream;
+import org.apache.phoenix.util.TupleUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * "Client-side" cache of the results of queries over tables and views with an UPDATE_CACHE_FREQUENCY,
+ * whose data is considered static until their metadata is refreshed. The results are cached as the
+ * serialized rows of the {@link ResultIterator} of the query, and are replayed instead of executing the
+ * query again for as long as the most frequently refreshed of its tables isn't due for a refresh.
+ * <p>
+ * The key of the results is made of the normalized SQL of the query, its bind values, the tenant of the
+ * connection and the timestamps of all its tables, so that a change in the metadata of a table makes its
+ * cached results unreachable. The results of a table are also invalidated when its statistics are
+ * invalidated, and when rows are written to it through this client. Each invalidation of a table bumps
+ * the generation of the slot its name hashes to, so that the results of a query running across it are
+ * not cached.
+ */
+public class QueryResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+    private static final int GENERATION_SLOTS = 1024;
+
+    private final boolean isEnabled;
+    private final long maxEntrySizeBytes;
+    private final Cache<Key, Entry> cache;
+    // Number of times the results of the logical or physical table names hashing to each slot were invalidated
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    public QueryResultCache(Configuration config) {
+        this.isEnabled = config.getBoolean(QueryServices.QUERY_RESULT_CACHE_ENABLED_ATTRIB,
+                QueryServicesOptions.DEFAULT_QUERY_RESULT_CACHE_ENABLED);
+        this.maxEntrySizeBytes = config.getLong(QueryServices.QUERY_RESULT_CACHE_MAX_ENTRY_SIZE_BYTES_ATTRIB,
+                QueryServicesOptions.DEFAULT_QUERY_RESULT_CACHE_MAX_ENTRY_SIZE_BYTES);
+        final long maxSizeBytes = config.getLong(QueryServices.QUERY_RESULT_CACHE_MAX_SIZE_BYTES_ATTRIB,
+                QueryServicesOptions.DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE_BYTES);
+        this.cache = CacheBuilder.newBuilder()
+                // Maximum total weight (size in bytes) of the cached rows
+                .maximumWeight(maxSizeBytes)
+                .weigher(new Weigher<Key, Entry>() {
+                    @Override public int weigh(Key key, Entry entry) {
+                        return entry.rows.length + key.sql.length();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Key of the results of a query. Only the normalized SQL, the binds, the tenant and the timestamps of
+     * the tables take part in its equality.
+     */
+    public static final class Key {
+        private final String sql;
+        private final List<String> binds;
+        private final String tenantId;
+        private final List<String> tableVersions;
+        // Logical and physical names of the tables of the query
+        private final Set<String> tableNames;
+        // Time the results may be reused for, the smallest UPDATE_CACHE_FREQUENCY of the tables
+        private final long timeToLiveMs;
+
+        private Key(String sql, List<String> binds, String tenantId, List<String> tableVersions,
+                Set<String> tableNames, long timeToLiveMs) {
+            this.sql = sql;
+            this.binds = binds;
+            this.tenantId = tenantId;
+            this.tableVersions = tableVersions;
+            this.tableNames = tableNames;
+            this.timeToLiveMs = timeToLiveMs;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = sql.hashCode();
+            result = prime * result + binds.hashCode();
+            result = prime * result + (tenantId == null ? 0 : tenantId.hashCode());
+            result = prime * result + tableVersions.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key other = (Key)obj;
+            return sql.equals(other.sql) && binds.equals(other.binds)
+                    && (tenantId == null ? other.tenantId == null : tenantId.equals(other.tenantId))
+                    && tableVersions.equals(other.tableVersions);
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + binds + " " + tableVersions;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] rows;
+        private final long expirationTime;
+
+        private Entry(byte[] rows, long expirationTime) {
+            this.rows = rows;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @param sql normalized SQL of the query
+     * @param binds values bound to the parameters of the query
+     * @return the key of the results of the query, or null if its results may not be cached, such as when
+     * one of its tables is refreshed on every query or is transactional, when the connection has an SCN,
+     * or when the query isn't deterministic
+     */
+    public Key getKey(PhoenixConnection connection, String sql, List<Object> binds, QueryPlan plan) {
+        if (!isEnabled || connection.getSCN() != null || plan instanceof UnionPlan
+                || connection.getMutationState().isTransactionStarted()) {
+            return null;
+        }
+        Set<TableRef> sourceRefs = plan.getSourceRefs();
+        if (sourceRefs.isEmpty() || !isDeterministic(plan)) {
+            return null;
+        }
+        long timeToLiveMs = Long.MAX_VALUE;
+        List<String> tableVersions = Lists.newArrayListWithExpectedSize(sourceRefs.size());
+        Set<String> tableNames = Sets.newHashSetWithExpectedSize(sourceRefs.size() * 2);
+        for (TableRef tableRef : sourceRefs) {
+            PTable table = tableRef.getTable();
+            if (table.getType() == PTableType.SYSTEM || table.isTransactional()
+                    || table.getUpdateCacheFrequency() <= 0) {
+                return null;
+            }
+            timeToLiveMs = Math.min(timeToLiveMs, table.getUpdateCacheFrequency());
+            tableVersions.add(table.getName().getString() + "@" + table.getTimeStamp() + "@" + table.getSequenceNumber());
+            tableNames.add(table.getName().getString());
+            tableNames.add(table.getPhysicalName().getString());
+            // A rollup is updated by the writes to the table it's defined over
+            if (RollupDefinition.isRollup(table)) {
+                try {
+                    TableName dataTableName = RollupDefinition.fromTable(table).getSourceTableName();
+                    tableNames.add(SchemaUtil.getTableName(dataTableName.getSchemaName(), dataTableName.getTableName()));
+                } catch (SQLException e) {
+                    return null;
+                }
+            }
+        }
+        // The order of the source tables isn't deterministic
+        Collections.sort(tableVersions);
+        List<String> bindKeys = Lists.newArrayListWithExpectedSize(binds.size());
+        for (Object bind : binds) {
+            if (bind == null) {
+                bindKeys.add(null);
+            } else if (bind instanceof byte[]) {
+                bindKeys.add("byte[]:" + Bytes.toStringBinary((byte[])bind));
+            } else if (bind instanceof String || bind instanceof Number || bind instanceof Boolean
+                    || bind instanceof java.util.Date) {
+                bindKeys.add(bind.getClass().getName() + ":" + bind);
+            } else {
+                // Arrays and other values may not have a stable string representation
+                return null;
+            }
+        }
+        return new Key(sql, ImmutableList.copyOf(bindKeys),
+                connection.getTenantId() == null ? null : connection.getTenantId().getString(),
+                ImmutableList.copyOf(tableVersions), ImmutableSet.copyOf(tableNames), timeToLiveMs);
+    }
+
+    /**
+     * @return true if the query always returns the same results for the same data. Constant folding
+     * turns calls to CURRENT_DATE() or NOW() into literals, so the statement is checked for them too.
+     */
+    private static boolean isDeterministic(QueryPlan plan) {
+        RowProjector projector = plan.getProjector();
+        for (int i = 0; i < projector.getColumnCount(); i++) {
+            if (projector.getColumnProjector(i).getExpression().getDeterminism() != Determinism.ALWAYS) {
+                return false;
+            }
+        }
+        for (OrderByExpression orderByExpression : plan.getOrderBy().getOrderByExpressions()) {
+            if (orderByExpression.getExpression().getDeterminism() != Determinism.ALWAYS) {
+                return false;
+            }
+        }
+        NonDeterministicFunctionFinder finder = new NonDeterministicFunctionFinder();
+        if (plan.getStatement() == null) {
+            return false;
+        }
+        try {
+            finder.traverse(plan.getStatement());
+        } catch (SQLException e) {
+            return false;
+        }
+        return !finder.found;
+    }
+
+    /**
+     * Finds calls to the functions of a statement that return the current time or random values. User
+     * defined functions may do either.
+     */
+    private static class NonDeterministicFunctionFinder extends StatelessTraverseAllStatementVisitor {
+        private boolean found;
+
+        @Override
+        public boolean visitEnter(FunctionParseNode node) throws SQLException {
+            if (node instanceof CurrentDateParseNode || node instanceof CurrentTimeParseNode
+                    || node instanceof UDFParseNode || RandomFunction.NAME.equals(node.getName())) {
+                found = true;
+            }
+            return !found;
+        }
+    }
+
+    /**
+     * @return an iterator replaying the cached results of the query, or null if they're not cached
+     */
+    public ResultIterator get(Key key, StatementContext context) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.expirationTime <= EnvironmentEdgeManager.currentTimeMillis()) {
+            cache.invalidate(key);
+            entry = null;
+        }
+        if (entry == null) {
+            GLOBAL_RESULT_CACHE_MISS_COUNTER.increment();
+            return null;
+        }
+        GLOBAL_RESULT_CACHE_HIT_COUNTER.increment();
+        Aggregators aggregators = context.getAggregationManager().isEmpty() ? null
+                : context.getAggregationManager().getAggregators();
+        return new CachedResultIterator(entry.rows, aggregators);
+    }
+
+    /**
+     * @return an iterator over the results of the query which caches them once they're all read, unless
+     * they exceed the maximum size of an entry
+     */
+    public ResultIterator cache(Key key, ResultIterator iterator) {
+        return new CachingResultIterator(key, iterator, EnvironmentEdgeManager.currentTimeMillis(),
+                getGenerations(key));
+    }
+
+    private long[] getGenerations(Key key) {
+        long[] keyGenerations = new long[key.tableNames.size()];
+        int i = 0;
+        for (String tableName : key.tableNames) {
+            keyGenerations[i++] = generations.get(getGenerationSlot(tableName));
+        }
+        return keyGenerations;
+    }
+
+    private static int getGenerationSlot(String tableName) {
+        return (tableName.hashCode() & Integer.MAX_VALUE) % GENERATION_SLOTS;
+    }
+
+    /**
+     * Invalidates the results of the queries over the table or its indexes, as rows were written to them.
+     */
+    public void invalidate(PTable table) {
+        if (!isEnabled) {
+            return;
+        }
+        invalidate(table.getPhysicalName().getString());
+        for (PTable index : table.getIndexes()) {
+            invalidate(index.getPhysicalName().getString());
+        }
+    }
+
+    /**
+     * Removes the results of the queries over the table with the given logical or physical name. Because
+     * all keys in the map must be iterated, this method should be avoided.
+     */
+    public void invalidate(String tableName) {
+        if (!isEnabled) {
+            return;
+        }
+        // Bumped before the keys are removed, so that a query caching its results concurrently sees it
+        generations.incrementAndGet(getGenerationSlot(tableName));
+        if (cache.size() == 0) {
+            return;
+        }
+        for (Key key : cache.asMap().keySet()) {
+            if (key.tableNames.contains(tableName)) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private class CachingResultIterator extends DelegateResultIterator {
+        private final Key key;
+        private final long startTime;
+        // Generations of the tables of the query when it started
+        private final long[] startGenerations;
+        private TrustedByteArrayOutputStream bytes = new TrustedByteArrayOutputStream(1024);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private CachingResultIterator(Key key, ResultIterator delegate, long startTime, long[] startGenerations) {
+            super(delegate);
+            this.key = key;
+            this.startTime = startTime;
+            this.startGenerations = startGenerations;
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            Tuple tuple = super.next();
+            if (bytes == null) {
+                return tuple;
+            }
+            if (tuple == null) {
+                // The entry expires relative to the start of the query, as its rows may have been read over
+                // a while
+                if (Arrays.equals(startGenerations, getGenerations(key))) {
+                    cache.put(key, new Entry(bytes.toByteArray(), startTime + key.timeToLiveMs));
+                    // Checked again in case the tables were invalidated right before the put
+                    if (Arrays.equals(startGenerations, getGenerations(key))) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("Cached {} bytes of results for {}", bytes.size(), key);
+                        }
+                    } else {
+                        cache.invalidate(key);
+                    }
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Not caching results for {} as its tables were written to during the query", key);
+                }
+                bytes = null;
+            } else if (tuple.size() == 0) {
+                bytes = null;
+            } else {
+                try {
+                    TupleUtil.write(tuple, out);
+                } catch (IOException e) {
+                    throw ServerUtil.parseServerException(e);
+                }
+                if (bytes.size() > maxEntrySizeBytes) {
+                    bytes = null;
+                }
+            }
+            return tuple;
+        }
+    }
+
+    /**
+     * Replays cached results. The client aggregators of an aggregate query are set from each row, as
+     * the projection of the query reads them rather than the row itself.
+     */
+    private static class CachedResultIterator implements ResultIterator {
+        private final byte[] rows;
+        private final Aggregators aggregators;
+        private int offset;
+
+        private CachedResultIterator(byte[] rows, Aggregators aggregators) {
+            this.rows = rows;
+            this.aggregators = aggregators;
+        }
+
+        @Override
+        public Tuple next() throws SQLException {
+            if (offset >= rows.length) {
+                return null;
+            }
+            int resultSize = ByteUtil.vintFromBytes(rows, offset);
+            offset += WritableUtils.getVIntSize(resultSize);
+            ImmutableBytesWritable value = new ImmutableBytesWritable(rows, offset, resultSize);
+            offset += resultSize;
+            Tuple tuple = new ResultTuple(ResultUtil.toResult(value));
+            if (aggregators != null) {
+                Aggregator[] rowAggregators = aggregators.getAggregators();
+                aggregators.reset(rowAggregators);
+                aggregators.aggregate(rowAggregators, tuple);
+            }
+            return tuple;
+        }
+
+        @Override
+        public void close() throws SQLException {
+        }
+
+        @Override
+        public void explain(List<String> planSteps) {
+            planSteps.add("CLIENT CACHED RESULTS");
+        }
+    }
+}
@@ -42,6 +42,39 @@ public interface QueryServices extends SQLCloseable {
     public static final String KEEP_ALIVE_MS_ATTRIB = "phoenix.query.keepAliveMs";
     public static final String THREAD_POOL_SIZE_ATTRIB = "phoenix.query.threadPoolSize";
     public static final String QUEUE_SIZE_ATTRIB = "phoenix.query.queueSize";
+    // Threads of the pool running the asynchronous JDBC calls, which block while the query or fetch runs
+    public static final String ASYNC_THREAD_POOL_SIZE_ATTRIB = "phoenix.query.async.threadPoolSize";
+    public static final String ASYNC_QUEUE_SIZE_ATTRIB = "phoenix.query.async.queueSize";
+    // Scheduler of the tasks queued to the client thread pool: ROUND_ROBIN across jobs or FAIR_SHARE across tenants
+    public static final String QUEUE_SCHEDULER_ATTRIB = "phoenix.query.queueScheduler";
+    // Estimated bytes up to which the tasks of a query go to the small query lane of the fair share scheduler
+    public static final String FAIR_SHARE_SMALL_QUERY_MAX_BYTES_ATTRIB = "phoenix.query.fairShare.smallQueryMaxBytes";
+    // Number of small query tasks run in a row by the fair share scheduler while large query tasks are waiting
+    public static final String FAIR_SHARE_SMALL_TASKS_PER_LARGE_TASK_ATTRIB = "phoenix.query.fairShare.smallTasksPerLargeTask";
+    // Comma separated tenant:weight pairs of the fair share scheduler, tenants not listed having a weight of 1
+    public static final String FAIR_SHARE_TENANT_WEIGHTS_ATTRIB = "phoenix.query.fairShare.tenantWeights";
+    // Whether the scans of an unordered query left running split off the key range they have left to idle threads
+    public static final String WORK_STEALING_ENABLED_ATTRIB = "phoenix.query.workStealing.enabled";
+    // Whether the scans of a top-n query are sent the sort key beyond which rows can't make it into the result
+    public static final String TOPN_THRESHOLD_PUSHDOWN_ENABLED_ATTRIB = "phoenix.query.topNThresholdPushdown.enabled";
+    // Whether the partial aggregates of an unordered GROUP BY are merged into hash tables on the client instead of merge sorted
+    public static final String CLIENT_HASH_AGGREGATION_ENABLED_ATTRIB = "phoenix.query.clientHashAggregation.enabled";
+    // Number of hash partitions, and so of threads, the partial aggregates of an unordered GROUP BY are merged into
+    public static final String CLIENT_HASH_AGGREGATION_PARTITIONS_ATTRIB = "phoenix.query.clientHashAggregation.partitions";
+    // Memory the groups of a client hash aggregation may use before the rows of further groups are spilled to disk
+    public static final String CLIENT_HASH_AGGREGATION_MAX_MEMORY_BYTES_ATTRIB = "phoenix.query.clientHashAggregation.maxMemoryBytes";
+    // Whether the results of queries over tables with an UPDATE_CACHE_FREQUENCY are cached on the client until the
+    // metadata of the tables is refreshed
+    public static final String QUERY_RESULT_CACHE_ENABLED_ATTRIB = "phoenix.query.resultCache.enabled";
+    // Total size of the serialized rows of the client-side query result cache
+    public static final String QUERY_RESULT_CACHE_MAX_SIZE_BYTES_ATTRIB = "phoenix.query.resultCache.maxSizeBytes";
+    // Size of the serialized rows of a query above which its results aren't cached
+    public static final String QUERY_RESULT_CACHE_MAX_ENTRY_SIZE_BYTES_ATTRIB = "phoenix.query.resultCache.maxEntrySizeBytes";
+    // Whether aggregate queries are rewritten to read the rollups of their table when the rollups hold their results,
+    // for the tables that don't set the USE_ROLLUPS table property
+    public static final String USE_ROLLUPS_ATTRIB = "phoenix.query.useRollups";
+    // Time after which the rollups of a table cached on the client are read again from the table descriptor, in the background
+    public static final String ROLLUP_DEFINITION_CACHE_TIME_MS_ATTRIB = "phoenix.rollup.definitionCacheTimeMs";
     public static final String THREAD_TIMEOUT_MS_ATTRIB = "phoenix.query.timeoutMs";
     public static final String SPOOL_THRESHOLD_BYTES_ATTRIB = "phoenix.query.spoolThresholdBytes";
     public static final String HBASE_CLIENT_KEYTAB = "hbase.myclient.keytab";
@@ -50,6 +83,11 @@ public interface QueryServices extends SQLCloseable {
     public static final String AUTO_COMMIT_ATTRIB = "phoenix.connection.autoCommit";
     // consistency configuration setting
     public static final String CONSISTENCY_ATTRIB = "phoenix.connection.consistency";
+    // Whether single row point lookups against tables with region replicas are hedged by reading them with
+    // timeline consistency
+    public static final String HEDGED_POINT_LOOKUPS_ATTRIB = "phoenix.connection.hedgedPointLookups";
+    // Time the primary region is given to answer a hedged read before the region replicas are read too
+    public static final String HEDGED_READ_DELAY_MS_ATTRIB = "phoenix.query.hedgedReadDelayMs";
     public static final String SCHEMA_ATTRIB = "phoenix.connection.schema";
     public static final String IS_NAMESPACE_MAPPING_ENABLED  = "phoenix.schema.isNamespaceMappingEnabled";
     public static final String IS_SYSTEM_TABLE_MAPPED_TO_NAMESPACE  = "phoenix.schema.mapSystemTablesToNamespace";
@@ -90,7 +128,30 @@ public interface QueryServices extends SQLCloseable {
 
     public static final String MUTATE_BATCH_SIZE_ATTRIB = "phoenix.mutate.batchSize";
     public static final String MUTATE_BATCH_SIZE_BYTES_ATTRIB = "phoenix.mutate.batchSizeBytes";
+    // Maximum time in milliseconds a server side mutation batch waits for memstore headroom before being written anyway
+    public static final String MUTATION_FLOW_CONTROL_MAX_WAIT_MS_ATTRIB = "phoenix.coprocessor.mutationFlowControl.maxWaitMs";
+    // Bytes per second written by all the server side mutation scans of a region server, 0 for no limit
+    public static final String MUTATION_FLOW_CONTROL_BYTES_PER_SEC_ATTRIB = "phoenix.coprocessor.mutationFlowControl.bytesPerSec";
     public static final String MAX_SERVER_CACHE_TIME_TO_LIVE_MS_ATTRIB = "phoenix.coprocessor.maxServerCacheTimeToLiveMs";
+    // Time to live and total size in bytes of the hash join caches persisted through the USE_PERSISTENT_CACHE hint
+    public static final String MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS_ATTRIB = "phoenix.coprocessor.maxServerCachePersistenceTimeToLiveMs";
+    public static final String MAX_SERVER_CACHE_PERSISTENCE_SIZE_ATTRIB = "phoenix.coprocessor.maxServerCachePersistenceBytes";
+    // Whether a join whose hash cache exceeds phoenix.query.maxServerCacheBytes is run again as a grace hash join
+    public static final String GRACE_HASH_JOIN_FALLBACK_ENABLED_ATTRIB = "phoenix.query.graceHashJoin.fallbackEnabled";
+    // Number of partitions the sides of a grace hash join are split into at each level
+    public static final String GRACE_HASH_JOIN_PARTITIONS_ATTRIB = "phoenix.query.graceHashJoin.partitions";
+    // Memory in bytes a grace hash join may use for the partitions it keeps resident before spilling to disk
+    public static final String GRACE_HASH_JOIN_MAX_MEMORY_BYTES_ATTRIB = "phoenix.query.graceHashJoin.maxMemoryBytes";
+    // Number of partitions of a sort merge join joined concurrently, 1 to join serially
+    public static final String SORT_MERGE_JOIN_PARALLELISM_ATTRIB = "phoenix.query.sortMergeJoin.parallelism";
+    // Minimum number of left hand side rows in a partition of a parallel sort merge join
+    public static final String SORT_MERGE_JOIN_PARTITION_ROWS_ATTRIB = "phoenix.query.sortMergeJoin.partitionRows";
+    // Bytes held in memory by the partitions in flight of a parallel sort merge join past which no more are started
+    public static final String SORT_MERGE_JOIN_MAX_MEMORY_BYTES_ATTRIB = "phoenix.query.sortMergeJoin.maxMemoryBytes";
+    // Whether a hinted global index not covering the query is joined back to the data table with batched gets
+    public static final String INDEX_LOOKUP_JOIN_ENABLED_ATTRIB = "phoenix.query.indexLookupJoin.enabled";
+    // Number of data table rows read by each batch of gets of an index lookup join
+    public static final String INDEX_LOOKUP_JOIN_BATCH_SIZE_ATTRIB = "phoenix.query.indexLookupJoin.batchSize";
     
     @Deprecated // Use FORCE_ROW_KEY_ORDER instead.
     public static final String ROW_KEY_ORDER_SALTED_TABLE_ATTRIB  = "phoenix.query.rowKeyOrderSaltedTable";
@@ -119,6 +180,8 @@ public interface QueryServices extends SQLCloseable {
     public static final String SEQUENCE_CACHE_SIZE_ATTRIB = "phoenix.sequence.cacheSize";
     public static final String MAX_SERVER_METADATA_CACHE_TIME_TO_LIVE_MS_ATTRIB = "phoenix.coprocessor.maxMetaDataCacheTimeToLiveMs";
     public static final String MAX_SERVER_METADATA_CACHE_SIZE_ATTRIB = "phoenix.coprocessor.maxMetaDataCacheSize";
+    // Max size in bytes of the serialized form of the tables in the server side metadata cache
+    public static final String MAX_SERVER_METADATA_SERIALIZED_CACHE_SIZE_ATTRIB = "phoenix.coprocessor.maxMetaDataSerializedCacheSize";
     public static final String MAX_CLIENT_METADATA_CACHE_SIZE_ATTRIB = "phoenix.client.maxMetaDataCacheSize";
 
     public static final String AUTO_UPGRADE_WHITELIST_ATTRIB = "phoenix.client.autoUpgradeWhiteList";
@@ -167,6 +230,11 @@ public interface QueryServices extends SQLCloseable {
     public static final String TRACING_BATCH_SIZE = "phoenix.trace.batchSize";
     public static final String TRACING_THREAD_POOL_SIZE = "phoenix.trace.threadPoolSize";
     public static final String TRACING_TRACE_BUFFER_SIZE = "phoenix.trace.traceBufferSize";
+    // Fraction of the traces whose spans are written to the trace table, chosen by trace id so
+    // that the client and the region servers keep the spans of the same traces
+    public static final String TRACING_SAMPLING_RATE = "phoenix.trace.samplingRate";
+    // Spans at least this long are written even if their trace isn't sampled. Disabled if negative.
+    public static final String TRACING_SLOW_SPAN_THRESHOLD_MS = "phoenix.trace.slowSpanThresholdMs";
 
     public static final String USE_REVERSE_SCAN_ATTRIB = "phoenix.query.useReverseScan";
 
@@ -176,6 +244,8 @@ public interface QueryServices extends SQLCloseable {
     public static final String STATS_GUIDEPOST_WIDTH_BYTES_ATTRIB = "phoenix.stats.guidepost.width";
     public static final String STATS_GUIDEPOST_PER_REGION_ATTRIB = "phoenix.stats.guidepost.per.region";
     public static final String STATS_USE_CURRENT_TIME_ATTRIB = "phoenix.stats.useCurrentTime";
+    // Whether or not NDV and null counts are collected per column along with the guideposts
+    public static final String STATS_COLUMN_STATS_ENABLED_ATTRIB = "phoenix.stats.column.enabled";
     
     @Deprecated // use STATS_COLLECTION_ENABLED config instead
     public static final String STATS_ENABLED_ATTRIB = "phoenix.stats.enabled";
@@ -213,6 +283,14 @@ public interface QueryServices extends SQLCloseable {
     public static final String COLLECT_REQUEST_LEVEL_METRICS = "phoenix.query.request.metrics.enabled";
     public static final String ALLOW_VIEWS_ADD_NEW_CF_BASE_TABLE = "phoenix.view.allowNewColumnFamily";
     public static final String RETURN_SEQUENCE_VALUES_ATTRIB = "phoenix.sequence.returnValues";
+    // Allocate sequence values in the background before the client side cache is exhausted
+    public static final String SEQUENCE_PREFETCH_ENABLED_ATTRIB = "phoenix.sequence.prefetch.enabled";
+    // Percentage of the cached sequence values remaining below which a prefetch is started
+    public static final String SEQUENCE_PREFETCH_WATERMARK_PERCENT_ATTRIB = "phoenix.sequence.prefetch.watermarkPercent";
+    // Desired time between prefetches of a sequence, used to grow or shrink the number of values allocated
+    public static final String SEQUENCE_PREFETCH_TARGET_INTERVAL_MS_ATTRIB = "phoenix.sequence.prefetch.targetIntervalMs";
+    // Maximum number of cache sizes allocated by a single prefetch
+    public static final String SEQUENCE_PREFETCH_MAX_ALLOCATION_MULTIPLIER_ATTRIB = "phoenix.sequence.prefetch.maxAllocationMultiplier";
     public static final String EXTRA_JDBC_ARGUMENTS_ATTRIB = "phoenix.jdbc.extra.arguments";
     
     public static final String MAX_VERSIONS_TRANSACTIONAL_ATTRIB = "phoenix.transactions.maxVersions";
@@ -279,6 +357,11 @@ public interface QueryServices extends SQLCloseable {
      * Get executor service used for parallel scans
      */
     public ThreadPoolExecutor getExecutor();
+    /**
+     * Get executor service running the asynchronous JDBC calls, which wait on the parallel scans
+     * and so must not take threads of the executor running them
+     */
+    public ThreadPoolExecutor getAsyncExecutor();
     /**
      * Get the memory manager used to track memory usage
      */
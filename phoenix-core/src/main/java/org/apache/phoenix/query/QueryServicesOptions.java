@@ -20,6 +20,8 @@ package org.apache.phoenix.query;
 import static org.apache.hadoop.hbase.HConstants.DEFAULT_HBASE_CLIENT_SCANNER_TIMEOUT_PERIOD;
 import static org.apache.phoenix.query.QueryServices.ALLOW_ONLINE_TABLE_SCHEMA_UPDATE;
 import static org.apache.phoenix.query.QueryServices.ALLOW_VIEWS_ADD_NEW_CF_BASE_TABLE;
+import static org.apache.phoenix.query.QueryServices.ASYNC_QUEUE_SIZE_ATTRIB;
+import static org.apache.phoenix.query.QueryServices.ASYNC_THREAD_POOL_SIZE_ATTRIB;
 import static org.apache.phoenix.query.QueryServices.AUTO_UPGRADE_ENABLED;
 import static org.apache.phoenix.query.QueryServices.CALL_QUEUE_PRODUCER_ATTRIB_NAME;
 import static org.apache.phoenix.query.QueryServices.CALL_QUEUE_ROUND_ROBIN_ATTRIB;
@@ -87,6 +89,8 @@ import static org.apache.phoenix.query.QueryServices.TRACING_ENABLED;
 import static org.apache.phoenix.query.QueryServices.TRACING_STATS_TABLE_NAME_ATTRIB;
 import static org.apache.phoenix.query.QueryServices.TRACING_BATCH_SIZE;
 import static org.apache.phoenix.query.QueryServices.TRACING_THREAD_POOL_SIZE;
+import static org.apache.phoenix.query.QueryServices.TRACING_SAMPLING_RATE;
+import static org.apache.phoenix.query.QueryServices.TRACING_SLOW_SPAN_THRESHOLD_MS;
 import static org.apache.phoenix.query.QueryServices.TRACING_TRACE_BUFFER_SIZE;
 import static org.apache.phoenix.query.QueryServices.USE_STATS_FOR_PARALLELIZATION;
 
@@ -119,6 +123,22 @@ public class QueryServicesOptions {
 	public static final int DEFAULT_KEEP_ALIVE_MS = 60000;
 	public static final int DEFAULT_THREAD_POOL_SIZE = 128;
 	public static final int DEFAULT_QUEUE_SIZE = 5000;
+    public static final int DEFAULT_ASYNC_THREAD_POOL_SIZE = 32;
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 5000;
+    public static final String DEFAULT_QUEUE_SCHEDULER = "ROUND_ROBIN";
+    public static final long DEFAULT_FAIR_SHARE_SMALL_QUERY_MAX_BYTES = 10 * 1024 * 1024; // 10 Mb
+    public static final int DEFAULT_FAIR_SHARE_SMALL_TASKS_PER_LARGE_TASK = 4;
+    public static final String DEFAULT_FAIR_SHARE_TENANT_WEIGHTS = "";
+    public static final boolean DEFAULT_WORK_STEALING_ENABLED = false;
+    public static final boolean DEFAULT_TOPN_THRESHOLD_PUSHDOWN_ENABLED = true;
+    public static final boolean DEFAULT_CLIENT_HASH_AGGREGATION_ENABLED = false;
+    public static final int DEFAULT_CLIENT_HASH_AGGREGATION_PARTITIONS = 16;
+    public static final long DEFAULT_CLIENT_HASH_AGGREGATION_MAX_MEMORY_BYTES = 100 * 1024 * 1024; // 100 Mb
+    public static final boolean DEFAULT_QUERY_RESULT_CACHE_ENABLED = false;
+    public static final long DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE_BYTES = 64 * 1024 * 1024; // 64 Mb
+    public static final long DEFAULT_QUERY_RESULT_CACHE_MAX_ENTRY_SIZE_BYTES = 1024 * 1024; // 1 Mb
+    public static final boolean DEFAULT_USE_ROLLUPS = false;
+    public static final long DEFAULT_ROLLUP_DEFINITION_CACHE_TIME_MS = 60000; // 1 min
 	public static final int DEFAULT_THREAD_TIMEOUT_MS = 600000; // 10min
 	public static final int DEFAULT_SPOOL_THRESHOLD_BYTES = 1024 * 1024 * 20; // 20m
     public static final String DEFAULT_SPOOL_DIRECTORY = System.getProperty("java.io.tmpdir");
@@ -141,12 +161,26 @@ public class QueryServicesOptions {
     public static final int DEFAULT_TRACING_THREAD_POOL_SIZE = 5;
     public static final int DEFAULT_TRACING_BATCH_SIZE = 100;
     public static final int DEFAULT_TRACING_TRACE_BUFFER_SIZE = 1000;
+    public static final double DEFAULT_TRACING_SAMPLING_RATE = 1.0;
+    public static final long DEFAULT_TRACING_SLOW_SPAN_THRESHOLD_MS = -1;
 
     public final static int DEFAULT_MUTATE_BATCH_SIZE = 100; // Batch size for UPSERT SELECT and DELETE
     //Batch size in bytes for UPSERT, SELECT and DELETE. By default, 2MB
     public final static long DEFAULT_MUTATE_BATCH_SIZE_BYTES = 2097152;
+    public final static long DEFAULT_MUTATION_FLOW_CONTROL_MAX_WAIT_MS = 3000;
+    public final static long DEFAULT_MUTATION_FLOW_CONTROL_BYTES_PER_SEC = 0;
 	// The only downside of it being out-of-sync is that the parallelization of the scan won't be as balanced as it could be.
     public static final int DEFAULT_MAX_SERVER_CACHE_TIME_TO_LIVE_MS = 30000; // 30 sec (with no activity)
+    public static final int DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_TIME_TO_LIVE_MS = 30 * 60000; // 30 min (with no activity)
+    public static final long DEFAULT_MAX_SERVER_CACHE_PERSISTENCE_SIZE = 1024*1024*100;  // 100 Mb
+    public static final boolean DEFAULT_GRACE_HASH_JOIN_FALLBACK_ENABLED = true;
+    public static final int DEFAULT_GRACE_HASH_JOIN_PARTITIONS = 32;
+    public static final long DEFAULT_GRACE_HASH_JOIN_MAX_MEMORY_BYTES = 1024*1024*100;  // 100 Mb
+    public static final int DEFAULT_SORT_MERGE_JOIN_PARALLELISM = 1;
+    public static final int DEFAULT_SORT_MERGE_JOIN_PARTITION_ROWS = 10000;
+    public static final long DEFAULT_SORT_MERGE_JOIN_MAX_MEMORY_BYTES = 1024*1024*100;  // 100 Mb
+    public static final boolean DEFAULT_INDEX_LOOKUP_JOIN_ENABLED = true;
+    public static final int DEFAULT_INDEX_LOOKUP_JOIN_BATCH_SIZE = 1000;
     public static final int DEFAULT_SCAN_CACHE_SIZE = 1000;
     public static final int DEFAULT_MAX_INTRA_REGION_PARALLELIZATION = DEFAULT_MAX_QUERY_CONCURRENCY;
     public static final int DEFAULT_DISTINCT_VALUE_COMPRESS_THRESHOLD = 1024 * 1024 * 1; // 1 Mb
@@ -174,6 +208,7 @@ public class QueryServicesOptions {
     public static final long DEFAULT_SEQUENCE_CACHE_SIZE = 100;  // reserve 100 sequences at a time
     public static final long DEFAULT_MAX_SERVER_METADATA_CACHE_TIME_TO_LIVE_MS =  60000 * 30; // 30 mins
     public static final long DEFAULT_MAX_SERVER_METADATA_CACHE_SIZE =  1024L*1024L*20L; // 20 Mb
+    public static final long DEFAULT_MAX_SERVER_METADATA_SERIALIZED_CACHE_SIZE =  1024L*1024L*20L; // 20 Mb
     public static final long DEFAULT_MAX_CLIENT_METADATA_CACHE_SIZE =  1024L*1024L*10L; // 10 Mb
     public static final int DEFAULT_GROUPBY_ESTIMATED_DISTINCT_VALUES = 1000;
     public static final int DEFAULT_CLOCK_SKEW_INTERVAL = 2000;
@@ -215,6 +250,7 @@ public class QueryServicesOptions {
     // compression we're getting)
     public static final long DEFAULT_STATS_GUIDEPOST_WIDTH_BYTES = 3* 100 * 1024 *1024;
     public static final boolean DEFAULT_STATS_USE_CURRENT_TIME = true;
+    public static final boolean DEFAULT_STATS_COLUMN_STATS_ENABLED = false;
     public static final boolean DEFAULT_RUN_UPDATE_STATS_ASYNC = true;
     public static final boolean DEFAULT_COMMIT_STATS_ASYNC = true;
     public static final int DEFAULT_STATS_POOL_SIZE = 4;
@@ -252,6 +288,8 @@ public class QueryServicesOptions {
     private static final String DEFAULT_CLIENT_RPC_CONTROLLER_FACTORY = ClientRpcControllerFactory.class.getName();
 
     public static final String DEFAULT_CONSISTENCY_LEVEL = Consistency.STRONG.toString();
+    public static final boolean DEFAULT_HEDGED_POINT_LOOKUPS = false;
+    public static final long DEFAULT_HEDGED_READ_DELAY_MS = 10;
 
     public static final boolean DEFAULT_USE_BYTE_BASED_REGEX = false;
     public static final boolean DEFAULT_FORCE_ROW_KEY_ORDER = false;
@@ -261,6 +299,10 @@ public class QueryServicesOptions {
     public static final int DEFAULT_MAX_VERSIONS_TRANSACTIONAL = Integer.MAX_VALUE;
 
     public static final boolean DEFAULT_RETURN_SEQUENCE_VALUES = false;
+    public static final boolean DEFAULT_SEQUENCE_PREFETCH_ENABLED = false;
+    public static final int DEFAULT_SEQUENCE_PREFETCH_WATERMARK_PERCENT = 25;
+    public static final long DEFAULT_SEQUENCE_PREFETCH_TARGET_INTERVAL_MS = 1000;
+    public static final long DEFAULT_SEQUENCE_PREFETCH_MAX_ALLOCATION_MULTIPLIER = 16;
     public static final String DEFAULT_EXTRA_JDBC_ARGUMENTS = "";
 
     public static final long DEFAULT_INDEX_POPULATION_SLEEP_TIME = 5000;
@@ -547,6 +589,14 @@ public class QueryServicesOptions {
         return config.getInt(QUEUE_SIZE_ATTRIB, DEFAULT_QUEUE_SIZE);
     }
 
+    public int getAsyncThreadPoolSize() {
+        return config.getInt(ASYNC_THREAD_POOL_SIZE_ATTRIB, DEFAULT_ASYNC_THREAD_POOL_SIZE);
+    }
+
+    public int getAsyncQueueSize() {
+        return config.getInt(ASYNC_QUEUE_SIZE_ATTRIB, DEFAULT_ASYNC_QUEUE_SIZE);
+    }
+
     public int getMaxMemoryPerc() {
         return config.getInt(MAX_MEMORY_PERC_ATTRIB, DEFAULT_MAX_MEMORY_PERC);
     }
@@ -609,6 +659,14 @@ public class QueryServicesOptions {
         return config.getInt(TRACING_TRACE_BUFFER_SIZE, DEFAULT_TRACING_TRACE_BUFFER_SIZE);
     }
 
+    public double getTracingSamplingRate() {
+        return config.getDouble(TRACING_SAMPLING_RATE, DEFAULT_TRACING_SAMPLING_RATE);
+    }
+
+    public long getTracingSlowSpanThresholdMs() {
+        return config.getLong(TRACING_SLOW_SPAN_THRESHOLD_MS, DEFAULT_TRACING_SLOW_SPAN_THRESHOLD_MS);
+    }
+
     public String getTableName() {
         return config.get(TRACING_STATS_TABLE_NAME_ATTRIB, DEFAULT_TRACING_STATS_TABLE_NAME);
     }
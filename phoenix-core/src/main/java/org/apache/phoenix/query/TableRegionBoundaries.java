@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.query;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Immutable snapshot of the region locations of a table, ordered by start key, together with
+ * the region boundaries (the end key of every region but the last) in a flat array so that the
+ * regions overlapping a key range can be found with a binary search. Snapshots are cached by
+ * {@link ConnectionQueryServicesImpl} and replaced when the region cache of the table is cleared,
+ * for example after a {@link org.apache.phoenix.schema.StaleRegionBoundaryCacheException}.
+ */
+public class TableRegionBoundaries {
+    private final HRegionLocation[] locations;
+    private final byte[][] boundaries;
+    private final List<HRegionLocation> locationList;
+    private final List<byte[]> boundaryList;
+
+    private TableRegionBoundaries(List<HRegionLocation> regionLocations) {
+        this.locations = regionLocations.toArray(new HRegionLocation[regionLocations.size()]);
+        this.boundaries = new byte[Math.max(0, locations.length - 1)][];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = locations[i].getRegionInfo().getEndKey();
+        }
+        this.locationList = new RegionLocationList(this);
+        this.boundaryList = Collections.unmodifiableList(Arrays.asList(boundaries));
+    }
+
+    /**
+     * Get the snapshot for the given region locations. If the list was obtained through
+     * {@link #getRegionLocations()}, the snapshot it came from is returned rather than a copy.
+     */
+    public static TableRegionBoundaries of(List<HRegionLocation> regionLocations) {
+        if (regionLocations instanceof RegionLocationList) {
+            return ((RegionLocationList)regionLocations).owner;
+        }
+        return new TableRegionBoundaries(regionLocations);
+    }
+
+    /**
+     * @return unmodifiable list of the region locations ordered by start key
+     */
+    public List<HRegionLocation> getRegionLocations() {
+        return locationList;
+    }
+
+    /**
+     * @return unmodifiable list of the end keys of all regions but the last one
+     */
+    public List<byte[]> getBoundaries() {
+        return boundaryList;
+    }
+
+    public int getRegionCount() {
+        return locations.length;
+    }
+
+    /**
+     * @return the index of the region containing the given key, which is inclusive
+     */
+    public int getIndexContainingInclusive(byte[] inclusiveKey) {
+        return getIndexContainingInclusive(0, boundaries.length, inclusiveKey);
+    }
+
+    /**
+     * @return the index of the region containing the given key, searching only the boundaries
+     * from fromIndex (inclusive) to toIndex (exclusive)
+     */
+    public int getIndexContainingInclusive(int fromIndex, int toIndex, byte[] inclusiveKey) {
+        int index = Arrays.binarySearch(boundaries, fromIndex, toIndex, inclusiveKey, Bytes.BYTES_COMPARATOR);
+        // If we found an exact match, return the index+1, as the inclusiveKey will be contained
+        // in the next region (since we're matching on the end boundary).
+        return index < 0 ? -(index + 1) : index + 1;
+    }
+
+    /**
+     * @return the index of the region containing the row just before the given exclusive key,
+     * searching only the boundaries from fromIndex (inclusive) to toIndex (exclusive)
+     */
+    public int getIndexContainingExclusive(int fromIndex, int toIndex, byte[] exclusiveKey) {
+        int index = Arrays.binarySearch(boundaries, fromIndex, toIndex, exclusiveKey, Bytes.BYTES_COMPARATOR);
+        // If we found an exact match, return the index we found as the exclusiveKey won't be
+        // contained in the next region as with getIndexContainingInclusive.
+        return index < 0 ? -(index + 1) : index;
+    }
+
+    private static class RegionLocationList extends AbstractList<HRegionLocation> implements RandomAccess {
+        private final TableRegionBoundaries owner;
+
+        private RegionLocationList(TableRegionBoundaries owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public HRegionLocation get(int index) {
+            return owner.locations[index];
+        }
+
+        @Override
+        public int size() {
+            return owner.locations.length;
+        }
+    }
+}
@@ -172,6 +172,7 @@ import org.apache.phoenix.parse.ColumnDefInPkConstraint;
 import org.apache.phoenix.parse.ColumnName;
 import org.apache.phoenix.parse.CreateFunctionStatement;
 import org.apache.phoenix.parse.CreateIndexStatement;
+import org.apache.phoenix.parse.CreateRollupStatement;
 import org.apache.phoenix.parse.CreateSchemaStatement;
 import org.apache.phoenix.parse.CreateSequenceStatement;
 import org.apache.phoenix.parse.CreateTableStatement;
@@ -221,6 +222,7 @@ import org.apache.phoenix.transaction.PhoenixTransactionContext;
 import org.apache.phoenix.util.ByteUtil;
 import org.apache.phoenix.util.CursorUtil;
 import org.apache.phoenix.util.EncodedColumnsUtil;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
 import org.apache.phoenix.util.IndexUtil;
 import org.apache.phoenix.util.LogUtil;
 import org.apache.phoenix.util.MetaDataUtil;
@@ -482,11 +484,25 @@ public class MetaDataClient {
 
 
     private final PhoenixConnection connection;
+    // Tables got by prefetchTables, consumed by the next updateCache of each of them
+    private Map<PTableKey, PrefetchedTable> prefetchedTables;
 
     public MetaDataClient(PhoenixConnection connection) {
         this.connection = connection;
     }
 
+    private static class PrefetchedTable {
+        private final long tableTimestamp;
+        private final long resolvedTimestamp;
+        private final MetaDataMutationResult result;
+
+        private PrefetchedTable(long tableTimestamp, long resolvedTimestamp, MetaDataMutationResult result) {
+            this.tableTimestamp = tableTimestamp;
+            this.resolvedTimestamp = resolvedTimestamp;
+            this.result = result;
+        }
+    }
+
     public PhoenixConnection getConnection() {
         return connection;
     }
@@ -549,6 +565,87 @@ public class MetaDataClient {
         return currentScn;
     }
 
+    /**
+     * Gets the tables that would need a round trip to the server to be resolved with a single
+     * round trip, so that the following {@link #updateCache(PName, String, String, boolean)} of
+     * each of them can use what was got here. System and transactional tables are left alone.
+     * @param tableNames the tables, with their schema name already defaulted
+     */
+    public void prefetchTables(List<TableName> tableNames) throws SQLException {
+        boolean defaultTransactional = connection.getQueryServices().getProps().getBoolean(
+                QueryServices.DEFAULT_TABLE_ISTRANSACTIONAL_ATTRIB,
+                QueryServicesOptions.DEFAULT_TRANSACTIONAL);
+        if (defaultTransactional || !connection.getQueryServices().supportsFeature(Feature.GET_TABLES)) {
+            return;
+        }
+        PName tenantId = connection.getTenantId();
+        long resolvedTimestamp = TransactionUtil.getResolvedTimestamp(connection, false, HConstants.LATEST_TIMESTAMP);
+        List<PTableKey> keys = Lists.newArrayListWithExpectedSize(tableNames.size());
+        List<byte[]> schemaNames = Lists.newArrayListWithExpectedSize(tableNames.size());
+        List<byte[]> tableNameBytes = Lists.newArrayListWithExpectedSize(tableNames.size());
+        List<Long> tableTimestamps = Lists.newArrayListWithExpectedSize(tableNames.size());
+        List<Long> clientTimestamps = Lists.newArrayListWithExpectedSize(tableNames.size());
+        for (TableName name : tableNames) {
+            String schemaName = name.getSchemaName();
+            if (SYSTEM_CATALOG_SCHEMA.equals(schemaName)) {
+                continue;
+            }
+            PTableKey key = new PTableKey(tenantId, SchemaUtil.getTableName(schemaName, name.getTableName()));
+            if (keys.contains(key)) {
+                continue;
+            }
+            long tableTimestamp = HConstants.LATEST_TIMESTAMP;
+            try {
+                PTableRef tableRef = connection.getTableRef(key);
+                PTable table = tableRef.getTable();
+                if (table.isTransactional() || resolvedTimestamp == tableRef.getResolvedTimeStamp()
+                        || connection.getMetaDataCache().getAge(tableRef) < table.getUpdateCacheFrequency()) {
+                    continue;
+                }
+                tableTimestamp = table.getTimeStamp();
+            } catch (TableNotFoundException e) {
+            }
+            keys.add(key);
+            schemaNames.add(PVarchar.INSTANCE.toBytes(schemaName));
+            tableNameBytes.add(PVarchar.INSTANCE.toBytes(name.getTableName()));
+            tableTimestamps.add(tableTimestamp);
+            clientTimestamps.add(resolvedTimestamp);
+        }
+        if (keys.size() < 2) {
+            return;
+        }
+        List<MetaDataMutationResult> results;
+        try {
+            results = connection.getQueryServices().getTables(tenantId, schemaNames, tableNameBytes, tableTimestamps, clientTimestamps);
+        } catch (SQLException e) {
+            // Servers older than the client don't have the batched call, in which case the
+            // query services stop reporting GET_TABLES and updateCache gets each table on its
+            // own as it always did
+            logger.debug("Could not prefetch tables " + tableNames, e);
+            return;
+        }
+        if (prefetchedTables == null) {
+            prefetchedTables = Maps.newHashMapWithExpectedSize(keys.size());
+        }
+        for (int i = 0; i < results.size(); i++) {
+            prefetchedTables.put(keys.get(i), new PrefetchedTable(tableTimestamps.get(i), clientTimestamps.get(i), results.get(i)));
+        }
+    }
+
+    private MetaDataMutationResult getTable(PName tenantId, String schemaName, String tableName,
+            long tableTimestamp, long resolvedTimestamp) throws SQLException {
+        if (prefetchedTables != null) {
+            PrefetchedTable prefetched = prefetchedTables.remove(new PTableKey(tenantId, SchemaUtil.getTableName(schemaName, tableName)));
+            if (prefetched != null && prefetched.tableTimestamp == tableTimestamp
+                    && prefetched.resolvedTimestamp == resolvedTimestamp
+                    && prefetched.result.getMutationCode() != MutationCode.TABLE_NOT_IN_REGION) {
+                return prefetched.result;
+            }
+        }
+        return connection.getQueryServices().getTable(tenantId, PVarchar.INSTANCE.toBytes(schemaName),
+                PVarchar.INSTANCE.toBytes(tableName), tableTimestamp, resolvedTimestamp);
+    }
+
     private MetaDataMutationResult updateCache(PName origTenantId, String schemaName, String tableName,
             boolean alwaysHitServer, Long resolvedTimestamp) throws SQLException { // TODO: pass byte[] herez
         boolean systemTable = SYSTEM_CATALOG_SCHEMA.equals(schemaName);
@@ -593,7 +690,7 @@ public class MetaDataClient {
             final byte[] schemaBytes = PVarchar.INSTANCE.toBytes(schemaName);
             final byte[] tableBytes = PVarchar.INSTANCE.toBytes(tableName);
             ConnectionQueryServices queryServices = connection.getQueryServices();
-            result = queryServices.getTable(tenantId, schemaBytes, tableBytes, tableTimestamp, resolvedTimestamp);
+            result = getTable(tenantId, schemaName, tableName, tableTimestamp, resolvedTimestamp);
             // if the table was assumed to be transactional, but is actually not transactional then re-resolve as of the right timestamp (and vice versa)
             if (table==null && result.getTable()!=null && result.getTable().isTransactional()!=isTransactional) {
                 result = queryServices.getTable(tenantId, schemaBytes, tableBytes, tableTimestamp, TransactionUtil.getResolvedTimestamp(connection, result.getTable().isTransactional(), HConstants.LATEST_TIMESTAMP));
@@ -1633,6 +1730,115 @@ public class MetaDataClient {
         return new MutationState(1, 1000, connection);
     }
 
+    /**
+     * Create a rollup by morphing the CreateRollupStatement into a CreateTableStatement with a column
+     * for each GROUP BY expression and aggregate of its query, the GROUP BY expressions forming the
+     * primary key, and registering its query in the descriptor of the table it's defined over. The
+     * rows written to that table after the rollup is registered are added to the rollup as they're
+     * written, while the rows written before are aggregated into the rollup by running its query as
+     * of the timestamp it's registered at.
+     * @param statement
+     * @return MutationState from population of the rollup from the table it's defined over
+     * @throws SQLException
+     */
+    public MutationState createRollup(CreateRollupStatement statement) throws SQLException {
+        TableName tableNameNode = statement.getTableName();
+        String schemaName = connection.getSchema() != null && tableNameNode.getSchemaName() == null ? connection.getSchema() : tableNameNode.getSchemaName();
+        String tableName = tableNameNode.getTableName();
+        if (connection.getTenantId() != null || connection.getSCN() != null) {
+            throw new SQLExceptionInfo.Builder(SQLExceptionCode.ROLLUP_SOURCE_NOT_SUPPORTED)
+                    .setSchemaName(schemaName).setTableName(tableName)
+                    .setMessage("Rollups may not be created on a connection with a tenant ID or SCN").build().buildException();
+        }
+        if (statement.ifNotExists() && updateCache(schemaName, tableName).getTable() != null) {
+            return new MutationState(0, 0, connection);
+        }
+        String fullTableName = SchemaUtil.getTableName(schemaName, tableName);
+        SelectStatement select = statement.getSelect();
+        ColumnResolver resolver = FromCompiler.getResolverForQuery(select, connection);
+        PTable dataTable = resolver.getTables().get(0).getTable();
+        if (dataTable.getType() != PTableType.TABLE || dataTable.isTransactional() || !dataTable.isImmutableRows()) {
+            throw new SQLExceptionInfo.Builder(SQLExceptionCode.ROLLUP_SOURCE_NOT_SUPPORTED)
+                    .setSchemaName(schemaName).setTableName(tableName).build().buildException();
+        }
+        // Fully qualify the table the rollup is defined over, as its query is run by the region servers
+        String dataSchemaName = dataTable.getSchemaName().getString();
+        select = FACTORY.select(select, FACTORY.namedTable(select.getFrom().getAlias(), TableName.createNormalized(
+                dataSchemaName.isEmpty() ? null : SchemaUtil.getEscapedArgument(dataSchemaName),
+                SchemaUtil.getEscapedArgument(dataTable.getTableName().getString()))));
+        RollupDefinition rollup = RollupDefinition.create(fullTableName, select, 0);
+
+        QueryPlan plan = new PhoenixStatement(connection).compileQuery(select.toString());
+        List<ColumnDef> columnDefs = Lists.newArrayListWithExpectedSize(rollup.getColumns().size());
+        List<ColumnDefInPkConstraint> pkColumns = Lists.newArrayListWithExpectedSize(select.getGroupBy().size());
+        for (int i = 0; i < rollup.getColumns().size(); i++) {
+            RollupDefinition.RollupColumn column = rollup.getColumns().get(i);
+            Expression expression = plan.getProjector().getColumnProjector(i).getExpression();
+            ColumnName colName = ColumnName.caseSensitiveColumnName(column.getName());
+            PDataType dataType = expression.getDataType();
+            if (column.isGroupBy()) {
+                // The primary key of a group may be partially null
+                dataType = IndexUtil.getIndexColumnDataType(true, dataType);
+                if (dataType == null) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_ROLLUP_DEFINITION)
+                            .setSchemaName(schemaName).setTableName(tableName).setColumnName(column.getName())
+                            .setMessage("Type=" + expression.getDataType()).build().buildException();
+                }
+                pkColumns.add(FACTORY.columnDefInPkConstraint(colName, SortOrder.getDefault(), false));
+            }
+            columnDefs.add(FACTORY.columnDef(colName, dataType.getSqlTypeName(), true, expression.getMaxLength(),
+                    expression.getScale(), column.isGroupBy(), SortOrder.getDefault(), null, false));
+        }
+        PrimaryKeyConstraint pk = FACTORY.primaryKey(null, pkColumns);
+        CreateTableStatement tableStatement = FACTORY.createTable(tableNameNode, statement.getProps(), columnDefs, pk,
+                null, PTableType.TABLE, false, null, null, statement.getBindCount(), null);
+        createTable(tableStatement, null, null, select.toString(), null, null, null);
+
+        // Register the rollup with a start timestamp far enough in the future for the regions of the
+        // data table to have picked up its definition before any row is written at that timestamp
+        long sleepTime = connection.getQueryServices().getProps().getLong(QueryServices.INDEX_POPULATION_SLEEP_TIME,
+                QueryServicesOptions.DEFAULT_INDEX_POPULATION_SLEEP_TIME);
+        long startTimestamp = EnvironmentEdgeManager.currentTimeMillis() + sleepTime;
+        rollup = rollup.withStartTimestamp(startTimestamp);
+        connection.getQueryServices().setRollupDefinition(dataTable.getPhysicalName().getBytes(), fullTableName,
+                rollup.getDescriptorValue());
+        long delta = startTimestamp - EnvironmentEdgeManager.currentTimeMillis();
+        if (delta > 0) {
+            try {
+                Thread.sleep(delta);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.INTERRUPTED_EXCEPTION)
+                .setRootCause(e).build().buildException();
+            }
+        }
+
+        // Aggregate the rows written before the start timestamp into the rollup
+        int rowCount = 0;
+        try (PhoenixConnection scnConnection = new PhoenixConnection(connection.getQueryServices(), connection, startTimestamp);
+                PhoenixConnection upsertConnection = new PhoenixConnection(connection)) {
+            upsertConnection.setAutoCommit(false);
+            int batchSize = upsertConnection.getMutateBatchSize();
+            ResultSet rs = scnConnection.createStatement().executeQuery(select.toString());
+            Object[] delta = new Object[rollup.getColumns().size()];
+            while (rs.next()) {
+                for (int i = 0; i < delta.length; i++) {
+                    delta[i] = rs.getObject(i + 1);
+                }
+                // Groups whose GROUP BY values are all null have no row key
+                if (!rollup.hasGroup(delta)) {
+                    continue;
+                }
+                rollup.upsert(upsertConnection, delta);
+                if (++rowCount % batchSize == 0) {
+                    upsertConnection.commit();
+                }
+            }
+            upsertConnection.commit();
+        }
+        return new MutationState(0, 0, connection, rowCount);
+    }
+
     public MutationState createSequence(CreateSequenceStatement statement, long startWith,
             long incrementBy, long cacheSize, long minValue, long maxValue) throws SQLException {
         Long scn = connection.getSCN();
@@ -2813,6 +3019,23 @@ public class MetaDataClient {
             connection.setAutoCommit(wasAutoCommit);
         }
     }
+    /**
+     * Unregisters a dropped rollup from the table it's defined over, unless that table was dropped too.
+     */
+    private void dropRollupDefinition(PTable rollup) throws SQLException {
+        TableName dataTableName = RollupDefinition.fromTable(rollup).getSourceTableName();
+        PTable dataTable = updateCache(dataTableName.getSchemaName(), dataTableName.getTableName()).getTable();
+        if (dataTable == null) {
+            return;
+        }
+        try {
+            connection.getQueryServices().setRollupDefinition(dataTable.getPhysicalName().getBytes(),
+                    rollup.getName().getString(), null);
+        } catch (TableNotFoundException e) {
+            // The HBase table was dropped along with its definitions
+        }
+    }
+
     private MutationState dropTable(String schemaName, String tableName, String parentTableName, PTableType tableType,
             boolean ifExists, boolean cascade) throws SQLException {
         connection.rollback();
@@ -2848,6 +3071,9 @@ public class MetaDataClient {
             default:
                 connection.removeTable(tenantId, SchemaUtil.getTableName(schemaName, tableName), parentTableName, result.getMutationTime());
 
+                if (table != null && RollupDefinition.isRollup(table)) {
+                    dropRollupDefinition(table);
+                }
                 if (table != null) {
                     boolean dropMetaData = false;
                     long ts = (scn == null ? result.getMutationTime() : scn);
@@ -0,0 +1,483 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.exception.SQLExceptionInfo;
+import org.apache.phoenix.parse.AliasedNode;
+import org.apache.phoenix.parse.ColumnParseNode;
+import org.apache.phoenix.parse.DistinctCountParseNode;
+import org.apache.phoenix.parse.FunctionParseNode;
+import org.apache.phoenix.parse.LiteralParseNode;
+import org.apache.phoenix.parse.NamedTableNode;
+import org.apache.phoenix.parse.ParseNode;
+import org.apache.phoenix.parse.SQLParser;
+import org.apache.phoenix.parse.SelectStatement;
+import org.apache.phoenix.parse.TableName;
+import org.apache.phoenix.parse.TableNode;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.util.SchemaUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Definition of a rollup, a table holding the results of an aggregate query over another table,
+ * created with CREATE ROLLUP. The rows of the rollup are the groups of the query, keyed by its
+ * GROUP BY expressions, and its other columns are the COUNT, SUM, MIN and MAX aggregates of the
+ * query.
+ * <p>
+ * The rollups of a table are registered in the descriptor of its HBase table, from which
+ * {@link org.apache.phoenix.coprocessor.RollupRegionObserver} reads them to add the rows written
+ * to the table to the rollups, and the query optimizer reads them to answer aggregate queries
+ * from the rollups. Only the rows written at or after the start timestamp of a rollup are added
+ * to it this way, the rows written before being aggregated into it when it's created. Aggregate
+ * queries are only answered from the rollups of the tables setting the {@link #USE_ROLLUPS}
+ * property to true, unless enabled for all tables with
+ * {@link org.apache.phoenix.query.QueryServices#USE_ROLLUPS_ATTRIB}.
+ */
+public class RollupDefinition {
+    private static final Logger logger = LoggerFactory.getLogger(RollupDefinition.class);
+
+    // Prefix of the keys of the table descriptor values holding the rollups defined over the table
+    public static final String DESCRIPTOR_KEY_PREFIX = "PHOENIX_ROLLUP:";
+    private static final char DESCRIPTOR_VALUE_SEPARATOR = ':';
+    // Table property, kept in the table descriptor, set to true for the rollups of the table to answer queries
+    public static final String USE_ROLLUPS = "USE_ROLLUPS";
+
+    public enum AggregateKind {
+        COUNT, SUM, MIN, MAX;
+    }
+
+    /**
+     * Column of a rollup, either one of its GROUP BY expressions, which are the primary key of
+     * the rollup, or one of its aggregates.
+     */
+    public static final class RollupColumn {
+        private final String name;
+        private final ParseNode expression;
+        private final AggregateKind aggregateKind;
+
+        private RollupColumn(String name, ParseNode expression, AggregateKind aggregateKind) {
+            this.name = name;
+            this.expression = expression;
+            this.aggregateKind = aggregateKind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the GROUP BY expression of the column, or the argument of its aggregate, which
+         * is null for COUNT(*)
+         */
+        public ParseNode getExpression() {
+            return expression;
+        }
+
+        /**
+         * @return the aggregate of the column, or null if it's a GROUP BY expression
+         */
+        public AggregateKind getAggregateKind() {
+            return aggregateKind;
+        }
+
+        public boolean isGroupBy() {
+            return aggregateKind == null;
+        }
+    }
+
+    private final String name;
+    private final SelectStatement select;
+    private final long startTimestamp;
+    private final List<RollupColumn> columns;
+
+    private RollupDefinition(String name, SelectStatement select, long startTimestamp, List<RollupColumn> columns) {
+        this.name = name;
+        this.select = select;
+        this.startTimestamp = startTimestamp;
+        this.columns = columns;
+    }
+
+    /**
+     * @param name full name of the rollup table
+     * @param select aggregate query of the rollup
+     * @param startTimestamp timestamp of the first rows of the source table added to the rollup
+     * as they're written
+     * @throws SQLException if the query can't be maintained incrementally
+     */
+    public static RollupDefinition create(String name, SelectStatement select, long startTimestamp) throws SQLException {
+        TableNode from = select.getFrom();
+        if (!(from instanceof NamedTableNode) || !((NamedTableNode)from).getDynamicColumns().isEmpty()) {
+            throw invalidDefinition(name, "A rollup must select from a single table");
+        }
+        if (select.isUnion() || select.isDistinct() || select.getWhere() != null || select.getHaving() != null
+                || !select.getOrderBy().isEmpty() || select.getLimit() != null || select.getOffset() != null
+                || select.hasSequence()) {
+            throw invalidDefinition(name, "A rollup may not have a DISTINCT, WHERE, HAVING, ORDER BY, LIMIT or OFFSET clause");
+        }
+        List<ParseNode> groupBy = select.getGroupBy();
+        if (groupBy.isEmpty()) {
+            throw invalidDefinition(name, "A rollup must have a GROUP BY clause");
+        }
+        List<RollupColumn> columns = Lists.newArrayListWithExpectedSize(select.getSelect().size());
+        Set<String> names = Sets.newHashSetWithExpectedSize(select.getSelect().size());
+        Set<ParseNode> selectedGroupBy = Sets.newHashSetWithExpectedSize(groupBy.size());
+        for (AliasedNode aliasedNode : select.getSelect()) {
+            ParseNode node = aliasedNode.getNode();
+            String columnName = aliasedNode.getAlias();
+            if (columnName == null && node instanceof ColumnParseNode) {
+                columnName = ((ColumnParseNode)node).getName();
+            }
+            if (columnName == null) {
+                throw invalidDefinition(name, "The expression " + node + " must be aliased");
+            }
+            if (!names.add(columnName)) {
+                throw invalidDefinition(name, "The column " + columnName + " is selected more than once");
+            }
+            if (node instanceof FunctionParseNode && ((FunctionParseNode)node).isAggregate()) {
+                FunctionParseNode function = (FunctionParseNode)node;
+                AggregateKind kind = getAggregateKind(function);
+                if (kind == null || function.getChildren().size() != 1) {
+                    throw invalidDefinition(name, "Only COUNT, SUM, MIN and MAX may be rolled up, not " + node);
+                }
+                ParseNode argument = function.getChildren().get(0);
+                // COUNT(*) is parsed as a count of a constant
+                if (kind == AggregateKind.COUNT && argument instanceof LiteralParseNode) {
+                    argument = null;
+                }
+                columns.add(new RollupColumn(columnName, argument, kind));
+            } else if (groupBy.contains(node)) {
+                selectedGroupBy.add(node);
+                columns.add(new RollupColumn(columnName, node, null));
+            } else {
+                throw invalidDefinition(name, "The expression " + node + " is neither aggregated nor in the GROUP BY clause");
+            }
+        }
+        if (selectedGroupBy.size() != Sets.newHashSet(groupBy).size()) {
+            throw invalidDefinition(name, "All the GROUP BY expressions must be selected");
+        }
+        return new RollupDefinition(name, select, startTimestamp, ImmutableList.copyOf(columns));
+    }
+
+    private static AggregateKind getAggregateKind(FunctionParseNode function) {
+        if (function instanceof DistinctCountParseNode) {
+            return null;
+        }
+        for (AggregateKind kind : AggregateKind.values()) {
+            if (kind.name().equalsIgnoreCase(function.getName())) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    private static SQLException invalidDefinition(String name, String message) {
+        return new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_ROLLUP_DEFINITION)
+                .setSchemaName(SchemaUtil.getSchemaNameFromFullName(name))
+                .setTableName(SchemaUtil.getTableNameFromFullName(name))
+                .setMessage(message).build().buildException();
+    }
+
+    /**
+     * @return true if the table is a rollup, which is a table with the aggregate query defining it as
+     * its view statement
+     */
+    public static boolean isRollup(PTable table) {
+        return table.getType() == PTableType.TABLE && table.getViewStatement() != null;
+    }
+
+    /**
+     * @return the definition of a rollup table, without its start timestamp
+     */
+    public static RollupDefinition fromTable(PTable table) throws SQLException {
+        return create(table.getName().getString(), new SQLParser(table.getViewStatement()).parseQuery(), 0);
+    }
+
+    /**
+     * @param defaultValue whether queries are answered from rollups when the table doesn't set
+     * the {@link #USE_ROLLUPS} property
+     * @return true if the aggregate queries over a table may be answered from its rollups
+     */
+    public static boolean isEnabled(HTableDescriptor descriptor, boolean defaultValue) {
+        String useRollups = descriptor.getValue(USE_ROLLUPS);
+        return useRollups == null ? defaultValue : Boolean.parseBoolean(useRollups);
+    }
+
+    /**
+     * @return the rollups registered in the descriptor of the HBase table of a table
+     */
+    public static List<RollupDefinition> fromDescriptor(HTableDescriptor descriptor) {
+        List<RollupDefinition> rollups = null;
+        for (Map.Entry<ImmutableBytesWritable, ImmutableBytesWritable> entry : descriptor.getValues().entrySet()) {
+            String key = Bytes.toString(entry.getKey().get(), entry.getKey().getOffset(), entry.getKey().getLength());
+            if (!key.startsWith(DESCRIPTOR_KEY_PREFIX)) {
+                continue;
+            }
+            String rollupName = key.substring(DESCRIPTOR_KEY_PREFIX.length());
+            String value = Bytes.toString(entry.getValue().get(), entry.getValue().getOffset(), entry.getValue().getLength());
+            try {
+                int index = value.indexOf(DESCRIPTOR_VALUE_SEPARATOR);
+                long startTimestamp = Long.parseLong(value.substring(0, index));
+                SelectStatement select = new SQLParser(value.substring(index + 1)).parseQuery();
+                if (rollups == null) {
+                    rollups = Lists.newArrayListWithExpectedSize(1);
+                }
+                rollups.add(create(rollupName, select, startTimestamp));
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("Ignoring invalid definition of rollup " + rollupName + " of " + descriptor.getNameAsString(), e);
+            }
+        }
+        return rollups == null ? Collections.<RollupDefinition>emptyList() : rollups;
+    }
+
+    public String getDescriptorKey() {
+        return DESCRIPTOR_KEY_PREFIX + name;
+    }
+
+    public String getDescriptorValue() {
+        return Long.toString(startTimestamp) + DESCRIPTOR_VALUE_SEPARATOR + select;
+    }
+
+    /**
+     * @return the full name of the rollup table
+     */
+    public String getName() {
+        return name;
+    }
+
+    public SelectStatement getSelect() {
+        return select;
+    }
+
+    public TableName getSourceTableName() {
+        return ((NamedTableNode)select.getFrom()).getName();
+    }
+
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    public RollupDefinition withStartTimestamp(long startTimestamp) {
+        return new RollupDefinition(name, select, startTimestamp, columns);
+    }
+
+    /**
+     * @return the columns of the rollup, in the order of its query
+     */
+    public List<RollupColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return a query selecting, for each row of the source table, the values of the GROUP BY
+     * expressions and the arguments of the aggregates of the rollup, in the order of its columns
+     */
+    public String getRowQuery() {
+        StringBuilder buf = new StringBuilder("SELECT ");
+        for (RollupColumn column : columns) {
+            // The rows counted by COUNT(*) are never null
+            buf.append(column.getExpression() == null ? "1" : column.getExpression().toString()).append(',');
+        }
+        buf.setLength(buf.length() - 1);
+        buf.append(" FROM ").append(select.getFrom());
+        return buf.toString();
+    }
+
+    /**
+     * @param row values of a row of the row query of the rollup
+     * @return the values added to the rollup by the row, to which other rows of the same group are
+     * added with {@link #aggregate(Object[], Object[], PDataType[])}
+     */
+    public Object[] newDelta(Object[] row) {
+        Object[] delta = new Object[columns.size()];
+        for (int i = 0; i < delta.length; i++) {
+            RollupColumn column = columns.get(i);
+            if (column.isGroupBy()) {
+                delta[i] = row[i];
+            } else if (column.getAggregateKind() == AggregateKind.COUNT) {
+                delta[i] = 0L;
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Adds the values of a row of the row query of the rollup to the values added to the rollup by
+     * the other rows of its group.
+     * @param types types of the values of the row
+     */
+    public void aggregate(Object[] delta, Object[] row, PDataType[] types) {
+        for (int i = 0; i < delta.length; i++) {
+            RollupColumn column = columns.get(i);
+            Object value = row[i];
+            if (column.isGroupBy() || value == null) {
+                continue;
+            }
+            switch (column.getAggregateKind()) {
+            case COUNT:
+                delta[i] = (Long)delta[i] + 1;
+                break;
+            case SUM:
+                delta[i] = add(delta[i], value);
+                break;
+            case MIN:
+                if (delta[i] == null || types[i].compareTo(value, delta[i]) < 0) {
+                    delta[i] = value;
+                }
+                break;
+            case MAX:
+                if (delta[i] == null || types[i].compareTo(value, delta[i]) > 0) {
+                    delta[i] = value;
+                }
+                break;
+            }
+        }
+    }
+
+    private static Object add(Object sum, Object value) {
+        if (sum instanceof BigDecimal || value instanceof BigDecimal) {
+            BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal)value : new BigDecimal(value.toString());
+            return sum == null ? decimal : decimal.add(sum instanceof BigDecimal ? (BigDecimal)sum : new BigDecimal(sum.toString()));
+        }
+        if (sum instanceof Double || value instanceof Double || value instanceof Float) {
+            return (sum == null ? 0d : ((Number)sum).doubleValue()) + ((Number)value).doubleValue();
+        }
+        return (sum == null ? 0L : ((Number)sum).longValue()) + ((Number)value).longValue();
+    }
+
+    /**
+     * @return true if the group of the values added to the rollup has at least one non null GROUP BY
+     * value, as the primary key of a row may not be entirely null
+     */
+    public boolean hasGroup(Object[] delta) {
+        for (int i = 0; i < delta.length; i++) {
+            if (columns.get(i).isGroupBy() && delta[i] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the values withdrawing from the rollup the values added by a delta, whose COUNT and
+     * SUM aggregates are negated. MIN and MAX aggregates can't be withdrawn and are left unchanged.
+     */
+    public Object[] negate(Object[] delta) {
+        Object[] negated = new Object[delta.length];
+        for (int i = 0; i < delta.length; i++) {
+            RollupColumn column = columns.get(i);
+            if (column.isGroupBy()) {
+                negated[i] = delta[i];
+            } else if (delta[i] != null
+                    && (column.getAggregateKind() == AggregateKind.COUNT || column.getAggregateKind() == AggregateKind.SUM)) {
+                negated[i] = negate((Number)delta[i]);
+            }
+        }
+        return negated;
+    }
+
+    private static Number negate(Number value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal)value).negate();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return -value.doubleValue();
+        }
+        return -value.longValue();
+    }
+
+    /**
+     * Adds the values of a group to the rollup with an atomic UPSERT, inserting its row if it doesn't
+     * exist yet or else merging the values into the aggregates of its row. The mutation is sent when
+     * the connection is committed.
+     */
+    public void upsert(Connection connection, Object[] delta) throws SQLException {
+        StringBuilder buf = new StringBuilder("UPSERT INTO ");
+        buf.append(SchemaUtil.getEscapedFullTableName(name)).append(" (");
+        for (RollupColumn column : columns) {
+            buf.append(SchemaUtil.getEscapedArgument(column.getName())).append(',');
+        }
+        buf.setLength(buf.length() - 1);
+        buf.append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            buf.append(i == 0 ? "?" : ",?");
+        }
+        buf.append(") ON DUPLICATE KEY ");
+        List<Object> updateBinds = Lists.newArrayListWithExpectedSize(columns.size() * 2);
+        boolean hasUpdate = false;
+        for (int i = 0; i < columns.size(); i++) {
+            RollupColumn column = columns.get(i);
+            // Null values leave the aggregate unchanged, and aren't bound as the type of a null bind is unknown
+            if (column.isGroupBy() || delta[i] == null) {
+                continue;
+            }
+            String columnName = SchemaUtil.getEscapedArgument(column.getName());
+            buf.append(hasUpdate ? ", " : "UPDATE ").append(columnName).append(" = ");
+            switch (column.getAggregateKind()) {
+            case COUNT:
+            case SUM:
+                buf.append("COALESCE(").append(columnName).append(", 0) + ?");
+                updateBinds.add(delta[i]);
+                break;
+            case MIN:
+            case MAX:
+                buf.append("CASE WHEN ").append(columnName).append(" IS NULL OR ").append(columnName)
+                        .append(column.getAggregateKind() == AggregateKind.MIN ? " > " : " < ")
+                        .append("? THEN ? ELSE ").append(columnName).append(" END");
+                updateBinds.add(delta[i]);
+                updateBinds.add(delta[i]);
+                break;
+            }
+            hasUpdate = true;
+        }
+        if (!hasUpdate) {
+            buf.append("IGNORE");
+        }
+        PreparedStatement stmt = connection.prepareStatement(buf.toString());
+        int index = 1;
+        for (Object value : delta) {
+            stmt.setObject(index++, value);
+        }
+        for (Object value : updateBinds) {
+            stmt.setObject(index++, value);
+        }
+        stmt.executeUpdate();
+    }
+
+    @Override
+    public String toString() {
+        return name + " AS " + select;
+    }
+}
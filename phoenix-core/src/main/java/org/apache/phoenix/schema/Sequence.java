@@ -53,6 +53,7 @@ import org.apache.phoenix.schema.types.PDataType;
 import org.apache.phoenix.schema.types.PInteger;
 import org.apache.phoenix.schema.types.PLong;
 import org.apache.phoenix.util.ByteUtil;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
 import org.apache.phoenix.util.KeyValueUtil;
 import org.apache.phoenix.util.SequenceUtil;
 
@@ -101,6 +102,13 @@ public class Sequence {
     private final SequenceKey key;
     private final ReentrantLock lock;
     private List<SequenceValue> values;
+    // Range of values allocated in the background for the latest value of the sequence
+    // which is used once the cached values have been handed out.
+    private SequenceValue prefetchedValue;
+    private boolean prefetchInProgress;
+    private long lastPrefetchTime;
+    // Number of cache sizes allocated by a prefetch, adapted to the rate at which values are consumed
+    private long allocationMultiplier = 1;
     
     public Sequence(SequenceKey key) {
         if (key == null) throw new NullPointerException();
@@ -191,10 +199,99 @@ public class Sequence {
             if (op == ValueOp.VALIDATE_SEQUENCE) {
                 return value.currentValue;
             }
-            throw EMPTY_SEQUENCE_CACHE_EXCEPTION;
+            value = usePrefetchedValue(timestamp, numToAllocate);
+            if (value == null) {
+                throw EMPTY_SEQUENCE_CACHE_EXCEPTION;
+            }
         }
         return increment(value, op, numToAllocate);
     }
+
+    /**
+     * Replaces the exhausted latest sequence value with the range allocated in the background, if
+     * there is one that can satisfy the allocation.
+     * @return the new latest sequence value or null if no prefetched range may be used
+     */
+    private SequenceValue usePrefetchedValue(long timestamp, long numToAllocate) throws SQLException {
+        SequenceValue value = prefetchedValue;
+        if (value == null || timestamp != HConstants.LATEST_TIMESTAMP
+                || isSequenceCacheExhausted(numToAllocate, value)) {
+            return null;
+        }
+        prefetchedValue = null;
+        insertSequenceValue(value);
+        return value;
+    }
+
+    /**
+     * Determines whether a range of values should be allocated in the background for the latest
+     * value of the sequence because the number of cached values has fallen below the watermark.
+     * Must be called while holding the lock of the sequence. If true is returned, the caller must
+     * subsequently call either {@link #setPrefetchedValue(Result, long)} or {@link #prefetchFailed()}.
+     * @param watermarkPercent percentage of the allocated range below which a prefetch is started
+     * @param targetRefillIntervalMs desired time between two prefetches, used to adapt the allocation size
+     * @param maxAllocationMultiplier maximum number of cache sizes allocated by a single prefetch
+     */
+    public boolean startPrefetch(int watermarkPercent, long targetRefillIntervalMs, long maxAllocationMultiplier) {
+        if (prefetchInProgress || prefetchedValue != null) {
+            return false;
+        }
+        SequenceValue value = findSequenceValue(HConstants.LATEST_TIMESTAMP);
+        if (value == null || value.isUnitialized() || value.limitReached) {
+            return false;
+        }
+        long remaining = (value.nextValue - value.currentValue) / value.incrementBy;
+        if (remaining < 0 || remaining * 100 > value.numAllocated * watermarkPercent) {
+            return false;
+        }
+        long now = EnvironmentEdgeManager.currentTimeMillis();
+        if (lastPrefetchTime > 0) {
+            long elapsed = now - lastPrefetchTime;
+            if (elapsed < targetRefillIntervalMs / 2) {
+                allocationMultiplier = Math.min(allocationMultiplier * 2, maxAllocationMultiplier);
+            } else if (elapsed > targetRefillIntervalMs * 2) {
+                allocationMultiplier = Math.max(allocationMultiplier / 2, 1);
+            }
+        }
+        lastPrefetchTime = now;
+        prefetchInProgress = true;
+        return true;
+    }
+
+    /**
+     * @return the number of slots to request when prefetching the latest value of the sequence.
+     * Larger ranges are requested as bulk allocations, which aren't supported for sequences that cycle.
+     */
+    public long getPrefetchAllocation() {
+        SequenceValue value = findSequenceValue(HConstants.LATEST_TIMESTAMP);
+        if (value == null || value.cycle || allocationMultiplier == 1) {
+            return SequenceUtil.DEFAULT_NUM_SLOTS_TO_ALLOCATE;
+        }
+        try {
+            return LongMath.checkedMultiply(value.cacheSize, allocationMultiplier);
+        } catch (ArithmeticException e) {
+            return SequenceUtil.DEFAULT_NUM_SLOTS_TO_ALLOCATE;
+        }
+    }
+
+    /**
+     * Stores the range of values allocated in the background. Errors such as the limit of the
+     * sequence having been reached are not reported here, but surface through the next synchronous
+     * allocation instead.
+     */
+    public void setPrefetchedValue(Result result, long numToAllocate) {
+        prefetchInProgress = false;
+        if (result.rawCells().length == 1) {
+            allocationMultiplier = 1;
+            return;
+        }
+        prefetchedValue = new SequenceValue(result, ValueOp.INCREMENT_SEQUENCE, numToAllocate);
+    }
+
+    public void prefetchFailed() {
+        prefetchInProgress = false;
+        allocationMultiplier = 1;
+    }
     
     /**
      * This method first checks whether value.currentValue = value.nextValue, this check is what 
@@ -274,8 +371,21 @@ public class Sequence {
             return Collections.emptyList();
         }
         List<Append> appends = Lists.newArrayListWithExpectedSize(values.size());
-        for (SequenceValue value : values) {
-            if (value.isInitialized() && value.currentValue != value.nextValue) {
+        for (int i = 0; i < values.size(); i++) {
+            SequenceValue value = values.get(i);
+            if (i == values.size() - 1 && prefetchedValue != null) {
+                // The prefetched range was allocated last, so that's the one the server can take back. If it
+                // directly follows the latest cached range, the unused cached values are returned along with it.
+                boolean contiguous = value.isInitialized() && value.nextValue == prefetchedValue.currentValue;
+                long currentValue = contiguous ? value.currentValue : prefetchedValue.currentValue;
+                appends.add(newReturn(prefetchedValue.timestamp, currentValue, prefetchedValue.nextValue,
+                        prefetchedValue.limitReached));
+                // Otherwise the cached range is returned right after, which the server only applies if
+                // nothing allocated in between is still outstanding.
+                if (!contiguous && value.isInitialized() && value.currentValue != value.nextValue) {
+                    appends.add(newReturn(value));
+                }
+            } else if (value.isInitialized() && value.currentValue != value.nextValue) {
                 appends.add(newReturn(value));
             }
         }
@@ -294,15 +404,19 @@ public class Sequence {
     }
 
     private Append newReturn(SequenceValue value) {
+        return newReturn(value.timestamp, value.currentValue, value.nextValue, value.limitReached);
+    }
+
+    private Append newReturn(long timestamp, long currentValue, long nextValue, boolean limitReached) {
         byte[] key = this.key.getKey();
         Append append = new Append(key);
         byte[] opBuf = new byte[] {(byte)MetaOp.RETURN_SEQUENCE.ordinal()};
         append.setAttribute(SequenceRegionObserver.OPERATION_ATTRIB, opBuf);
-        append.setAttribute(SequenceRegionObserver.CURRENT_VALUE_ATTRIB, PLong.INSTANCE.toBytes(value.nextValue));
+        append.setAttribute(SequenceRegionObserver.CURRENT_VALUE_ATTRIB, PLong.INSTANCE.toBytes(nextValue));
         Map<byte[], List<Cell>> familyMap = append.getFamilyCellMap();
         familyMap.put(PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES, Arrays.<Cell>asList(
-        		(Cell)KeyValueUtil.newKeyValue(key, PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.CURRENT_VALUE_BYTES, value.timestamp, PLong.INSTANCE.toBytes(value.currentValue)),
-        		(Cell)KeyValueUtil.newKeyValue(key, PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.LIMIT_REACHED_FLAG_BYTES, value.timestamp, PBoolean.INSTANCE.toBytes(value.limitReached))
+        		(Cell)KeyValueUtil.newKeyValue(key, PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.CURRENT_VALUE_BYTES, timestamp, PLong.INSTANCE.toBytes(currentValue)),
+        		(Cell)KeyValueUtil.newKeyValue(key, PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.LIMIT_REACHED_FLAG_BYTES, timestamp, PBoolean.INSTANCE.toBytes(limitReached))
                 ));
         return append;
     }
@@ -469,6 +583,8 @@ public class Sequence {
         public final long incrementBy;
         public final long timestamp;
         public final long cacheSize;
+        // Number of slots allocated by the server for this value
+        public final long numAllocated;
         
         public long currentValue;
         public long nextValue;
@@ -491,6 +607,7 @@ public class Sequence {
             this.incrementBy = 0;
             this.limitReached = false;
             this.cacheSize = 0;
+            this.numAllocated = 0;
         }
         
         public boolean isInitialized() {
@@ -517,12 +634,13 @@ public class Sequence {
             this.cycle = (Boolean) PBoolean.INSTANCE.toObject(cycleKV.getValueArray(), cycleKV.getValueOffset(), cycleKV.getValueLength());
             this.limitReached = false;
             currentValue = nextValue;
+            // We can't just take the max of numToAllocate and cacheSize
+            // We need to handle a valid edgecase where a client requests bulk allocation of 
+            // a number of slots that are less than cache size of the sequence
+            this.numAllocated = SequenceUtil.isBulkAllocation(numToAllocate) ? numToAllocate : cacheSize;
             
             if (op != ValueOp.VALIDATE_SEQUENCE) {
-                // We can't just take the max of numToAllocate and cacheSize
-                // We need to handle a valid edgecase where a client requests bulk allocation of 
-                // a number of slots that are less than cache size of the sequence
-                currentValue -= incrementBy * (SequenceUtil.isBulkAllocation(numToAllocate) ? numToAllocate : cacheSize);
+                currentValue -= incrementBy * numAllocated;
             }
         }
     }
@@ -583,6 +701,7 @@ public class Sequence {
         if (statusCode == 0) {  // Success - add sequence value and return timestamp
             SequenceValue value = new SequenceValue(timestamp, minValue, maxValue, cycle);
             insertSequenceValue(value);
+            prefetchedValue = null;
             return timestamp;
         }
         SQLExceptionCode code = SQLExceptionCode.fromErrorCode(statusCode);
@@ -613,6 +732,7 @@ public class Sequence {
         if (code == null) {
             // Insert delete marker so that point-in-time sequences work
             insertSequenceValue(new SequenceValue(timestamp, true));
+            prefetchedValue = null;
             return timestamp;
         }
         // TODO: We could have the server return the timestamps of the
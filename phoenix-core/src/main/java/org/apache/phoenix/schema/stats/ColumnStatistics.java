@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema.stats;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.util.SizedUtil;
+
+/**
+ * Statistics collected for a single column qualifier of a column family: the number
+ * of rows in which the column has a value and a sketch of the distinct values. The
+ * null count is derived from the row count of the column family, see
+ * {@link GuidePostsInfo#getNullCount(byte[])}.
+ */
+public class ColumnStatistics {
+    public static final int ESTIMATED_SIZE = SizedUtil.OBJECT_SIZE + SizedUtil.LONG_SIZE + SizedUtil.POINTER_SIZE
+            + SizedUtil.OBJECT_SIZE + SizedUtil.ARRAY_SIZE + HyperLogLog.REGISTER_COUNT;
+
+    private long nonNullCount;
+    private final HyperLogLog distinctValues;
+
+    public ColumnStatistics() {
+        this(0, new HyperLogLog());
+    }
+
+    private ColumnStatistics(long nonNullCount, HyperLogLog distinctValues) {
+        this.nonNullCount = nonNullCount;
+        this.distinctValues = distinctValues;
+    }
+
+    public void update(byte[] value, int offset, int length) {
+        nonNullCount++;
+        distinctValues.offer(value, offset, length);
+    }
+
+    public void merge(ColumnStatistics other) {
+        nonNullCount += other.nonNullCount;
+        distinctValues.merge(other.distinctValues);
+    }
+
+    public long getNonNullCount() {
+        return nonNullCount;
+    }
+
+    /**
+     * @return the estimated number of distinct non null values, never more than
+     * the number of non null values.
+     */
+    public long getDistinctCount() {
+        return Math.min(nonNullCount, distinctValues.cardinality());
+    }
+
+    public byte[] toBytes() {
+        return Bytes.add(Bytes.toBytes(nonNullCount), distinctValues.toBytes());
+    }
+
+    public static ColumnStatistics fromBytes(byte[] b, int offset, int length) {
+        long nonNullCount = Bytes.toLong(b, offset);
+        HyperLogLog distinctValues = HyperLogLog.fromBytes(b, offset + Bytes.SIZEOF_LONG, length - Bytes.SIZEOF_LONG);
+        return new ColumnStatistics(nonNullCount, distinctValues);
+    }
+}
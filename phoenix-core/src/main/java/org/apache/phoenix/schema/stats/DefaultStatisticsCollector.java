@@ -27,6 +27,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.KeyValueUtil;
 import org.apache.hadoop.hbase.client.Get;
@@ -69,6 +70,8 @@ class DefaultStatisticsCollector implements StatisticsCollector {
     // Where to look for GUIDE_POSTS_WIDTH in SYSTEM.CATALOG
     private final byte[] ptableKey;
     private final RegionCoprocessorEnvironment env;
+    private final boolean collectColumnStats;
+    private final ImmutableBytesPtr qualifierPtr = new ImmutableBytesPtr();
 
     private long guidePostDepth;
     private long maxTimeStamp = MetaDataProtocol.MIN_TABLE_TIMESTAMP;
@@ -89,6 +92,9 @@ class DefaultStatisticsCollector implements StatisticsCollector {
         if (!useCurrentTime) {
             clientTimeStamp = DefaultStatisticsCollector.NO_TIMESTAMP;
         }
+        this.collectColumnStats = env.getConfiguration().getBoolean(
+                QueryServices.STATS_COLUMN_STATS_ENABLED_ATTRIB,
+                QueryServicesOptions.DEFAULT_STATS_COLUMN_STATS_ENABLED);
         String pName = tableName;
         // For view index, get GUIDE_POST_WIDTH from data physical table
         // since there's no row representing those in SYSTEM.CATALOG.
@@ -224,7 +230,7 @@ class DefaultStatisticsCollector implements StatisticsCollector {
                 }
                 // If we've disabled stats, don't write any, just delete them
                 if (this.guidePostDepth > 0) {
-                    statsWriter.addStats(this, fam, mutations);
+                    statsWriter.addStats(region, this, fam, mutations);
                 }
             }
         } catch (IOException e) {
@@ -263,6 +269,7 @@ class DefaultStatisticsCollector implements StatisticsCollector {
             currentRow = row;
             incrementRow = true;
         }
+        Cell previousCell = null;
         for (Cell cell : results) {
             KeyValue kv = KeyValueUtil.ensureKeyValue(cell);
             maxTimeStamp = Math.max(maxTimeStamp, kv.getTimestamp());
@@ -279,14 +286,29 @@ class DefaultStatisticsCollector implements StatisticsCollector {
                 if (famMap.get(cfKey) == null) {
                     famMap.put(cfKey, true);
                     gps.getSecond().incrementRowCount();
+                    if (collectColumnStats) {
+                        gps.getSecond().incrementColumnStatisticsRowCount();
+                    }
                 }
             } else {
                 gps = cachedGuidePosts;
                 if (incrementRow) {
                     cachedGuidePosts.getSecond().incrementRowCount();
+                    if (collectColumnStats) {
+                        cachedGuidePosts.getSecond().incrementColumnStatisticsRowCount();
+                    }
                     incrementRow = false;
                 }
             }
+            // Only track the latest version of each column so that multiple versions
+            // of the same cell are counted once.
+            if (collectColumnStats && !CellUtil.isDelete(kv)
+                    && (previousCell == null || !CellUtil.matchingColumn(previousCell, kv))) {
+                qualifierPtr.set(kv.getQualifierArray(), kv.getQualifierOffset(), kv.getQualifierLength());
+                gps.getSecond().updateColumnStatistics(qualifierPtr, kv.getValueArray(), kv.getValueOffset(),
+                        kv.getValueLength());
+            }
+            previousCell = kv;
             int kvLength = kv.getLength();
             long byteCount = gps.getFirst() + kvLength;
             gps.setFirst(byteCount);
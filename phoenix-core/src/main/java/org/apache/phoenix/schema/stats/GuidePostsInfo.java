@@ -18,12 +18,16 @@
 package org.apache.phoenix.schema.stats;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.util.ByteUtil;
 import org.apache.phoenix.util.SizedUtil;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Longs;
 /**
  *  A class that holds the guidePosts of a region and also allows combining the 
@@ -65,6 +69,14 @@ public class GuidePostsInfo {
      * The bytecounts of each guidePost traversed
      */
     private final long[] byteCounts;
+    /**
+     * Number of rows of the column family over which column statistics were collected
+     */
+    private final long columnStatisticsRowCount;
+    /**
+     * The statistics collected for each column qualifier of the column family
+     */
+    private final Map<ImmutableBytesPtr, ColumnStatistics> columnStatistics;
     /**
      * Estimate of byte size of this instance
      */
@@ -86,17 +98,40 @@ public class GuidePostsInfo {
      */
     public GuidePostsInfo(List<Long> byteCounts, ImmutableBytesWritable guidePosts, List<Long> rowCounts, int maxLength,
             int guidePostsCount) {
+        this(byteCounts, guidePosts, rowCounts, maxLength, guidePostsCount, 0,
+                Collections.<ImmutableBytesPtr, ColumnStatistics>emptyMap());
+    }
+
+    /**
+     * Constructor that creates GuidePostsInfo along with the column level statistics
+     * 
+     * @param columnStatisticsRowCount
+     *            Number of rows over which column statistics were collected
+     * @param columnStatistics
+     *            Statistics for each column qualifier of the column family
+     */
+    public GuidePostsInfo(List<Long> byteCounts, ImmutableBytesWritable guidePosts, List<Long> rowCounts, int maxLength,
+            int guidePostsCount, long columnStatisticsRowCount, Map<ImmutableBytesPtr, ColumnStatistics> columnStatistics) {
         this.guidePosts = new ImmutableBytesWritable(guidePosts);
         this.maxLength = maxLength;
         this.guidePostsCount = guidePostsCount;
         this.rowCounts = Longs.toArray(rowCounts);
         this.byteCounts = Longs.toArray(byteCounts);
+        this.columnStatisticsRowCount = columnStatisticsRowCount;
+        this.columnStatistics = ImmutableMap.copyOf(columnStatistics);
+        int columnStatisticsSize = 0;
+        for (ImmutableBytesPtr qualifier : this.columnStatistics.keySet()) {
+            columnStatisticsSize += SizedUtil.MAP_ENTRY_SIZE + SizedUtil.IMMUTABLE_BYTES_PTR_SIZE
+                    + qualifier.getLength() + ColumnStatistics.ESTIMATED_SIZE;
+        }
         int estimatedSize = SizedUtil.OBJECT_SIZE 
                 + SizedUtil.IMMUTABLE_BYTES_WRITABLE_SIZE + guidePosts.getLength() // guidePosts
                 + SizedUtil.INT_SIZE // maxLength
                 + SizedUtil.INT_SIZE // guidePostsCount
                 + SizedUtil.ARRAY_SIZE + this.rowCounts.length * SizedUtil.LONG_SIZE // rowCounts
                 + SizedUtil.ARRAY_SIZE + this.byteCounts.length * SizedUtil.LONG_SIZE // byteCounts
+                + SizedUtil.LONG_SIZE // columnStatisticsRowCount
+                + SizedUtil.OBJECT_SIZE + columnStatisticsSize // columnStatistics
                 + SizedUtil.INT_SIZE; // estimatedSize
         this.estimatedSize = estimatedSize;
     }
@@ -124,4 +159,52 @@ public class GuidePostsInfo {
     public int getEstimatedSize() {
         return estimatedSize;
     }
+
+    /**
+     * @return true if column level statistics were collected for the column family.
+     */
+    public boolean hasColumnStatistics() {
+        return !columnStatistics.isEmpty();
+    }
+
+    public long getColumnStatisticsRowCount() {
+        return columnStatisticsRowCount;
+    }
+
+    public Map<ImmutableBytesPtr, ColumnStatistics> getColumnStatistics() {
+        return columnStatistics;
+    }
+
+    /**
+     * @return the statistics for the given column qualifier or null if the column had no
+     * values when the statistics were collected.
+     */
+    public ColumnStatistics getColumnStatistics(byte[] columnQualifier) {
+        return columnStatistics.get(new ImmutableBytesPtr(columnQualifier));
+    }
+
+    /**
+     * @return the estimated number of distinct values of the given column or -1 if no column
+     * level statistics have been collected.
+     */
+    public long getDistinctCount(byte[] columnQualifier) {
+        if (!hasColumnStatistics()) {
+            return -1;
+        }
+        ColumnStatistics stats = getColumnStatistics(columnQualifier);
+        return stats == null ? 0 : stats.getDistinctCount();
+    }
+
+    /**
+     * @return the number of rows in which the given column is null or -1 if no column
+     * level statistics have been collected.
+     */
+    public long getNullCount(byte[] columnQualifier) {
+        if (!hasColumnStatistics()) {
+            return -1;
+        }
+        ColumnStatistics stats = getColumnStatistics(columnQualifier);
+        return stats == null ? columnStatisticsRowCount
+                : Math.max(0, columnStatisticsRowCount - stats.getNonNullCount());
+    }
 }
\ No newline at end of file
@@ -21,12 +21,16 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.util.ByteUtil;
 import org.apache.phoenix.util.PrefixByteEncoder;
 import org.apache.phoenix.util.TrustedByteArrayOutputStream;
 
+import com.google.common.collect.Maps;
+
 /*
  * Builder to help in adding guidePosts and building guidePostInfo. This is used when we are collecting stats or reading stats for a table.
  */
@@ -50,6 +54,12 @@ public class GuidePostsInfoBuilder {
     private TrustedByteArrayOutputStream stream;
     private List<Long> rowCounts = new ArrayList<Long>();
     private List<Long> byteCounts = new ArrayList<Long>();
+    /**
+     * The number of rows seen while collecting column statistics. Unlike rowCount
+     * this is not reset when a guidePost is added.
+     */
+    private long columnStatisticsRowCount = 0;
+    private Map<ImmutableBytesPtr, ColumnStatistics> columnStatistics = Maps.newHashMap();
 
     public boolean isEmpty() {
         return rowCounts.size() == 0;
@@ -113,10 +123,48 @@ public class GuidePostsInfoBuilder {
     public GuidePostsInfo build() {
         this.guidePosts.set(stream.getBuffer(), 0, stream.size());
         GuidePostsInfo guidePostsInfo = new GuidePostsInfo(this.byteCounts, this.guidePosts, this.rowCounts,
-                this.maxLength, this.guidePostsCount);
+                this.maxLength, this.guidePostsCount, this.columnStatisticsRowCount, this.columnStatistics);
         return guidePostsInfo;
     }
 
+    public boolean hasColumnStatistics() {
+        return !columnStatistics.isEmpty();
+    }
+
+    /**
+     * Track a non null value of the given column while collecting stats.
+     * @param qualifier column qualifier which may be reused by the caller across calls
+     */
+    public void updateColumnStatistics(ImmutableBytesPtr qualifier, byte[] value, int offset, int length) {
+        ColumnStatistics stats = columnStatistics.get(qualifier);
+        if (stats == null) {
+            stats = new ColumnStatistics();
+            columnStatistics.put(new ImmutableBytesPtr(qualifier.copyBytes()), stats);
+        }
+        stats.update(value, offset, length);
+    }
+
+    public void incrementColumnStatisticsRowCount() {
+        this.columnStatisticsRowCount++;
+    }
+
+    /**
+     * Combine the column statistics of a region with the ones already accumulated when reading
+     * stats for a table.
+     */
+    public void addColumnStatisticsRowCount(long rowCount) {
+        this.columnStatisticsRowCount += rowCount;
+    }
+
+    public void addColumnStatistics(ImmutableBytesPtr qualifier, ColumnStatistics stats) {
+        ColumnStatistics existingStats = columnStatistics.get(qualifier);
+        if (existingStats == null) {
+            columnStatistics.put(qualifier, stats);
+        } else {
+            existingStats.merge(stats);
+        }
+    }
+
     public void incrementRowCount() {
         this.rowCount++;
     }
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema.stats;
+
+import java.util.Arrays;
+
+/**
+ * Fixed precision HyperLogLog sketch used to estimate the number of distinct values
+ * of a column while collecting statistics. Sketches collected for different regions
+ * may be merged to produce the estimate for the entire table.
+ */
+public class HyperLogLog {
+    /**
+     * Number of bits of the hash used to choose a register. With 2^10 registers the
+     * standard error of the estimate is about 3%.
+     */
+    public static final int PRECISION = 10;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public void offer(byte[] b, int offset, int length) {
+        long hash = hash(b, offset, length);
+        int index = (int)(hash >>> (Long.SIZE - PRECISION));
+        long w = hash << PRECISION;
+        int rank = w == 0 ? Long.SIZE - PRECISION + 1 : Long.numberOfLeadingZeros(w) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte)rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long cardinality() {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            sum += 1.0 / (1L << registers[i]);
+            if (registers[i] == 0) {
+                zeroRegisters++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Use linear counting for small cardinalities where the raw estimate is biased
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            estimate = REGISTER_COUNT * Math.log((double)REGISTER_COUNT / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(registers, REGISTER_COUNT);
+    }
+
+    public static HyperLogLog fromBytes(byte[] b, int offset, int length) {
+        if (length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("Expected " + REGISTER_COUNT + " bytes for sketch, but got " + length);
+        }
+        return new HyperLogLog(Arrays.copyOfRange(b, offset, offset + length));
+    }
+
+    /*
+     * FNV-1a followed by the murmur3 finalizer to spread the bits across the entire long.
+     */
+    private static long hash(byte[] b, int offset, int length) {
+        long h = FNV_OFFSET_BASIS;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= (b[i] & 0xff);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -74,6 +74,40 @@ public class StatisticsUtil {
 
     /** Number of parts in our complex key */
     protected static final int NUM_KEY_PARTS = 3;
+
+    /**
+     * Prefix of the qualifiers under which column level statistics are stored in the first
+     * guidepost row of a region, or in the row returned by {@link #getColumnStatsRowKey} for a
+     * region without guideposts. The qualifier consisting of just the prefix holds the row
+     * count of the column family, while the prefix followed by a column qualifier holds the
+     * serialized {@link ColumnStatistics} of that column.
+     */
+    public static final byte[] COLUMN_STATS_QUALIFIER_PREFIX = Bytes.add(
+            new byte[] {QueryConstants.SEPARATOR_BYTE}, Bytes.toBytes("COLUMN_STATS"));
+
+    public static byte[] getColumnStatsQualifier(ImmutableBytesWritable columnQualifier) {
+        return Bytes.add(COLUMN_STATS_QUALIFIER_PREFIX, ByteUtil.copyKeyBytesIfNecessary(columnQualifier));
+    }
+
+    private static boolean isColumnStatsCell(Cell cell) {
+        return cell.getQualifierLength() >= COLUMN_STATS_QUALIFIER_PREFIX.length
+                && Bytes.equals(cell.getQualifierArray(), cell.getQualifierOffset(),
+                        COLUMN_STATS_QUALIFIER_PREFIX.length, COLUMN_STATS_QUALIFIER_PREFIX, 0,
+                        COLUMN_STATS_QUALIFIER_PREFIX.length);
+    }
+
+    private static void addColumnStatistics(GuidePostsInfoBuilder builder, Cell cell) {
+        int prefixLength = COLUMN_STATS_QUALIFIER_PREFIX.length;
+        if (cell.getQualifierLength() == prefixLength) {
+            builder.addColumnStatisticsRowCount(PLong.INSTANCE.getCodec().decodeLong(cell.getValueArray(),
+                    cell.getValueOffset(), SortOrder.getDefault()));
+        } else {
+            byte[] columnQualifier = Bytes.copy(cell.getQualifierArray(), cell.getQualifierOffset() + prefixLength,
+                    cell.getQualifierLength() - prefixLength);
+            builder.addColumnStatistics(new ImmutableBytesPtr(columnQualifier),
+                    ColumnStatistics.fromBytes(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
+        }
+    }
     
     public static byte[] getRowKey(byte[] table, ImmutableBytesWritable fam, byte[] guidePostStartKey) {
         return getRowKey(table, fam, new ImmutableBytesWritable(guidePostStartKey,0,guidePostStartKey.length));
@@ -97,6 +131,17 @@ public class StatisticsUtil {
         return rowKey;
     }
 
+    /**
+     * @return the key of the row holding the column level statistics of a region without
+     * guideposts, which sorts within the guideposts of the region, so that the row is deleted
+     * along with them, but unlike the guidepost rows has no guidepost width or row count.
+     */
+    public static byte[] getColumnStatsRowKey(byte[] table, ImmutableBytesWritable fam, byte[] regionStartKey) {
+        // Terminate the family with a separator even for the first region, whose start key is
+        // empty, to keep the row apart from the empty guidepost indicator
+        return ByteUtil.concat(getKey(table, fam, true), regionStartKey);
+    }
+
     private static byte[] getStartKey(byte[] table, ImmutableBytesWritable fam) {
         return getKey(table, fam, false);
     }
@@ -165,9 +210,9 @@ public class StatisticsUtil {
         byte[] startKey = getStartKey(tableNameBytes, ptr);
         byte[] endKey = getEndKey(tableNameBytes, ptr);
         Scan s = MetaDataUtil.newTableRowsScan(startKey, endKey, MetaDataProtocol.MIN_TABLE_TIMESTAMP, clientTimeStamp);
-        s.addColumn(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, PhoenixDatabaseMetaData.GUIDE_POSTS_WIDTH_BYTES);
-        s.addColumn(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, PhoenixDatabaseMetaData.GUIDE_POSTS_ROW_COUNT_BYTES);
-        s.addColumn(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, QueryConstants.EMPTY_COLUMN_BYTES);
+        // Scan the entire family as the column level statistics are stored in qualifiers
+        // derived from the column qualifiers of the table.
+        s.addFamily(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES);
         GuidePostsInfoBuilder guidePostsInfoWriter = new GuidePostsInfoBuilder();
         Cell current = null;
         try (ResultScanner scanner = statsHTable.getScanner(s)) {
@@ -176,6 +221,7 @@ public class StatisticsUtil {
                 CellScanner cellScanner = result.cellScanner();
                 long rowCount = 0;
                 long byteCount = 0;
+                boolean isGuidePost = false;
                  while (cellScanner.advance()) {
                     current = cellScanner.current();
                     if (Bytes.equals(current.getQualifierArray(), current.getQualifierOffset(),
@@ -183,14 +229,19 @@ public class StatisticsUtil {
                             PhoenixDatabaseMetaData.GUIDE_POSTS_ROW_COUNT_BYTES.length)) {
                         rowCount = PLong.INSTANCE.getCodec().decodeLong(current.getValueArray(),
                                 current.getValueOffset(), SortOrder.getDefault());
+                        isGuidePost = true;
                     } else if (Bytes.equals(current.getQualifierArray(), current.getQualifierOffset(),
                             current.getQualifierLength(), PhoenixDatabaseMetaData.GUIDE_POSTS_WIDTH_BYTES, 0,
                             PhoenixDatabaseMetaData.GUIDE_POSTS_WIDTH_BYTES.length)) {
                         byteCount = PLong.INSTANCE.getCodec().decodeLong(current.getValueArray(),
                                 current.getValueOffset(), SortOrder.getDefault());
+                        isGuidePost = true;
+                    } else if (isColumnStatsCell(current)) {
+                        addColumnStatistics(guidePostsInfoWriter, current);
                     }
                 }
-                if (current != null) {
+                // Rows holding only the column level statistics of a region aren't guideposts
+                if (current != null && isGuidePost) {
                     int tableNameLength = tableNameBytes.length + 1;
                     int cfOffset = current.getRowOffset() + tableNameLength;
                     int cfLength = getVarCharLength(current.getRowArray(), cfOffset,
@@ -204,7 +255,11 @@ public class StatisticsUtil {
         }
         // We write a row with an empty KeyValue in the case that stats were generated but without enough data
         // for any guideposts. If we have no rows, it means stats were never generated.
-        return current == null ? GuidePostsInfo.NO_GUIDEPOST : guidePostsInfoWriter.isEmpty() ? GuidePostsInfo.EMPTY_GUIDEPOST : guidePostsInfoWriter.build();
+        if (current == null) {
+            return GuidePostsInfo.NO_GUIDEPOST;
+        }
+        return guidePostsInfoWriter.isEmpty() && !guidePostsInfoWriter.hasColumnStatistics()
+                ? GuidePostsInfo.EMPTY_GUIDEPOST : guidePostsInfoWriter.build();
     }
 
     private static SortedMap<byte[], GuidePostsInfo> getGuidePostsPerCf(
@@ -25,6 +25,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.sql.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.hbase.DoNotRetryIOException;
 import org.apache.hadoop.hbase.HConstants;
@@ -112,6 +113,8 @@ public class StatisticsWriter implements Closeable {
      * Upsert queries to update the table If the region gets splitted or the major compaction happens we update using
      * HTable.put()
      * 
+     * @param region
+     *            - the region for which the stats is getting collected.
      * @param tracker
      *            - the statistics tracker
      * @param cfKey
@@ -123,7 +126,7 @@ public class StatisticsWriter implements Closeable {
      *             remaining list of stats to update
      */
     @SuppressWarnings("deprecation")
-    public void addStats(StatisticsCollector tracker, ImmutableBytesPtr cfKey, List<Mutation> mutations)
+    public void addStats(Region region, StatisticsCollector tracker, ImmutableBytesPtr cfKey, List<Mutation> mutations)
             throws IOException {
         if (tracker == null) { return; }
         boolean useMaxTimeStamp = clientTimeStamp == DefaultStatisticsCollector.NO_TIMESTAMP;
@@ -146,7 +149,10 @@ public class StatisticsWriter implements Closeable {
                     PrefixByteDecoder decoder = new PrefixByteDecoder(gps.getMaxLength());
                     do {
                         ImmutableBytesWritable ptr = decoder.decode(input);
-                        addGuidepost(cfKey, mutations, ptr, byteCounts[guidePostCount], rowCounts[guidePostCount], timeStamp);
+                        // Column level statistics are kept with the first guidepost of the region
+                        // so that they're deleted along with the guideposts of the region.
+                        addGuidepost(cfKey, mutations, ptr, byteCounts[guidePostCount], rowCounts[guidePostCount],
+                                timeStamp, guidePostCount == 0 ? gps : null);
                         guidePostCount++;
                     } while (decoder != null);
                 } catch (EOFException e) { // Ignore as this signifies we're done
@@ -159,13 +165,24 @@ public class StatisticsWriter implements Closeable {
                 Delete delete = new Delete(rowKey, timeStamp);
                 mutations.add(delete);
             } else {
-                addGuidepost(cfKey, mutations, ByteUtil.EMPTY_IMMUTABLE_BYTE_ARRAY, 0, 0, timeStamp);
+                addGuidepost(cfKey, mutations, ByteUtil.EMPTY_IMMUTABLE_BYTE_ARRAY, 0, 0, timeStamp, null);
+                // The empty guidepost indicator is shared by the regions without guideposts, so
+                // their column level statistics are kept in a row keyed by their start key instead.
+                if (gps.hasColumnStatistics()) {
+                    Put put = new Put(StatisticsUtil.getColumnStatsRowKey(tableName, cfKey,
+                            region.getRegionInfo().getStartKey()));
+                    // Add our empty column value so that the row is found and deleted with the stats of the region
+                    put.add(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, QueryConstants.EMPTY_COLUMN_BYTES, timeStamp,
+                            ByteUtil.EMPTY_BYTE_ARRAY);
+                    addColumnStatistics(put, gps, timeStamp);
+                    mutations.add(put);
+                }
             }
         }
     }
     
     @SuppressWarnings("deprecation")
-    private void addGuidepost(ImmutableBytesPtr cfKey, List<Mutation> mutations, ImmutableBytesWritable ptr, long byteCount, long rowCount, long timeStamp) {
+    private void addGuidepost(ImmutableBytesPtr cfKey, List<Mutation> mutations, ImmutableBytesWritable ptr, long byteCount, long rowCount, long timeStamp, GuidePostsInfo columnStats) {
         byte[] prefix = StatisticsUtil.getRowKey(tableName, cfKey, ptr);
         Put put = new Put(prefix);
         put.add(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, PhoenixDatabaseMetaData.GUIDE_POSTS_WIDTH_BYTES,
@@ -176,9 +193,22 @@ public class StatisticsWriter implements Closeable {
         // Add our empty column value so queries behave correctly
         put.add(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, QueryConstants.EMPTY_COLUMN_BYTES, timeStamp,
                 ByteUtil.EMPTY_BYTE_ARRAY);
+        if (columnStats != null && columnStats.hasColumnStatistics()) {
+            addColumnStatistics(put, columnStats, timeStamp);
+        }
         mutations.add(put);
     }
 
+    @SuppressWarnings("deprecation")
+    private static void addColumnStatistics(Put put, GuidePostsInfo gps, long timeStamp) {
+        put.add(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, StatisticsUtil.COLUMN_STATS_QUALIFIER_PREFIX, timeStamp,
+                PLong.INSTANCE.toBytes(gps.getColumnStatisticsRowCount()));
+        for (Map.Entry<ImmutableBytesPtr, ColumnStatistics> entry : gps.getColumnStatistics().entrySet()) {
+            put.add(QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES, StatisticsUtil.getColumnStatsQualifier(entry.getKey()),
+                    timeStamp, entry.getValue().toBytes());
+        }
+    }
+
     private static MutationType getMutationType(Mutation m) throws IOException {
         if (m instanceof Put) {
             return MutationType.PUT;
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.htrace.Span;
+
+/**
+ * Bounded ring buffer of spans, preallocated to its capacity, which many threads can offer spans
+ * to and poll spans from without locking. Spans offered while the buffer is full are dropped, so
+ * that the threads finishing spans never wait on the trace writers.
+ * <p>
+ * Each slot has a sequence number telling whether it's ready to be written or read at a given
+ * position of the buffer, so that producers and consumers only contend on the position they
+ * claim.
+ */
+class SpanRingBuffer {
+    private final Span[] spans;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the minimum number of spans the buffer holds, rounded up to a power of two
+     */
+    SpanRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.spans = new Span[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return true if the span was added, or false if the buffer is full
+     */
+    boolean offer(Span span) {
+        long position = tail.get();
+        while (true) {
+            int index = (int)(position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    spans[index] = span;
+                    // Publishes the span to the consumer of this position
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // The slot still holds the span of the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest span of the buffer, or null if it's empty
+     */
+    Span poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int)(position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Span span = spans[index];
+                    spans[index] = null;
+                    // Hands the slot back to the producer of the next lap
+                    sequences.set(index, position + mask + 1);
+                    return span;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+        return (int)Math.max(0, Math.min(size, spans.length));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return spans.length;
+    }
+}
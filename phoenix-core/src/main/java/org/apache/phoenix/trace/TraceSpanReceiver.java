@@ -18,8 +18,6 @@
 package org.apache.phoenix.trace;
 
 import java.io.IOException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.logging.Log;
@@ -61,28 +59,75 @@ import org.apache.phoenix.query.QueryServicesOptions;
  * This class is custom implementation of metrics queue and handles batch writes to the Phoenix Table
  * via another thread. Batch size and number of threads are configurable.
  * <p>
+ * Spans are sampled by trace id before they're buffered, so that tracing can be left on with
+ * only a fraction of the traces being written, along with the spans slower than a threshold.
+ * <p>
  */
 public class TraceSpanReceiver implements SpanReceiver {
 
     private static final Log LOG = LogFactory.getLog(TraceSpanReceiver.class);
 
-    private static final int CAPACITY = QueryServicesOptions.withDefaults().getTracingTraceBufferSize();
-
-    private BlockingQueue<Span> spanQueue = null;
+    private final SpanRingBuffer spanQueue;
+    // Traces whose trace id hashes below this threshold are sampled
+    private final long samplingThreshold;
+    private final long slowSpanThresholdMs;
 
     public TraceSpanReceiver() {
-        this.spanQueue = new ArrayBlockingQueue<Span>(CAPACITY);
+        this(QueryServicesOptions.withDefaults());
+    }
+
+    private TraceSpanReceiver(QueryServicesOptions options) {
+        this(options.getTracingTraceBufferSize(), options.getTracingSamplingRate(),
+            options.getTracingSlowSpanThresholdMs());
+    }
+
+    /**
+     * @param capacity number of spans buffered until they're written
+     * @param samplingRate fraction of the traces whose spans are written
+     * @param slowSpanThresholdMs duration from which spans of traces that aren't sampled are
+     *            written anyway, or a negative value to only write the spans of sampled traces
+     */
+    @VisibleForTesting
+    TraceSpanReceiver(int capacity, double samplingRate, long slowSpanThresholdMs) {
+        this.spanQueue = new SpanRingBuffer(capacity);
+        this.samplingThreshold = samplingRate >= 1.0 ? Long.MAX_VALUE
+                : (long) (Math.max(0.0, samplingRate) * Long.MAX_VALUE);
+        this.slowSpanThresholdMs = slowSpanThresholdMs;
     }
 
     @Override
     public void receiveSpan(Span span) {
-        if (span.getTraceId() != 0 && spanQueue.offer(span)) {
+        if (span.getTraceId() == 0 || !isSampled(span)) {
+            return;
+        }
+        if (spanQueue.offer(span)) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Span buffered to queue " + span.toJson());
             }
-        } else if (span.getTraceId() != 0 && LOG.isDebugEnabled()) {
-                LOG.debug("Span NOT buffered due to overflow in queue " + span.toJson());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("Span NOT buffered due to overflow in queue " + span.toJson());
+        }
+    }
+
+    /**
+     * Decides whether the span is written. The decision for the spans of a trace only depends on
+     * its trace id, which is shared by all the processes taking part in it, so that either all or
+     * none of its spans are kept. Spans slower than the threshold are kept regardless, so that
+     * the tail latencies are still traced at low sampling rates.
+     */
+    @VisibleForTesting
+    boolean isSampled(Span span) {
+        if (samplingThreshold == Long.MAX_VALUE
+                || (mix(span.getTraceId()) & Long.MAX_VALUE) < samplingThreshold) {
+            return true;
         }
+        return slowSpanThresholdMs >= 0 && span.getAccumulatedMillis() >= slowSpanThresholdMs;
+    }
+
+    // Spreads the trace ids evenly, in case they aren't random
+    private static long mix(long traceId) {
+        long h = traceId * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
     }
 
     @Override
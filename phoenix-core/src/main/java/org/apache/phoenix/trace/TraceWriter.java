@@ -42,20 +42,31 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.htrace.Span;
 import org.apache.htrace.TimelineAnnotation;
-import org.apache.phoenix.compile.MutationPlan;
-import org.apache.phoenix.execute.MutationState;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
 import org.apache.phoenix.jdbc.PhoenixConnection;
 import org.apache.phoenix.jdbc.PhoenixDatabaseMetaData;
-import org.apache.phoenix.jdbc.PhoenixPreparedStatement;
 import org.apache.phoenix.metrics.MetricInfo;
+import org.apache.phoenix.query.QueryConstants;
 import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.schema.PColumn;
+import org.apache.phoenix.schema.PRow;
+import org.apache.phoenix.schema.PTable;
 import org.apache.phoenix.schema.TableNotFoundException;
+import org.apache.phoenix.schema.types.PLong;
+import org.apache.phoenix.schema.types.PSmallint;
+import org.apache.phoenix.schema.types.PVarchar;
 import org.apache.phoenix.trace.util.Tracing;
 import org.apache.phoenix.util.PhoenixRuntime;
 import org.apache.phoenix.util.QueryUtil;
+import org.apache.phoenix.util.SchemaUtil;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
@@ -66,12 +77,13 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
  * instantiates a thread pool of configurable size, which will pull the data from queue and write to
  * the Phoenix Trace Table in batches. Various configuration options include thread pool size and
  * batch commit size.
+ * <p>
+ * Spans are encoded straight into the cells of the trace table and written to it without going
+ * through an UPSERT statement, so secondary indexes on the trace table are not maintained.
  */
 public class TraceWriter {
     private static final Log LOG = LogFactory.getLog(TraceWriter.class);
 
-    private static final String VARIABLE_VALUE = "?";
-
     private static final Joiner COLUMN_JOIN = Joiner.on(".");
     static final String TAG_FAMILY = "tags";
     /**
@@ -82,11 +94,6 @@ public class TraceWriter {
     static final String ANNOTATION_FAMILY = "annotations";
     static final String ANNOTATION_COUNT = COLUMN_JOIN.join(ANNOTATION_FAMILY, "count");
 
-    /**
-     * Join strings on a comma
-     */
-    private static final Joiner COMMAS = Joiner.on(',');
-
     private String tableName;
     private int batchSize;
     private int numThreads;
@@ -130,10 +137,20 @@ public class TraceWriter {
     public class FlushMetrics implements Runnable {
 
         private Connection conn;
+        private SpanEncoder encoder;
+        private final List<Mutation> batch = new ArrayList<Mutation>();
         private int counter = 0;
 
         public FlushMetrics() {
             conn = getConnection(tableName);
+            if (conn == null) return;
+            try {
+                encoder = new SpanEncoder(conn.unwrap(PhoenixConnection.class), tableName);
+            } catch (SQLException e) {
+                LOG.error("Tracing will NOT be pursued. Could not resolve tracing Table: "
+                        + tableName, e);
+                conn = null;
+            }
         }
 
         @Override
@@ -148,98 +165,137 @@ public class TraceWriter {
                 addToBatch(span);
                 counter++;
                 if (counter >= batchSize) {
-                    commitBatch(conn);
-                    counter = 0;
+                    flush();
                 }
             }
+            // Write what's left rather than holding on to it until the next run
+            if (!batch.isEmpty()) {
+                flush();
+            }
         }
 
         private void addToBatch(Span span) {
+            try {
+                batch.addAll(encoder.encode(span));
+            } catch (SQLException e) {
+                LOG.error("Could not encode metric: \n" + span, e);
+            }
+        }
 
-            String stmt = "UPSERT INTO " + tableName + " (";
-            // drop it into the queue of things that should be written
-            List<String> keys = new ArrayList<String>();
-            List<Object> values = new ArrayList<Object>();
-            // we need to keep variable values in a separate set since they may have spaces, which
-            // causes the parser to barf. Instead, we need to add them after the statement is
-            // prepared
-            List<String> variableValues = new ArrayList<String>();
-            keys.add(TRACE.columnName);
-            values.add(span.getTraceId());
-
-            keys.add(DESCRIPTION.columnName);
-            values.add(VARIABLE_VALUE);
-            variableValues.add(span.getDescription());
+        private void flush() {
+            commitBatch(conn, encoder.getPhysicalTableName(), batch);
+            batch.clear();
+            counter = 0;
+        }
+    }
 
-            keys.add(SPAN.traceName);
-            values.add(span.getSpanId());
+    /**
+     * Encodes spans directly into the cells of the rows of the trace table. The columns of the
+     * table and the qualifiers of the dynamic tag and annotation columns are resolved once, so
+     * that no statement has to be parsed or compiled per span.
+     */
+    static class SpanEncoder {
+        private final PhoenixConnection conn;
+        private final PTable table;
+        private final PColumn description;
+        private final PColumn start;
+        private final PColumn end;
+        private final PColumn tagCountColumn;
+        private final PColumn annotationCountColumn;
+        private final byte[] tagFamily;
+        private final byte[] annotationFamily;
+        private final List<byte[]> tagQualifiers = new ArrayList<byte[]>();
+        private final List<byte[]> annotationQualifiers = new ArrayList<byte[]>();
+
+        SpanEncoder(PhoenixConnection conn, String tableName) throws SQLException {
+            this.conn = conn;
+            this.table = PhoenixRuntime.getTable(conn, tableName);
+            this.description = getColumn(table, DESCRIPTION.columnName);
+            this.start = getColumn(table, START.columnName);
+            this.end = getColumn(table, END.columnName);
+            this.tagCountColumn = getColumn(table, TAG_COUNT);
+            this.annotationCountColumn = getColumn(table, ANNOTATION_COUNT);
+            this.tagFamily = Bytes.toBytes(SchemaUtil.normalizeIdentifier(TAG_FAMILY));
+            this.annotationFamily = Bytes.toBytes(SchemaUtil.normalizeIdentifier(ANNOTATION_FAMILY));
+        }
 
-            keys.add(PARENT.traceName);
-            values.add(span.getParentId());
+        private static PColumn getColumn(PTable table, String name) throws SQLException {
+            int index = name.indexOf(QueryConstants.NAME_SEPARATOR);
+            if (index < 0) {
+                return table.getColumnForColumnName(SchemaUtil.normalizeIdentifier(name));
+            }
+            return table.getColumnFamily(SchemaUtil.normalizeIdentifier(name.substring(0, index)))
+                    .getPColumnForColumnName(SchemaUtil.normalizeIdentifier(name.substring(index + 1)));
+        }
 
-            keys.add(START.traceName);
-            values.add(span.getStartTimeMillis());
+        // Dynamic columns are stored under their name, t0, t1, ... and a0, a1, ...
+        private static byte[] getQualifier(List<byte[]> qualifiers, MetricInfo metric, int count) {
+            while (qualifiers.size() <= count) {
+                qualifiers.add(Bytes.toBytes(SchemaUtil.normalizeIdentifier(metric.columnName
+                        + qualifiers.size())));
+            }
+            return qualifiers.get(count);
+        }
 
-            keys.add(END.traceName);
-            values.add(span.getStopTimeMillis());
+        byte[] getPhysicalTableName() {
+            return table.getPhysicalName().getBytes();
+        }
 
-            int annotationCount = 0;
-            int tagCount = 0;
+        /**
+         * @return the mutations writing the same row and dynamic columns as an UPSERT of the span
+         */
+        List<Mutation> encode(Span span) throws SQLException {
+            byte[][] pkValues = new byte[table.getPKColumns().size()][];
+            int i = 0;
+            // The salt byte is filled in by the row
+            if (table.getBucketNum() != null) {
+                pkValues[i++] = new byte[] {0};
+            }
+            pkValues[i++] = PLong.INSTANCE.toBytes(span.getTraceId());
+            pkValues[i++] = PLong.INSTANCE.toBytes(span.getParentId());
+            pkValues[i++] = PLong.INSTANCE.toBytes(span.getSpanId());
+            ImmutableBytesPtr key = new ImmutableBytesPtr();
+            table.newKey(key, pkValues);
+            PRow row = table.newRow(conn.getKeyValueBuilder(), HConstants.LATEST_TIMESTAMP, key, false);
+            row.setValue(description, PVarchar.INSTANCE.toBytes(span.getDescription()));
+            row.setValue(start, PLong.INSTANCE.toBytes(span.getStartTimeMillis()));
+            row.setValue(end, PLong.INSTANCE.toBytes(span.getStopTimeMillis()));
+
+            List<TimelineAnnotation> timelineAnnotations = span.getTimelineAnnotations();
+            Map<byte[], byte[]> annotations = span.getKVAnnotations();
+            row.setValue(tagCountColumn, PSmallint.INSTANCE.toBytes((short) timelineAnnotations.size()));
+            row.setValue(annotationCountColumn, PSmallint.INSTANCE.toBytes((short) annotations.size()));
+            List<Mutation> mutations = row.toRowMutations();
+            Put put = null;
+            for (Mutation mutation : mutations) {
+                if (mutation instanceof Put) {
+                    put = (Put) mutation;
+                }
+            }
 
             // add the tags to the span. They were written in order received so we mark them as such
-            for (TimelineAnnotation ta : span.getTimelineAnnotations()) {
-                addDynamicEntry(keys, values, variableValues, TAG_FAMILY,
-                    Long.toString(ta.getTime()), ta.getMessage(), TAG, tagCount);
-                tagCount++;
+            int tagCount = 0;
+            for (TimelineAnnotation ta : timelineAnnotations) {
+                put.add(tagFamily, getQualifier(tagQualifiers, TAG, tagCount++),
+                    HConstants.LATEST_TIMESTAMP,
+                    getDynamicValue(Long.toString(ta.getTime()), ta.getMessage()));
             }
 
             // add the annotations. We assume they are serialized as strings and integers, but that
-            // can
-            // change in the future
-            Map<byte[], byte[]> annotations = span.getKVAnnotations();
+            // can change in the future
+            int annotationCount = 0;
             for (Map.Entry<byte[], byte[]> annotation : annotations.entrySet()) {
                 Pair<String, String> val =
                         TracingUtils.readAnnotation(annotation.getKey(), annotation.getValue());
-                addDynamicEntry(keys, values, variableValues, ANNOTATION_FAMILY, val.getFirst(),
-                    val.getSecond(), ANNOTATION, annotationCount);
-                annotationCount++;
+                put.add(annotationFamily,
+                    getQualifier(annotationQualifiers, ANNOTATION, annotationCount++),
+                    HConstants.LATEST_TIMESTAMP, getDynamicValue(val.getFirst(), val.getSecond()));
             }
+            return mutations;
+        }
 
-            // add the tag count, now that we know it
-            keys.add(TAG_COUNT);
-            // ignore the hostname in the tags, if we know it
-            values.add(tagCount);
-
-            keys.add(ANNOTATION_COUNT);
-            values.add(annotationCount);
-
-            // compile the statement together
-            stmt += COMMAS.join(keys);
-            stmt += ") VALUES (" + COMMAS.join(values) + ")";
-
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Logging metrics to phoenix table via: " + stmt);
-                LOG.trace("With tags: " + variableValues);
-            }
-            try {
-                PreparedStatement ps = conn.prepareStatement(stmt);
-                // add everything that wouldn't/may not parse
-                int index = 1;
-                for (String tag : variableValues) {
-                    ps.setString(index++, tag);
-                }
-
-                // Not going through the standard route of using statement.execute() as that code
-                // path
-                // is blocked if the metadata hasn't been been upgraded to the new minor release.
-                MutationPlan plan = ps.unwrap(PhoenixPreparedStatement.class).compileMutation(stmt);
-                MutationState state = conn.unwrap(PhoenixConnection.class).getMutationState();
-                MutationState newState = plan.execute();
-                state.join(newState);
-            } catch (SQLException e) {
-                LOG.error("Could not write metric: \n" + span + " to prepared statement:\n" + stmt,
-                    e);
-            }
+        private static byte[] getDynamicValue(String desc, String value) {
+            return PVarchar.INSTANCE.toBytes(desc + " - " + value);
         }
     }
 
@@ -247,18 +303,6 @@ public class TraceWriter {
         return COLUMN_JOIN.join(family, column) + count;
     }
 
-    private void addDynamicEntry(List<String> keys, List<Object> values,
-            List<String> variableValues, String family, String desc, String value,
-            MetricInfo metric, int count) {
-        // <family><.dynColumn><count> <VARCHAR>
-        keys.add(getDynamicColumnName(family, metric.columnName, count) + " VARCHAR");
-
-        // build the annotation value
-        String val = desc + " - " + value;
-        values.add(VARIABLE_VALUE);
-        variableValues.add(val);
-    }
-
     protected Connection getConnection(String tableName) {
 
         try {
@@ -320,10 +364,25 @@ public class TraceWriter {
         stmt.execute();
     }
 
-    protected void commitBatch(Connection conn) {
+    /**
+     * Writes the encoded spans directly to the trace table, in a single batch.
+     * @param conn connection to the cluster of the trace table
+     * @param physicalTableName name of the HBase table of the trace table
+     * @param mutations mutations of the rows of the spans
+     */
+    protected void commitBatch(Connection conn, byte[] physicalTableName, List<Mutation> mutations) {
         try {
-            conn.commit();
-        } catch (SQLException e) {
+            HTableInterface htable =
+                    conn.unwrap(PhoenixConnection.class).getQueryServices().getTable(physicalTableName);
+            try {
+                htable.batch(mutations, new Object[mutations.size()]);
+            } finally {
+                htable.close();
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             LOG.error(
                 "Unable to commit traces on conn: " + conn.toString() + " to table: " + tableName,
                 e);
@@ -23,6 +23,7 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Comparator;
 
@@ -465,6 +466,26 @@ public class ByteUtil {
         return true;
     }
 
+    /**
+     * Computes a key about in the middle of the keys sorting between two keys.
+     * @param lowerKey the lower key, possibly empty
+     * @param upperKey the upper key, sorting after the lower key
+     * @return a key sorting strictly after the lower key and strictly before the upper key
+     */
+    public static byte[] midKey(byte[] lowerKey, byte[] upperKey) {
+        Preconditions.checkArgument(Bytes.compareTo(lowerKey, upperKey) < 0);
+        // The extra byte leaves room for a key between keys differing by one in their last byte
+        int length = Math.max(lowerKey.length, upperKey.length) + 1;
+        BigInteger lower = new BigInteger(1, Arrays.copyOf(lowerKey, length));
+        BigInteger upper = new BigInteger(1, Arrays.copyOf(upperKey, length));
+        byte[] mid = lower.add(upper).shiftRight(1).toByteArray();
+        // Drop the sign byte or restore the leading null bytes
+        byte[] midKey = new byte[length];
+        int copyLength = Math.min(mid.length, length);
+        System.arraycopy(mid, mid.length - copyLength, midKey, length - copyLength, copyLength);
+        return midKey;
+    }
+
     /**
      * Expand the key to length bytes using a null byte.
      */
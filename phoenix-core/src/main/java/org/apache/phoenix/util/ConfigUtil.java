@@ -21,8 +21,14 @@ import static org.apache.hadoop.hbase.HConstants.HBASE_MASTER_LOGCLEANER_PLUGINS
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.phoenix.query.QueryServices;
+import org.apache.phoenix.query.QueryServicesOptions;
 
 public class ConfigUtil {
+  // Time in microseconds the HBase client waits for the primary region before reading the replicas
+  private static final String REPLICA_CALL_TIMEOUT_SCAN = "hbase.client.replicaCallTimeout.scan";
+  private static final String PRIMARY_CALL_TIMEOUT_GET = "hbase.client.primaryCallTimeout.get";
+
   /**
    * This function set missed replication configuration settings. It should only be used in testing
    * env.
@@ -39,4 +45,19 @@ public class ConfigUtil {
       conf.set(HConstants.ZOOKEEPER_QUORUM, "localhost");
     }
   }
+
+  /**
+   * Sets the time the HBase client waits for the primary region to answer a timeline consistent
+   * scan or get, before also sending it to the region replicas, to the hedged read delay. The
+   * HBase defaults are too long for hedging point lookups. Only meant for the configuration of the
+   * connection used by hedged reads, as it applies to every timeline consistent read made with it.
+   * @param conf
+   */
+  public static void setHedgedReadConfig(Configuration conf) {
+    long delayMs = conf.getLong(QueryServices.HEDGED_READ_DELAY_MS_ATTRIB,
+      QueryServicesOptions.DEFAULT_HEDGED_READ_DELAY_MS);
+    conf.setLong(REPLICA_CALL_TIMEOUT_SCAN, delayMs * 1000);
+    conf.setLong(PRIMARY_CALL_TIMEOUT_GET, delayMs * 1000);
+  }
+
 }
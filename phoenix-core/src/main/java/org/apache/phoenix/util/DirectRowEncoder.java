@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.util;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.exception.SQLExceptionInfo;
+import org.apache.phoenix.execute.MutationState;
+import org.apache.phoenix.execute.MutationState.RowMutationState;
+import org.apache.phoenix.expression.LiteralExpression;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.apache.phoenix.index.IndexMaintainer;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.query.QueryConstants;
+import org.apache.phoenix.schema.PColumn;
+import org.apache.phoenix.schema.PRow;
+import org.apache.phoenix.schema.PTable;
+import org.apache.phoenix.schema.PTableType;
+import org.apache.phoenix.schema.TypeMismatchException;
+import org.apache.phoenix.schema.types.PDataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Encodes the rows of a bulk load directly into the {@link KeyValue}s of a table and of its
+ * indexes, instead of executing an UPSERT statement for each of them and reading back the
+ * uncommitted data of the connection. The table, the columns of the fields and the indexes are
+ * resolved once, and the values are checked and coerced the same way as the values bound to
+ * an UPSERT VALUES statement.
+ *
+ * The values of the fields of a row are set with {@link #setValue(int, Object)} before
+ * {@link #encodeRow()} encodes it. Not thread safe.
+ *
+ * The timestamp of each row is resolved when it's encoded, as it is when the uncommitted data
+ * of an UPSERT is read: the SCN of the connection if it has one, and otherwise
+ * {@link HConstants#LATEST_TIMESTAMP}, which is replaced by the time the HFile is written. Rows
+ * loaded with the same primary key thus get the same timestamp, and which of their values is
+ * kept is up to the reducer, exactly as when they're upserted.
+ */
+public class DirectRowEncoder {
+    private static final Logger LOG = LoggerFactory.getLogger(DirectRowEncoder.class);
+
+    private final PhoenixConnection conn;
+    private final PTable table;
+    private final List<PTable> indexes;
+    // Column of each field, and its slot in the row key or -1 if it's not a primary key column
+    private final PColumn[] columns;
+    private final int[] pkSlots;
+    private final byte[][] values;
+    private final ImmutableBytesPtr ptr = new ImmutableBytesPtr();
+    private List<Pair<byte[], List<KeyValue>>> encodedRow = Collections.emptyList();
+
+    /**
+     * @return an encoder of the rows of the table, or null if its rows need more than the
+     * values of the fields to be built, in which case they have to be upserted instead
+     */
+    public static DirectRowEncoder create(PhoenixConnection conn, String tableName,
+            List<ColumnInfo> columnInfos) throws SQLException {
+        PTable table = PhoenixRuntime.getTable(conn, tableName);
+        String reason = null;
+        if (table.getType() != PTableType.TABLE) {
+            reason = "it is a " + table.getType();
+        } else if (table.isTransactional()) {
+            reason = "it is transactional";
+        } else if (table.getRowTimestampColPos() != -1) {
+            reason = "it has a ROW_TIMESTAMP column";
+        } else if (conn.getTenantId() != null) {
+            reason = "the connection is tenant specific";
+        }
+        if (reason != null) {
+            LOG.info("Upserting the rows of {} as {}", tableName, reason);
+            return null;
+        }
+        return new DirectRowEncoder(conn, table, columnInfos);
+    }
+
+    private DirectRowEncoder(PhoenixConnection conn, PTable table, List<ColumnInfo> columnInfos)
+            throws SQLException {
+        this.conn = conn;
+        this.table = table;
+        this.indexes = ImmutableList.copyOf(IndexMaintainer.nonDisabledIndexIterator(table.getIndexes().iterator()));
+        this.columns = new PColumn[columnInfos.size()];
+        this.pkSlots = new int[columnInfos.size()];
+        for (int i = 0; i < columns.length; i++) {
+            PColumn column = getColumn(table, columnInfos.get(i));
+            columns[i] = column;
+            pkSlots[i] = SchemaUtil.isPKColumn(column) ? table.getPKColumns().indexOf(column) : -1;
+        }
+        this.values = new byte[columns.length][];
+    }
+
+    private static PColumn getColumn(PTable table, ColumnInfo columnInfo) throws SQLException {
+        String name = SchemaUtil.getUnEscapedFullColumnName(columnInfo.getColumnName());
+        int index = name.indexOf(QueryConstants.NAME_SEPARATOR);
+        if (index < 0) {
+            return table.getColumnForColumnName(name);
+        }
+        return table.getColumnFamily(name.substring(0, index)).getPColumnForColumnName(name.substring(index + 1));
+    }
+
+    /**
+     * Sets the value of a field of the row, as it would be bound to an UPSERT statement.
+     * @param fieldIndex the index of the field in the column infos of the encoder
+     * @param value the value, or null
+     * @throws SQLException if the value can't be coerced to the type of the column
+     */
+    public void setValue(int fieldIndex, Object value) throws SQLException {
+        PColumn column = columns[fieldIndex];
+        if (value == null) {
+            values[fieldIndex] = ByteUtil.EMPTY_BYTE_ARRAY;
+            return;
+        }
+        LiteralExpression literal = LiteralExpression.newConstant(value);
+        PDataType type = column.getDataType();
+        if (!literal.getDataType().isCoercibleTo(type, literal.getValue())) {
+            throw TypeMismatchException.newException(literal.getDataType(), type,
+                    "expression: " + literal + " in column " + column);
+        }
+        literal.evaluate(null, ptr);
+        if (!type.isSizeCompatible(ptr, literal.getValue(), literal.getDataType(), literal.getSortOrder(),
+                literal.getMaxLength(), literal.getScale(), column.getMaxLength(), column.getScale())) {
+            throw new SQLExceptionInfo.Builder(SQLExceptionCode.DATA_EXCEEDS_MAX_CAPACITY)
+                    .setColumnName(column.getName().getString())
+                    .setMessage("value=" + literal).build().buildException();
+        }
+        type.coerceBytes(ptr, literal.getValue(), literal.getDataType(), literal.getMaxLength(),
+                literal.getScale(), literal.getSortOrder(), column.getMaxLength(), column.getScale(),
+                column.getSortOrder(), table.rowKeyOrderOptimizable());
+        values[fieldIndex] = ByteUtil.copyKeyBytesIfNecessary(ptr);
+    }
+
+    /**
+     * Encodes the row from the values of its fields, replacing the previously encoded row.
+     * @throws SQLException if the row is invalid, such as when a primary key column is null
+     */
+    public void encodeRow() throws SQLException {
+        clear();
+        byte[][] pkValues = new byte[table.getPKColumns().size()][];
+        // The salt byte is filled in by the row
+        if (table.getBucketNum() != null) {
+            pkValues[0] = new byte[] {0};
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (pkSlots[i] >= 0) {
+                pkValues[pkSlots[i]] = values[i];
+            }
+        }
+        ImmutableBytesPtr key = new ImmutableBytesPtr();
+        List<Mutation> mutations;
+        try {
+            table.newKey(key, pkValues);
+            long timestamp = MutationState.getMutationTimestamp(null, conn.getSCN());
+            PRow row = table.newRow(conn.getKeyValueBuilder(), timestamp, key, false);
+            for (int i = 0; i < columns.length; i++) {
+                if (pkSlots[i] < 0) {
+                    row.setValue(columns[i], values[i]);
+                }
+            }
+            mutations = row.toRowMutations();
+        } catch (RuntimeException e) {
+            // Constraint violations are thrown as runtime exceptions wrapping a SQLException
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException)e.getCause();
+            }
+            throw e;
+        }
+        List<Pair<byte[], List<KeyValue>>> encodedRow = Lists.newArrayListWithExpectedSize(indexes.size() + 1);
+        encodedRow.add(new Pair<byte[], List<KeyValue>>(table.getPhysicalName().getBytes(),
+                PhoenixRuntime.toKeyValues(conn, mutations)));
+        for (PTable index : indexes) {
+            List<Mutation> indexMutations = IndexUtil.generateIndexData(table, index,
+                    Collections.<ImmutableBytesPtr, RowMutationState>emptyMap(), mutations,
+                    conn.getKeyValueBuilder(), conn);
+            encodedRow.add(new Pair<byte[], List<KeyValue>>(index.getPhysicalName().getBytes(),
+                    PhoenixRuntime.toKeyValues(conn, indexMutations)));
+        }
+        this.encodedRow = encodedRow;
+    }
+
+    /**
+     * @return the KeyValues of the last encoded row, by physical name of the table they belong
+     * to, in the same form as {@link PhoenixRuntime#getUncommittedDataIterator(java.sql.Connection, boolean)}
+     */
+    public List<Pair<byte[], List<KeyValue>>> getEncodedRow() {
+        return encodedRow;
+    }
+
+    /**
+     * Discards the last encoded row, so that it's not returned again if encoding the next row fails.
+     */
+    public void clear() {
+        encodedRow = Collections.emptyList();
+    }
+}
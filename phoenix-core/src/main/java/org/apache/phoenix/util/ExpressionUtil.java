@@ -9,12 +9,19 @@
  */
 package org.apache.phoenix.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.phoenix.expression.Determinism;
 import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.expression.ExpressionType;
 import org.apache.phoenix.expression.LiteralExpression;
 import org.apache.phoenix.schema.ColumnRef;
 import org.apache.phoenix.schema.PColumn;
@@ -22,6 +29,8 @@ import org.apache.phoenix.schema.TableRef;
 import org.apache.phoenix.schema.types.PBoolean;
 import org.apache.phoenix.schema.types.PDataType;
 
+import com.google.common.collect.Lists;
+
 public class ExpressionUtil {
 	private ExpressionUtil() {
 	}
@@ -68,4 +77,47 @@ public class ExpressionUtil {
         return false;
     }
 
+    /**
+     * Copy the expressions by serializing and deserializing them, so that the copies can be
+     * evaluated by another thread, as evaluating an expression may change its state.
+     * @return the copies or null if an expression can't be serialized
+     */
+    public static List<Expression> copyExpressions(List<Expression> expressions) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(stream);
+        try {
+            for (Expression expression : expressions) {
+                if (!isCopyable(expression)) {
+                    return null;
+                }
+                WritableUtils.writeVInt(output, ExpressionType.valueOf(expression).ordinal());
+                expression.write(output);
+            }
+            output.flush();
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(stream.toByteArray()));
+            List<Expression> copies = Lists.newArrayListWithExpectedSize(expressions.size());
+            for (int i = 0; i < expressions.size(); i++) {
+                Expression copy = ExpressionType.values()[WritableUtils.readVInt(input)].newInstance();
+                copy.readFields(input);
+                copies.add(copy);
+            }
+            return copies;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCopyable(Expression expression) {
+        ExpressionType type = ExpressionType.valueOfOrNull(expression);
+        // Expressions serialized as another type, such as correlate variables, can't be copied
+        if (type == null || type.getExpressionClass() != expression.getClass()) {
+            return false;
+        }
+        for (Expression child : expression.getChildren()) {
+            if (!isCopyable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -191,6 +191,25 @@ public class JDBCUtil {
 
         return Consistency.STRONG;
     }
+
+    /**
+     * Retrieve the value of the optional hedged point lookups setting from JDBC url or connection
+     * properties.
+     *
+     * @param url JDBC url used for connecting to Phoenix
+     * @param info connection properties
+     * @param defaultValue default to return if the HedgedPointLookups property is not set in the url
+     *                     or connection properties
+     * @return the boolean value supplied for HedgedPointLookups in the connection URL or properties,
+     * or the supplied default value if no HedgedPointLookups attribute was provided
+     */
+    public static boolean isHedgedPointLookups(String url, Properties info, boolean defaultValue) {
+        String hedgedPointLookups = findProperty(url, info, PhoenixRuntime.HEDGED_POINT_LOOKUPS_ATTRIB);
+        if (hedgedPointLookups == null) {
+            return defaultValue;
+        }
+        return Boolean.valueOf(hedgedPointLookups);
+    }
     
     public static boolean isCollectingRequestLevelMetricsEnabled(String url, Properties overrideProps, ReadOnlyProps queryServicesProps) throws SQLException {
         String batchSizeStr = findProperty(url, overrideProps, PhoenixRuntime.REQUEST_METRIC_ATTRIB);
@@ -70,6 +70,7 @@ import org.apache.phoenix.jdbc.PhoenixResultSet;
 import org.apache.phoenix.jdbc.PhoenixStatement;
 import org.apache.phoenix.monitoring.GlobalClientMetrics;
 import org.apache.phoenix.monitoring.GlobalMetric;
+import org.apache.phoenix.monitoring.HistogramSnapshot;
 import org.apache.phoenix.monitoring.MetricType;
 import org.apache.phoenix.query.QueryConstants;
 import org.apache.phoenix.query.QueryServices;
@@ -186,6 +187,13 @@ public class PhoenixRuntime {
      */
     public static final String CONSISTENCY_ATTRIB = "Consistency";
 
+    /**
+     * Use this connection property to hedge single row point lookups against the region replicas
+     * of a table, reading them with timeline consistency while the connection is otherwise strongly
+     * consistent.
+     */
+    public static final String HEDGED_POINT_LOOKUPS_ATTRIB = "HedgedPointLookups";
+
     /**
      * Use this connection property to explicitly enable or disable request level metric collection.
      */
@@ -215,6 +223,7 @@ public class PhoenixRuntime {
             UPSERT_BATCH_SIZE_ATTRIB,
             AUTO_COMMIT_ATTRIB,
             CONSISTENCY_ATTRIB,
+            HEDGED_POINT_LOOKUPS_ATTRIB,
             REQUEST_METRIC_ATTRIB,
             };
 
@@ -399,16 +408,7 @@ public class PhoenixRuntime {
             @Override
             public Pair<byte[], List<KeyValue>> next() {
                 Pair<byte[],List<Mutation>> pair = iterator.next();
-                List<KeyValue> keyValues = Lists.newArrayListWithExpectedSize(pair.getSecond().size() * 5); // Guess-timate 5 key values per row
-                for (Mutation mutation : pair.getSecond()) {
-                    for (List<Cell> keyValueList : mutation.getFamilyCellMap().values()) {
-                        for (Cell keyValue : keyValueList) {
-                            keyValues.add(org.apache.hadoop.hbase.KeyValueUtil.ensureKeyValue(keyValue));
-                        }
-                    }
-                }
-                Collections.sort(keyValues, pconn.getKeyValueBuilder().getKeyValueComparator());
-                return new Pair<byte[], List<KeyValue>>(pair.getFirst(),keyValues);
+                return new Pair<byte[], List<KeyValue>>(pair.getFirst(), toKeyValues(pconn, pair.getSecond()));
             }
 
             @Override
@@ -419,6 +419,22 @@ public class PhoenixRuntime {
         };
     }
 
+    /**
+     * @return the KeyValues of the mutations, sorted by the comparator of the connection
+     */
+    static List<KeyValue> toKeyValues(PhoenixConnection pconn, List<Mutation> mutations) {
+        List<KeyValue> keyValues = Lists.newArrayListWithExpectedSize(mutations.size() * 5); // Guess-timate 5 key values per row
+        for (Mutation mutation : mutations) {
+            for (List<Cell> keyValueList : mutation.getFamilyCellMap().values()) {
+                for (Cell keyValue : keyValueList) {
+                    keyValues.add(org.apache.hadoop.hbase.KeyValueUtil.ensureKeyValue(keyValue));
+                }
+            }
+        }
+        Collections.sort(keyValues, pconn.getKeyValueBuilder().getKeyValueComparator());
+        return keyValues;
+    }
+
     public static PTable getTableNoCache(Connection conn, String name) throws SQLException {
         String schemaName = SchemaUtil.getSchemaNameFromFullName(name);
         String tableName = SchemaUtil.getTableNameFromFullName(name);
@@ -1315,6 +1331,26 @@ public class PhoenixRuntime {
         return GlobalClientMetrics.isMetricsEnabled();
     }
     
+    /**
+     * Exposes the distribution of the samples of the global client metrics that track latencies, for example
+     * {@link MetricType#QUERY_TIME} and {@link MetricType#MUTATION_COMMIT_TIME}. Typical usage is to
+     * periodically call this method with reset set to true and report the percentiles of each interval:
+     * 
+     * <pre>
+     * {@code
+     * Map<MetricType, HistogramSnapshot> histograms = PhoenixRuntime.getGlobalPhoenixClientMetricHistograms(true);
+     * long p99QueryTime = histograms.get(MetricType.QUERY_TIME).getValueAtPercentile(99);
+     * }
+     * </pre>
+     * 
+     * @param reset
+     *            whether the histograms should be reset after they are read
+     * @return map of metric type to the distribution of its samples
+     */
+    public static Map<MetricType, HistogramSnapshot> getGlobalPhoenixClientMetricHistograms(boolean reset) {
+        return GlobalClientMetrics.getHistogramSnapshots(reset);
+    }
+
     private static Map<String, Long> createMetricMap(Map<MetricType, Long> metricInfoMap) {
     	Map<String, Long> metricMap = Maps.newHashMapWithExpectedSize(metricInfoMap.size());
     	for (Entry<MetricType, Long> entry : metricInfoMap.entrySet()) {
@@ -1433,6 +1469,21 @@ public class PhoenixRuntime {
         return pConn.getMutationMetrics();
     }
     
+    /**
+     * Method to expose the distribution of the time it took to commit each batch of mutations on the passed
+     * connection. The distributions are accumulated till {@link #resetMetrics(Connection)} is called or the
+     * connection is closed.
+     * 
+     * @param conn
+     *            connection to get the distributions for
+     * @return a map of (table name) -> (distribution of the commit times in milliseconds)
+     * @throws SQLException
+     */
+    public static Map<String, HistogramSnapshot> getWriteCommitTimeHistogramsSinceLastReset(Connection conn) throws SQLException {
+        PhoenixConnection pConn = conn.unwrap(PhoenixConnection.class);
+        return pConn.getMutationCommitTimeHistograms();
+    }
+
     @Deprecated
     // use getWriteMetricInfoForMutationsSinceLastReset
     public static Map<String, Map<String, Long>> getWriteMetricsForMutationsSinceLastReset(Connection conn) throws SQLException {
@@ -71,6 +71,7 @@ public abstract class UpsertExecutor<RECORD, FIELD> implements Closeable {
     protected final UpsertListener<RECORD> upsertListener;
     protected long upsertCount = 0L;
     protected boolean initFinished = false; // allow subclasses to finish initialization
+    protected DirectRowEncoder rowEncoder;
 
     private static PreparedStatement createStatement(Connection conn, String tableName,
             List<ColumnInfo> columnInfoList) {
@@ -119,6 +120,43 @@ public abstract class UpsertExecutor<RECORD, FIELD> implements Closeable {
         this.initFinished = true;
     }
 
+    /**
+     * Encode records directly with the given encoder instead of executing the upsert statement,
+     * in which case the encoded rows are read from the encoder rather than from the connection.
+     *
+     * @param rowEncoder encoder of the rows of the table, or null to execute the upsert statement
+     */
+    public void setRowEncoder(DirectRowEncoder rowEncoder) {
+        this.rowEncoder = rowEncoder;
+    }
+
+    /**
+     * Set the value of a field of the record being upserted.
+     *
+     * @param fieldIndex zero-based index of the field in the column infos
+     * @param sqlValue converted value of the field, or null
+     */
+    protected void setValue(int fieldIndex, Object sqlValue) throws SQLException {
+        if (rowEncoder != null) {
+            rowEncoder.setValue(fieldIndex, sqlValue);
+        } else if (sqlValue != null) {
+            preparedStatement.setObject(fieldIndex + 1, sqlValue);
+        } else {
+            preparedStatement.setNull(fieldIndex + 1, dataTypes.get(fieldIndex).getSqlType());
+        }
+    }
+
+    /**
+     * Upsert the record whose field values have been set.
+     */
+    protected void executeUpsert() throws SQLException {
+        if (rowEncoder != null) {
+            rowEncoder.encodeRow();
+        } else {
+            preparedStatement.execute();
+        }
+    }
+
     /**
      * Execute upserts for each JSON record contained in the given iterable, notifying this instance's
      * {@code UpsertListener} for each completed upsert.
@@ -97,13 +97,9 @@ public class JsonUpsertExecutor extends UpsertExecutor<Map<?, ?>, Object> {
                     colName = colName.replace("\"", "");
                 }
                 Object sqlValue = conversionFunctions.get(fieldIndex).apply(record.get(colName));
-                if (sqlValue != null) {
-                    preparedStatement.setObject(fieldIndex + 1, sqlValue);
-                } else {
-                    preparedStatement.setNull(fieldIndex + 1, dataTypes.get(fieldIndex).getSqlType());
-                }
+                setValue(fieldIndex, sqlValue);
             }
-            preparedStatement.execute();
+            executeUpsert();
             upsertListener.upsertDone(++upsertCount);
         } catch (Exception e) {
             if (LOG.isDebugEnabled()) {
@@ -60,13 +60,9 @@ public class RegexUpsertExecutor extends JsonUpsertExecutor {
             for (fieldIndex = 0; fieldIndex < conversionFunctions.size(); fieldIndex++) {
                 colName = columnInfos.get(fieldIndex).getColumnName();
                 Object sqlValue = conversionFunctions.get(fieldIndex).apply(record.get(colName));
-                if (sqlValue != null) {
-                    preparedStatement.setObject(fieldIndex + 1, sqlValue);
-                } else {
-                    preparedStatement.setNull(fieldIndex + 1, dataTypes.get(fieldIndex).getSqlType());
-                }
+                setValue(fieldIndex, sqlValue);
             }
-            preparedStatement.execute();
+            executeUpsert();
             upsertListener.upsertDone(++upsertCount);
         } catch (Exception e) {
             if (LOG.isDebugEnabled()) {
@@ -18,6 +18,8 @@
 package org.apache.phoenix.cache;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.io.Closeable;
 import java.io.DataInput;
@@ -47,7 +49,7 @@ public class TenantCacheTest {
         TenantCacheImpl newTenantCache = new TenantCacheImpl(memoryManager, maxServerCacheTimeToLive);
         ImmutableBytesPtr cacheId = new ImmutableBytesPtr(Bytes.toBytes("a"));
         ImmutableBytesWritable cachePtr = new ImmutableBytesWritable(Bytes.toBytes("a"));
-        newTenantCache.addServerCache(cacheId, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true);
+        newTenantCache.addServerCache(cacheId, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, false);
         assertEquals(maxBytes-1, memoryManager.getAvailableMemory());
         newTenantCache.removeServerCache(cacheId);
         assertEquals(maxBytes, memoryManager.getAvailableMemory());
@@ -63,13 +65,65 @@ public class TenantCacheTest {
         TenantCacheImpl cache = new TenantCacheImpl(memoryManager, maxServerCacheTimeToLive, ticker);
         ImmutableBytesPtr cacheId1 = new ImmutableBytesPtr(Bytes.toBytes("a"));
         ImmutableBytesWritable cachePtr = new ImmutableBytesWritable(Bytes.toBytes("a"));
-        cache.addServerCache(cacheId1, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true);
+        cache.addServerCache(cacheId1, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, false);
         assertEquals(maxBytes-1, memoryManager.getAvailableMemory());
         ticker.time += (maxServerCacheTimeToLive + 1) * 1000000;
         cache.cleanUp();
         assertEquals(maxBytes, memoryManager.getAvailableMemory());
     }
     
+    @Test
+    public void testPersistentCacheOutlivesRegularCache() throws Exception {
+        int maxServerCacheTimeToLive = 10;
+        int maxServerCachePersistenceTimeToLive = 100;
+        long maxBytes = 1000;
+        int maxWaitMs = 10;
+        GlobalMemoryManager memoryManager = new GlobalMemoryManager(maxBytes, maxWaitMs);
+        ManualTicker ticker = new ManualTicker();
+        TenantCacheImpl cache = new TenantCacheImpl(memoryManager, maxServerCacheTimeToLive,
+                maxServerCachePersistenceTimeToLive, maxBytes, ticker);
+        ImmutableBytesPtr cacheId1 = new ImmutableBytesPtr(Bytes.toBytes("a"));
+        ImmutableBytesPtr cacheId2 = new ImmutableBytesPtr(Bytes.toBytes("b"));
+        ImmutableBytesWritable cachePtr = new ImmutableBytesWritable(Bytes.toBytes("a"));
+        cache.addServerCache(cacheId1, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, false);
+        cache.addServerCache(cacheId2, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, true);
+        assertEquals(maxBytes-2, memoryManager.getAvailableMemory());
+        ticker.time += (maxServerCacheTimeToLive + 1) * 1000000;
+        cache.cleanUp();
+        assertNull(cache.getServerCache(cacheId1));
+        assertNotNull(cache.getServerCache(cacheId2));
+        assertEquals(maxBytes-1, memoryManager.getAvailableMemory());
+        ticker.time += (maxServerCachePersistenceTimeToLive + 1) * 1000000;
+        cache.cleanUp();
+        assertNull(cache.getServerCache(cacheId2));
+        assertEquals(maxBytes, memoryManager.getAvailableMemory());
+    }
+
+    @Test
+    public void testPersistentCacheEvictsLeastRecentlyUsed() throws Exception {
+        int maxServerCacheTimeToLive = 10;
+        int maxServerCachePersistenceTimeToLive = 100;
+        long maxBytes = 1000;
+        int maxWaitMs = 10;
+        GlobalMemoryManager memoryManager = new GlobalMemoryManager(maxBytes, maxWaitMs);
+        TenantCacheImpl cache = new TenantCacheImpl(memoryManager, maxServerCacheTimeToLive,
+                maxServerCachePersistenceTimeToLive, 2, new ManualTicker());
+        ImmutableBytesPtr cacheId1 = new ImmutableBytesPtr(Bytes.toBytes("a"));
+        ImmutableBytesPtr cacheId2 = new ImmutableBytesPtr(Bytes.toBytes("b"));
+        ImmutableBytesPtr cacheId3 = new ImmutableBytesPtr(Bytes.toBytes("c"));
+        ImmutableBytesWritable cachePtr = new ImmutableBytesWritable(Bytes.toBytes("a"));
+        cache.addServerCache(cacheId1, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, true);
+        cache.addServerCache(cacheId2, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, true);
+        assertNotNull(cache.getServerCache(cacheId1));
+        cache.addServerCache(cacheId3, cachePtr, ByteUtil.EMPTY_BYTE_ARRAY, cacheFactory, true, true);
+        assertNotNull(cache.getServerCache(cacheId1));
+        assertNull(cache.getServerCache(cacheId2));
+        assertNotNull(cache.getServerCache(cacheId3));
+        assertEquals(maxBytes-2, memoryManager.getAvailableMemory());
+        cache.removeAllServerCache();
+        assertEquals(maxBytes, memoryManager.getAvailableMemory());
+    }
+
     public static class ManualTicker extends Ticker {
         public long time = 0;
         
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.compile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.expression.Expression;
+import org.apache.phoenix.expression.LiteralExpression;
+import org.apache.phoenix.schema.SortOrder;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.types.PDate;
+import org.apache.phoenix.schema.types.PDecimal;
+import org.apache.phoenix.schema.types.PDouble;
+import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.schema.types.PLong;
+import org.apache.phoenix.schema.types.PSmallint;
+import org.apache.phoenix.schema.types.PTinyint;
+import org.apache.phoenix.schema.types.PUnsignedInt;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.junit.Test;
+
+public class ExpressionProjectorTest {
+
+    private static ColumnProjector newProjector(Expression expression) {
+        return new ExpressionProjector("C", "T", expression, false);
+    }
+
+    private static ColumnProjector newProjector(Object value, PDataType type, SortOrder sortOrder)
+            throws SQLException {
+        return newProjector(LiteralExpression.newConstant(value, type, sortOrder));
+    }
+
+    @Test
+    public void testPrimitivesFromNumericTypes() throws SQLException {
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            ColumnProjector projector = newProjector(-123456789012L, PLong.INSTANCE, sortOrder);
+            assertEquals(-123456789012L, projector.getLong(null, ptr));
+            assertTrue(ptr.getLength() > 0);
+            assertEquals(-123456789012d, projector.getDouble(null, ptr), 0);
+
+            projector = newProjector(42, PInteger.INSTANCE, sortOrder);
+            assertEquals(42L, projector.getLong(null, ptr));
+            assertEquals(42, projector.getInt(null, ptr));
+            assertEquals((short)42, projector.getShort(null, ptr));
+            assertEquals((byte)42, projector.getByte(null, ptr));
+            assertEquals(42f, projector.getFloat(null, ptr), 0);
+
+            projector = newProjector((byte)-7, PTinyint.INSTANCE, sortOrder);
+            assertEquals(-7, projector.getInt(null, ptr));
+            assertEquals(-7L, projector.getLong(null, ptr));
+
+            projector = newProjector(2.5d, PDouble.INSTANCE, sortOrder);
+            assertEquals(2.5d, projector.getDouble(null, ptr), 0);
+            assertEquals(2.5f, projector.getFloat(null, ptr), 0);
+            assertEquals(2L, projector.getLong(null, ptr));
+        }
+        ColumnProjector projector = newProjector(7, PUnsignedInt.INSTANCE, SortOrder.ASC);
+        assertEquals(7L, projector.getLong(null, ptr));
+    }
+
+    @Test
+    public void testPrimitivesMatchObjects() throws SQLException {
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        ColumnProjector projector = newProjector(-100, PInteger.INSTANCE, SortOrder.DESC);
+        assertEquals(((Number)projector.getValue(null, PTinyint.INSTANCE, ptr)).byteValue(), projector.getByte(null, ptr));
+        assertEquals(((Number)projector.getValue(null, PSmallint.INSTANCE, ptr)).shortValue(), projector.getShort(null, ptr));
+    }
+
+    @Test
+    public void testPrimitivesFromOtherTypes() throws SQLException {
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        ColumnProjector projector = newProjector(new BigDecimal("12345"), PDecimal.INSTANCE, SortOrder.ASC);
+        assertEquals(12345L, projector.getLong(null, ptr));
+        assertEquals(12345, projector.getInt(null, ptr));
+        assertEquals(12345d, projector.getDouble(null, ptr), 0);
+
+        projector = newProjector(new BigDecimal("1.5"), PDecimal.INSTANCE, SortOrder.ASC);
+        assertEquals(1.5d, projector.getDouble(null, ptr), 0);
+        try {
+            projector.getLong(null, ptr);
+            fail();
+        } catch (ArithmeticException e) {
+            // Same as getting the object value, which needs an exact value
+        }
+
+        projector = newProjector(new Date(1000), PDate.INSTANCE, SortOrder.ASC);
+        assertEquals(1000L, projector.getLong(null, ptr));
+
+        projector = newProjector("a", PVarchar.INSTANCE, SortOrder.ASC);
+        try {
+            projector.getInt(null, ptr);
+            fail();
+        } catch (SQLException e) {
+            assertEquals(SQLExceptionCode.TYPE_MISMATCH.getErrorCode(), e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testNullPrimitives() throws SQLException {
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        ColumnProjector projector = newProjector(null, PInteger.INSTANCE, SortOrder.ASC);
+        assertEquals(0, projector.getInt(null, ptr));
+        assertEquals(0, ptr.getLength());
+        assertEquals(0L, projector.getLong(null, ptr));
+        assertEquals(0, ptr.getLength());
+
+        projector = newProjector(null, PDecimal.INSTANCE, SortOrder.ASC);
+        assertEquals(0d, projector.getDouble(null, ptr), 0);
+        assertEquals(0, ptr.getLength());
+
+        projector = newProjector(LiteralExpression.newConstant(null));
+        assertEquals(0L, projector.getLong(null, ptr));
+        assertEquals(0, ptr.getLength());
+    }
+}
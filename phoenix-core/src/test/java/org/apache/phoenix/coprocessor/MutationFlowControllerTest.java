@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.coprocessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.hadoop.hbase.regionserver.Region;
+import org.apache.phoenix.coprocessor.MutationFlowController.TokenBucket;
+import org.apache.phoenix.coprocessor.metrics.MetricsMutationFlowSource;
+import org.apache.phoenix.util.EnvironmentEdge;
+import org.apache.phoenix.util.EnvironmentEdgeManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MutationFlowControllerTest {
+    private static final long BLOCKING_MEMSTORE_SIZE = 1000000;
+    private static final long MAX_BATCH_SIZE_BYTES = 100000;
+    private static final long MAX_WAIT_MS = 3000;
+
+    private long now;
+    private Region region;
+    private MetricsMutationFlowSource metricsSource;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        EnvironmentEdgeManager.injectEdge(new EnvironmentEdge() {
+            @Override
+            public long currentTime() {
+                return now;
+            }
+        });
+        region = mock(Region.class);
+        metricsSource = mock(MetricsMutationFlowSource.class);
+    }
+
+    @After
+    public void tearDown() {
+        EnvironmentEdgeManager.reset();
+    }
+
+    private MutationFlowController newController(long bytesPerSec) {
+        return new MutationFlowController(region, BLOCKING_MEMSTORE_SIZE, MAX_BATCH_SIZE_BYTES, MAX_WAIT_MS,
+                new TokenBucket(bytesPerSec), metricsSource);
+    }
+
+    @Test
+    public void testBatchSizeFollowsHeadroom() {
+        MutationFlowController controller = newController(0);
+        when(region.getMemstoreSize()).thenReturn(0L);
+        assertEquals(MAX_BATCH_SIZE_BYTES, controller.getBatchSizeBytes());
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE - 60000);
+        assertEquals(30000, controller.getBatchSizeBytes());
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE + 1);
+        assertEquals(MAX_BATCH_SIZE_BYTES / 16, controller.getBatchSizeBytes());
+    }
+
+    @Test
+    public void testNoWaitWithHeadroom() {
+        MutationFlowController controller = newController(0);
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE - MAX_BATCH_SIZE_BYTES);
+        assertEquals(0, controller.getWaitTime(MAX_BATCH_SIZE_BYTES));
+        verify(metricsSource, times(0)).incrementThrottledBatches();
+    }
+
+    @Test
+    public void testWaitFollowsFlushRate() {
+        MutationFlowController controller = newController(0);
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE);
+        // The flush rate is unknown until the memstore shrinks
+        assertEquals(MutationFlowController.DEFAULT_WAIT_MS, controller.getWaitTime(50000));
+        verify(metricsSource).incrementThrottledBatches();
+        // 100000 bytes freed in 100 ms
+        now += 100;
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE - 100000);
+        assertEquals(0, controller.getWaitTime(50000));
+        assertEquals(1000, controller.getFlushRate(), 0.001);
+        verify(metricsSource).updateMemstoreWaitTime(100);
+        // Our own batch doesn't count as freed memory
+        controller.committed(50000);
+        now += 100;
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE - 90000);
+        // 40000 bytes freed in 100 ms lowers the estimated flush rate to 820 bytes per ms
+        long waitTime = controller.getWaitTime(150000);
+        assertEquals(820, controller.getFlushRate(), 0.001);
+        assertEquals((long) Math.ceil(60000 / 820.0), waitTime);
+    }
+
+    @Test
+    public void testBatchForcedAfterMaxWait() {
+        MutationFlowController controller = newController(0);
+        when(region.getMemstoreSize()).thenReturn(BLOCKING_MEMSTORE_SIZE);
+        long waited = 0;
+        for (long waitTime = controller.getWaitTime(1000); waitTime > 0; waitTime = controller.getWaitTime(1000)) {
+            assertTrue(waitTime <= MutationFlowController.MAX_WAIT_MS);
+            now += waitTime;
+            waited += waitTime;
+        }
+        assertEquals(MAX_WAIT_MS, waited);
+        verify(metricsSource).incrementForcedBatches();
+        verify(metricsSource).updateMemstoreWaitTime(MAX_WAIT_MS);
+    }
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(1000);
+        // The bucket starts with one second worth of bytes
+        assertEquals(0, bucket.reserve(1000));
+        assertEquals(500, bucket.reserve(500));
+        now += 1000;
+        assertEquals(0, bucket.reserve(500));
+        now += 10000;
+        // The bucket never holds more than one second worth of bytes
+        assertEquals(1000, bucket.reserve(2000));
+        assertEquals(0, new TokenBucket(0).reserve(Long.MAX_VALUE));
+    }
+}
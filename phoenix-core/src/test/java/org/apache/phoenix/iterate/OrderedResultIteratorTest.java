@@ -16,13 +16,30 @@
  */
 package org.apache.phoenix.iterate;
 
+import static org.apache.phoenix.query.QueryConstants.SINGLE_COLUMN;
+import static org.apache.phoenix.query.QueryConstants.SINGLE_COLUMN_FAMILY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.expression.KeyValueColumnExpression;
 import org.apache.phoenix.expression.OrderByExpression;
+import org.apache.phoenix.schema.PDatum;
+import org.apache.phoenix.schema.SortOrder;
+import org.apache.phoenix.schema.tuple.SingleKeyValueTuple;
+import org.apache.phoenix.schema.tuple.Tuple;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.types.PInteger;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * Test class for {@link OrderedResultIterator}.
  */
@@ -38,4 +55,87 @@ public class OrderedResultIteratorTest {
       iterator.close();
   }
 
+  private static OrderByExpression getOrderByExpression(boolean isAscending) {
+      PDatum datum = new PDatum() {
+          @Override
+          public boolean isNullable() {
+              return true;
+          }
+          @Override
+          public PDataType getDataType() {
+              return PInteger.INSTANCE;
+          }
+          @Override
+          public Integer getMaxLength() {
+              return null;
+          }
+          @Override
+          public Integer getScale() {
+              return null;
+          }
+          @Override
+          public SortOrder getSortOrder() {
+              return SortOrder.getDefault();
+          }
+      };
+      return new OrderByExpression(new KeyValueColumnExpression(datum, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN),
+              true, isAscending);
+  }
+
+  private static List<Tuple> getRows(int... values) {
+      List<Tuple> rows = Lists.newArrayList();
+      for (int i = 0; i < values.length; i++) {
+          rows.add(new SingleKeyValueTuple(new KeyValue(Bytes.toBytes(i), SINGLE_COLUMN_FAMILY, SINGLE_COLUMN,
+                  PInteger.INSTANCE.toBytes(values[i]))));
+      }
+      return rows;
+  }
+
+  private static List<Integer> getValues(ResultIterator iterator) throws SQLException {
+      List<Integer> values = Lists.newArrayList();
+      ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+      for (Tuple tuple = iterator.next(); tuple != null; tuple = iterator.next()) {
+          tuple.getValue(SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, ptr);
+          values.add((Integer)PInteger.INSTANCE.toObject(ptr));
+      }
+      return values;
+  }
+
+  @Test
+  public void testThreshold() throws SQLException {
+      ImmutableBytesWritable threshold = new ImmutableBytesWritable(PInteger.INSTANCE.toBytes(4));
+      OrderedResultIterator iterator = new OrderedResultIterator(
+              new MaterializedResultIterator(getRows(7, 3, 4, 9, 1, 5)),
+              Collections.singletonList(getOrderByExpression(true)), Integer.MAX_VALUE, 3, null, 0, threshold);
+      // Rows sorting after the threshold are skipped, rows equal to it are kept
+      assertEquals(Lists.newArrayList(1, 3, 4), getValues(iterator));
+
+      iterator = new OrderedResultIterator(
+              new MaterializedResultIterator(getRows(7, 3, 4, 9, 1, 5)),
+              Collections.singletonList(getOrderByExpression(false)), Integer.MAX_VALUE, 3, null, 0, threshold);
+      assertEquals(Lists.newArrayList(9, 7, 5), getValues(iterator));
+
+      iterator = new OrderedResultIterator(
+              new MaterializedResultIterator(getRows(7, 3, 4, 9, 1, 5)),
+              Collections.singletonList(getOrderByExpression(false)), Integer.MAX_VALUE, 3, null, 0,
+              new ImmutableBytesWritable(PInteger.INSTANCE.toBytes(8)));
+      assertEquals(Lists.newArrayList(9), getValues(iterator));
+  }
+
+  @Test
+  public void testThresholdOfScans() throws SQLException {
+      OrderByExpression orderByExpression = getOrderByExpression(true);
+      TopNThreshold threshold = new TopNThreshold(orderByExpression, 2);
+      assertNull(threshold.getThreshold());
+      // Threshold isn't known until a scan returns n rows
+      assertEquals(Lists.newArrayList(5), getValues(threshold.newIterator(new MaterializedResultIterator(getRows(5)))));
+      assertNull(threshold.getThreshold());
+      getValues(threshold.newIterator(new MaterializedResultIterator(getRows(2, 6, 8))));
+      assertEquals(new ImmutableBytesWritable(PInteger.INSTANCE.toBytes(6)), threshold.getThreshold());
+      // Only lowered by later scans
+      getValues(threshold.newIterator(new MaterializedResultIterator(getRows(3, 7))));
+      assertEquals(new ImmutableBytesWritable(PInteger.INSTANCE.toBytes(6)), threshold.getThreshold());
+      getValues(threshold.newIterator(new MaterializedResultIterator(getRows(1, 4))));
+      assertEquals(new ImmutableBytesWritable(PInteger.INSTANCE.toBytes(4)), threshold.getThreshold());
+  }
 }
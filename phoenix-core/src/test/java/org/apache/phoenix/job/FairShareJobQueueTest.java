@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.phoenix.job.JobManager.JobCallable;
+import org.apache.phoenix.job.JobManager.JobFutureTask;
+import org.apache.phoenix.monitoring.TaskExecutionMetricsHolder;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class FairShareJobQueueTest {
+    private static final long SMALL_JOB_MAX_BYTES = 1000;
+
+    private static class TestJob implements FairShareJob {
+        private final Object key;
+        private final Long estimatedBytes;
+
+        private TestJob(Object key, Long estimatedBytes) {
+            this.key = key;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        @Override
+        public Object getFairShareKey() {
+            return key;
+        }
+
+        @Override
+        public Long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+
+    private static Runnable newTask(final Object jobId) {
+        return new JobFutureTask<Object>(new JobCallable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return null;
+            }
+
+            @Override
+            public Object getJobId() {
+                return jobId;
+            }
+
+            @Override
+            public TaskExecutionMetricsHolder getTaskExecutionMetric() {
+                return null;
+            }
+        });
+    }
+
+    private static FairShareJobQueue newQueue(int smallTasksPerLargeTask, Map<String, Integer> tenantWeights) {
+        return new FairShareJobQueue(100, SMALL_JOB_MAX_BYTES, smallTasksPerLargeTask, tenantWeights);
+    }
+
+    private static void offer(FairShareJobQueue queue, Object jobId, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(queue.offer(newTask(jobId)));
+        }
+    }
+
+    private static List<Object> pollJobIds(FairShareJobQueue queue, int count) {
+        List<Object> jobIds = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            jobIds.add(((JobFutureTask<?>)queue.poll()).getJobId());
+        }
+        return jobIds;
+    }
+
+    @Test
+    public void testSmallJobsAheadOfLargeJobs() {
+        FairShareJobQueue queue = newQueue(2, Collections.<String, Integer>emptyMap());
+        TestJob large = new TestJob("t1", 1000000L);
+        TestJob unknown = new TestJob("t1", null);
+        TestJob small = new TestJob("t2", 10L);
+        offer(queue, large, 3);
+        offer(queue, unknown, 1);
+        offer(queue, small, 5);
+        assertEquals(9, queue.size());
+        // Large jobs still progress while small jobs are queued
+        assertEquals(Lists.<Object>newArrayList(small, small, large, small, small, unknown, small, large, large),
+                pollJobIds(queue, 9));
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testWeightedShareOfTenants() {
+        FairShareJobQueue queue = newQueue(4, ImmutableMap.of("t1", 2));
+        TestJob job1 = new TestJob("t1", null);
+        TestJob job2 = new TestJob("t2", null);
+        offer(queue, job1, 20);
+        offer(queue, job2, 20);
+        List<Object> jobIds = pollJobIds(queue, 15);
+        assertEquals(10, Collections.frequency(jobIds, job1));
+        assertEquals(5, Collections.frequency(jobIds, job2));
+    }
+
+    @Test
+    public void testNewTenantNotBehindBacklog() {
+        FairShareJobQueue queue = newQueue(4, Collections.<String, Integer>emptyMap());
+        TestJob job1 = new TestJob("t1", null);
+        TestJob job2 = new TestJob("t2", null);
+        offer(queue, job1, 50);
+        pollJobIds(queue, 10);
+        offer(queue, job2, 1);
+        assertTrue(pollJobIds(queue, 2).contains(job2));
+    }
+
+    @Test
+    public void testRoundRobinAcrossJobsOfTenant() {
+        FairShareJobQueue queue = newQueue(4, Collections.<String, Integer>emptyMap());
+        TestJob job1 = new TestJob("t1", null);
+        TestJob job2 = new TestJob("t1", null);
+        offer(queue, job1, 3);
+        offer(queue, job2, 2);
+        assertEquals(Lists.<Object>newArrayList(job1, job2, job1, job2, job1), pollJobIds(queue, 5));
+    }
+
+    @Test
+    public void testJobsWithoutFairShare() {
+        FairShareJobQueue queue = newQueue(4, Collections.<String, Integer>emptyMap());
+        Object job1 = new Object();
+        Object job2 = new Object();
+        offer(queue, job1, 2);
+        offer(queue, job2, 2);
+        assertEquals(Lists.<Object>newArrayList(job1, job2, job1, job2), pollJobIds(queue, 4));
+    }
+
+    @Test
+    public void testBounded() {
+        FairShareJobQueue queue = new FairShareJobQueue(2, SMALL_JOB_MAX_BYTES, 4, Collections.<String, Integer>emptyMap());
+        TestJob job = new TestJob("t1", 10L);
+        Runnable task = newTask(job);
+        assertTrue(queue.offer(task));
+        assertTrue(queue.offer(newTask(job)));
+        assertFalse(queue.offer(newTask(job)));
+        assertEquals(0, queue.remainingCapacity());
+        assertTrue(queue.remove(task));
+        assertFalse(queue.remove(task));
+        assertEquals(1, queue.size());
+        assertTrue(queue.offer(newTask(job)));
+        List<Runnable> drained = Lists.newArrayList();
+        assertEquals(2, queue.drainTo(drained));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testParseTenantWeights() {
+        assertEquals(ImmutableMap.of("t1", 4, "t2", 2), FairShareJobQueue.parseTenantWeights(" t1:4, t2 : 2 "));
+        assertTrue(FairShareJobQueue.parseTenantWeights("").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveTenantWeight() {
+        FairShareJobQueue.parseTenantWeights("t1:0");
+    }
+}
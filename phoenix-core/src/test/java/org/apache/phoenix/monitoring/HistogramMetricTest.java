@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class HistogramMetricTest {
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 123456789L, HistogramMetric.MAX_TRACKABLE_VALUE}) {
+            int index = HistogramMetric.getBucketIndex(value);
+            long highest = HistogramMetric.getHighestEquivalentValue(index);
+            assertTrue(value <= highest);
+            assertTrue(highest - value <= value / HistogramMetric.SUB_BUCKET_COUNT);
+            assertEquals(index, HistogramMetric.getBucketIndex(highest));
+        }
+        assertEquals(HistogramMetric.BUCKET_COUNT - 1, HistogramMetric.getBucketIndex(Long.MAX_VALUE));
+        assertEquals(0, HistogramMetric.getBucketIndex(-5));
+    }
+
+    @Test
+    public void testPercentiles() {
+        HistogramMetric histogram = new HistogramMetric();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(100000);
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(100000, snapshot.getMax());
+        assertEquals(100000 + 500500, snapshot.getSum());
+        assertWithinPrecision(501, snapshot.getValueAtPercentile(50));
+        assertWithinPrecision(991, snapshot.getValueAtPercentile(99));
+        assertEquals(100000, snapshot.getValueAtPercentile(100));
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testSnapshotAndReset() throws Exception {
+        final HistogramMetric histogram = new HistogramMetric(4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        histogram.record(i % 100);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        HistogramSnapshot snapshot = histogram.getSnapshotAndReset();
+        assertEquals(40000, snapshot.getCount());
+        assertEquals(99, snapshot.getMax());
+        assertEquals(0, histogram.getSnapshot().getCount());
+        histogram.record(7);
+        snapshot = histogram.getSnapshotAndReset();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(7, snapshot.getValueAtPercentile(99.9));
+    }
+
+    @Test
+    public void testMutationMetricQueueCommitTimes() {
+        MutationMetricQueue queue = new MutationMetricQueue();
+        queue.addMetricsForTable("T", new MutationMetricQueue.MutationMetric(1, 10, 5, 0));
+        queue.addMetricsForTable("T", new MutationMetricQueue.MutationMetric(1, 10, 20, 0));
+        MutationMetricQueue other = new MutationMetricQueue();
+        other.addMetricsForTable("T", new MutationMetricQueue.MutationMetric(1, 10, 11, 0));
+        queue.combineMetricQueues(other);
+        Map<String, HistogramSnapshot> histograms = queue.getCommitTimeHistograms();
+        HistogramSnapshot snapshot = histograms.get("T");
+        assertEquals(3, snapshot.getCount());
+        assertEquals(36, snapshot.getSum());
+        assertEquals(20, snapshot.getMax());
+        assertEquals(11, snapshot.getValueAtPercentile(50));
+        assertEquals(36, queue.aggregate().get("T").get(MetricType.MUTATION_COMMIT_TIME).longValue());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("Expected " + expected + " but got " + actual,
+                Math.abs(expected - actual) <= expected / HistogramMetric.SUB_BUCKET_COUNT);
+    }
+}
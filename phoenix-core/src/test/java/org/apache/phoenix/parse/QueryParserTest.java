@@ -18,6 +18,7 @@
 package org.apache.phoenix.parse;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -782,4 +783,34 @@ public class QueryParserTest {
         String sql = Joiner.on(unicodeEnSpace).join(new String[] {"SELECT", "*", "FROM", "T"});
         parseQuery(sql);
     }
+
+    @Test
+    public void testParseExplainAnalyze() throws Exception {
+        ExplainStatement stmt = (ExplainStatement)new SQLParser("explain analyze select a from t").parseStatement();
+        assertTrue(stmt.isAnalyze());
+        stmt = (ExplainStatement)new SQLParser("explain select a from t").parseStatement();
+        assertFalse(stmt.isAnalyze());
+        // ANALYZE is not a reserved word
+        parseQuery("select analyze from analyze");
+        try {
+            new SQLParser("explain analyse select a from t").parseStatement();
+            fail();
+        } catch (SQLException e) {
+        }
+    }
+
+    @Test
+    public void testParseCreateRollup() throws Exception {
+        CreateRollupStatement stmt = (CreateRollupStatement)new SQLParser(
+                "create rollup if not exists s.r salt_buckets=4 as select a, count(*) cnt, sum(b) s from s.t group by a")
+                .parseStatement();
+        assertTrue(stmt.ifNotExists());
+        assertEquals("S", stmt.getTableName().getSchemaName());
+        assertEquals("R", stmt.getTableName().getTableName());
+        assertEquals(1, stmt.getProps().size());
+        assertEquals(3, stmt.getSelect().getSelect().size());
+        assertEquals(1, stmt.getSelect().getGroupBy().size());
+        // ROLLUP is not a reserved word
+        parseQuery("select rollup from rollup");
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.query;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TableRegionBoundariesTest {
+    private static final TableName TABLE_NAME = TableName.valueOf("T");
+    private static final ServerName SERVER_NAME = ServerName.valueOf("localhost", 1234, 1);
+
+    private static List<HRegionLocation> newRegionLocations(String... splits) {
+        List<HRegionLocation> locations = Lists.newArrayList();
+        byte[] startKey = HConstants.EMPTY_START_ROW;
+        for (int i = 0; i <= splits.length; i++) {
+            byte[] endKey = i == splits.length ? HConstants.EMPTY_END_ROW : Bytes.toBytes(splits[i]);
+            locations.add(new HRegionLocation(new HRegionInfo(TABLE_NAME, startKey, endKey), SERVER_NAME, i));
+            startKey = endKey;
+        }
+        return locations;
+    }
+
+    @Test
+    public void testBoundaries() {
+        TableRegionBoundaries regions = TableRegionBoundaries.of(newRegionLocations("b", "d", "f"));
+        assertEquals(4, regions.getRegionCount());
+        List<byte[]> boundaries = regions.getBoundaries();
+        assertEquals(3, boundaries.size());
+        assertArrayEquals(Bytes.toBytes("b"), boundaries.get(0));
+        assertArrayEquals(Bytes.toBytes("f"), boundaries.get(2));
+        assertEquals(0, TableRegionBoundaries.of(newRegionLocations()).getBoundaries().size());
+    }
+
+    @Test
+    public void testRegionIndexLookup() {
+        TableRegionBoundaries regions = TableRegionBoundaries.of(newRegionLocations("b", "d", "f"));
+        assertEquals(0, regions.getIndexContainingInclusive(Bytes.toBytes("a")));
+        // A region contains its start key
+        assertEquals(1, regions.getIndexContainingInclusive(Bytes.toBytes("b")));
+        assertEquals(2, regions.getIndexContainingInclusive(Bytes.toBytes("c1")));
+        assertEquals(3, regions.getIndexContainingInclusive(Bytes.toBytes("z")));
+        // An exclusive stop key equal to a boundary ends in the region before it
+        assertEquals(1, regions.getIndexContainingExclusive(0, 3, Bytes.toBytes("d")));
+        assertEquals(2, regions.getIndexContainingExclusive(0, 3, Bytes.toBytes("d1")));
+        // Searching a sub range returns an absolute index
+        assertEquals(2, regions.getIndexContainingExclusive(2, 3, Bytes.toBytes("e")));
+        assertEquals(3, regions.getIndexContainingExclusive(2, 3, Bytes.toBytes("g")));
+    }
+
+    @Test
+    public void testSnapshotIsReused() {
+        List<HRegionLocation> locations = newRegionLocations("b");
+        TableRegionBoundaries regions = TableRegionBoundaries.of(locations);
+        assertNotSame(locations, regions.getRegionLocations());
+        assertEquals(locations, regions.getRegionLocations());
+        assertSame(regions, TableRegionBoundaries.of(regions.getRegionLocations()));
+        // Changes to the list the snapshot was created from aren't visible through it
+        locations.clear();
+        assertEquals(2, regions.getRegionLocations().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRegionLocationsAreImmutable() {
+        TableRegionBoundaries.of(newRegionLocations("b")).getRegionLocations().remove(0);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.parse.SQLParser;
+import org.apache.phoenix.schema.RollupDefinition.AggregateKind;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.types.PDecimal;
+import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.junit.Test;
+
+public class RollupDefinitionTest {
+
+    private static RollupDefinition create(String query) throws SQLException {
+        return RollupDefinition.create("S.R", new SQLParser(query).parseQuery(), 1000);
+    }
+
+    private static void assertInvalid(String query) throws SQLException {
+        try {
+            create(query);
+            fail("Expected " + query + " to be an invalid rollup");
+        } catch (SQLException e) {
+            assertEquals(SQLExceptionCode.INVALID_ROLLUP_DEFINITION.getErrorCode(), e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        RollupDefinition rollup = create("SELECT a, substr(b, 1, 2) prefix, count(*) cnt, count(c) cnt_c, sum(c) s, min(d) mn, max(d) mx"
+                + " FROM S.T GROUP BY a, substr(b, 1, 2)");
+        assertEquals("S.R", rollup.getName());
+        assertEquals("S", rollup.getSourceTableName().getSchemaName());
+        assertEquals("T", rollup.getSourceTableName().getTableName());
+        List<RollupDefinition.RollupColumn> columns = rollup.getColumns();
+        assertEquals(7, columns.size());
+        assertEquals("A", columns.get(0).getName());
+        assertTrue(columns.get(0).isGroupBy());
+        assertEquals("PREFIX", columns.get(1).getName());
+        assertTrue(columns.get(1).isGroupBy());
+        assertEquals(AggregateKind.COUNT, columns.get(2).getAggregateKind());
+        assertNull(columns.get(2).getExpression());
+        assertEquals(AggregateKind.COUNT, columns.get(3).getAggregateKind());
+        assertEquals("C", columns.get(3).getExpression().toString().trim());
+        assertEquals(AggregateKind.SUM, columns.get(4).getAggregateKind());
+        assertEquals(AggregateKind.MIN, columns.get(5).getAggregateKind());
+        assertEquals(AggregateKind.MAX, columns.get(6).getAggregateKind());
+    }
+
+    @Test
+    public void testInvalidDefinitions() throws Exception {
+        assertInvalid("SELECT a, count(*) cnt FROM S.T");
+        assertInvalid("SELECT a, count(*) cnt FROM S.T WHERE b > 0 GROUP BY a");
+        assertInvalid("SELECT a, count(*) cnt FROM S.T GROUP BY a HAVING count(*) > 1");
+        assertInvalid("SELECT a, count(*) cnt FROM S.T GROUP BY a ORDER BY a");
+        assertInvalid("SELECT a, count(*) cnt FROM S.T GROUP BY a LIMIT 10");
+        assertInvalid("SELECT a, count(*) FROM S.T GROUP BY a");
+        assertInvalid("SELECT a, avg(b) av FROM S.T GROUP BY a");
+        assertInvalid("SELECT a, count(DISTINCT b) cnt FROM S.T GROUP BY a");
+        assertInvalid("SELECT a, b, count(*) cnt FROM S.T GROUP BY a");
+        assertInvalid("SELECT count(*) cnt FROM S.T GROUP BY a");
+        assertInvalid("SELECT a, count(*) a FROM S.T GROUP BY a");
+        assertInvalid("SELECT t1.a, count(*) cnt FROM S.T t1 JOIN S.U t2 ON t1.a = t2.a GROUP BY t1.a");
+    }
+
+    @Test
+    public void testDescriptor() throws Exception {
+        RollupDefinition rollup = create("SELECT a, count(*) cnt, sum(c) s FROM S.T GROUP BY a");
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf("S.T"));
+        descriptor.setValue(rollup.getDescriptorKey(), rollup.getDescriptorValue());
+        // Invalid definitions are ignored
+        descriptor.setValue(RollupDefinition.DESCRIPTOR_KEY_PREFIX + "S.INVALID", "0:SELECT a FROM S.T");
+        descriptor.setValue("SOME_OTHER_KEY", "SOME_VALUE");
+        List<RollupDefinition> rollups = RollupDefinition.fromDescriptor(descriptor);
+        assertEquals(1, rollups.size());
+        assertEquals("S.R", rollups.get(0).getName());
+        assertEquals(1000, rollups.get(0).getStartTimestamp());
+        assertEquals(rollup.getSelect(), rollups.get(0).getSelect());
+        assertEquals(3, rollups.get(0).getColumns().size());
+    }
+
+    @Test
+    public void testRowQuery() throws Exception {
+        RollupDefinition rollup = create("SELECT a, count(*) cnt, sum(c) s FROM S.T GROUP BY a");
+        SQLParser parser = new SQLParser(rollup.getRowQuery());
+        assertEquals(new SQLParser("SELECT a, 1, c FROM S.T").parseQuery(), parser.parseQuery());
+    }
+
+    @Test
+    public void testAggregate() throws Exception {
+        RollupDefinition rollup = create("SELECT a, count(*) cnt, count(b) cnt_b, sum(b) s, sum(c) sc, min(b) mn, max(b) mx"
+                + " FROM S.T GROUP BY a");
+        PDataType[] types = new PDataType[] { PVarchar.INSTANCE, PInteger.INSTANCE, PInteger.INSTANCE,
+                PInteger.INSTANCE, PDecimal.INSTANCE, PInteger.INSTANCE, PInteger.INSTANCE };
+        Object[] row1 = new Object[] { "x", 1, 5, 5, new BigDecimal("1.5"), 5, 5 };
+        Object[] row2 = new Object[] { "x", 1, null, null, new BigDecimal("2.25"), null, null };
+        Object[] row3 = new Object[] { "x", 1, 2, 2, null, 2, 2 };
+        Object[] delta = rollup.newDelta(row1);
+        assertArrayEquals(new Object[] { "x", 0L, 0L, null, null, null, null }, delta);
+        rollup.aggregate(delta, row1, types);
+        rollup.aggregate(delta, row2, types);
+        rollup.aggregate(delta, row3, types);
+        assertArrayEquals(new Object[] { "x", 3L, 2L, 7L, new BigDecimal("3.75"), 2, 5 }, delta);
+    }
+
+    @Test
+    public void testNegate() throws Exception {
+        RollupDefinition rollup = create("SELECT a, count(*) cnt, sum(b) s, sum(c) sc, min(b) mn, max(b) mx FROM S.T GROUP BY a");
+        assertArrayEquals(new Object[] { "x", -3L, -7L, new BigDecimal("-1.5"), null, null },
+                rollup.negate(new Object[] { "x", 3L, 7L, new BigDecimal("1.5"), 1, 5 }));
+        assertArrayEquals(new Object[] { "x", 0L, null, null, null, null },
+                rollup.negate(new Object[] { "x", 0L, null, null, null, null }));
+    }
+
+    @Test
+    public void testIsEnabled() throws Exception {
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf("S.T"));
+        assertFalse(RollupDefinition.isEnabled(descriptor, false));
+        assertTrue(RollupDefinition.isEnabled(descriptor, true));
+        descriptor.setValue(RollupDefinition.USE_ROLLUPS, "true");
+        assertTrue(RollupDefinition.isEnabled(descriptor, false));
+        descriptor.setValue(RollupDefinition.USE_ROLLUPS, "false");
+        assertFalse(RollupDefinition.isEnabled(descriptor, true));
+    }
+
+    @Test
+    public void testHasGroup() throws Exception {
+        RollupDefinition rollup = create("SELECT a, b, count(*) cnt FROM S.T GROUP BY a, b");
+        assertTrue(rollup.hasGroup(new Object[] { null, "y", 0L }));
+        assertFalse(rollup.hasGroup(new Object[] { null, null, 0L }));
+    }
+}
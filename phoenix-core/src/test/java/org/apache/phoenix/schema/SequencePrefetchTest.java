@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema;
+
+import static org.apache.phoenix.jdbc.PhoenixDatabaseMetaData.SYSTEM_SEQUENCE_FAMILY_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Append;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.phoenix.coprocessor.SequenceRegionObserver;
+import org.apache.phoenix.jdbc.PhoenixDatabaseMetaData;
+import org.apache.phoenix.query.QueryServicesOptions;
+import org.apache.phoenix.schema.types.PBoolean;
+import org.apache.phoenix.schema.types.PLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class SequencePrefetchTest {
+    private static final long TIMESTAMP = 1000;
+    private static final long CACHE_SIZE = 100;
+    private static final int WATERMARK_PERCENT = 25;
+
+    private SequenceKey key;
+    private Sequence sequence;
+
+    @Before
+    public void setup() {
+        key = new SequenceKey(null, "S", "SEQ", QueryServicesOptions.DEFAULT_SEQUENCE_TABLE_SALT_BUCKETS);
+        sequence = new Sequence(key);
+    }
+
+    private Result newIncrementResult(long nextValue) {
+        byte[] row = key.getKey();
+        List<Cell> cells = Lists.<Cell>newArrayList(
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.CURRENT_VALUE_BYTES, TIMESTAMP, PLong.INSTANCE.toBytes(nextValue)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.INCREMENT_BY_BYTES, TIMESTAMP, PLong.INSTANCE.toBytes(1L)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.CACHE_SIZE_BYTES, TIMESTAMP, PLong.INSTANCE.toBytes(CACHE_SIZE)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.MIN_VALUE_BYTES, TIMESTAMP, PLong.INSTANCE.toBytes(Long.MIN_VALUE)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.MAX_VALUE_BYTES, TIMESTAMP, PLong.INSTANCE.toBytes(Long.MAX_VALUE)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.CYCLE_FLAG_BYTES, TIMESTAMP, PBoolean.INSTANCE.toBytes(false)),
+                new KeyValue(row, SYSTEM_SEQUENCE_FAMILY_BYTES, PhoenixDatabaseMetaData.LIMIT_REACHED_FLAG_BYTES, TIMESTAMP, PBoolean.INSTANCE.toBytes(false)));
+        Collections.sort(cells, KeyValue.COMPARATOR);
+        return Result.create(cells);
+    }
+
+    private long nextValue() throws Exception {
+        return sequence.incrementValue(HConstants.LATEST_TIMESTAMP, Sequence.ValueOp.INCREMENT_SEQUENCE, 1);
+    }
+
+    private boolean startPrefetch() {
+        return sequence.startPrefetch(WATERMARK_PERCENT, 1000, 16);
+    }
+
+    @Test
+    public void testPrefetchedValuesUsedOnceCacheIsExhausted() throws Exception {
+        assertEquals(0, sequence.incrementValue(newIncrementResult(CACHE_SIZE), Sequence.ValueOp.INCREMENT_SEQUENCE, 1));
+        for (int i = 1; i < 74; i++) {
+            assertEquals(i, nextValue());
+        }
+        // 26 values remaining, which is above the watermark
+        assertFalse(startPrefetch());
+        assertEquals(74, nextValue());
+        assertTrue(startPrefetch());
+        // Only one prefetch at a time
+        assertFalse(startPrefetch());
+        assertEquals(1, sequence.getPrefetchAllocation());
+        sequence.setPrefetchedValue(newIncrementResult(2 * CACHE_SIZE), 1);
+        assertFalse(startPrefetch());
+        for (int i = 75; i < 2 * CACHE_SIZE; i++) {
+            assertEquals(i, nextValue());
+        }
+        try {
+            nextValue();
+            fail();
+        } catch (EmptySequenceCacheException e) {
+            // Both the cached and the prefetched values have been used
+        }
+    }
+
+    @Test
+    public void testFailedPrefetchAllowsRetry() throws Exception {
+        sequence.incrementValue(newIncrementResult(CACHE_SIZE), Sequence.ValueOp.INCREMENT_SEQUENCE, 1);
+        for (int i = 1; i < 80; i++) {
+            nextValue();
+        }
+        assertTrue(startPrefetch());
+        sequence.prefetchFailed();
+        assertTrue(startPrefetch());
+    }
+
+    @Test
+    public void testReturnIncludesPrefetchedValues() throws Exception {
+        sequence.incrementValue(newIncrementResult(CACHE_SIZE), Sequence.ValueOp.INCREMENT_SEQUENCE, 1);
+        for (int i = 1; i < 80; i++) {
+            nextValue();
+        }
+        assertTrue(startPrefetch());
+        sequence.setPrefetchedValue(newIncrementResult(2 * CACHE_SIZE), 1);
+        List<Append> returns = sequence.newReturns();
+        assertEquals(1, returns.size());
+        Append append = returns.get(0);
+        assertEquals(2 * CACHE_SIZE, PLong.INSTANCE.getCodec().decodeLong(
+                append.getAttribute(SequenceRegionObserver.CURRENT_VALUE_ATTRIB), 0, SortOrder.getDefault()));
+        Cell currentValueCell = append.getFamilyCellMap().get(SYSTEM_SEQUENCE_FAMILY_BYTES).get(0);
+        assertEquals(80, PLong.INSTANCE.getCodec().decodeLong(CellUtil.cloneValue(currentValueCell), 0,
+                SortOrder.getDefault()));
+    }
+
+    @Test
+    public void testReturnIncludesNonContiguousCachedValues() throws Exception {
+        sequence.incrementValue(newIncrementResult(CACHE_SIZE), Sequence.ValueOp.INCREMENT_SEQUENCE, 1);
+        for (int i = 1; i < 80; i++) {
+            nextValue();
+        }
+        assertTrue(startPrefetch());
+        // Another client allocated the values in between
+        sequence.setPrefetchedValue(newIncrementResult(3 * CACHE_SIZE), 1);
+        List<Append> returns = sequence.newReturns();
+        assertEquals(2, returns.size());
+        assertReturn(returns.get(0), 2 * CACHE_SIZE, 3 * CACHE_SIZE);
+        assertReturn(returns.get(1), 80, CACHE_SIZE);
+    }
+
+    private static void assertReturn(Append append, long currentValue, long expectedValue) {
+        assertEquals(expectedValue, PLong.INSTANCE.getCodec().decodeLong(
+                append.getAttribute(SequenceRegionObserver.CURRENT_VALUE_ATTRIB), 0, SortOrder.getDefault()));
+        Cell currentValueCell = append.getFamilyCellMap().get(SYSTEM_SEQUENCE_FAMILY_BYTES).get(0);
+        assertEquals(currentValue, PLong.INSTANCE.getCodec().decodeLong(CellUtil.cloneValue(currentValueCell), 0,
+                SortOrder.getDefault()));
+    }
+}
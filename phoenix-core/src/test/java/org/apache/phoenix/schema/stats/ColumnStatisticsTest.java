@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.schema.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.hbase.index.util.ImmutableBytesPtr;
+import org.junit.Test;
+
+public class ColumnStatisticsTest {
+
+    private static void assertWithinError(long expected, long actual) {
+        // 3 standard errors of a sketch with 2^10 registers
+        double error = 3 * 1.04 / Math.sqrt(HyperLogLog.REGISTER_COUNT);
+        assertTrue("Expected " + expected + " but got " + actual, Math.abs(expected - actual) <= expected * error);
+    }
+
+    @Test
+    public void testDistinctCountEstimate() {
+        ColumnStatistics stats = new ColumnStatistics();
+        for (int i = 0; i < 100000; i++) {
+            byte[] value = Bytes.toBytes(i % 20000);
+            stats.update(value, 0, value.length);
+        }
+        assertEquals(100000, stats.getNonNullCount());
+        assertWithinError(20000, stats.getDistinctCount());
+    }
+
+    @Test
+    public void testSmallDistinctCountIsExact() {
+        ColumnStatistics stats = new ColumnStatistics();
+        for (int i = 0; i < 30; i++) {
+            byte[] value = Bytes.toBytes("v" + (i % 3));
+            stats.update(value, 0, value.length);
+        }
+        assertEquals(3, stats.getDistinctCount());
+    }
+
+    @Test
+    public void testMergeAndSerialize() {
+        ColumnStatistics stats1 = new ColumnStatistics();
+        ColumnStatistics stats2 = new ColumnStatistics();
+        for (int i = 0; i < 10000; i++) {
+            byte[] value = Bytes.toBytes(i);
+            stats1.update(value, 0, value.length);
+            value = Bytes.toBytes(i + 5000);
+            stats2.update(value, 0, value.length);
+        }
+        byte[] b = Bytes.add(new byte[] {1, 2}, stats2.toBytes());
+        ColumnStatistics deserialized = ColumnStatistics.fromBytes(b, 2, b.length - 2);
+        assertEquals(stats2.getNonNullCount(), deserialized.getNonNullCount());
+        assertEquals(stats2.getDistinctCount(), deserialized.getDistinctCount());
+        stats1.merge(deserialized);
+        assertEquals(20000, stats1.getNonNullCount());
+        assertWithinError(15000, stats1.getDistinctCount());
+    }
+
+    @Test
+    public void testNullCountFromGuidePostsInfo() {
+        byte[] cq1 = Bytes.toBytes("A");
+        byte[] cq2 = Bytes.toBytes("B");
+        byte[] value = Bytes.toBytes("x");
+        GuidePostsInfoBuilder builder = new GuidePostsInfoBuilder();
+        assertFalse(builder.build().hasColumnStatistics());
+        for (int i = 0; i < 10; i++) {
+            builder.incrementColumnStatisticsRowCount();
+            builder.updateColumnStatistics(new ImmutableBytesPtr(cq1), value, 0, value.length);
+            if (i % 2 == 0) {
+                builder.updateColumnStatistics(new ImmutableBytesPtr(cq2), value, 0, value.length);
+            }
+        }
+        GuidePostsInfo info = builder.build();
+        assertTrue(info.hasColumnStatistics());
+        assertEquals(10, info.getColumnStatisticsRowCount());
+        assertEquals(0, info.getNullCount(cq1));
+        assertEquals(5, info.getNullCount(cq2));
+        assertEquals(1, info.getDistinctCount(cq2));
+        assertNull(info.getColumnStatistics(Bytes.toBytes("C")));
+        assertEquals(10, info.getNullCount(Bytes.toBytes("C")));
+        assertEquals(-1, GuidePostsInfo.NO_GUIDEPOST.getNullCount(cq1));
+    }
+
+    @Test
+    public void testColumnStatsRowKeysOfRegionsWithoutGuidePosts() {
+        byte[] table = Bytes.toBytes("T");
+        ImmutableBytesWritable fam = new ImmutableBytesWritable(Bytes.toBytes("0"));
+        byte[] emptyGuidePost = StatisticsUtil.getRowKey(table, fam, new byte[0]);
+        byte[] firstRegion = StatisticsUtil.getColumnStatsRowKey(table, fam, new byte[0]);
+        byte[] secondRegion = StatisticsUtil.getColumnStatsRowKey(table, fam, Bytes.toBytes("b"));
+        // Regions without guideposts don't share the row of the empty guidepost indicator
+        assertTrue(Bytes.compareTo(emptyGuidePost, firstRegion) < 0);
+        assertTrue(Bytes.compareTo(firstRegion, secondRegion) < 0);
+        // but sort at the start of their own guideposts
+        assertTrue(Bytes.equals(StatisticsUtil.getRowKey(table, fam, Bytes.toBytes("b")), secondRegion));
+        assertTrue(Bytes.compareTo(secondRegion, StatisticsUtil.getRowKey(table, fam, Bytes.toBytes("ba"))) < 0);
+    }
+}
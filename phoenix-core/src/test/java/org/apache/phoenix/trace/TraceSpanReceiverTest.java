@@ -17,6 +17,8 @@
  */
 package org.apache.phoenix.trace;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.apache.hadoop.hbase.util.Bytes;
@@ -75,6 +77,58 @@ public class TraceSpanReceiverTest {
     assertTrue(source.getNumSpans() == 1);
   }
 
+  @Test
+  public void testOverflowDropsSpans() {
+    TraceSpanReceiver source = new TraceSpanReceiver(4, 1.0, -1);
+    for (int i = 1; i <= 6; i++) {
+      source.receiveSpan(new MilliSpan("test span", i, 1, i, "pid"));
+    }
+    assertEquals(4, source.getNumSpans());
+    // the oldest spans are kept, in order
+    for (int i = 1; i <= 4; i++) {
+      assertEquals(i, source.getSpan().getTraceId());
+    }
+    assertNull(source.getSpan());
+    assertTrue(source.isSpanAvailable());
+
+    // slots are reused once read
+    source.receiveSpan(new MilliSpan("test span", 7, 1, 7, "pid"));
+    assertEquals(7, source.getSpan().getTraceId());
+  }
+
+  @Test
+  public void testSamplingByTraceId() {
+    TraceSpanReceiver sampled = new TraceSpanReceiver(10, 0.1, -1);
+    TraceSpanReceiver other = new TraceSpanReceiver(10, 0.1, -1);
+    int numSampled = 0;
+    for (long traceId = 1; traceId <= 10000; traceId++) {
+      Span span = new MilliSpan("test span", traceId, 1, 2, "pid");
+      boolean isSampled = sampled.isSampled(span);
+      // the spans of a trace are all kept or all dropped, whichever process they come from
+      assertEquals(isSampled, other.isSampled(new MilliSpan("child span", traceId, 2, 3, "pid")));
+      if (isSampled) {
+        numSampled++;
+      }
+    }
+    assertTrue("Sampled " + numSampled + " traces", numSampled > 800 && numSampled < 1200);
+
+    TraceSpanReceiver none = new TraceSpanReceiver(10, 0.0, -1);
+    none.receiveSpan(getSpan());
+    assertEquals(0, none.getNumSpans());
+  }
+
+  @Test
+  public void testSlowSpansAlwaysSampled() {
+    TraceSpanReceiver source = new TraceSpanReceiver(10, 0.0, 100);
+    source.receiveSpan(new MilliSpan.Builder().description("fast span").traceId(1)
+        .parents(new long[] { 1 }).spanId(2).processId("pid").begin(1000).end(1050).build());
+    assertEquals(0, source.getNumSpans());
+    source.receiveSpan(new MilliSpan.Builder().description("slow span").traceId(1)
+        .parents(new long[] { 1 }).spanId(3).processId("pid").begin(1000).end(1100).build());
+    assertEquals(1, source.getNumSpans());
+    assertEquals(3, source.getSpan().getSpanId());
+  }
+
   private Span getSpan(){
     // Spans with Trace Id as 0 will be rejected (See PHOENIX-3767 for details)
     return new MilliSpan("test span", 1, 1 , 2, "pid");
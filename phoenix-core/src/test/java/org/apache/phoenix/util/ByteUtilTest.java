@@ -63,4 +63,22 @@ public class ByteUtilTest {
         key = new byte[] {(byte)255};
         assertNull(ByteUtil.nextKey(key));
     }
+
+    @Test
+    public void testMidKey() {
+        byte[][][] ranges = new byte[][][] {
+                {ByteUtil.EMPTY_BYTE_ARRAY, Bytes.toBytes("b")},
+                {Bytes.toBytes("a"), Bytes.toBytes("b")},
+                {Bytes.toBytes("a"), Bytes.toBytes("a\0")},
+                {Bytes.toBytes("abc"), Bytes.toBytes("abd")},
+                {Bytes.toBytes("EA"), Bytes.toBytes("EZ")},
+                {new byte[] {1, (byte)255}, new byte[] {2}},
+                {new byte[] {(byte)254}, new byte[] {(byte)255, (byte)255}}};
+        for (byte[][] range : ranges) {
+            byte[] midKey = ByteUtil.midKey(range[0], range[1]);
+            assertTrue(Bytes.toStringBinary(midKey), Bytes.compareTo(range[0], midKey) < 0);
+            assertTrue(Bytes.toStringBinary(midKey), Bytes.compareTo(midKey, range[1]) < 0);
+        }
+        assertArrayEquals(Bytes.toBytesBinary("EM\\x80"), ByteUtil.midKey(Bytes.toBytes("EA"), Bytes.toBytes("EZ")));
+    }
 }
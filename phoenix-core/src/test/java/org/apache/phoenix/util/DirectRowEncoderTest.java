@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.exception.SQLExceptionCode;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.query.BaseConnectionlessQueryTest;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class DirectRowEncoderTest extends BaseConnectionlessQueryTest {
+
+    private static final List<ColumnInfo> COLUMN_INFOS = ImmutableList.of(
+            new ColumnInfo("\"K1\"", Types.VARCHAR),
+            new ColumnInfo("\"K2\"", Types.INTEGER),
+            new ColumnInfo("\"A\".\"V1\"", Types.VARCHAR),
+            new ColumnInfo("\"V2\"", Types.DECIMAL));
+
+    private static String createTable(Connection conn, String options) throws SQLException {
+        String tableName = generateUniqueName();
+        conn.createStatement().execute("CREATE TABLE " + tableName
+                + " (k1 VARCHAR NOT NULL, k2 INTEGER NOT NULL, a.v1 VARCHAR, v2 DECIMAL(10,2)"
+                + " CONSTRAINT pk PRIMARY KEY (k1, k2 DESC)) " + options);
+        conn.createStatement().execute("CREATE INDEX " + generateUniqueName() + " ON " + tableName + " (v1) INCLUDE (v2)");
+        return tableName;
+    }
+
+    // The KeyValues of each table, without their timestamps
+    private static Map<String, List<String>> toStrings(Iterator<Pair<byte[], List<KeyValue>>> iterator) {
+        Map<String, List<String>> strings = Maps.newHashMap();
+        while (iterator.hasNext()) {
+            Pair<byte[], List<KeyValue>> pair = iterator.next();
+            List<String> keyValues = Lists.newArrayList();
+            for (KeyValue kv : pair.getSecond()) {
+                keyValues.add(Bytes.toStringBinary(kv.getRow()) + "/" + Bytes.toStringBinary(kv.getFamily()) + ":"
+                        + Bytes.toStringBinary(kv.getQualifier()) + "/" + kv.getTypeByte() + "="
+                        + Bytes.toStringBinary(kv.getValue()));
+            }
+            Collections.sort(keyValues);
+            strings.put(Bytes.toString(pair.getFirst()), keyValues);
+        }
+        return strings;
+    }
+
+    private static void assertSameAsUpsert(String options, Object... values) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            PhoenixConnection pconn = conn.unwrap(PhoenixConnection.class);
+            String tableName = createTable(conn, options);
+            PreparedStatement stmt = conn.prepareStatement(QueryUtil.constructUpsertStatement(tableName, COLUMN_INFOS));
+            DirectRowEncoder encoder = DirectRowEncoder.create(pconn, tableName, COLUMN_INFOS);
+            assertNotNull(encoder);
+            for (int i = 0; i < values.length; i++) {
+                stmt.setObject(i + 1, values[i]);
+                encoder.setValue(i, values[i]);
+            }
+            stmt.execute();
+            encoder.encodeRow();
+            Map<String, List<String>> upserted = toStrings(PhoenixRuntime.getUncommittedDataIterator(conn, true));
+            assertEquals(2, upserted.size());
+            assertEquals(upserted, toStrings(encoder.getEncodedRow().iterator()));
+            conn.rollback();
+        }
+    }
+
+    @Test
+    public void testSameAsUpsert() throws SQLException {
+        assertSameAsUpsert("", "a", 1, "b", new BigDecimal("1.5"));
+        assertSameAsUpsert("SALT_BUCKETS=4", "a", -1, "b", new BigDecimal("2"));
+        assertSameAsUpsert("IMMUTABLE_ROWS=true", "a", 1, "b", new BigDecimal("3.25"));
+    }
+
+    @Test
+    public void testNullValues() throws SQLException {
+        assertSameAsUpsert("", "a", 1, null, null);
+        assertSameAsUpsert("", "a", 1, "b", null);
+    }
+
+    private static List<Long> getTimestamps(Iterator<Pair<byte[], List<KeyValue>>> iterator) {
+        List<Long> timestamps = Lists.newArrayList();
+        while (iterator.hasNext()) {
+            for (KeyValue kv : iterator.next().getSecond()) {
+                timestamps.add(kv.getTimestamp());
+            }
+        }
+        return timestamps;
+    }
+
+    private static void assertSameTimestampsAsUpsert(String tableName, Properties props) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(getUrl(), props)) {
+            PhoenixConnection pconn = conn.unwrap(PhoenixConnection.class);
+            PreparedStatement stmt = conn.prepareStatement(QueryUtil.constructUpsertStatement(tableName, COLUMN_INFOS));
+            DirectRowEncoder encoder = DirectRowEncoder.create(pconn, tableName, COLUMN_INFOS);
+            // The same row twice, as a bulk load may hold duplicate primary keys
+            for (int row = 0; row < 2; row++) {
+                Object[] values = { "a", 1, "b" + row, new BigDecimal(row) };
+                for (int i = 0; i < values.length; i++) {
+                    stmt.setObject(i + 1, values[i]);
+                    encoder.setValue(i, values[i]);
+                }
+                stmt.execute();
+                encoder.encodeRow();
+                List<Long> timestamps = getTimestamps(PhoenixRuntime.getUncommittedDataIterator(conn, true));
+                assertEquals(timestamps, getTimestamps(encoder.getEncodedRow().iterator()));
+                conn.rollback();
+            }
+        }
+    }
+
+    @Test
+    public void testSameTimestampsAsUpsert() throws SQLException {
+        String tableName;
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            tableName = createTable(conn, "");
+        }
+        assertSameTimestampsAsUpsert(tableName, new Properties());
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(nextTimestamp()));
+        assertSameTimestampsAsUpsert(tableName, props);
+    }
+
+    @Test
+    public void testInvalidValues() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            String tableName = createTable(conn, "");
+            DirectRowEncoder encoder = DirectRowEncoder.create(conn.unwrap(PhoenixConnection.class), tableName, COLUMN_INFOS);
+            try {
+                encoder.setValue(1, "a");
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.TYPE_MISMATCH.getErrorCode(), e.getErrorCode());
+            }
+            try {
+                encoder.setValue(3, new BigDecimal("123456789012"));
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.DATA_EXCEEDS_MAX_CAPACITY.getErrorCode(), e.getErrorCode());
+            }
+            encoder.setValue(0, null);
+            encoder.setValue(1, 1);
+            encoder.setValue(2, null);
+            encoder.setValue(3, null);
+            try {
+                encoder.encodeRow();
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.CONSTRAINT_VIOLATION.getErrorCode(), e.getErrorCode());
+            }
+            assertTrue(encoder.getEncodedRow().isEmpty());
+        }
+    }
+
+    @Test
+    public void testUnsupportedTables() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(getUrl())) {
+            PhoenixConnection pconn = conn.unwrap(PhoenixConnection.class);
+            String tableName = createTable(conn, "");
+            String viewName = generateUniqueName();
+            conn.createStatement().execute("CREATE VIEW " + viewName + " AS SELECT * FROM " + tableName);
+            assertNull(DirectRowEncoder.create(pconn, viewName, COLUMN_INFOS));
+            String rowTimestampTableName = generateUniqueName();
+            conn.createStatement().execute("CREATE TABLE " + rowTimestampTableName
+                    + " (k1 VARCHAR NOT NULL, k2 BIGINT NOT NULL, v VARCHAR CONSTRAINT pk PRIMARY KEY (k1, k2 ROW_TIMESTAMP))");
+            assertNull(DirectRowEncoder.create(pconn, rowTimestampTableName, COLUMN_INFOS.subList(0, 2)));
+        }
+    }
+}
@@ -127,6 +127,16 @@ public class JDBCUtilTest {
             == Consistency.TIMELINE);
     }
 
+    @Test
+    public void testIsHedgedPointLookups() {
+        assertFalse(JDBCUtil.isHedgedPointLookups("localhost", new Properties(), false));
+        assertTrue(JDBCUtil.isHedgedPointLookups("localhost", new Properties(), true));
+        assertTrue(JDBCUtil.isHedgedPointLookups("localhost;HedgedPointLookups=true", new Properties(), false));
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.HEDGED_POINT_LOOKUPS_ATTRIB, "false");
+        assertFalse(JDBCUtil.isHedgedPointLookups("localhost", props, true));
+    }
+
     @Test
     public void testGetMaxMutateBytes() throws Exception {
         assertEquals(1000L, JDBCUtil.getMutateBatchSizeBytes("localhost;" + PhoenixRuntime.UPSERT_BATCH_SIZE_BYTES_ATTRIB +
@@ -149,6 +149,20 @@ public class PhoenixInputFormat<T extends DBWritable> implements InputFormat<Wri
 
         setScanCacheSize(jobConf);
 
+        if (jobConf.get(PhoenixConfigurationUtil.SNAPSHOT_NAME_KEY) != null) {
+            // The snapshot is read without going through the region servers, in a split for
+            // each scan of its regions, as they are split at the guideposts of the table
+            for (List<Scan> scans : qplan.getScans()) {
+                for (Scan aScan : scans) {
+                    PhoenixInputSplit inputSplit = new PhoenixInputSplit(Lists.newArrayList(aScan),
+                            tablePaths[0], null, 0);
+                    inputSplit.setQuery(query);
+                    psplits.add(inputSplit);
+                }
+            }
+            return psplits;
+        }
+
         // Adding Localization
         HConnection connection = HConnectionManager.createConnection(PhoenixConnectionUtil.getConfiguration(jobConf));
         RegionLocator regionLocator = connection.getRegionLocator(TableName.valueOf(qplan
@@ -258,6 +272,14 @@ public class PhoenixInputFormat<T extends DBWritable> implements InputFormat<Wri
 
             // Optimize the query plan so that we potentially use secondary indexes
             final QueryPlan queryPlan = pstmt.optimizeQuery(selectStatement);
+
+            // Get the region boundaries from the snapshot when reading one
+            String snapshotName = configuration.get(PhoenixConfigurationUtil.SNAPSHOT_NAME_KEY);
+            if (snapshotName != null) {
+                PhoenixConfigurationUtil.setSnapshotNameKey(queryPlan.getContext().getConnection()
+                        .getQueryServices().getConfiguration(), snapshotName);
+            }
+
             // Initialize the query plan so it sets up the parallel scans
             queryPlan.iterator(MapReduceParallelScanGrouper.getInstance());
             return queryPlan;
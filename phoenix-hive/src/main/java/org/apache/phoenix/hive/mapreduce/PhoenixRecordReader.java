@@ -45,7 +45,9 @@ import org.apache.phoenix.iterate.ResultIterator;
 import org.apache.phoenix.iterate.RoundRobinResultIterator;
 import org.apache.phoenix.iterate.SequenceResultIterator;
 import org.apache.phoenix.iterate.TableResultIterator;
+import org.apache.phoenix.iterate.TableSnapshotResultIterator;
 import org.apache.phoenix.jdbc.PhoenixResultSet;
+import org.apache.phoenix.mapreduce.util.PhoenixConfigurationUtil;
 import org.apache.phoenix.monitoring.ReadMetricQueue;
 import org.apache.phoenix.monitoring.ScanMetricsHolder;
 
@@ -113,16 +115,23 @@ public class PhoenixRecordReader<T extends DBWritable> implements
             long renewScannerLeaseThreshold = queryPlan.getContext().getConnection()
                     .getQueryServices().getRenewLeaseThresholdMilliSeconds();
             boolean isRequestMetricsEnabled = readMetrics.isRequestMetricsEnabled();
+            String snapshotName = configuration.get(PhoenixConfigurationUtil.SNAPSHOT_NAME_KEY);
             for (Scan scan : scans) {
                 scan.setAttribute(BaseScannerRegionObserver.SKIP_REGION_BOUNDARY_CHECK, Bytes
                         .toBytes(true));
                 ScanMetricsHolder scanMetricsHolder = ScanMetricsHolder.getInstance(readMetrics, tableName, scan, isRequestMetricsEnabled);
-                final TableResultIterator tableResultIterator = new TableResultIterator(
-                        queryPlan.getContext().getConnection().getMutationState(), scan, scanMetricsHolder,
-                        renewScannerLeaseThreshold, queryPlan, MapReduceParallelScanGrouper.getInstance());
+                final ResultIterator scanIterator;
+                if (snapshotName != null) {
+                    // Read the files of the snapshot directly instead of going through the region servers
+                    scanIterator = new TableSnapshotResultIterator(configuration, scan, scanMetricsHolder);
+                } else {
+                    scanIterator = new TableResultIterator(
+                            queryPlan.getContext().getConnection().getMutationState(), scan, scanMetricsHolder,
+                            renewScannerLeaseThreshold, queryPlan, MapReduceParallelScanGrouper.getInstance());
+                }
 
                 PeekingResultIterator peekingResultIterator = LookAheadResultIterator.wrap
-                        (tableResultIterator);
+                        (scanIterator);
                 iterators.add(peekingResultIterator);
             }
             ResultIterator iterator = queryPlan.useRoundRobinIterator()
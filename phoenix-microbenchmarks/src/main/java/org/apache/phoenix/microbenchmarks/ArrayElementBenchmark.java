@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.schema.types.PArrayDataType;
+import org.apache.phoenix.schema.types.PArrayDataTypeDecoder;
+import org.apache.phoenix.schema.types.PDataType;
+import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.schema.types.PIntegerArray;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.apache.phoenix.schema.types.PVarcharArray;
+import org.apache.phoenix.schema.types.PhoenixArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Access to the elements of serialized variable and fixed width arrays, as done by
+ * ARRAY_ELEMENT and the array index expressions, and serialization of the arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayElementBenchmark {
+    @Param({"10", "100", "1000"})
+    public int arraySize;
+
+    private PhoenixArray varcharArray;
+    private PhoenixArray intArray;
+    private byte[] varcharArrayBytes;
+    private byte[] intArrayBytes;
+    private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+
+    @Setup
+    public void setup() {
+        Object[] strings = new Object[arraySize];
+        Object[] ints = new Object[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            strings[i] = "element" + i;
+            ints[i] = i;
+        }
+        varcharArray = PArrayDataType.instantiatePhoenixArray(PVarchar.INSTANCE, strings);
+        intArray = PArrayDataType.instantiatePhoenixArray(PInteger.INSTANCE, ints);
+        varcharArrayBytes = PVarcharArray.INSTANCE.toBytes(varcharArray);
+        intArrayBytes = PIntegerArray.INSTANCE.toBytes(intArray);
+    }
+
+    private int elementLength(byte[] arrayBytes, int index, PDataType baseType) {
+        ptr.set(arrayBytes);
+        PArrayDataTypeDecoder.positionAtArrayElement(ptr, index, baseType, null);
+        return ptr.getLength();
+    }
+
+    @Benchmark
+    public int varcharFirstElement() {
+        return elementLength(varcharArrayBytes, 0, PVarchar.INSTANCE);
+    }
+
+    @Benchmark
+    public int varcharLastElement() {
+        return elementLength(varcharArrayBytes, arraySize - 1, PVarchar.INSTANCE);
+    }
+
+    @Benchmark
+    public int intLastElement() {
+        return elementLength(intArrayBytes, arraySize - 1, PInteger.INSTANCE);
+    }
+
+    @Benchmark
+    public int arrayLength() {
+        ptr.set(varcharArrayBytes);
+        return PArrayDataType.getArrayLength(ptr, PVarchar.INSTANCE, null);
+    }
+
+    @Benchmark
+    public byte[] serializeVarcharArray() {
+        return PVarcharArray.INSTANCE.toBytes(varcharArray);
+    }
+
+    @Benchmark
+    public Object deserializeVarcharArray() {
+        return PVarcharArray.INSTANCE.toObject(varcharArrayBytes);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.compile.ScanRanges;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.jdbc.PhoenixDriver;
+import org.apache.phoenix.jdbc.PhoenixStatement;
+import org.apache.phoenix.schema.PTable;
+import org.apache.phoenix.util.PhoenixRuntime;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Tables, rows and queries shared by the benchmarks. Everything is created through a
+ * connectionless connection, so that the benchmarks run without a cluster while exercising
+ * the same schemas, row keys and mutations as a real deployment would.
+ *
+ * The event table has a salted row key of four columns of different types and sort orders,
+ * and its key value columns use encoded column qualifiers.
+ */
+public final class BenchmarkFixtures {
+    public static final String CONNECTIONLESS_URL = PhoenixRuntime.JDBC_PROTOCOL
+            + PhoenixRuntime.JDBC_PROTOCOL_SEPARATOR + PhoenixRuntime.CONNECTIONLESS;
+    public static final int SALT_BUCKETS = 16;
+    public static final int NUM_TENANTS = 10;
+    public static final int NUM_EVENT_TYPES = 200;
+    private static final long START_TIME = 1500000000000L;
+    private static final AtomicInteger TABLE_COUNTER = new AtomicInteger();
+
+    private BenchmarkFixtures() {
+    }
+
+    public static PhoenixConnection getConnection() throws SQLException {
+        return PhoenixDriver.INSTANCE.connect(CONNECTIONLESS_URL, new Properties()).unwrap(PhoenixConnection.class);
+    }
+
+    /**
+     * Creates an event table with a salted multi-column row key and encoded column qualifiers.
+     * @return the name of the table
+     */
+    public static String createEventTable(PhoenixConnection conn) throws SQLException {
+        String tableName = "EVENTS_" + TABLE_COUNTER.incrementAndGet();
+        conn.createStatement().execute("CREATE TABLE " + tableName + " ("
+                + "tenant_id CHAR(15) NOT NULL, event_type VARCHAR NOT NULL, created DATE NOT NULL, event_id BIGINT NOT NULL, "
+                + "a.host VARCHAR, a.status INTEGER, a.latency DECIMAL(12,3), b.tags VARCHAR ARRAY, b.payload VARBINARY "
+                + "CONSTRAINT pk PRIMARY KEY (tenant_id, event_type, created DESC, event_id)) "
+                + "SALT_BUCKETS=" + SALT_BUCKETS + ", COLUMN_ENCODED_BYTES=2");
+        return tableName;
+    }
+
+    public static PTable getTable(PhoenixConnection conn, String tableName) throws SQLException {
+        return PhoenixRuntime.getTable(conn, tableName);
+    }
+
+    public static String getTenantId(int tenant) {
+        return String.format("tenant%09d", tenant);
+    }
+
+    public static String getEventType(int eventType) {
+        return "event.type." + eventType;
+    }
+
+    /**
+     * Upserts rows into the event table without committing them, spreading them evenly over
+     * the tenants and event types.
+     */
+    public static void upsertEvents(PhoenixConnection conn, String tableName, int numRows) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName
+                + " (tenant_id, event_type, created, event_id, host, status, latency, tags, payload)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < numRows; i++) {
+            stmt.setString(1, getTenantId(i % NUM_TENANTS));
+            stmt.setString(2, getEventType(i % NUM_EVENT_TYPES));
+            stmt.setDate(3, new Date(START_TIME + i * 1000L));
+            stmt.setLong(4, i);
+            stmt.setString(5, "host" + (i % 64) + ".example.com");
+            stmt.setInt(6, i % 5 == 0 ? 500 : 200);
+            stmt.setBigDecimal(7, BigDecimal.valueOf(i % 10000, 3));
+            stmt.setArray(8, conn.createArrayOf("VARCHAR", new Object[] {"tag" + (i % 3), "tag" + (i % 7)}));
+            stmt.setBytes(9, Bytes.toBytes(i));
+            stmt.execute();
+        }
+    }
+
+    /**
+     * @return the sorted row keys of numRows rows of the event table
+     */
+    public static List<byte[]> getEventRowKeys(PhoenixConnection conn, String tableName, int numRows)
+            throws SQLException {
+        upsertEvents(conn, tableName, numRows);
+        SortedSet<byte[]> rowKeys = Sets.newTreeSet(Bytes.BYTES_COMPARATOR);
+        Iterator<Pair<byte[], List<KeyValue>>> iterator = PhoenixRuntime.getUncommittedDataIterator(conn);
+        while (iterator.hasNext()) {
+            for (KeyValue kv : iterator.next().getSecond()) {
+                rowKeys.add(kv.getRow());
+            }
+        }
+        conn.rollback();
+        return Lists.newArrayList(rowKeys);
+    }
+
+    /**
+     * @return a query on the event table with an IN-list of inListSize event types for a few
+     * tenants, with only the event types below {@link #NUM_EVENT_TYPES} having rows
+     */
+    public static String getInListQuery(String tableName, int inListSize) {
+        StringBuilder buf = new StringBuilder("SELECT * FROM " + tableName + " WHERE tenant_id IN (");
+        for (int i = 0; i < NUM_TENANTS; i += 3) {
+            buf.append(i == 0 ? "" : ",").append('\'').append(getTenantId(i)).append('\'');
+        }
+        buf.append(") AND event_type IN (");
+        for (int i = 0; i < inListSize; i++) {
+            buf.append(i == 0 ? "" : ",").append('\'').append(getEventType(i * 2)).append('\'');
+        }
+        return buf.append(')').toString();
+    }
+
+    /**
+     * @return the scan ranges the query is compiled into
+     */
+    public static ScanRanges getScanRanges(PhoenixConnection conn, String query) throws SQLException {
+        PhoenixStatement stmt = conn.createStatement().unwrap(PhoenixStatement.class);
+        return stmt.optimizeQuery(query).getContext().getScanRanges();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.schema.SortOrder;
+import org.apache.phoenix.schema.types.PDecimal;
+import org.apache.phoenix.schema.types.PInteger;
+import org.apache.phoenix.schema.types.PLong;
+import org.apache.phoenix.schema.types.PTimestamp;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of the values of the most common {@link org.apache.phoenix.schema.types.PDataType}s,
+ * in both sort orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataTypeCodecBenchmark {
+    private static final long LONG_VALUE = -1234567890123L;
+    private static final BigDecimal DECIMAL_VALUE = new BigDecimal("-12345.6789");
+    private static final String VARCHAR_VALUE = "event.type.12345";
+    private static final Timestamp TIMESTAMP_VALUE = new Timestamp(1500000000123L);
+    static {
+        TIMESTAMP_VALUE.setNanos(123456789);
+    }
+
+    @Param({"ASC", "DESC"})
+    public SortOrder sortOrder;
+
+    private byte[] longBytes;
+    private byte[] intBytes;
+    private byte[] decimalBytes;
+    private byte[] varcharBytes;
+    private byte[] timestampBytes;
+    private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+
+    @Setup
+    public void setup() {
+        longBytes = PLong.INSTANCE.toBytes(LONG_VALUE, sortOrder);
+        intBytes = PInteger.INSTANCE.toBytes(-123456, sortOrder);
+        decimalBytes = PDecimal.INSTANCE.toBytes(DECIMAL_VALUE, sortOrder);
+        varcharBytes = PVarchar.INSTANCE.toBytes(VARCHAR_VALUE, sortOrder);
+        timestampBytes = PTimestamp.INSTANCE.toBytes(TIMESTAMP_VALUE, sortOrder);
+    }
+
+    @Benchmark
+    public byte[] encodeLong() {
+        return PLong.INSTANCE.toBytes(LONG_VALUE, sortOrder);
+    }
+
+    @Benchmark
+    public Object decodeLong() {
+        return PLong.INSTANCE.toObject(longBytes, 0, longBytes.length, PLong.INSTANCE, sortOrder);
+    }
+
+    @Benchmark
+    public long decodeLongPrimitive() {
+        return PLong.INSTANCE.getCodec().decodeLong(longBytes, 0, sortOrder);
+    }
+
+    @Benchmark
+    public Object decodeIntegerAsLong() {
+        return PLong.INSTANCE.toObject(intBytes, 0, intBytes.length, PInteger.INSTANCE, sortOrder);
+    }
+
+    @Benchmark
+    public byte[] coerceIntegerToLong() {
+        ptr.set(intBytes);
+        PLong.INSTANCE.coerceBytes(ptr, PInteger.INSTANCE, sortOrder, SortOrder.ASC);
+        return ptr.get();
+    }
+
+    @Benchmark
+    public byte[] encodeDecimal() {
+        return PDecimal.INSTANCE.toBytes(DECIMAL_VALUE, sortOrder);
+    }
+
+    @Benchmark
+    public Object decodeDecimal() {
+        return PDecimal.INSTANCE.toObject(decimalBytes, 0, decimalBytes.length, PDecimal.INSTANCE, sortOrder);
+    }
+
+    @Benchmark
+    public byte[] encodeVarchar() {
+        return PVarchar.INSTANCE.toBytes(VARCHAR_VALUE, sortOrder);
+    }
+
+    @Benchmark
+    public Object decodeVarchar() {
+        return PVarchar.INSTANCE.toObject(varcharBytes, 0, varcharBytes.length, PVarchar.INSTANCE, sortOrder);
+    }
+
+    @Benchmark
+    public byte[] encodeTimestamp() {
+        return PTimestamp.INSTANCE.toBytes(TIMESTAMP_VALUE, sortOrder);
+    }
+
+    @Benchmark
+    public Object decodeTimestamp() {
+        return PTimestamp.INSTANCE.toObject(timestampBytes, 0, timestampBytes.length, PTimestamp.INSTANCE, sortOrder);
+    }
+}
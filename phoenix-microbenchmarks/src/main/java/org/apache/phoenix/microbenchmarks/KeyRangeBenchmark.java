@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.query.KeyRange;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Intersection of the point key ranges of an IN-list with single key ranges and with the
+ * key ranges of regions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyRangeBenchmark {
+    private static final int NUM_REGIONS = BenchmarkFixtures.SALT_BUCKETS;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int inListSize;
+
+    private List<KeyRange> points;
+    private List<KeyRange> regions;
+    private KeyRange range;
+
+    @Setup
+    public void setup() {
+        List<byte[]> keys = Lists.newArrayListWithExpectedSize(inListSize);
+        for (int i = 0; i < inListSize; i++) {
+            keys.add(PVarchar.INSTANCE.toBytes(BenchmarkFixtures.getEventType(i)));
+        }
+        Collections.sort(keys, Bytes.BYTES_COMPARATOR);
+        points = Lists.newArrayListWithExpectedSize(inListSize);
+        for (byte[] key : keys) {
+            points.add(KeyRange.getKeyRange(key));
+        }
+        // Regions splitting the points evenly, the first and last ones being unbound
+        int numRegions = Math.min(NUM_REGIONS, keys.size());
+        regions = Lists.newArrayListWithExpectedSize(numRegions);
+        byte[] lowerRange = KeyRange.UNBOUND;
+        for (int i = 1; i < numRegions; i++) {
+            byte[] upperRange = keys.get(i * keys.size() / numRegions);
+            regions.add(KeyRange.getKeyRange(lowerRange, true, upperRange, false));
+            lowerRange = upperRange;
+        }
+        regions.add(KeyRange.getKeyRange(lowerRange, true, KeyRange.UNBOUND, false));
+        range = KeyRange.getKeyRange(keys.get(keys.size() / 4), true, keys.get(keys.size() * 3 / 4), false);
+    }
+
+    @Benchmark
+    public int intersectPoints() {
+        int count = 0;
+        for (KeyRange point : points) {
+            if (point.intersect(range) != KeyRange.EMPTY_RANGE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<KeyRange> intersectWithRegions() {
+        return KeyRange.intersect(points, regions);
+    }
+
+    @Benchmark
+    public List<KeyRange> coalesce() {
+        return KeyRange.coalesce(points);
+    }
+}
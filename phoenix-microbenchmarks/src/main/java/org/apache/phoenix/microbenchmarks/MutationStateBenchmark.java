@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.phoenix.execute.MutationState;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of the HBase mutations of the uncommitted rows of a connection, with and
+ * without an index to maintain, as done when the rows are committed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutationStateBenchmark {
+    @Param({"100", "1000"})
+    public int numRows;
+
+    @Param({"false", "true"})
+    public boolean withIndex;
+
+    private PhoenixConnection conn;
+    private MutationState mutationState;
+
+    @Setup
+    public void setup() throws Exception {
+        conn = BenchmarkFixtures.getConnection();
+        String tableName = BenchmarkFixtures.createEventTable(conn);
+        if (withIndex) {
+            conn.createStatement().execute("CREATE INDEX IDX_" + tableName + " ON " + tableName
+                    + " (host, created) INCLUDE (status)");
+        }
+        BenchmarkFixtures.upsertEvents(conn, tableName, numRows);
+        mutationState = conn.getMutationState();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.rollback();
+        conn.close();
+    }
+
+    @Benchmark
+    public int generateMutations() {
+        int count = 0;
+        Iterator<Pair<byte[], List<Mutation>>> iterator = mutationState.toMutations(withIndex);
+        while (iterator.hasNext()) {
+            count += iterator.next().getSecond().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.schema.RowKeySchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Navigation of the fields of the salted multi-column row keys of the event table with
+ * its {@link RowKeySchema}, over a batch of row keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowKeySchemaBenchmark {
+    private static final int NUM_ROWS = 1000;
+
+    private RowKeySchema schema;
+    private List<byte[]> rowKeys;
+    private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+
+    @Setup
+    public void setup() throws Exception {
+        try (PhoenixConnection conn = BenchmarkFixtures.getConnection()) {
+            String tableName = BenchmarkFixtures.createEventTable(conn);
+            schema = BenchmarkFixtures.getTable(conn, tableName).getRowKeySchema();
+            rowKeys = BenchmarkFixtures.getEventRowKeys(conn, tableName, NUM_ROWS);
+        }
+    }
+
+    @Benchmark
+    public int iterateFields() {
+        int length = 0;
+        for (byte[] rowKey : rowKeys) {
+            int maxOffset = schema.iterator(rowKey, ptr);
+            for (int i = 0; i < schema.getFieldCount(); i++) {
+                if (schema.next(ptr, i, maxOffset) == Boolean.TRUE) {
+                    length += ptr.getLength();
+                }
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int positionAtLastField() {
+        int length = 0;
+        int lastField = schema.getFieldCount() - 1;
+        for (byte[] rowKey : rowKeys) {
+            ptr.set(rowKey);
+            if (schema.position(ptr, 0, lastField)) {
+                length += ptr.getLength();
+            }
+        }
+        return length;
+    }
+}
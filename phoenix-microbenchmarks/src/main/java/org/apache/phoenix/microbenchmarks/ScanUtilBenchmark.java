@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.phoenix.compile.ScanRanges;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.query.KeyRange;
+import org.apache.phoenix.schema.RowKeySchema;
+import org.apache.phoenix.schema.ValueSchema.Field;
+import org.apache.phoenix.schema.types.PVarchar;
+import org.apache.phoenix.util.ScanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the start and stop keys of a skip scan with {@link ScanUtil}, and searching the
+ * key ranges of its IN-list slot, for the salted event table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScanUtilBenchmark {
+    @Param({"10", "100", "1000"})
+    public int inListSize;
+
+    private PhoenixConnection conn;
+    private RowKeySchema schema;
+    private List<List<KeyRange>> slots;
+    private int[] slotSpans;
+    private List<KeyRange> inListSlot;
+    private Field inListField;
+    private byte[][] probes;
+    private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+
+    @Setup
+    public void setup() throws Exception {
+        conn = BenchmarkFixtures.getConnection();
+        String tableName = BenchmarkFixtures.createEventTable(conn);
+        ScanRanges scanRanges = BenchmarkFixtures.getScanRanges(conn,
+                BenchmarkFixtures.getInListQuery(tableName, inListSize));
+        schema = scanRanges.getSchema();
+        slots = scanRanges.getRanges();
+        slotSpans = scanRanges.getSlotSpans();
+        // The event types of the IN-list are in the last slot
+        int slot = slots.size() - 1;
+        inListSlot = slots.get(slot);
+        inListField = schema.getField(ScanUtil.getRowKeyPosition(slotSpans, slot));
+        probes = new byte[BenchmarkFixtures.NUM_EVENT_TYPES][];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = PVarchar.INSTANCE.toBytes(BenchmarkFixtures.getEventType(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Benchmark
+    public byte[] getMinKey() {
+        return ScanUtil.getMinKey(schema, slots, slotSpans);
+    }
+
+    @Benchmark
+    public byte[] getMaxKey() {
+        return ScanUtil.getMaxKey(schema, slots, slotSpans);
+    }
+
+    @Benchmark
+    public int searchClosestKeyRange() {
+        int sum = 0;
+        for (byte[] probe : probes) {
+            ptr.set(probe);
+            sum += ScanUtil.searchClosestKeyRangeWithUpperHigherThanPtr(inListSlot, ptr, 0, inListField);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.phoenix.microbenchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.phoenix.filter.SkipScanFilter;
+import org.apache.phoenix.jdbc.PhoenixConnection;
+import org.apache.phoenix.query.QueryConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+/**
+ * {@link SkipScanFilter#filterKeyValue(Cell)} over the rows of the salted event table, for
+ * IN-lists of different sizes. Each invocation scans all the rows once, seeking to the hints
+ * of the filter the way a region scanner would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SkipScanFilterBenchmark {
+    private static final int NUM_ROWS = 20000;
+
+    @Param({"10", "100", "1000"})
+    public int inListSize;
+
+    private PhoenixConnection conn;
+    private SkipScanFilter filter;
+    private List<Cell> cells;
+    private byte[] firstRowKey;
+    private byte[] lastRowKey;
+
+    @Setup
+    public void setup() throws Exception {
+        conn = BenchmarkFixtures.getConnection();
+        String tableName = BenchmarkFixtures.createEventTable(conn);
+        filter = BenchmarkFixtures.getScanRanges(conn, BenchmarkFixtures.getInListQuery(tableName, inListSize))
+                .getSkipScanFilter();
+        Preconditions.checkState(filter != null, "Query isn't compiled into a skip scan");
+        cells = Lists.newArrayListWithExpectedSize(NUM_ROWS);
+        for (byte[] rowKey : BenchmarkFixtures.getEventRowKeys(conn, tableName, NUM_ROWS)) {
+            cells.add(new KeyValue(rowKey, QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES,
+                    QueryConstants.ENCODED_EMPTY_COLUMN_BYTES));
+        }
+        firstRowKey = CellUtil.cloneRow(cells.get(0));
+        lastRowKey = CellUtil.cloneRow(cells.get(cells.size() - 1));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.close();
+    }
+
+    // Index of the first cell at or after the hint
+    private int seek(Cell hint, int from) {
+        int low = from;
+        int high = cells.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Cell cell = cells.get(mid);
+            if (Bytes.compareTo(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength(),
+                    hint.getRowArray(), hint.getRowOffset(), hint.getRowLength()) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Benchmark
+    public int filterKeyValues() {
+        // The filter keeps the position of the scan, so a scan needs its own
+        SkipScanFilter scanFilter = new SkipScanFilter(filter, false);
+        int included = 0;
+        int i = 0;
+        while (i < cells.size() && !scanFilter.filterAllRemaining()) {
+            Cell cell = cells.get(i);
+            ReturnCode code = scanFilter.filterKeyValue(cell);
+            if (code == ReturnCode.SEEK_NEXT_USING_HINT) {
+                Cell hint = scanFilter.getNextCellHint(cell);
+                i = hint == null ? cells.size() : seek(hint, i + 1);
+            } else {
+                if (code == ReturnCode.INCLUDE) {
+                    included++;
+                }
+                i++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public boolean hasIntersect() {
+        return filter.hasIntersect(firstRowKey, lastRowKey);
+    }
+}
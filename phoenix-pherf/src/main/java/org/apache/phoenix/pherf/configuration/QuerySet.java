@@ -31,6 +31,7 @@ public class QuerySet {
 	private long numberOfExecutions = PherfConstants.DEFAULT_NUMBER_OF_EXECUTIONS;
 	private long executionDurationInMs = PherfConstants.DEFAULT_THREAD_DURATION_IN_MS;
 	private ExecutionType executionType = ExecutionType.SERIAL;
+	private double targetRatePerSecond = 0;
 
 	/**
 	 * List of queries in each query set
@@ -129,6 +130,22 @@ public class QuerySet {
 		this.executionDurationInMs = executionDurationInMs;
 	}
 
+	/**
+	 * Target number of query executions per second, shared among all the threads running
+	 * the query set at a concurrency level. When set, queries are started on a fixed schedule regardless of
+	 * how long previous executions took, and latencies are measured from the time each
+	 * execution was scheduled to start. Zero, the default, runs each thread in a closed loop.
+	 * @return
+	 */
+	@XmlAttribute
+	public double getTargetRatePerSecond() {
+		return targetRatePerSecond;
+	}
+
+	public void setTargetRatePerSecond(double targetRatePerSecond) {
+		this.targetRatePerSecond = targetRatePerSecond;
+	}
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
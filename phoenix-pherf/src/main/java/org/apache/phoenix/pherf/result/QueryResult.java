@@ -18,6 +18,7 @@
 
 package org.apache.phoenix.pherf.result;
 
+import org.HdrHistogram.Histogram;
 import org.apache.phoenix.pherf.configuration.Query;
 import org.apache.phoenix.pherf.result.file.ResultFileDetails;
 import org.apache.phoenix.pherf.util.PhoenixUtil;
@@ -29,6 +30,7 @@ import java.util.Date;
 import java.util.List;
 
 public class QueryResult extends Query {
+    private static final double[] LATENCY_PERCENTILES = {50, 90, 99, 99.9};
     private List<ThreadTime> threadTimes = new ArrayList<>();
     private static PhoenixUtil pUtil = PhoenixUtil.create();
     
@@ -114,6 +116,65 @@ public class QueryResult extends Query {
         return rowValues;
     }
     
+    /**
+     * @return The latencies of the rate controlled runs of all threads, or null if the
+     * query was run in a closed loop
+     */
+    public Histogram getLatencyHistogram() {
+        Histogram latencyHistogram = null;
+        for (ThreadTime tt : getThreadTimes()) {
+            Histogram histogram = tt.getLatencyHistogram();
+            if (histogram != null) {
+                if (latencyHistogram == null) {
+                    latencyHistogram = new Histogram(histogram.getNumberOfSignificantValueDigits());
+                }
+                // Runner threads record into their synchronized histograms while results are written
+                synchronized (histogram) {
+                    latencyHistogram.add(histogram);
+                }
+            }
+        }
+        return latencyHistogram;
+    }
+
+    /**
+     * Latency percentiles of a rate controlled run
+     *
+     * @param util
+     * @param targetRatePerSecond
+     * @return The row values, or null if the query was run in a closed loop
+     */
+    public List<ResultValue> getCsvPercentileRepresentation(ResultUtil util,
+            double targetRatePerSecond) {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram == null) {
+            return null;
+        }
+        List<ResultValue> rowValues = new ArrayList<>();
+        rowValues.add(new ResultValue(util.convertNull(getStartTimeText())));
+        rowValues.add(new ResultValue(util.convertNull(this.getQueryGroup())));
+        rowValues.add(new ResultValue(util.convertNull(this.getStatement())));
+        rowValues.add(new ResultValue(util.convertNull(this.getTenantId())));
+        rowValues.add(new ResultValue(util.convertNull(String.valueOf(targetRatePerSecond))));
+        rowValues.add(new ResultValue(util.convertNull(String.valueOf(histogram.getTotalCount()))));
+        rowValues.add(new ResultValue(util.convertNull(String.valueOf(getErrorCount()))));
+        for (double percentile : LATENCY_PERCENTILES) {
+            rowValues.add(new ResultValue(util.convertNull(
+                    String.valueOf(histogram.getValueAtPercentile(percentile) / 1000d))));
+        }
+        rowValues.add(new ResultValue(util.convertNull(
+                String.valueOf(histogram.getMaxValue() / 1000d))));
+        return rowValues;
+    }
+
+    private int getErrorCount() {
+        int errorCount = 0;
+        for (ThreadTime tt : getThreadTimes()) {
+            errorCount += tt.getErrorCount();
+        }
+        return errorCount;
+    }
+
     private String getExplainPlan() {
     	try {
 			return pUtil.getExplainPlan(this);
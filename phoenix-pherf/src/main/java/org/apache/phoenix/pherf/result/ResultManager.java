@@ -50,6 +50,10 @@ public class ResultManager {
         ResultHandler handlerDet = new CSVFileResultHandler();
         handlerDet.setResultFileDetails(ResultFileDetails.CSV_DETAILED_PERFORMANCE);
         defaultHandlers.add(handlerDet);
+
+        ResultHandler handlerPercentile = new CSVFileResultHandler();
+        handlerPercentile.setResultFileDetails(ResultFileDetails.CSV_PERCENTILE_PERFORMANCE);
+        defaultHandlers.add(handlerPercentile);
     }
     
     static {
@@ -57,6 +61,9 @@ public class ResultManager {
         ResultHandler cvsHandler = new CSVFileResultHandler();
         cvsHandler.setResultFileDetails(ResultFileDetails.CSV_AGGREGATE_PERFORMANCE);
         minimalHandlers.add(cvsHandler);
+        ResultHandler percentileHandler = new CSVFileResultHandler();
+        percentileHandler.setResultFileDetails(ResultFileDetails.CSV_PERCENTILE_PERFORMANCE);
+        minimalHandlers.add(percentileHandler);
     }
 
     public ResultManager(String fileNameSeed) {
@@ -124,6 +124,7 @@ public class ResultUtil {
         case CSV_AGGREGATE_PERFORMANCE:
         case CSV_DETAILED_PERFORMANCE:
         case CSV_DETAILED_FUNCTIONAL:
+        case CSV_PERCENTILE_PERFORMANCE:
             List<List<ResultValue>>
                     rowDetails =
                     getCSVResults(dataModelResult, resultFileDetails);
@@ -210,6 +211,14 @@ public class ResultUtil {
                         List<ResultValue> csvResult = queryResult.getCsvRepresentation(this);
                         rowList.add(csvResult);
                         break;
+                    case CSV_PERCENTILE_PERFORMANCE:
+                        List<ResultValue> percentileResult =
+                                queryResult.getCsvPercentileRepresentation(this,
+                                        querySetResult.getTargetRatePerSecond());
+                        if (percentileResult != null) {
+                            rowList.add(percentileResult);
+                        }
+                        break;
                     case CSV_DETAILED_PERFORMANCE:
                     case CSV_DETAILED_FUNCTIONAL:
                         List<List<ResultValue>>
@@ -28,6 +28,7 @@ public class RunTime implements Comparator<RunTime>, Comparable<RunTime> {
     private String message;
     private Long resultRowCount;
     private String explainPlan;
+    private boolean failed;
 
     @SuppressWarnings("unused") public RunTime() {
     }
@@ -51,11 +52,17 @@ public class RunTime implements Comparator<RunTime>, Comparable<RunTime> {
 
     public RunTime(String message, String explainPlan, Date startTime, Long resultRowCount,
             Integer elapsedDurationInMs) {
+        this(message, explainPlan, startTime, resultRowCount, elapsedDurationInMs, false);
+    }
+
+    public RunTime(String message, String explainPlan, Date startTime, Long resultRowCount,
+            Integer elapsedDurationInMs, boolean failed) {
         this.elapsedDurationInMs = elapsedDurationInMs;
         this.startTime = startTime;
         this.resultRowCount = resultRowCount;
         this.message = message;
         this.explainPlan = explainPlan;
+        this.failed = failed;
     }
 
     @XmlAttribute() public Date getStartTime() {
@@ -98,6 +105,17 @@ public class RunTime implements Comparator<RunTime>, Comparable<RunTime> {
         this.explainPlan = explainPlan;
     }
 
+    /**
+     * @return true if the execution failed, whether or not it left a message
+     */
+    @XmlAttribute() public boolean isFailed() {
+        return failed;
+    }
+
+    @SuppressWarnings("unused") public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
     @XmlAttribute() public Long getResultRowCount() {
         return resultRowCount;
     }
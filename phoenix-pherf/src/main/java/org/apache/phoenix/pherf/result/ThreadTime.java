@@ -18,15 +18,20 @@
 
 package org.apache.phoenix.pherf.result;
 
+import org.HdrHistogram.Histogram;
+
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlTransient;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ThreadTime {
     private List<RunTime> runTimesInMs = Collections.synchronizedList(new ArrayList<RunTime>());
     private String threadName;
+    private Histogram latencyHistogram;
 
     public synchronized List<RunTime> getRunTimesInMs() {
         return this.runTimesInMs;
@@ -37,10 +42,34 @@ public class ThreadTime {
         this.runTimesInMs = runTimesInMs;
     }
 
+    /**
+     * Latencies in microseconds of all the executions of a rate controlled run, measured from
+     * the time each execution was scheduled to start. Only failed executions are kept as
+     * run times in that case, and the start time stamp of the histogram is the start time.
+     *
+     * @return The latency histogram, or null for a closed loop run
+     */
+    @XmlTransient
+    public synchronized Histogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public synchronized void setLatencyHistogram(Histogram latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    private static Integer toMs(long latencyInUs) {
+        return (int) TimeUnit.MICROSECONDS.toMillis(latencyInUs);
+    }
+
     /**
      * @return The earliest start time out of collected run times.
      */
     public Date getStartTime() {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram != null) {
+            return new Date(histogram.getStartTimeStamp());
+        }
         if (getRunTimesInMs().isEmpty()) return new Date(0);
 
         Date startTime = null;
@@ -62,11 +91,19 @@ public class ThreadTime {
     }
 
     public RunTime getMinTimeInMs() {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram != null) {
+            return histogram.getTotalCount() == 0 ? null : new RunTime(toMs(histogram.getMinValue()));
+        }
         if (getRunTimesInMs().isEmpty()) return null;
         return Collections.min(getRunTimesInMs());
     }
 
     public Integer getAvgTimeInMs() {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram != null) {
+            return histogram.getTotalCount() == 0 ? null : toMs((long) histogram.getMean());
+        }
         if (getRunTimesInMs().isEmpty()) return null;
 
         Integer totalTimeInMs = new Integer(0);
@@ -79,6 +116,10 @@ public class ThreadTime {
     }
 
     public RunTime getMaxTimeInMs() {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram != null) {
+            return histogram.getTotalCount() == 0 ? null : new RunTime(toMs(histogram.getMaxValue()));
+        }
         if (getRunTimesInMs().isEmpty()) return null;
         return Collections.max(getRunTimesInMs());
     }
@@ -101,6 +142,21 @@ public class ThreadTime {
         }
     }
 
+    /**
+     * @return The number of failed executions
+     */
+    public int getErrorCount() {
+        int errorCount = 0;
+        synchronized (getRunTimesInMs()) {
+            for (RunTime runTime : getRunTimesInMs()) {
+                if (runTime.isFailed()) {
+                    errorCount++;
+                }
+            }
+        }
+        return errorCount;
+    }
+
     public List<List<ResultValue>> getCsvPerformanceRepresentation(ResultUtil util) {
         List<List<ResultValue>> rows = new ArrayList<>();
 
@@ -138,6 +194,10 @@ public class ThreadTime {
     }
 
     public int getRunCount() {
+        Histogram histogram = getLatencyHistogram();
+        if (histogram != null) {
+            return (int) histogram.getTotalCount();
+        }
         if (getRunTimesInMs().isEmpty()) return 0;
         return getRunTimesInMs().size();
     }
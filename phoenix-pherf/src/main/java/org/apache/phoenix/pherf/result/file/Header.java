@@ -27,6 +27,9 @@ public enum Header {
                     + ",START_TIME,QUERY_GROUP,QUERY,TENANT_ID,THREAD_NUMBER,CONCURRENCY_LEVEL"),
     DETAILED_PERFORMANCE(DETAILED_BASE + ",RESULT_ROW_COUNT,RUN_TIME_MS"),
     DETAILED_FUNCTIONAL(DETAILED_BASE + ",DIFF_STATUS,EXPLAIN_PLAN"),
+    PERCENTILE_PERFORMANCE(
+            "START_TIME,QUERY_GROUP,QUERY,TENANT_ID,TARGET_RATE_PER_SEC,RUN_COUNT,ERROR_COUNT"
+                    + ",P50_TIME_MS,P90_TIME_MS,P99_TIME_MS,P99_9_TIME_MS,MAX_TIME_MS"),
     AGGREGATE_DATA_LOAD("ZK,TABLE_NAME,ROW_COUNT,LOAD_DURATION_IN_MS"),
     THIN_AGGREGATE_DATA_LOAD("QUERYSERVER,TABLE_NAME,ROW_COUNT,LOAD_DURATION_IN_MS"),
     MONITOR("STAT_NAME,STAT_VALUE,TIME_STAMP");
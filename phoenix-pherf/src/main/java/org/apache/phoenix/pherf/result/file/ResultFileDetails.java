@@ -23,6 +23,7 @@ public enum ResultFileDetails {
     CSV_AGGREGATE_PERFORMANCE(Header.AGGREGATE_PERFORMANCE, Extension.AGGREGATE_CSV),
     CSV_DETAILED_PERFORMANCE(Header.DETAILED_PERFORMANCE, Extension.DETAILED_CSV),
     CSV_DETAILED_FUNCTIONAL(Header.DETAILED_FUNCTIONAL, Extension.DETAILED_CSV),
+    CSV_PERCENTILE_PERFORMANCE(Header.PERCENTILE_PERFORMANCE, Extension.PERCENTILE_CSV),
     CSV_AGGREGATE_DATA_LOAD(Header.AGGREGATE_DATA_LOAD, Extension.CSV),
     CSV_THIN_AGGREGATE_DATA_LOAD(Header.THIN_AGGREGATE_DATA_LOAD, Extension.CSV),
     CSV_MONITOR(Header.MONITOR, Extension.CSV),
@@ -47,6 +48,7 @@ public enum ResultFileDetails {
 
     public boolean isPerformance() {
         return (this == ResultFileDetails.CSV_AGGREGATE_PERFORMANCE)
-                || (this == CSV_DETAILED_PERFORMANCE);
+                || (this == CSV_DETAILED_PERFORMANCE)
+                || (this == CSV_PERCENTILE_PERFORMANCE);
     }
 }
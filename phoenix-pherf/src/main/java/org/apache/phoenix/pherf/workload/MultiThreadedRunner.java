@@ -23,7 +23,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SynchronizedHistogram;
 import org.apache.phoenix.pherf.result.DataModelResult;
 import org.apache.phoenix.pherf.result.ResultManager;
 import org.apache.phoenix.pherf.result.RunTime;
@@ -43,6 +46,8 @@ class MultiThreadedRunner implements Runnable {
     private DataModelResult dataModelResult;
     private long numberOfExecutions;
     private long executionDurationInMs;
+    private double targetRatePerSecond;
+    private Histogram latencyHistogram;
     private static long lastResultWritten = System.currentTimeMillis() - 1000;
     private final ResultManager resultManager;
 
@@ -55,39 +60,65 @@ class MultiThreadedRunner implements Runnable {
      * @param threadTime
      * @param numberOfExecutions
      * @param executionDurationInMs
+     * @param targetRatePerSecond executions per second, or 0 to run in a closed loop
      */
     MultiThreadedRunner(String threadName, Query query, DataModelResult dataModelResult,
-            ThreadTime threadTime, long numberOfExecutions, long executionDurationInMs, boolean writeRuntimeResults) {
+            ThreadTime threadTime, long numberOfExecutions, long executionDurationInMs,
+            double targetRatePerSecond, boolean writeRuntimeResults) {
         this.query = query;
         this.threadName = threadName;
         this.threadTime = threadTime;
         this.dataModelResult = dataModelResult;
         this.numberOfExecutions = numberOfExecutions;
         this.executionDurationInMs = executionDurationInMs;
+        this.targetRatePerSecond = targetRatePerSecond;
        	this.resultManager = new ResultManager(dataModelResult.getName(), writeRuntimeResults);
     }
 
     /**
-     * Executes run for a minimum of number of execution or execution duration
+     * Executes run for a minimum of number of execution or execution duration. With a target
+     * rate, executions are scheduled at fixed intervals instead of back to back, and each one
+     * is timed from its scheduled start so that the time spent waiting behind a slow execution
+     * is counted rather than omitted.
      */
     @Override
     public void run() {
         logger.info("\n\nThread Starting " + threadName + " ; " + query.getStatement() + " for "
                 + numberOfExecutions + "times\n\n");
         Long start = System.currentTimeMillis();
+        long intervalInNanos = 0;
+        if (targetRatePerSecond > 0) {
+            intervalInNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetRatePerSecond);
+            latencyHistogram = new SynchronizedHistogram(3);
+            latencyHistogram.setStartTimeStamp(start);
+            getThreadTime().setLatencyHistogram(latencyHistogram);
+        }
+        long scheduledStartInNanos = System.nanoTime();
         for (long i = numberOfExecutions; (i > 0 && ((System.currentTimeMillis() - start)
                 < executionDurationInMs)); i--) {
             try {
+                if (intervalInNanos > 0) {
+                    long sleepInNanos = scheduledStartInNanos - System.nanoTime();
+                    if (sleepInNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(sleepInNanos);
+                    }
+                } else {
+                    scheduledStartInNanos = System.nanoTime();
+                }
                 synchronized (resultManager) {
-                    timedQuery();
+                    timedQuery(scheduledStartInNanos);
                     if ((System.currentTimeMillis() - lastResultWritten) > 1000) {
                         resultManager.write(dataModelResult);
                         lastResultWritten = System.currentTimeMillis();
                     }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            scheduledStartInNanos += intervalInNanos;
         }
 
         // Make sure all result have been dumped before exiting
@@ -103,9 +134,10 @@ class MultiThreadedRunner implements Runnable {
     /**
      * Timed query execution
      *
+     * @param scheduledStartInNanos {@link System#nanoTime()} at which the execution was meant to start
      * @throws Exception
      */
-    private void timedQuery() throws Exception {
+    private void timedQuery(long scheduledStartInNanos) throws Exception {
         boolean
                 isSelectCountStatement =
                 query.getStatement().toUpperCase().trim().contains("COUNT(*)") ? true : false;
@@ -116,6 +148,7 @@ class MultiThreadedRunner implements Runnable {
         Long start = System.currentTimeMillis();
         Date startDate = Calendar.getInstance().getTime();
         String exception = null;
+        boolean failed = false;
         long resultRowCount = 0;
 
         try {
@@ -144,9 +177,20 @@ class MultiThreadedRunner implements Runnable {
         } catch (Exception e) {
             e.printStackTrace();
             exception = e.getMessage();
+            failed = true;
         } finally {
-            getThreadTime().getRunTimesInMs().add(new RunTime(exception, startDate, resultRowCount,
-                    (int) (System.currentTimeMillis() - start)));
+            if (latencyHistogram == null) {
+                getThreadTime().getRunTimesInMs().add(new RunTime(exception, null, startDate,
+                        resultRowCount, (int) (System.currentTimeMillis() - start), failed));
+            } else {
+                long latencyInNanos = System.nanoTime() - scheduledStartInNanos;
+                latencyHistogram.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+                // Only failures are kept individually, so that long runs don't accumulate run times
+                if (failed) {
+                    getThreadTime().getRunTimesInMs().add(new RunTime(exception, null, startDate,
+                            resultRowCount, (int) TimeUnit.NANOSECONDS.toMillis(latencyInNanos), true));
+                }
+            }
 
             if (rs != null) rs.close();
             if (statement != null) statement.close();
@@ -56,7 +56,8 @@ class MultithreadedDiffer implements Runnable {
         String explainPlan = pUtil.getExplainPlan(query);
         getThreadTime().getRunTimesInMs().add(new RunTime(
                         verifyResult == true ? PherfConstants.DIFF_PASS : PherfConstants.DIFF_FAIL,
-                        explainPlan, startDate, -1L, (int) (System.currentTimeMillis() - start)));
+                        explainPlan, startDate, -1L, (int) (System.currentTimeMillis() - start),
+                        !verifyResult));
     }
 
     /**
@@ -200,7 +200,7 @@ public class QueryExecutor implements Workload {
                     Runnable
                             thread =
                             executeRunner((i + 1) + "," + cr, dataModelResult, queryResult,
-                                    querySetResult);
+                                    querySetResult, querySet.getTargetRatePerSecond() / cr);
                     threads.add(workloadExecutor.getPool().submit(thread));
                 }
 
@@ -235,7 +235,8 @@ public class QueryExecutor implements Workload {
                     Runnable
                             thread =
                             executeRunner((i + 1) + "," + cr, dataModelResult, queryResult,
-                                    querySetResult);
+                                    querySetResult, querySet.getTargetRatePerSecond()
+                                            / (cr * querySet.getQuery().size()));
                     threads.add(workloadExecutor.getPool().submit(thread));
                 }
 
@@ -257,10 +258,11 @@ public class QueryExecutor implements Workload {
      * @param dataModelResult
      * @param queryResult
      * @param querySet
+     * @param targetRatePerSecond executions per second of the runner, or 0 for a closed loop
      * @return
      */
     protected Runnable executeRunner(String name, DataModelResult dataModelResult,
-            QueryResult queryResult, QuerySet querySet) {
+            QueryResult queryResult, QuerySet querySet, double targetRatePerSecond) {
         ThreadTime threadTime = new ThreadTime();
         queryResult.getThreadTimes().add(threadTime);
         threadTime.setThreadName(name);
@@ -271,7 +273,8 @@ public class QueryExecutor implements Workload {
             thread =
                     new MultiThreadedRunner(threadTime.getThreadName(), queryResult,
                             dataModelResult, threadTime, querySet.getNumberOfExecutions(),
-                            querySet.getExecutionDurationInMs(), writeRuntimeResults);
+                            querySet.getExecutionDurationInMs(), targetRatePerSecond,
+                            writeRuntimeResults);
         } else {
             thread =
                     new MultithreadedDiffer(threadTime.getThreadName(), queryResult, threadTime,
@@ -25,6 +25,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.HdrHistogram.Histogram;
 import org.apache.phoenix.pherf.jmx.MonitorManager;
 import org.apache.phoenix.pherf.result.file.Extension;
 import org.apache.phoenix.pherf.result.file.ResultFileDetails;
@@ -158,6 +159,48 @@ public class ResultTest extends ResultBaseTest {
         assertEquals(20, queryResultFromFile.getAvgRunTimeInMs());
     }
 
+    @Test
+    public void testLatencyPercentiles() throws Exception {
+        Query query = new Query();
+        query.setStatement("select * from FHA");
+        QueryResult queryResult = new QueryResult(query);
+        for (int t = 0; t < 2; t++) {
+            ThreadTime tt = new ThreadTime();
+            tt.setThreadName((t + 1) + ",2");
+            Histogram histogram = new Histogram(3);
+            histogram.setStartTimeStamp(1000 * (t + 1));
+            // 1ms to 100ms in microseconds
+            for (int i = 1; i <= 100; i++) {
+                histogram.recordValue(i * 1000);
+            }
+            tt.setLatencyHistogram(histogram);
+            tt.getRunTimesInMs().add(new RunTime(null, null, new Date(), 0L, 100, true));
+            queryResult.getThreadTimes().add(tt);
+        }
+
+        ThreadTime tt = queryResult.getThreadTimes().get(0);
+        assertEquals(100, tt.getRunCount());
+        assertEquals(1, tt.getErrorCount());
+        assertEquals(1, (int) tt.getMinTimeInMs().getElapsedDurationInMs());
+        assertEquals(100, (int) tt.getMaxTimeInMs().getElapsedDurationInMs());
+        assertEquals(50, (int) tt.getAvgTimeInMs());
+        assertEquals(new Date(1000), queryResult.getStartTime());
+        assertEquals(200, queryResult.getLatencyHistogram().getTotalCount());
+
+        List<ResultValue> row = queryResult.getCsvPercentileRepresentation(new ResultUtil(), 20);
+        assertEquals(ResultFileDetails.CSV_PERCENTILE_PERFORMANCE.getHeader().toString().split(",").length,
+                row.size());
+        assertEquals("20.0", row.get(4).toString());
+        assertEquals("200", row.get(5).toString());
+        assertEquals("2", row.get(6).toString());
+        assertEquals(50, Double.parseDouble(row.get(7).toString()), 0.1);
+        assertEquals(99, Double.parseDouble(row.get(9).toString()), 0.1);
+        assertEquals(100, Double.parseDouble(row.get(11).toString()), 0.1);
+
+        // Closed loop runs have no percentiles
+        assertNull(new QueryResult(query).getCsvPercentileRepresentation(new ResultUtil(), 0));
+    }
+
     private DataModelResult setUpDataModelResult() {
         DataModelResult dataModelResult = new DataModelResult();
         dataModelResult.setZookeeper("mytestzk");
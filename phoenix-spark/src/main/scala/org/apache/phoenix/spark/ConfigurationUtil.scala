@@ -13,7 +13,10 @@
  */
 package org.apache.phoenix.spark
 
+import java.util.UUID
+
 import org.apache.hadoop.conf.Configuration
+import org.apache.hadoop.fs.Path
 import org.apache.hadoop.hbase.{HBaseConfiguration, HConstants}
 import org.apache.phoenix.jdbc.PhoenixEmbeddedDriver
 import org.apache.phoenix.mapreduce.util.{ColumnInfoToStringEncoderDecoder, PhoenixConfigurationUtil}
@@ -72,6 +75,13 @@ object ConfigurationUtil extends Serializable {
     conf.set(PhoenixRuntime.TENANT_ID_ATTRIB, tenantId)
   }
 
+  // Read the files of a snapshot of the table directly, rather than scanning through the region
+  // servers, restoring them under a unique directory of restoreDir
+  def setSnapshotInput(conf: Configuration, snapshotName: String, restoreDir: String) = {
+    PhoenixConfigurationUtil.setSnapshotNameKey(conf, snapshotName)
+    PhoenixConfigurationUtil.setRestoreDirKey(conf, new Path(restoreDir, UUID.randomUUID().toString).toString)
+  }
+
   // Return a serializable representation of the columns
   def encodeColumns(conf: Configuration) = {
     ColumnInfoToStringEncoderDecoder.encode(conf, PhoenixConfigurationUtil.getUpsertColumnMetadataList(conf)
@@ -29,7 +29,9 @@ class DefaultSource extends RelationProvider with CreatableRelationProvider {
     new PhoenixRelation(
       parameters("table"),
       parameters("zkUrl"),
-      parameters.contains("dateAsTimestamp")
+      parameters.contains("dateAsTimestamp"),
+      parameters.get("snapshotName"),
+      parameters.get("restoreDir")
     )(sqlContext)
   }
 
@@ -54,6 +56,9 @@ class DefaultSource extends RelationProvider with CreatableRelationProvider {
   def verifyParameters(parameters: Map[String, String]): Unit = {
     if (parameters.get("table").isEmpty) throw new RuntimeException("No Phoenix 'table' option defined")
     if (parameters.get("zkUrl").isEmpty) throw new RuntimeException("No Phoenix 'zkUrl' option defined")
+    if (parameters.get("snapshotName").isDefined && parameters.get("restoreDir").isEmpty) {
+      throw new RuntimeException("No Phoenix 'restoreDir' option defined to read the snapshot from")
+    }
   }
 
 }
@@ -25,7 +25,9 @@ import org.apache.spark.sql.sources._
 import org.apache.phoenix.util.StringUtil.escapeStringConstant
 import org.apache.phoenix.util.SchemaUtil
 
-case class PhoenixRelation(tableName: String, zkUrl: String, dateAsTimestamp: Boolean = false)(@transient val sqlContext: SQLContext)
+case class PhoenixRelation(tableName: String, zkUrl: String, dateAsTimestamp: Boolean = false,
+                           snapshotName: Option[String] = None, restoreDir: Option[String] = None)
+                          (@transient val sqlContext: SQLContext)
     extends BaseRelation with PrunedFilteredScan {
 
   /*
@@ -42,7 +44,7 @@ case class PhoenixRelation(tableName: String, zkUrl: String, dateAsTimestamp: Bo
       requiredColumns,
       Some(buildFilter(filters)),
       Some(zkUrl),
-      new Configuration(),
+      getConfiguration,
       dateAsTimestamp
     ).toDataFrame(sqlContext).rdd
   }
@@ -60,6 +62,14 @@ case class PhoenixRelation(tableName: String, zkUrl: String, dateAsTimestamp: Bo
     ).toDataFrame(sqlContext).schema
   }
 
+  // When a snapshot is given, its files are read directly instead of scanning through the
+  // region servers, with the projected columns and the filters still pushed down
+  private def getConfiguration: Configuration = {
+    val conf = new Configuration()
+    snapshotName.foreach(name => ConfigurationUtil.setSnapshotInput(conf, name, restoreDir.get))
+    conf
+  }
+
   // Attempt to create Phoenix-accepted WHERE clauses from Spark filters,
   // mostly inspired from Spark SQL JDBCRDD and the couchbase-spark-connector
   private def buildFilter(filters: Array[Filter]): String = {